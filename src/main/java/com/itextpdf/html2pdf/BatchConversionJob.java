@@ -0,0 +1,193 @@
+/*
+    This file is part of the iText (R) project.
+    Copyright (c) 1998-2024 Apryse Group NV
+    Authors: Apryse Software.
+
+    This program is offered under a commercial and under the AGPL license.
+    For commercial licensing, contact us at https://itextpdf.com/sales.  For AGPL licensing, see below.
+
+    AGPL licensing:
+    This program is free software: you can redistribute it and/or modify
+    it under the terms of the GNU Affero General Public License as published by
+    the Free Software Foundation, either version 3 of the License, or
+    (at your option) any later version.
+
+    This program is distributed in the hope that it will be useful,
+    but WITHOUT ANY WARRANTY; without even the implied warranty of
+    MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE.  See the
+    GNU Affero General Public License for more details.
+
+    You should have received a copy of the GNU Affero General Public License
+    along with this program.  If not, see <https://www.gnu.org/licenses/>.
+ */
+package com.itextpdf.html2pdf;
+
+import com.itextpdf.commons.actions.contexts.IMetaInfo;
+
+import java.io.File;
+import java.io.IOException;
+import java.io.InputStream;
+import java.io.OutputStream;
+
+/**
+ * A single conversion of an {@link HtmlBatchConverter} run: the source HTML, the sink the PDF is written to
+ * and the converter properties overridden for this document only.
+ * <p>
+ * The source and the sink are not touched until the job is picked up by a worker. A stream source is closed
+ * once the job is finished, and a stream sink is closed with the resulting PDF document.
+ */
+public final class BatchConversionJob {
+
+    private final String id;
+
+    private final File htmlFile;
+
+    private final File pdfFile;
+
+    private final String html;
+
+    private final InputStream htmlStream;
+
+    private final OutputStream pdfStream;
+
+    private String baseUri;
+
+    private String charset;
+
+    private IMetaInfo eventMetaInfo;
+
+    private BatchConversionJob(String id, File htmlFile, File pdfFile, String html, InputStream htmlStream,
+            OutputStream pdfStream) {
+        this.id = id;
+        this.htmlFile = htmlFile;
+        this.pdfFile = pdfFile;
+        this.html = html;
+        this.htmlStream = htmlStream;
+        this.pdfStream = pdfStream;
+    }
+
+    /**
+     * Creates a job converting an HTML {@link File} to a PDF {@link File}. The base URI defaults
+     * to the parent directory of the HTML file, the same way {@link HtmlConverter} does it.
+     *
+     * @param id the job identifier, used for reporting
+     * @param htmlFile the {@link File} containing the source HTML
+     * @param pdfFile the {@link File} containing the resulting PDF
+     * @return a new {@link BatchConversionJob} instance
+     */
+    public static BatchConversionJob fromFile(String id, File htmlFile, File pdfFile) {
+        return new BatchConversionJob(id, htmlFile, pdfFile, null, null, null);
+    }
+
+    /**
+     * Creates a job converting a {@link String} containing HTML to an {@link OutputStream}.
+     *
+     * @param id the job identifier, used for reporting
+     * @param html the html in the form of a {@link String}
+     * @param pdfStream the PDF as an {@link OutputStream}
+     * @return a new {@link BatchConversionJob} instance
+     */
+    public static BatchConversionJob fromString(String id, String html, OutputStream pdfStream) {
+        return new BatchConversionJob(id, null, null, html, null, pdfStream);
+    }
+
+    /**
+     * Creates a job converting HTML obtained from an {@link InputStream} to an {@link OutputStream}.
+     *
+     * @param id the job identifier, used for reporting
+     * @param htmlStream the {@link InputStream} with the source HTML
+     * @param pdfStream the {@link OutputStream} for the resulting PDF
+     * @return a new {@link BatchConversionJob} instance
+     */
+    public static BatchConversionJob fromStream(String id, InputStream htmlStream, OutputStream pdfStream) {
+        return new BatchConversionJob(id, null, null, null, htmlStream, pdfStream);
+    }
+
+    /**
+     * Gets the job identifier.
+     *
+     * @return the job identifier
+     */
+    public String getId() {
+        return id;
+    }
+
+    /**
+     * Overrides the base URI of the batch for this job.
+     *
+     * @param baseUri the base URI
+     * @return the {@link BatchConversionJob} instance
+     */
+    public BatchConversionJob setBaseUri(String baseUri) {
+        this.baseUri = baseUri;
+        return this;
+    }
+
+    /**
+     * Overrides the character set of the batch for this job.
+     *
+     * @param charset the character set
+     * @return the {@link BatchConversionJob} instance
+     */
+    public BatchConversionJob setCharset(String charset) {
+        this.charset = charset;
+        return this;
+    }
+
+    /**
+     * Overrides the event meta info of the batch for this job.
+     *
+     * @param eventMetaInfo the meta info used to determine the event origin
+     * @return the {@link BatchConversionJob} instance
+     */
+    public BatchConversionJob setEventMetaInfo(IMetaInfo eventMetaInfo) {
+        this.eventMetaInfo = eventMetaInfo;
+        return this;
+    }
+
+    /**
+     * Converts the source HTML of the job.
+     *
+     * @param converterProperties the converter properties of this conversion, the job overrides are applied on it
+     * @throws IOException Signals that an I/O exception has occurred.
+     */
+    void convert(ConverterProperties converterProperties) throws IOException {
+        if (baseUri != null) {
+            converterProperties.setBaseUri(baseUri);
+        }
+        if (charset != null) {
+            converterProperties.setCharset(charset);
+        }
+        if (eventMetaInfo != null) {
+            converterProperties.setEventMetaInfo(eventMetaInfo);
+        }
+        if (htmlFile != null) {
+            HtmlConverter.convertToPdf(htmlFile, pdfFile, converterProperties);
+            return;
+        }
+        boolean converted = false;
+        try {
+            if (html != null) {
+                HtmlConverter.convertToPdf(html, pdfStream, converterProperties);
+            } else {
+                try (InputStream stream = htmlStream) {
+                    HtmlConverter.convertToPdf(stream, pdfStream, converterProperties);
+                }
+            }
+            converted = true;
+        } finally {
+            // the PDF writer closes the stream with the document, which isn't closed if the conversion fails
+            if (!converted) {
+                closeQuietly(pdfStream);
+            }
+        }
+    }
+
+    private static void closeQuietly(OutputStream stream) {
+        try {
+            stream.close();
+        } catch (IOException ignored) {
+            // the conversion failure is reported instead
+        }
+    }
+}
@@ -0,0 +1,90 @@
+/*
+    This file is part of the iText (R) project.
+    Copyright (c) 1998-2024 Apryse Group NV
+    Authors: Apryse Software.
+
+    This program is offered under a commercial and under the AGPL license.
+    For commercial licensing, contact us at https://itextpdf.com/sales.  For AGPL licensing, see below.
+
+    AGPL licensing:
+    This program is free software: you can redistribute it and/or modify
+    it under the terms of the GNU Affero General Public License as published by
+    the Free Software Foundation, either version 3 of the License, or
+    (at your option) any later version.
+
+    This program is distributed in the hope that it will be useful,
+    but WITHOUT ANY WARRANTY; without even the implied warranty of
+    MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE.  See the
+    GNU Affero General Public License for more details.
+
+    You should have received a copy of the GNU Affero General Public License
+    along with this program.  If not, see <https://www.gnu.org/licenses/>.
+ */
+package com.itextpdf.html2pdf;
+
+/**
+ * The summary of an {@link HtmlBatchConverter} run. The results of the single jobs are reported
+ * to an {@link IBatchJobListener} as they are finished.
+ */
+public final class BatchConversionResult {
+
+    private final int jobCount;
+
+    private final int failedJobCount;
+
+    private final long elapsedNanos;
+
+    private final long totalConversionNanos;
+
+    /**
+     * Creates a new {@link BatchConversionResult} instance.
+     *
+     * @param jobCount the number of finished jobs
+     * @param failedJobCount the number of failed jobs
+     * @param elapsedNanos the wall-clock time of the run, in nanoseconds
+     * @param totalConversionNanos the sum of the conversion times of all the jobs, in nanoseconds
+     */
+    BatchConversionResult(int jobCount, int failedJobCount, long elapsedNanos, long totalConversionNanos) {
+        this.jobCount = jobCount;
+        this.failedJobCount = failedJobCount;
+        this.elapsedNanos = elapsedNanos;
+        this.totalConversionNanos = totalConversionNanos;
+    }
+
+    /**
+     * Gets the number of finished jobs, including the failed ones.
+     *
+     * @return the number of jobs
+     */
+    public int getJobCount() {
+        return jobCount;
+    }
+
+    /**
+     * Gets the number of jobs which conversion failed.
+     *
+     * @return the number of failed jobs
+     */
+    public int getFailedJobCount() {
+        return failedJobCount;
+    }
+
+    /**
+     * Gets the wall-clock time of the run.
+     *
+     * @return the elapsed time in nanoseconds
+     */
+    public long getElapsedNanos() {
+        return elapsedNanos;
+    }
+
+    /**
+     * Gets the sum of the conversion times of all the jobs. Divided by {@link #getElapsedNanos()},
+     * it gives the average number of conversions running in parallel.
+     *
+     * @return the total conversion time in nanoseconds
+     */
+    public long getTotalConversionNanos() {
+        return totalConversionNanos;
+    }
+}
@@ -0,0 +1,97 @@
+/*
+    This file is part of the iText (R) project.
+    Copyright (c) 1998-2024 Apryse Group NV
+    Authors: Apryse Software.
+
+    This program is offered under a commercial and under the AGPL license.
+    For commercial licensing, contact us at https://itextpdf.com/sales.  For AGPL licensing, see below.
+
+    AGPL licensing:
+    This program is free software: you can redistribute it and/or modify
+    it under the terms of the GNU Affero General Public License as published by
+    the Free Software Foundation, either version 3 of the License, or
+    (at your option) any later version.
+
+    This program is distributed in the hope that it will be useful,
+    but WITHOUT ANY WARRANTY; without even the implied warranty of
+    MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE.  See the
+    GNU Affero General Public License for more details.
+
+    You should have received a copy of the GNU Affero General Public License
+    along with this program.  If not, see <https://www.gnu.org/licenses/>.
+ */
+package com.itextpdf.html2pdf;
+
+/**
+ * The outcome of a single {@link BatchConversionJob} of an {@link HtmlBatchConverter} run.
+ */
+public final class BatchJobResult {
+
+    private final BatchConversionJob job;
+
+    private final long queuedNanos;
+
+    private final long conversionNanos;
+
+    private final Throwable failure;
+
+    /**
+     * Creates a new {@link BatchJobResult} instance.
+     *
+     * @param job the job
+     * @param queuedNanos the time the job was waiting for a worker, in nanoseconds
+     * @param conversionNanos the time the conversion took, in nanoseconds
+     * @param failure the exception or the error the conversion failed with, or {@code null} if it succeeded
+     */
+    BatchJobResult(BatchConversionJob job, long queuedNanos, long conversionNanos, Throwable failure) {
+        this.job = job;
+        this.queuedNanos = queuedNanos;
+        this.conversionNanos = conversionNanos;
+        this.failure = failure;
+    }
+
+    /**
+     * Gets the job this result belongs to.
+     *
+     * @return the {@link BatchConversionJob} instance
+     */
+    public BatchConversionJob getJob() {
+        return job;
+    }
+
+    /**
+     * Gets the time the job was waiting for a worker after being submitted.
+     *
+     * @return the waiting time in nanoseconds
+     */
+    public long getQueuedNanos() {
+        return queuedNanos;
+    }
+
+    /**
+     * Gets the time the conversion took.
+     *
+     * @return the conversion time in nanoseconds
+     */
+    public long getConversionNanos() {
+        return conversionNanos;
+    }
+
+    /**
+     * Checks whether the conversion succeeded.
+     *
+     * @return {@code true} if the conversion succeeded, {@code false} otherwise
+     */
+    public boolean isSucceeded() {
+        return failure == null;
+    }
+
+    /**
+     * Gets the exception or the error the conversion failed with.
+     *
+     * @return the exception or the error, or {@code null} if the conversion succeeded
+     */
+    public Throwable getFailure() {
+        return failure;
+    }
+}
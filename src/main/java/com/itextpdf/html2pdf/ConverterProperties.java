@@ -26,6 +26,14 @@ import com.itextpdf.commons.actions.contexts.IMetaInfo;
 import com.itextpdf.html2pdf.attach.ITagWorkerFactory;
 import com.itextpdf.html2pdf.attach.impl.OutlineHandler;
 import com.itextpdf.html2pdf.css.apply.ICssApplierFactory;
+import com.itextpdf.html2pdf.css.resolve.CompiledStyleSheetCache;
+import com.itextpdf.html2pdf.css.resolve.ICompiledStyleSheetCache;
+import com.itextpdf.html2pdf.resolver.font.FontProgramCache;
+import com.itextpdf.html2pdf.resolver.font.IFontProgramCache;
+import com.itextpdf.html2pdf.resolver.resource.IImageDataCache;
+import com.itextpdf.html2pdf.resolver.resource.ImageDataCache;
+import com.itextpdf.html2pdf.resolver.resource.IParsedSvgCache;
+import com.itextpdf.html2pdf.resolver.resource.ParsedSvgCache;
 import com.itextpdf.kernel.pdf.PdfAConformanceLevel;
 import com.itextpdf.kernel.pdf.PdfOutputIntent;
 import com.itextpdf.layout.font.FontProvider;
@@ -33,6 +41,7 @@ import com.itextpdf.styledxmlparser.css.media.MediaDeviceDescription;
 import com.itextpdf.styledxmlparser.resolver.resource.IResourceRetriever;
 
 import java.io.InputStream;
+import java.util.concurrent.Executor;
 
 /**
  * Properties that will be used by the {@link com.itextpdf.html2pdf.HtmlConverter}.
@@ -125,6 +134,51 @@ public class ConverterProperties {
      */
     private PdfAConformanceLevel conformanceLevel;
 
+    /**
+     * The cache of the fonts parsed from the @font-face sources.
+     */
+    private IFontProgramCache fontProgramCache;
+
+    /**
+     * Indicates whether the @font-face fonts are loaded only when they're requested by the resolved styles.
+     */
+    private boolean deferredFontFaceLoading = false;
+
+    /**
+     * The cache of the parsed style sheets.
+     */
+    private ICompiledStyleSheetCache compiledStyleSheetCache;
+
+    /**
+     * The cache of the decoded images.
+     */
+    private IImageDataCache imageDataCache;
+
+    /**
+     * The cache of the parsed SVG documents, or null.
+     */
+    private IParsedSvgCache parsedSvgCache;
+
+    /**
+     * Indicates whether the document is converted in the streaming mode.
+     */
+    private boolean streamingMode = false;
+
+    /**
+     * The number of body rows after which a large table is flushed, 0 if large tables aren't flushed.
+     */
+    private int largeTableFlushInterval = 0;
+
+    /**
+     * The maximum number of resources fetched in parallel by the prefetch stage, 0 if resources aren't prefetched.
+     */
+    private int resourcePrefetchParallelism = 0;
+
+    /**
+     * The executor running the resource prefetch workers.
+     */
+    private Executor resourcePrefetchExecutor;
+
     /**
      * Instantiates a new {@link ConverterProperties} instance.
      */
@@ -151,6 +205,18 @@ public class ConverterProperties {
         this.limitOfLayouts = other.limitOfLayouts;
         this.immediateFlush = other.immediateFlush;
         this.continuousContainerEnabled = other.continuousContainerEnabled;
+        this.cssGridEnabled = other.cssGridEnabled;
+        this.outputIntent = other.outputIntent;
+        this.conformanceLevel = other.conformanceLevel;
+        this.fontProgramCache = other.fontProgramCache;
+        this.deferredFontFaceLoading = other.deferredFontFaceLoading;
+        this.compiledStyleSheetCache = other.compiledStyleSheetCache;
+        this.imageDataCache = other.imageDataCache;
+        this.parsedSvgCache = other.parsedSvgCache;
+        this.streamingMode = other.streamingMode;
+        this.largeTableFlushInterval = other.largeTableFlushInterval;
+        this.resourcePrefetchParallelism = other.resourcePrefetchParallelism;
+        this.resourcePrefetchExecutor = other.resourcePrefetchExecutor;
     }
 
     /**
@@ -207,6 +273,230 @@ public class ConverterProperties {
         return this;
     }
 
+    /**
+     * Gets the cache of the fonts parsed from the @font-face sources.
+     *
+     * @return the {@link IFontProgramCache} instance, or null if the @font-face fonts aren't cached
+     */
+    public IFontProgramCache getFontProgramCache() {
+        return fontProgramCache;
+    }
+
+    /**
+     * Sets the cache of the fonts parsed from the @font-face sources.
+     * <p>
+     * As opposed to the {@link FontProvider}, the same cache can be used by any number of conversions,
+     * so that the same web font is parsed only once.
+     *
+     * @param fontProgramCache the {@link IFontProgramCache} instance, e.g. {@link FontProgramCache}
+     * @return the {@link ConverterProperties} instance
+     */
+    public ConverterProperties setFontProgramCache(IFontProgramCache fontProgramCache) {
+        this.fontProgramCache = fontProgramCache;
+        return this;
+    }
+
+    /**
+     * Checks whether the @font-face fonts are loaded only when they're requested by the resolved styles.
+     *
+     * @return true if the @font-face fonts are loaded on demand, false if all of them are loaded up front
+     */
+    public boolean isDeferredFontFaceLoading() {
+        return deferredFontFaceLoading;
+    }
+
+    /**
+     * Sets whether the @font-face fonts are loaded only when they're requested by the resolved styles.
+     * <p>
+     * By default every @font-face font is downloaded and parsed before the conversion starts. In the deferred
+     * mode a font is downloaded and parsed only when an element or a page margin box requests its font family
+     * with a matching font-weight and font-style. If none of the fonts declared for the requested family match
+     * the weight and the style, all of them are loaded so that the best one can be selected.
+     *
+     * @param deferredFontFaceLoading true to load the @font-face fonts on demand, false to load all of them up front
+     * @return the {@link ConverterProperties} instance
+     */
+    public ConverterProperties setDeferredFontFaceLoading(boolean deferredFontFaceLoading) {
+        this.deferredFontFaceLoading = deferredFontFaceLoading;
+        return this;
+    }
+
+    /**
+     * Gets the cache of the parsed style sheets.
+     *
+     * @return the {@link ICompiledStyleSheetCache} instance, or null if the style sheets aren't cached
+     */
+    public ICompiledStyleSheetCache getCompiledStyleSheetCache() {
+        return compiledStyleSheetCache;
+    }
+
+    /**
+     * Sets the cache of the parsed style sheets.
+     * <p>
+     * The same cache can be used by any number of conversions, so that the linked style sheets and
+     * the contents of the <code>&lt;style&gt;</code> elements which didn't change are parsed only once.
+     *
+     * @param compiledStyleSheetCache the {@link ICompiledStyleSheetCache} instance,
+     *                                e.g. {@link CompiledStyleSheetCache}
+     * @return the {@link ConverterProperties} instance
+     */
+    public ConverterProperties setCompiledStyleSheetCache(ICompiledStyleSheetCache compiledStyleSheetCache) {
+        this.compiledStyleSheetCache = compiledStyleSheetCache;
+        return this;
+    }
+
+    /**
+     * Gets the cache of the decoded images.
+     *
+     * @return the {@link IImageDataCache} instance, or null if the decoded images aren't cached
+     */
+    public IImageDataCache getImageDataCache() {
+        return imageDataCache;
+    }
+
+    /**
+     * Sets the cache of the decoded images.
+     * <p>
+     * The same cache can be used by any number of conversions, so that an image used by many documents,
+     * e.g. a company logo, is decoded only once. Each document still writes its own image XObject.
+     *
+     * @param imageDataCache the {@link IImageDataCache} instance, e.g. {@link ImageDataCache}
+     * @return the {@link ConverterProperties} instance
+     */
+    public ConverterProperties setImageDataCache(IImageDataCache imageDataCache) {
+        this.imageDataCache = imageDataCache;
+        return this;
+    }
+
+    /**
+     * Gets the cache of the parsed SVG documents.
+     *
+     * @return the {@link IParsedSvgCache} instance, or null if the parsed SVG documents aren't cached
+     */
+    public IParsedSvgCache getParsedSvgCache() {
+        return parsedSvgCache;
+    }
+
+    /**
+     * Sets the cache of the parsed SVG documents.
+     * <p>
+     * The same cache can be used by any number of conversions, so that an SVG image used by many documents,
+     * e.g. an icon, is parsed only once. Within a document, each distinct SVG image is processed once anyway.
+     *
+     * @param parsedSvgCache the {@link IParsedSvgCache} instance, e.g. {@link ParsedSvgCache}
+     * @return the {@link ConverterProperties} instance
+     */
+    public ConverterProperties setParsedSvgCache(IParsedSvgCache parsedSvgCache) {
+        this.parsedSvgCache = parsedSvgCache;
+        return this;
+    }
+
+    /**
+     * Checks if the streaming mode is enabled.
+     *
+     * @return true if the streaming mode is enabled, false if not
+     */
+    public boolean isStreamingMode() {
+        return streamingMode;
+    }
+
+    /**
+     * Sets the streaming mode.
+     * <p>
+     * In the streaming mode the input is parsed by {@link com.itextpdf.html2pdf.html.StreamingHtmlParser}:
+     * each top-level child of the {@code body} is wrapped right before it's converted, and its subtree is released
+     * as soon as it's added to the document. Together with the immediate flush (see {@link #setImmediateFlush})
+     * this keeps the memory footprint of huge documents low, as neither the whole DOM tree wrappers nor the layout
+     * elements of the whole document are kept in memory. This is used for
+     * {@link com.itextpdf.html2pdf.HtmlConverter#convertToDocument} and
+     * {@link com.itextpdf.html2pdf.HtmlConverter#convertToPdf} methods and has no effect when used in conjunction
+     * with {@link com.itextpdf.html2pdf.HtmlConverter#convertToElements}.
+     *
+     * @param streamingMode true to enable the streaming mode, false otherwise
+     * @return the {@link ConverterProperties} instance
+     */
+    public ConverterProperties setStreamingMode(boolean streamingMode) {
+        this.streamingMode = streamingMode;
+        return this;
+    }
+
+    /**
+     * Gets the number of body rows after which a large table is flushed.
+     *
+     * @return the number of rows, or 0 if large tables aren't flushed
+     */
+    public int getLargeTableFlushInterval() {
+        return largeTableFlushInterval;
+    }
+
+    /**
+     * Sets the number of body rows after which a large table is flushed.
+     * <p>
+     * If the interval is positive, a top-level {@code <table>} with more body rows than the interval is converted
+     * into a large {@link com.itextpdf.layout.element.Table}: it's added to the document as soon as the first rows
+     * are converted, and the following rows are flushed to the document in portions of the given size, instead of
+     * being kept in memory until the whole table is converted. The header and the footer of the table are repeated
+     * on each page. This is used for {@link com.itextpdf.html2pdf.HtmlConverter#convertToDocument} and
+     * {@link com.itextpdf.html2pdf.HtmlConverter#convertToPdf} methods when the immediate flush is in effect,
+     * and has no effect when used in conjunction with {@link com.itextpdf.html2pdf.HtmlConverter#convertToElements}.
+     * Tables which have a caption, are floating, positioned, nested or preceded by a forced page break are always
+     * converted as usual.
+     *
+     * @param largeTableFlushInterval the number of rows, 0 to disable the flushing of large tables
+     * @return the {@link ConverterProperties} instance
+     */
+    public ConverterProperties setLargeTableFlushInterval(int largeTableFlushInterval) {
+        this.largeTableFlushInterval = largeTableFlushInterval;
+        return this;
+    }
+
+    /**
+     * Gets the maximum number of resources fetched in parallel by the prefetch stage.
+     *
+     * @return the number of parallel fetches, or 0 if resources aren't prefetched
+     */
+    public int getResourcePrefetchParallelism() {
+        return resourcePrefetchParallelism;
+    }
+
+    /**
+     * Sets the maximum number of resources fetched in parallel by the prefetch stage.
+     * <p>
+     * If the parallelism is positive, the images, style sheets, objects, @font-face fonts and {@code url()}
+     * backgrounds referenced by the document are collected before the conversion and fetched concurrently
+     * with the {@link IResourceRetriever}, instead of being fetched one at a time when the conversion
+     * reaches them. Resources on the local file system are not prefetched.
+     *
+     * @param resourcePrefetchParallelism the number of parallel fetches, 0 to disable the prefetch
+     * @return the {@link ConverterProperties} instance
+     */
+    public ConverterProperties setResourcePrefetchParallelism(int resourcePrefetchParallelism) {
+        this.resourcePrefetchParallelism = resourcePrefetchParallelism;
+        return this;
+    }
+
+    /**
+     * Gets the executor running the resource prefetch workers.
+     *
+     * @return the {@link Executor}, or null if the default one is used
+     */
+    public Executor getResourcePrefetchExecutor() {
+        return resourcePrefetchExecutor;
+    }
+
+    /**
+     * Sets the executor running the resource prefetch workers. If it's not set, a shared pool of daemon threads
+     * is used. The prefetch workers only block on the {@link IResourceRetriever} calls, so an executor creating
+     * a virtual thread per task can be used on the platforms which support them.
+     *
+     * @param resourcePrefetchExecutor the {@link Executor} instance
+     * @return the {@link ConverterProperties} instance
+     */
+    public ConverterProperties setResourcePrefetchExecutor(Executor resourcePrefetchExecutor) {
+        this.resourcePrefetchExecutor = resourcePrefetchExecutor;
+        return this;
+    }
+
     /**
      * Gets maximum number of layouts.
      *
@@ -0,0 +1,266 @@
+/*
+    This file is part of the iText (R) project.
+    Copyright (c) 1998-2024 Apryse Group NV
+    Authors: Apryse Software.
+
+    This program is offered under a commercial and under the AGPL license.
+    For commercial licensing, contact us at https://itextpdf.com/sales.  For AGPL licensing, see below.
+
+    AGPL licensing:
+    This program is free software: you can redistribute it and/or modify
+    it under the terms of the GNU Affero General Public License as published by
+    the Free Software Foundation, either version 3 of the License, or
+    (at your option) any later version.
+
+    This program is distributed in the hope that it will be useful,
+    but WITHOUT ANY WARRANTY; without even the implied warranty of
+    MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE.  See the
+    GNU Affero General Public License for more details.
+
+    You should have received a copy of the GNU Affero General Public License
+    along with this program.  If not, see <https://www.gnu.org/licenses/>.
+ */
+package com.itextpdf.html2pdf;
+
+import com.itextpdf.commons.utils.MessageFormatUtil;
+import com.itextpdf.html2pdf.css.resolve.CompiledStyleSheetCache;
+import com.itextpdf.html2pdf.logs.Html2PdfLogMessageConstant;
+import com.itextpdf.html2pdf.resolver.font.FontProgramCache;
+import com.itextpdf.html2pdf.resolver.resource.ImageDataCache;
+import com.itextpdf.html2pdf.resolver.resource.ParsedSvgCache;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+
+import java.io.Closeable;
+import java.util.Iterator;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.RejectedExecutionException;
+import java.util.concurrent.Semaphore;
+import java.util.concurrent.ThreadFactory;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.concurrent.atomic.AtomicLong;
+
+/**
+ * Converts a stream of HTML documents to PDF on a pool of worker threads.
+ * <p>
+ * All the jobs are converted with one {@link HtmlConversionEngine}, so they share the parsed fonts and the
+ * conversion settings. Unless the {@link ConverterProperties} already define them, a {@link FontProgramCache},
+ * a {@link CompiledStyleSheetCache}, an {@link ImageDataCache} and a {@link ParsedSvgCache} are created for
+ * the converter, so the @font-face fonts, the style sheets, the images and the SVG images used by many documents
+ * are parsed once. Each job may override a few properties,
+ * see {@link BatchConversionJob}.
+ * <p>
+ * The jobs are pulled from the given {@link Iterator} only when there is room for them: at most
+ * {@code maxPendingJobs} jobs are submitted to the pool and not finished yet, so the job source
+ * may be arbitrarily large. The result of each job, with its timings or the exception it failed with,
+ * is reported to an {@link IBatchJobListener}, and a failed job doesn't stop the run.
+ * <p>
+ * The worker threads are created by a {@link ThreadFactory}, so virtual threads can be used on the platforms
+ * which support them, or an existing {@link ExecutorService} can be used. The same restrictions as for
+ * {@link HtmlConversionEngine} apply, e.g. an outline handler can't be shared by parallel conversions.
+ */
+public final class HtmlBatchConverter implements Closeable {
+
+    private static final Logger LOGGER = LoggerFactory.getLogger(HtmlBatchConverter.class);
+
+    private final HtmlConversionEngine engine;
+
+    private final ExecutorService executorService;
+
+    private final boolean ownsExecutorService;
+
+    private final int maxPendingJobs;
+
+    /**
+     * Creates a new {@link HtmlBatchConverter} instance with a worker per available processor.
+     *
+     * @param converterProperties a {@link ConverterProperties} instance shared by all the jobs, which is copied
+     */
+    public HtmlBatchConverter(ConverterProperties converterProperties) {
+        this(converterProperties, Runtime.getRuntime().availableProcessors());
+    }
+
+    /**
+     * Creates a new {@link HtmlBatchConverter} instance.
+     *
+     * @param converterProperties a {@link ConverterProperties} instance shared by all the jobs, which is copied
+     * @param parallelism the number of worker threads
+     */
+    public HtmlBatchConverter(ConverterProperties converterProperties, int parallelism) {
+        this(converterProperties, parallelism, Executors.defaultThreadFactory());
+    }
+
+    /**
+     * Creates a new {@link HtmlBatchConverter} instance. At most twice as many jobs as there are workers
+     * are pulled from the job source ahead of their conversion.
+     *
+     * @param converterProperties a {@link ConverterProperties} instance shared by all the jobs, which is copied
+     * @param parallelism the number of worker threads
+     * @param threadFactory the {@link ThreadFactory} creating the worker threads, e.g. a virtual thread factory
+     */
+    public HtmlBatchConverter(ConverterProperties converterProperties, int parallelism, ThreadFactory threadFactory) {
+        this(converterProperties, Executors.newFixedThreadPool(checkPositive(parallelism), threadFactory),
+                2 * parallelism, true);
+    }
+
+    /**
+     * Creates a new {@link HtmlBatchConverter} instance running the jobs on an existing {@link ExecutorService}.
+     * The executor service is not shut down when the converter is closed.
+     *
+     * @param converterProperties a {@link ConverterProperties} instance shared by all the jobs, which is copied
+     * @param executorService the {@link ExecutorService} running the jobs
+     * @param maxPendingJobs the maximum number of jobs submitted to the executor service and not finished yet
+     */
+    public HtmlBatchConverter(ConverterProperties converterProperties, ExecutorService executorService,
+            int maxPendingJobs) {
+        this(converterProperties, executorService, checkPositive(maxPendingJobs), false);
+    }
+
+    private HtmlBatchConverter(ConverterProperties converterProperties, ExecutorService executorService,
+            int maxPendingJobs, boolean ownsExecutorService) {
+        ConverterProperties properties = converterProperties == null
+                ? new ConverterProperties() : new ConverterProperties(converterProperties);
+        if (properties.getFontProgramCache() == null) {
+            properties.setFontProgramCache(new FontProgramCache());
+        }
+        if (properties.getCompiledStyleSheetCache() == null) {
+            properties.setCompiledStyleSheetCache(new CompiledStyleSheetCache());
+        }
+        if (properties.getImageDataCache() == null) {
+            properties.setImageDataCache(new ImageDataCache());
+        }
+        if (properties.getParsedSvgCache() == null) {
+            properties.setParsedSvgCache(new ParsedSvgCache());
+        }
+        this.engine = new HtmlConversionEngine(properties);
+        this.executorService = executorService;
+        this.maxPendingJobs = maxPendingJobs;
+        this.ownsExecutorService = ownsExecutorService;
+    }
+
+    /**
+     * Converts all the jobs and waits until they are finished.
+     *
+     * @param jobs the jobs to convert
+     * @return the {@link BatchConversionResult} summary of the run
+     * @throws InterruptedException if the current thread is interrupted while waiting for the jobs.
+     * The jobs which are already submitted are still converted
+     */
+    public BatchConversionResult convert(Iterable<BatchConversionJob> jobs) throws InterruptedException {
+        return convert(jobs.iterator(), null);
+    }
+
+    /**
+     * Converts all the jobs and waits until they are finished. The jobs are pulled from the iterator
+     * as the workers become available.
+     *
+     * @param jobs the jobs to convert
+     * @param listener the {@link IBatchJobListener} receiving the result of each job, may be {@code null}
+     * @return the {@link BatchConversionResult} summary of the run
+     * @throws InterruptedException if the current thread is interrupted while waiting for the jobs.
+     * The jobs which are already submitted are still converted
+     */
+    public BatchConversionResult convert(Iterator<BatchConversionJob> jobs, IBatchJobListener listener)
+            throws InterruptedException {
+        BatchRun run = new BatchRun(listener);
+        long startTime = System.nanoTime();
+        while (jobs.hasNext()) {
+            // The job is pulled only once a worker is available for it, a lazy iterator may create it on demand
+            run.pendingJobs.acquire();
+            BatchConversionJob job;
+            try {
+                job = jobs.next();
+            } catch (RuntimeException | Error e) {
+                run.pendingJobs.release();
+                throw e;
+            }
+            long submitTime = System.nanoTime();
+            try {
+                executorService.execute(() -> run.convert(job, submitTime));
+            } catch (RejectedExecutionException e) {
+                run.pendingJobs.release();
+                throw e;
+            }
+        }
+        // All the permits are available again only when all the submitted jobs are finished
+        run.pendingJobs.acquire(maxPendingJobs);
+        run.pendingJobs.release(maxPendingJobs);
+        return new BatchConversionResult(run.jobCount.get(), run.failedJobCount.get(),
+                System.nanoTime() - startTime, run.totalConversionNanos.get());
+    }
+
+    /**
+     * Shuts down the worker threads created by this converter. An {@link ExecutorService}
+     * passed to the converter is left running.
+     */
+    @Override
+    public void close() {
+        if (ownsExecutorService) {
+            executorService.shutdown();
+        }
+    }
+
+    private static int checkPositive(int value) {
+        if (value < 1) {
+            throw new IllegalArgumentException("The number of workers and pending jobs must be positive");
+        }
+        return value;
+    }
+
+    /**
+     * The state of a single {@link #convert(Iterator, IBatchJobListener)} call.
+     */
+    private final class BatchRun {
+        final Semaphore pendingJobs = new Semaphore(maxPendingJobs);
+
+        final AtomicInteger jobCount = new AtomicInteger();
+
+        final AtomicInteger failedJobCount = new AtomicInteger();
+
+        final AtomicLong totalConversionNanos = new AtomicLong();
+
+        final IBatchJobListener listener;
+
+        BatchRun(IBatchJobListener listener) {
+            this.listener = listener;
+        }
+
+        void convert(BatchConversionJob job, long submitTime) {
+            try {
+                long startTime = System.nanoTime();
+                Throwable failure = null;
+                try {
+                    job.convert(engine.createConversionProperties());
+                } catch (Throwable e) {
+                    // The failure is recorded and reported even if it's an error
+                    failure = e;
+                }
+                long conversionNanos = System.nanoTime() - startTime;
+                jobCount.incrementAndGet();
+                if (failure != null) {
+                    failedJobCount.incrementAndGet();
+                }
+                totalConversionNanos.addAndGet(conversionNanos);
+                if (listener != null) {
+                    notifyListener(new BatchJobResult(job, startTime - submitTime, conversionNanos, failure));
+                }
+                if (failure instanceof VirtualMachineError) {
+                    // The JVM can't be relied on anymore, so the error is passed on to the worker thread
+                    throw (VirtualMachineError) failure;
+                }
+            } finally {
+                pendingJobs.release();
+            }
+        }
+
+        private void notifyListener(BatchJobResult result) {
+            try {
+                listener.onJobFinished(result);
+            } catch (RuntimeException e) {
+                LOGGER.error(MessageFormatUtil.format(Html2PdfLogMessageConstant.BATCH_JOB_LISTENER_FAILED,
+                        result.getJob().getId()), e);
+            }
+        }
+    }
+}
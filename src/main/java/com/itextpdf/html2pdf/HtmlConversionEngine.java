@@ -0,0 +1,298 @@
+/*
+    This file is part of the iText (R) project.
+    Copyright (c) 1998-2024 Apryse Group NV
+    Authors: Apryse Software.
+
+    This program is offered under a commercial and under the AGPL license.
+    For commercial licensing, contact us at https://itextpdf.com/sales.  For AGPL licensing, see below.
+
+    AGPL licensing:
+    This program is free software: you can redistribute it and/or modify
+    it under the terms of the GNU Affero General Public License as published by
+    the Free Software Foundation, either version 3 of the License, or
+    (at your option) any later version.
+
+    This program is distributed in the hope that it will be useful,
+    but WITHOUT ANY WARRANTY; without even the implied warranty of
+    MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE.  See the
+    GNU Affero General Public License for more details.
+
+    You should have received a copy of the GNU Affero General Public License
+    along with this program.  If not, see <https://www.gnu.org/licenses/>.
+ */
+package com.itextpdf.html2pdf;
+
+import com.itextpdf.commons.utils.MessageFormatUtil;
+import com.itextpdf.html2pdf.exceptions.Html2PdfException;
+import com.itextpdf.html2pdf.resolver.font.DefaultFontProvider;
+import com.itextpdf.kernel.pdf.PdfDocument;
+import com.itextpdf.kernel.pdf.PdfWriter;
+import com.itextpdf.layout.Document;
+import com.itextpdf.layout.element.IElement;
+import com.itextpdf.layout.font.FontProvider;
+import com.itextpdf.layout.font.FontSet;
+import com.itextpdf.pdfa.PdfADocument;
+import com.itextpdf.styledxmlparser.resolver.font.BasicFontProvider;
+
+import java.io.File;
+import java.io.IOException;
+import java.io.InputStream;
+import java.io.OutputStream;
+import java.util.List;
+
+/**
+ * A long-lived, thread-safe alternative to the static {@link HtmlConverter} methods.
+ * <p>
+ * Each {@link HtmlConverter} call sets up the whole conversion infrastructure from scratch, including
+ * a new {@link DefaultFontProvider} which reads and registers all the shipped fonts. An engine is built once
+ * from a {@link ConverterProperties} instance and shares the read-only part of that infrastructure, i.e. the
+ * {@link FontSet} with the parsed fonts, the tag worker and CSS applier factories and the rest of the
+ * conversion settings, between all the conversions performed with it. Only the per-document state is
+ * created for each conversion, so the same engine may be used to convert many documents concurrently.
+ * <p>
+ * The {@link ConverterProperties} instance is copied when the engine is created, so changing it afterwards
+ * doesn't affect the engine. If a {@link FontProvider} is set, each conversion uses a copy of it sharing its
+ * {@link FontSet}, and fonts must not be added to that {@link FontSet} while the engine is in use.
+ * A {@link DefaultFontProvider} is copied with {@link DefaultFontProvider#copy()}, which its subclasses
+ * override to keep their type; other font providers can only be copied if they are plain
+ * {@link FontProvider} or {@link BasicFontProvider} instances. If no {@link FontProvider} is set, the conversions
+ * into PDF/A documents use a font provider without the standard Type 1 fonts, as {@link HtmlConverter} does. Please note that
+ * {@link com.itextpdf.html2pdf.attach.impl.OutlineHandler} is not thread safe, thus an engine created with
+ * an outline handler cannot be used for converting multiple HTMLs simultaneously.
+ */
+public final class HtmlConversionEngine {
+
+    /**
+     * The converter properties shared by all conversions, without a font provider.
+     */
+    private final ConverterProperties converterProperties;
+
+    /**
+     * The font provider set in the converter properties, which is copied for each conversion, or null.
+     */
+    private final FontProvider fontProvider;
+
+    /**
+     * The default font provider copied for the conversions into regular documents, created on first use.
+     */
+    private volatile FontProvider defaultFontProvider;
+
+    /**
+     * The default font provider copied for the conversions into PDF/A documents, created on first use.
+     */
+    private volatile FontProvider pdfADefaultFontProvider;
+
+    /**
+     * Creates a new {@link HtmlConversionEngine} instance with default converter properties.
+     */
+    public HtmlConversionEngine() {
+        this(null);
+    }
+
+    /**
+     * Creates a new {@link HtmlConversionEngine} instance.
+     *
+     * @param converterProperties a {@link ConverterProperties} instance, which is copied by the engine
+     */
+    public HtmlConversionEngine(ConverterProperties converterProperties) {
+        ConverterProperties properties = converterProperties == null
+                ? new ConverterProperties() : new ConverterProperties(converterProperties);
+        this.fontProvider = properties.getFontProvider();
+        if (fontProvider != null && copyFontProvider(fontProvider).getClass() != fontProvider.getClass()) {
+            throw new Html2PdfException(MessageFormatUtil.format(Html2PdfException.FONT_PROVIDER_CANNOT_BE_COPIED,
+                    fontProvider.getClass().getName()));
+        }
+        this.converterProperties = properties.setFontProvider(null);
+        if (fontProvider == null) {
+            // Parse the fonts of the likely target up front rather than during the first conversion
+            getDefaultFontProvider(properties.getConformanceLevel() != null);
+        }
+    }
+
+    /**
+     * Converts a {@link String} containing HTML to an {@link OutputStream}
+     * containing PDF.
+     *
+     * @param html the html in the form of a {@link String}
+     * @param pdfStream the PDF as an {@link OutputStream}
+     */
+    public void convertToPdf(String html, OutputStream pdfStream) {
+        HtmlConverter.convertToPdf(html, pdfStream, createConversionProperties());
+    }
+
+    /**
+     * Converts a {@link String} containing HTML to PDF by writing PDF content
+     * to a {@link PdfWriter} instance.
+     *
+     * @param html the html in the form of a {@link String}
+     * @param pdfWriter the {@link PdfWriter} instance
+     */
+    public void convertToPdf(String html, PdfWriter pdfWriter) {
+        HtmlConverter.convertToPdf(html, pdfWriter, createConversionProperties());
+    }
+
+    /**
+     * Converts a {@link String} containing HTML to objects that
+     * will be added to a {@link PdfDocument}.
+     *
+     * @param html the html in the form of a {@link String}
+     * @param pdfDocument the {@link PdfDocument} instance
+     */
+    public void convertToPdf(String html, PdfDocument pdfDocument) {
+        HtmlConverter.convertToPdf(html, pdfDocument, createConversionProperties(pdfDocument));
+    }
+
+    /**
+     * Converts HTML stored in a {@link File} to a PDF {@link File}.
+     *
+     * @param htmlFile the {@link File} containing the source HTML
+     * @param pdfFile the {@link File} containing the resulting PDF
+     * @throws IOException Signals that an I/O exception has occurred.
+     */
+    public void convertToPdf(File htmlFile, File pdfFile) throws IOException {
+        HtmlConverter.convertToPdf(htmlFile, pdfFile, createConversionProperties());
+    }
+
+    /**
+     * Converts HTML obtained from an {@link InputStream} to a PDF written to
+     * an {@link OutputStream}.
+     *
+     * @param htmlStream the {@link InputStream} with the source HTML
+     * @param pdfStream the {@link OutputStream} for the resulting PDF
+     * @throws IOException Signals that an I/O exception has occurred.
+     */
+    public void convertToPdf(InputStream htmlStream, OutputStream pdfStream) throws IOException {
+        HtmlConverter.convertToPdf(htmlStream, pdfStream, createConversionProperties());
+    }
+
+    /**
+     * Converts HTML obtained from an {@link InputStream} to content that
+     * will be written to a {@link PdfWriter}.
+     *
+     * @param htmlStream the {@link InputStream} with the source HTML
+     * @param pdfWriter the {@link PdfWriter} containing the resulting PDF
+     * @throws IOException Signals that an I/O exception has occurred.
+     */
+    public void convertToPdf(InputStream htmlStream, PdfWriter pdfWriter) throws IOException {
+        HtmlConverter.convertToPdf(htmlStream, pdfWriter, createConversionProperties());
+    }
+
+    /**
+     * Converts HTML obtained from an {@link InputStream} to objects that
+     * will be added to a {@link PdfDocument}.
+     *
+     * @param htmlStream the {@link InputStream} with the source HTML
+     * @param pdfDocument the {@link PdfDocument} instance
+     * @throws IOException Signals that an I/O exception has occurred.
+     */
+    public void convertToPdf(InputStream htmlStream, PdfDocument pdfDocument) throws IOException {
+        HtmlConverter.convertToPdf(htmlStream, pdfDocument, createConversionProperties(pdfDocument));
+    }
+
+    /**
+     * Converts a {@link String} containing HTML to objects that
+     * will be added to a {@link PdfDocument}, returning a {@link Document} instance.
+     *
+     * @param html the html in the form of a {@link String}
+     * @param pdfDocument the {@link PdfDocument} instance
+     * @return a {@link Document} instance
+     */
+    public Document convertToDocument(String html, PdfDocument pdfDocument) {
+        return HtmlConverter.convertToDocument(html, pdfDocument, createConversionProperties(pdfDocument));
+    }
+
+    /**
+     * Converts HTML obtained from an {@link InputStream} to objects that
+     * will be added to a {@link PdfDocument}, returning a {@link Document} instance.
+     *
+     * @param htmlStream the {@link InputStream} with the source HTML
+     * @param pdfDocument the {@link PdfDocument} instance
+     * @return a {@link Document} instance
+     * @throws IOException Signals that an I/O exception has occurred.
+     */
+    public Document convertToDocument(InputStream htmlStream, PdfDocument pdfDocument) throws IOException {
+        return HtmlConverter.convertToDocument(htmlStream, pdfDocument, createConversionProperties(pdfDocument));
+    }
+
+    /**
+     * Converts a {@link String} containing HTML to a {@link List} of
+     * iText objects ({@link IElement} instances).
+     *
+     * @param html the html in the form of a {@link String}
+     * @return a list of iText building blocks
+     */
+    public List<IElement> convertToElements(String html) {
+        return HtmlConverter.convertToElements(html, createConversionProperties());
+    }
+
+    /**
+     * Converts HTML obtained from an {@link InputStream} to a {@link List} of
+     * iText objects ({@link IElement} instances).
+     *
+     * @param htmlStream the {@link InputStream} with the source HTML
+     * @return a list of iText building blocks
+     * @throws IOException Signals that an I/O exception has occurred.
+     */
+    public List<IElement> convertToElements(InputStream htmlStream) throws IOException {
+        return HtmlConverter.convertToElements(htmlStream, createConversionProperties());
+    }
+
+    /**
+     * Creates the converter properties for a single conversion into the document created by {@link HtmlConverter},
+     * which is a PDF/A document if the conformance level is set.
+     *
+     * @return a new {@link ConverterProperties} instance
+     */
+    ConverterProperties createConversionProperties() {
+        return createConversionProperties(null);
+    }
+
+    /**
+     * Creates the converter properties for a single conversion. The returned instance has a copy
+     * of the {@link FontProvider} sharing its {@link FontSet}, since {@link FontProvider} keeps
+     * the fonts of the document being converted.
+     *
+     * @param pdfDocument the target document, or null if it's created by {@link HtmlConverter}
+     * @return a new {@link ConverterProperties} instance
+     */
+    ConverterProperties createConversionProperties(PdfDocument pdfDocument) {
+        FontProvider conversionFontProvider = fontProvider;
+        if (conversionFontProvider == null) {
+            // Standard Type 1 fonts can't be embedded, so they are not registered for PDF/A,
+            // the same way as HtmlConverter does it
+            conversionFontProvider = getDefaultFontProvider(pdfDocument == null
+                    ? converterProperties.getConformanceLevel() != null : pdfDocument instanceof PdfADocument);
+        }
+        return new ConverterProperties(converterProperties).setFontProvider(copyFontProvider(conversionFontProvider));
+    }
+
+    private FontProvider getDefaultFontProvider(boolean pdfA) {
+        FontProvider result = pdfA ? pdfADefaultFontProvider : defaultFontProvider;
+        if (result == null) {
+            synchronized (this) {
+                if (pdfA) {
+                    if (pdfADefaultFontProvider == null) {
+                        pdfADefaultFontProvider = new DefaultFontProvider(false, true, false);
+                    }
+                    result = pdfADefaultFontProvider;
+                } else {
+                    if (defaultFontProvider == null) {
+                        defaultFontProvider = new DefaultFontProvider();
+                    }
+                    result = defaultFontProvider;
+                }
+            }
+        }
+        return result;
+    }
+
+    private static FontProvider copyFontProvider(FontProvider fontProvider) {
+        if (fontProvider instanceof DefaultFontProvider) {
+            return ((DefaultFontProvider) fontProvider).copy();
+        }
+        if (fontProvider.getClass() == FontProvider.class) {
+            return new FontProvider(fontProvider.getFontSet(), fontProvider.getDefaultFontFamily());
+        }
+        return new BasicFontProvider(fontProvider.getFontSet(), fontProvider.getDefaultFontFamily());
+    }
+}
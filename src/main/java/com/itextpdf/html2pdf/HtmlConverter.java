@@ -26,6 +26,8 @@ import com.itextpdf.commons.actions.contexts.IMetaInfo;
 import com.itextpdf.commons.utils.FileUtil;
 import com.itextpdf.html2pdf.attach.Attacher;
 import com.itextpdf.html2pdf.exceptions.Html2PdfException;
+import com.itextpdf.html2pdf.html.IterativeHtmlParser;
+import com.itextpdf.html2pdf.html.StreamingHtmlParser;
 import com.itextpdf.html2pdf.resolver.font.DefaultFontProvider;
 import com.itextpdf.kernel.pdf.DocumentProperties;
 import com.itextpdf.kernel.pdf.PdfAConformanceLevel;
@@ -40,7 +42,6 @@ import com.itextpdf.layout.renderer.MetaInfoContainer;
 import com.itextpdf.pdfa.PdfADocument;
 import com.itextpdf.styledxmlparser.IXmlParser;
 import com.itextpdf.styledxmlparser.node.IDocumentNode;
-import com.itextpdf.styledxmlparser.node.impl.jsoup.JsoupHtmlParser;
 
 import java.io.File;
 import java.io.FileInputStream;
@@ -346,7 +347,7 @@ public class HtmlConverter {
             throw new Html2PdfException(Html2PdfException.PDF_DOCUMENT_SHOULD_BE_IN_WRITING_MODE);
         }
         converterProperties = setDefaultFontProviderForPdfA(pdfDocument, converterProperties);
-        IXmlParser parser = new JsoupHtmlParser();
+        IXmlParser parser = createDocumentParser(converterProperties);
         IDocumentNode doc = parser.parse(html);
         return Attacher.attach(doc, pdfDocument, converterProperties);
     }
@@ -367,7 +368,7 @@ public class HtmlConverter {
             throw new Html2PdfException(Html2PdfException.PDF_DOCUMENT_SHOULD_BE_IN_WRITING_MODE);
         }
         converterProperties = setDefaultFontProviderForPdfA(pdfDocument, converterProperties);
-        IXmlParser parser = new JsoupHtmlParser();
+        IXmlParser parser = createDocumentParser(converterProperties);
         IDocumentNode doc = parser.parse(htmlStream, converterProperties != null ? converterProperties.getCharset() : null);
         return Attacher.attach(doc, pdfDocument, converterProperties);
     }
@@ -406,7 +407,7 @@ public class HtmlConverter {
      */
     public static List<IElement> convertToElements(String html, ConverterProperties converterProperties) {
         converterProperties = setDefaultFontProviderForPdfA(null, converterProperties);
-        IXmlParser parser = new JsoupHtmlParser();
+        IXmlParser parser = new IterativeHtmlParser();
         IDocumentNode doc = parser.parse(html);
         return Attacher.attach(doc, converterProperties);
     }
@@ -423,7 +424,7 @@ public class HtmlConverter {
      */
     public static List<IElement> convertToElements(InputStream htmlStream, ConverterProperties converterProperties) throws IOException {
         converterProperties = setDefaultFontProviderForPdfA(null, converterProperties);
-        IXmlParser parser = new JsoupHtmlParser();
+        IXmlParser parser = new IterativeHtmlParser();
         IDocumentNode doc = parser.parse(htmlStream, converterProperties != null ? converterProperties.getCharset() : null);
         return Attacher.attach(doc, converterProperties);
     }
@@ -454,6 +455,11 @@ public class HtmlConverter {
         return properties;
     }
 
+    private static IXmlParser createDocumentParser(ConverterProperties converterProperties) {
+        return converterProperties != null && converterProperties.isStreamingMode()
+                ? new StreamingHtmlParser() : new IterativeHtmlParser();
+    }
+
     private static class HtmlMetaInfo implements IMetaInfo {
     }
 }
@@ -28,13 +28,19 @@ import com.itextpdf.html2pdf.attach.impl.DefaultTagWorkerFactory;
 import com.itextpdf.html2pdf.attach.impl.HtmlMetaInfoContainer;
 import com.itextpdf.html2pdf.attach.impl.LinkContext;
 import com.itextpdf.html2pdf.attach.impl.OutlineHandler;
+import com.itextpdf.html2pdf.attach.util.SvgRenderCache;
 import com.itextpdf.html2pdf.css.apply.ICssApplierFactory;
 import com.itextpdf.html2pdf.css.apply.impl.DefaultCssApplierFactory;
 import com.itextpdf.html2pdf.css.resolve.CssContext;
+import com.itextpdf.html2pdf.css.resolve.ICompiledStyleSheetCache;
 import com.itextpdf.html2pdf.resolver.font.DefaultFontProvider;
+import com.itextpdf.html2pdf.resolver.font.IFontProgramCache;
 import com.itextpdf.html2pdf.resolver.form.FormFieldNameResolver;
 import com.itextpdf.html2pdf.resolver.form.RadioCheckResolver;
 import com.itextpdf.html2pdf.resolver.resource.HtmlResourceResolver;
+import com.itextpdf.html2pdf.resolver.resource.IImageDataCache;
+import com.itextpdf.html2pdf.resolver.resource.IParsedSvgCache;
+import com.itextpdf.html2pdf.resolver.resource.PrefetchingResourceRetriever;
 import com.itextpdf.io.font.FontProgram;
 import com.itextpdf.kernel.pdf.IConformanceLevel;
 import com.itextpdf.kernel.pdf.PdfAConformanceLevel;
@@ -44,6 +50,8 @@ import com.itextpdf.layout.font.FontProvider;
 import com.itextpdf.layout.font.FontSet;
 import com.itextpdf.layout.font.Range;
 import com.itextpdf.styledxmlparser.css.media.MediaDeviceDescription;
+import com.itextpdf.styledxmlparser.resolver.resource.DefaultResourceRetriever;
+import com.itextpdf.styledxmlparser.resolver.resource.IResourceRetriever;
 import com.itextpdf.styledxmlparser.resolver.resource.ResourceResolver;
 
 /**
@@ -61,6 +69,41 @@ public class ProcessorContext {
      */
     private FontSet tempFonts;
 
+    /**
+     * The cache of the fonts parsed from the @font-face sources, or null.
+     */
+    private final IFontProgramCache fontProgramCache;
+
+    /**
+     * The cache of the decoded images, or null.
+     */
+    private final IImageDataCache imageDataCache;
+
+    /**
+     * The cache of the parsed SVG documents, or null.
+     */
+    private final IParsedSvgCache parsedSvgCache;
+
+    /**
+     * The parsed SVG trees and the SVG form XObjects of the current document.
+     */
+    private final SvgRenderCache svgRenderCache;
+
+    /**
+     * Indicates whether the @font-face fonts are loaded only when they're requested by the resolved styles.
+     */
+    private final boolean deferredFontFaceLoading;
+
+    /**
+     * The cache of the parsed style sheets, or null.
+     */
+    private final ICompiledStyleSheetCache compiledStyleSheetCache;
+
+    /**
+     * The number of body rows after which a large table is flushed, 0 if large tables aren't flushed.
+     */
+    private final int largeTableFlushInterval;
+
     /**
      * The resource resolver.
      */
@@ -181,6 +224,13 @@ public class ProcessorContext {
         if (fontProvider == null) {
             fontProvider = new DefaultFontProvider();
         }
+        fontProgramCache = converterProperties.getFontProgramCache();
+        imageDataCache = converterProperties.getImageDataCache();
+        parsedSvgCache = converterProperties.getParsedSvgCache();
+        svgRenderCache = new SvgRenderCache(parsedSvgCache);
+        deferredFontFaceLoading = converterProperties.isDeferredFontFaceLoading();
+        compiledStyleSheetCache = converterProperties.getCompiledStyleSheetCache();
+        largeTableFlushInterval = converterProperties.getLargeTableFlushInterval();
 
         tagWorkerFactory = converterProperties.getTagWorkerFactory();
         if (tagWorkerFactory == null) {
@@ -202,7 +252,14 @@ public class ProcessorContext {
             outlineHandler = new OutlineHandler();
         }
 
-        resourceResolver = new HtmlResourceResolver(baseUri, this, converterProperties.getResourceRetriever());
+        IResourceRetriever resourceRetriever = converterProperties.getResourceRetriever();
+        if (converterProperties.getResourcePrefetchParallelism() > 0) {
+            resourceRetriever = new PrefetchingResourceRetriever(
+                    resourceRetriever == null ? new DefaultResourceRetriever() : resourceRetriever,
+                    converterProperties.getResourcePrefetchParallelism(),
+                    converterProperties.getResourcePrefetchExecutor());
+        }
+        resourceResolver = new HtmlResourceResolver(baseUri, this, resourceRetriever);
 
         limitOfLayouts = converterProperties.getLimitOfLayouts();
         cssContext = new CssContext();
@@ -281,6 +338,69 @@ public class ProcessorContext {
         return tempFonts;
     }
 
+    /**
+     * Gets the cache of the fonts parsed from the @font-face sources.
+     *
+     * @return the {@link IFontProgramCache} instance, or null if the @font-face fonts aren't cached
+     */
+    public IFontProgramCache getFontProgramCache() {
+        return fontProgramCache;
+    }
+
+    /**
+     * Gets the cache of the decoded images.
+     *
+     * @return the {@link IImageDataCache} instance, or null if the decoded images aren't cached
+     */
+    public IImageDataCache getImageDataCache() {
+        return imageDataCache;
+    }
+
+    /**
+     * Gets the cache of the parsed SVG documents.
+     *
+     * @return the {@link IParsedSvgCache} instance, or null if the parsed SVG documents aren't cached
+     */
+    public IParsedSvgCache getParsedSvgCache() {
+        return parsedSvgCache;
+    }
+
+    /**
+     * Gets the cache of the parsed SVG trees and the SVG form XObjects of the current document.
+     *
+     * @return the {@link SvgRenderCache} instance
+     */
+    public SvgRenderCache getSvgRenderCache() {
+        return svgRenderCache;
+    }
+
+    /**
+     * Checks whether the @font-face fonts are loaded only when they're requested by the resolved styles.
+     *
+     * @return true if the @font-face fonts are loaded on demand, false if all of them are loaded up front
+     */
+    public boolean isDeferredFontFaceLoading() {
+        return deferredFontFaceLoading;
+    }
+
+    /**
+     * Gets the cache of the parsed style sheets.
+     *
+     * @return the {@link ICompiledStyleSheetCache} instance, or null if the style sheets aren't cached
+     */
+    public ICompiledStyleSheetCache getCompiledStyleSheetCache() {
+        return compiledStyleSheetCache;
+    }
+
+    /**
+     * Gets the number of body rows after which a large table is flushed.
+     *
+     * @return the number of rows, or 0 if large tables aren't flushed
+     */
+    public int getLargeTableFlushInterval() {
+        return largeTableFlushInterval;
+    }
+
     /**
      * Gets the resource resolver.
      *
@@ -414,6 +534,19 @@ public class ProcessorContext {
         tempFonts.addFont(fontProgram, encoding, alias, unicodeRange);
     }
 
+    /**
+     * Creates the temporary set of fonts if it doesn't exist yet. The fonts which are added to the set later
+     * are available to all the elements the set was given to, so this allows adding fonts during the conversion.
+     *
+     * @return the temporary set of fonts
+     */
+    public FontSet createTempFonts() {
+        if (tempFonts == null) {
+            tempFonts = new FontSet();
+        }
+        return tempFonts;
+    }
+
     /**
      * Check fonts in font provider and temporary font set.
      *
@@ -433,6 +566,7 @@ public class ProcessorContext {
         this.pdfDocument = null;
         this.state = new State();
         this.resourceResolver.resetCache();
+        this.svgRenderCache.reset();
         this.cssContext = new CssContext();
         this.linkContext = new LinkContext();
         this.formFieldNameResolver.reset();
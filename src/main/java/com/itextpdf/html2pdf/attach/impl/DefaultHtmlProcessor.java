@@ -39,6 +39,7 @@ import com.itextpdf.html2pdf.attach.impl.layout.HtmlDocumentRenderer;
 import com.itextpdf.html2pdf.attach.impl.layout.RunningElementContainer;
 import com.itextpdf.html2pdf.attach.impl.tags.HtmlTagWorker;
 import com.itextpdf.html2pdf.attach.impl.tags.RunningElementTagWorker;
+import com.itextpdf.html2pdf.attach.impl.tags.TableTagWorker;
 import com.itextpdf.html2pdf.attach.util.LinkHelper;
 import com.itextpdf.html2pdf.css.CssConstants;
 import com.itextpdf.html2pdf.css.apply.ICssApplier;
@@ -47,8 +48,13 @@ import com.itextpdf.html2pdf.css.apply.util.PageBreakApplierUtil;
 import com.itextpdf.html2pdf.css.apply.util.TextDecorationApplierUtil;
 import com.itextpdf.html2pdf.css.resolve.DefaultCssResolver;
 import com.itextpdf.html2pdf.exceptions.Html2PdfException;
+import com.itextpdf.html2pdf.html.ReleasableElementNode;
+import com.itextpdf.html2pdf.html.StreamingHtmlParser;
 import com.itextpdf.html2pdf.html.TagConstants;
 import com.itextpdf.html2pdf.logs.Html2PdfLogMessageConstant;
+import com.itextpdf.html2pdf.resolver.font.IFontProgramCache;
+import com.itextpdf.html2pdf.resolver.resource.HtmlResourceResolver;
+import com.itextpdf.html2pdf.util.ContentKey;
 import com.itextpdf.io.font.FontProgram;
 import com.itextpdf.io.font.FontProgramFactory;
 import com.itextpdf.io.font.PdfEncodings;
@@ -64,23 +70,28 @@ import com.itextpdf.layout.properties.Property;
 import com.itextpdf.layout.properties.RenderingMode;
 import com.itextpdf.layout.renderer.DocumentRenderer;
 import com.itextpdf.layout.renderer.MetaInfoContainer;
-import com.itextpdf.styledxmlparser.css.CssDeclaration;
 import com.itextpdf.styledxmlparser.css.CssFontFaceRule;
 import com.itextpdf.styledxmlparser.css.ICssResolver;
 import com.itextpdf.styledxmlparser.css.font.CssFontFace;
 import com.itextpdf.styledxmlparser.css.pseudo.CssPseudoElementNode;
 import com.itextpdf.styledxmlparser.css.pseudo.CssPseudoElementUtil;
+import com.itextpdf.styledxmlparser.css.resolve.AbstractCssContext;
 import com.itextpdf.styledxmlparser.node.IElementNode;
 import com.itextpdf.styledxmlparser.node.INode;
 import com.itextpdf.styledxmlparser.node.ITextNode;
+import com.itextpdf.styledxmlparser.resolver.resource.ResourceResolver;
 import com.itextpdf.styledxmlparser.util.FontFamilySplitterUtil;
 
+import java.io.IOException;
+import java.net.MalformedURLException;
+import java.util.ArrayDeque;
 import java.util.ArrayList;
 import java.util.Arrays;
 import java.util.Collection;
 import java.util.Collections;
+import java.util.Deque;
+import java.util.HashMap;
 import java.util.HashSet;
-import java.util.LinkedList;
 import java.util.List;
 import java.util.Map;
 import java.util.Set;
@@ -143,6 +154,18 @@ public class DefaultHtmlProcessor implements IHtmlProcessor {
      */
     private ICssResolver cssResolver;
 
+    /**
+     * The @font-face rules of the families which aren't fully loaded yet mapped by the lowercase font family,
+     * or null if all the @font-face fonts are loaded up front. The map outlives the processing,
+     * since the page margin boxes may be resolved when the document is being closed.
+     */
+    private Map<String, List<CssFontFaceRule>> deferredFontFaces;
+
+    /**
+     * The deferred @font-face rules which have already been loaded.
+     */
+    private Set<CssFontFaceRule> loadedFontFaces;
+
     /**
      * Instantiates a new default html processor.
      *
@@ -186,30 +209,44 @@ public class DefaultHtmlProcessor implements IHtmlProcessor {
 
         context.reset();
         roots = new ArrayList<>();
-        cssResolver = new DefaultCssResolver(root, context);
-        context.getLinkContext().scanForIds(root);
-        addFontFaceFonts();
-        IElementNode html = findHtmlNode(root);
-        IElementNode body = findBodyNode(root);
-
-        // Force resolve styles to fetch default font size etc
-        html.setStyles(cssResolver.resolveStyles(html, context.getCssContext()));
-
-        // visit body
-        visit(body);
-
-        Div bodyDiv = (Div) roots.get(0);
         List<com.itextpdf.layout.element.IElement> elements = new ArrayList<>();
-        // re-resolve body element styles in order to use them in top-level elements properties setting
-        body.setStyles(cssResolver.resolveStyles(body, context.getCssContext()));
-        for (IPropertyContainer propertyContainer : bodyDiv.getChildren()) {
-            if (propertyContainer instanceof com.itextpdf.layout.element.IElement) {
-                setConvertedRootElementProperties(body.getStyles(), context, propertyContainer);
-                elements.add((com.itextpdf.layout.element.IElement) propertyContainer);
+        HtmlResourceResolver prefetchingResolver = getPrefetchingResourceResolver();
+        try {
+            DomPreScan preScan = DomPreScan.scan(root, context.getLinkContext(), prefetchingResolver != null);
+            if (prefetchingResolver != null) {
+                prefetchingResolver.prefetchResources(preScan.getResourceSources());
+            }
+            cssResolver = createCssResolver(preScan);
+            if (prefetchingResolver != null) {
+                prefetchStyleSheetResources(prefetchingResolver);
+            }
+            addFontFaceFonts();
+            IElementNode html = preScan.getHtml();
+            IElementNode body = preScan.getBody();
+
+            // Force resolve styles to fetch default font size etc
+            html.setStyles(cssResolver.resolveStyles(html, context.getCssContext()));
+
+            // visit body
+            visit(body);
+
+            Div bodyDiv = (Div) roots.get(0);
+            // re-resolve body element styles in order to use them in top-level elements properties setting
+            body.setStyles(cssResolver.resolveStyles(body, context.getCssContext()));
+            for (IPropertyContainer propertyContainer : bodyDiv.getChildren()) {
+                if (propertyContainer instanceof com.itextpdf.layout.element.IElement) {
+                    setConvertedRootElementProperties(body.getStyles(), context, propertyContainer);
+                    elements.add((com.itextpdf.layout.element.IElement) propertyContainer);
+                }
+            }
+            cssResolver = null;
+            roots = null;
+        } finally {
+            // the resources which are not requested are not fetched, even if the processing fails
+            if (prefetchingResolver != null) {
+                prefetchingResolver.cancelPrefetch();
             }
         }
-        cssResolver = null;
-        roots = null;
         for (IElement element : elements) {
             updateSequenceId(element, sequenceId);
         }
@@ -229,74 +266,192 @@ public class DefaultHtmlProcessor implements IHtmlProcessor {
             throw new Html2PdfException(Html2PdfException.FONT_PROVIDER_CONTAINS_ZERO_FONTS);
         }
         roots = new ArrayList<>();
-        cssResolver = new DefaultCssResolver(root, context);
-        context.getLinkContext().scanForIds(root);
-        addFontFaceFonts();
-        root = findHtmlNode(root);
-
-        if (context.getCssContext().isNonPagesTargetCounterPresent()) {
-            visitToProcessCounters(root);
-            context.getCssContext().getCounterManager().clearManager();
-        }
-        visit(root);
-        HtmlDocument doc = (HtmlDocument) roots.get(0);
-        // TODO DEVSIX-4261 more precise check if a counter was actually added to the document
-        if (context.getCssContext().isPagesCounterPresent()) {
-            if (doc.getRenderer() instanceof HtmlDocumentRenderer) {
-                ((HtmlDocumentRenderer) doc.getRenderer()).processWaitingElement();
-                int counter = 0;
-                do {
-                    ++counter;
-                    doc.relayout();
-                    if (counter >= context.getLimitOfLayouts()) {
-                        logger.warn(MessageFormatUtil.format(
-                                Html2PdfLogMessageConstant.EXCEEDED_THE_MAXIMUM_NUMBER_OF_RELAYOUTS));
-                        break;
+        HtmlResourceResolver prefetchingResolver = getPrefetchingResourceResolver();
+        try {
+            DomPreScan preScan = DomPreScan.scan(root, context.getLinkContext(), prefetchingResolver != null);
+            if (prefetchingResolver != null) {
+                prefetchingResolver.prefetchResources(preScan.getResourceSources());
+            }
+            cssResolver = createCssResolver(preScan);
+            if (prefetchingResolver != null) {
+                prefetchStyleSheetResources(prefetchingResolver);
+            }
+            addFontFaceFonts();
+            root = preScan.getHtml();
+
+            if (context.getCssContext().isNonPagesTargetCounterPresent()) {
+                visitToProcessCounters(root);
+                context.getCssContext().getCounterManager().clearManager();
+            }
+            visit(root);
+            HtmlDocument doc = (HtmlDocument) roots.get(0);
+            // TODO DEVSIX-4261 more precise check if a counter was actually added to the document
+            if (context.getCssContext().isPagesCounterPresent()) {
+                if (doc.getRenderer() instanceof HtmlDocumentRenderer) {
+                    ((HtmlDocumentRenderer) doc.getRenderer()).processWaitingElement();
+                    // The total page count is drawn on closing, so the document is relaid out only if
+                    // the actual total page count doesn't fit the laid out one or if target counters changed.
+                    int counter = 0;
+                    while (((DocumentRenderer) doc.getRenderer()).isRelayoutRequired()) {
+                        ++counter;
+                        doc.relayout();
+                        if (counter >= context.getLimitOfLayouts()) {
+                            logger.warn(MessageFormatUtil.format(
+                                    Html2PdfLogMessageConstant.EXCEEDED_THE_MAXIMUM_NUMBER_OF_RELAYOUTS));
+                            break;
+                        }
                     }
-                } while (((DocumentRenderer) doc.getRenderer()).isRelayoutRequired());
-            } else {
-                logger.warn(Html2PdfLogMessageConstant.CUSTOM_RENDERER_IS_SET_FOR_HTML_DOCUMENT);
+                } else {
+                    logger.warn(Html2PdfLogMessageConstant.CUSTOM_RENDERER_IS_SET_FOR_HTML_DOCUMENT);
+                }
+            }
+            cssResolver = null;
+            roots = null;
+            return doc;
+        } finally {
+            // the resources which are not requested are not fetched, even if the processing fails
+            if (prefetchingResolver != null) {
+                prefetchingResolver.cancelPrefetch();
             }
         }
-        cssResolver = null;
-        roots = null;
-        return doc;
     }
 
     /**
-     * Recursively processes a node to preprocess target-counters.
+     * Processes a node and its descendants to preprocess target-counters.
      *
      * @param node the node
      */
     private void visitToProcessCounters(INode node) {
-        if (node instanceof IElementNode) {
-            final IElementNode element = (IElementNode) node;
-            if (cssResolver instanceof DefaultCssResolver) {
-                ((DefaultCssResolver) cssResolver).resolveContentAndCountersStyles(node, context.getCssContext());
+        traverse(node, true);
+    }
+
+    /**
+     * Processes a node and its descendants converting HTML into PDF using tag workers.
+     *
+     * @param node the node
+     */
+    private void visit(INode node) {
+        traverse(node, false);
+    }
+
+    /**
+     * Walks the subtree of a node in document order. An explicit stack of {@link VisitFrame} instances is used
+     * instead of recursion, so the native stack use doesn't depend on the depth of the document.
+     *
+     * @param root         the root node of the subtree
+     * @param countersOnly true if only target-counters shall be preprocessed, false if the nodes shall be converted
+     */
+    private void traverse(INode root, boolean countersOnly) {
+        Deque<VisitFrame> stack = new ArrayDeque<>();
+        VisitFrame rootFrame = countersOnly ? beginProcessingCounters(root) : beginVisit(root);
+        if (rootFrame != null) {
+            stack.push(rootFrame);
+        }
+        while (!stack.isEmpty()) {
+            VisitFrame frame = stack.peek();
+            if (frame.isFinished()) {
+                stack.pop();
+                if (countersOnly) {
+                    CounterProcessorUtil.endProcessingCounters(context.getCssContext(), frame.element);
+                } else {
+                    endVisit(frame);
+                }
+                finishReleasableNode(frame.element, countersOnly);
+                continue;
             }
-            CounterProcessorUtil.startProcessingCounters(context.getCssContext(), element);
-            visitToProcessCounters(createPseudoElement(element, null, CssConstants.BEFORE));
-            for (final INode childNode : element.childNodes()) {
-                if (!context.isProcessingInlineSvg()) {
-                    visitToProcessCounters(childNode);
+            INode nextNode = nextNode(frame);
+            if (nextNode != null) {
+                if (nextNode instanceof ReleasableElementNode) {
+                    ((ReleasableElementNode) nextNode).materialize();
+                }
+                VisitFrame childFrame = countersOnly ? beginProcessingCounters(nextNode) : beginVisit(nextNode);
+                if (childFrame != null) {
+                    stack.push(childFrame);
+                } else {
+                    finishReleasableNode(nextNode, countersOnly);
                 }
             }
-            visitToProcessCounters(createPseudoElement(element, null, CssConstants.AFTER));
-            CounterProcessorUtil.endProcessingCounters(context.getCssContext(), element);
         }
     }
 
     /**
-     * Recursively processes a node converting HTML into PDF using tag workers.
+     * Drops the subtree of a node created by the {@link StreamingHtmlParser} once the node has been processed.
+     * After the conversion the subtree is released for good, after the preprocessing of target-counters only its
+     * wrappers are dropped, as it's going to be converted later.
+     *
+     * @param node         the processed node
+     * @param countersOnly true if only target-counters have been preprocessed
+     */
+    private static void finishReleasableNode(INode node, boolean countersOnly) {
+        if (node instanceof ReleasableElementNode) {
+            if (countersOnly) {
+                ((ReleasableElementNode) node).dematerialize();
+            } else {
+                ((ReleasableElementNode) node).release();
+            }
+        }
+    }
+
+    /**
+     * Gets the next node to be processed inside an element and advances the frame of the element. Pseudo-elements
+     * are created lazily, right before they are processed, as if the tree was walked recursively.
+     *
+     * @param frame the frame of the element
+     * @return the next node, or null if there is nothing to process at the current step
+     */
+    private INode nextNode(VisitFrame frame) {
+        switch (frame.step) {
+            case VisitFrame.BEFORE:
+                frame.step = frame.countersOnly ? VisitFrame.CHILDREN : VisitFrame.PLACEHOLDER;
+                return createPseudoElement(frame.element, frame.tagWorker, CssConstants.BEFORE);
+            case VisitFrame.PLACEHOLDER:
+                frame.step = VisitFrame.CHILDREN;
+                return createPseudoElement(frame.element, frame.tagWorker, CssConstants.PLACEHOLDER);
+            case VisitFrame.CHILDREN:
+                List<INode> childNodes = frame.element.childNodes();
+                if (frame.childIndex < childNodes.size()) {
+                    INode childNode = childNodes.get(frame.childIndex++);
+                    return context.isProcessingInlineSvg() ? null : childNode;
+                }
+                frame.step = VisitFrame.AFTER;
+                return null;
+            default:
+                frame.step = VisitFrame.FINISHED;
+                return createPseudoElement(frame.element, frame.tagWorker, CssConstants.AFTER);
+        }
+    }
+
+    /**
+     * Starts preprocessing target-counters of a node.
      *
      * @param node the node
+     * @return the frame to process the content of the node, or null if the node has no content to be processed
      */
-    private void visit(INode node) {
+    private VisitFrame beginProcessingCounters(INode node) {
+        if (!(node instanceof IElementNode)) {
+            return null;
+        }
+        final IElementNode element = (IElementNode) node;
+        if (cssResolver instanceof DefaultCssResolver) {
+            ((DefaultCssResolver) cssResolver).resolveContentAndCountersStyles(node, context.getCssContext());
+        }
+        CounterProcessorUtil.startProcessingCounters(context.getCssContext(), element);
+        return new VisitFrame(element, null, true);
+    }
+
+    /**
+     * Starts converting a node: resolves the styles of an element and pushes its tag worker, or processes
+     * the content of a text node.
+     *
+     * @param node the node
+     * @return the frame to process the content of the node, or null if the node has no content to be processed
+     */
+    private VisitFrame beginVisit(INode node) {
         if (node instanceof IElementNode) {
             IElementNode element = (IElementNode) node;
             element.setStyles(cssResolver.resolveStyles(element, context.getCssContext()));
             if (!isDisplayable(element)) {
-                return;
+                return null;
             }
 
             ITagWorker tagWorker = context.getTagWorkerFactory().getTagWorker(element, context);
@@ -326,49 +481,7 @@ public class DefaultHtmlProcessor implements IHtmlProcessor {
             context.getOutlineHandler().addOutlineAndDestToDocument(tagWorker, element, context);
             TextDecorationApplierUtil.propagateTextDecorationProperties(element);
             CounterProcessorUtil.startProcessingCounters(context.getCssContext(), element);
-            visit(createPseudoElement(element, tagWorker, CssConstants.BEFORE));
-            visit(createPseudoElement(element, tagWorker, CssConstants.PLACEHOLDER));
-            for (INode childNode : element.childNodes()) {
-                if (!context.isProcessingInlineSvg()) {
-                    visit(childNode);
-                }
-            }
-            visit(createPseudoElement(element, tagWorker, CssConstants.AFTER));
-            CounterProcessorUtil.endProcessingCounters(context.getCssContext(), element);
-
-            if (tagWorker != null) {
-                tagWorker.processEnd(element, context);
-                LinkHelper.createDestination(tagWorker, element, context);
-                context.getOutlineHandler().setDestinationToElement(tagWorker, element);
-                context.getState().pop();
-
-                if (!TagConstants.BODY.equals(element.name()) && !TagConstants.HTML.equals(element.name())) {
-                    runApplier(element, tagWorker);
-                }
-                if (!context.getState().empty()) {
-                    PageBreakApplierUtil.addPageBreakElementBefore(context, context.getState().top(), element, tagWorker);
-                    tagWorker = processRunningElement(tagWorker, element, context);
-                    boolean childProcessed = context.getState().top().processTagChild(tagWorker, context);
-                    PageBreakApplierUtil.addPageBreakElementAfter(context, context.getState().top(), element, tagWorker);
-                    if (!childProcessed && !ignoredChildTags.contains(element.name())) {
-                        logger.error(
-                                MessageFormatUtil.format(
-                                        Html2PdfLogMessageConstant.WORKER_UNABLE_TO_PROCESS_OTHER_WORKER,
-                                        context.getState().top().getClass().getName(),
-                                        tagWorker.getClass().getName()));
-                    }
-                } else if (tagWorker.getElementResult() != null) {
-                    roots.add(tagWorker.getElementResult());
-                }
-
-                if (tagWorker.getElementResult() != null && context.isContinuousContainerEnabled()) {
-                    tagWorker.getElementResult().setProperty(Property.COLLAPSING_MARGINS, Boolean.FALSE);
-                    tagWorker.getElementResult().setProperty(Property.TREAT_AS_CONTINUOUS_CONTAINER, true);
-                }
-            }
-
-            element.setStyles(null);
-
+            return new VisitFrame(element, tagWorker, false);
         } else if (node instanceof ITextNode) {
             String content = ((ITextNode) node).wholeText();
             if (content != null) {
@@ -386,6 +499,55 @@ public class DefaultHtmlProcessor implements IHtmlProcessor {
 
             }
         }
+        return null;
+    }
+
+    /**
+     * Finishes converting an element after all its content has been processed: pops its tag worker and passes
+     * the result to the parent tag worker.
+     *
+     * @param frame the frame of the element
+     */
+    private void endVisit(VisitFrame frame) {
+        IElementNode element = frame.element;
+        ITagWorker tagWorker = frame.tagWorker;
+        CounterProcessorUtil.endProcessingCounters(context.getCssContext(), element);
+
+        if (tagWorker != null) {
+            tagWorker.processEnd(element, context);
+            if (!isDestinationSet(tagWorker)) {
+                LinkHelper.createDestination(tagWorker, element, context);
+                context.getOutlineHandler().setDestinationToElement(tagWorker, element);
+            }
+            context.getState().pop();
+
+            if (!TagConstants.BODY.equals(element.name()) && !TagConstants.HTML.equals(element.name())
+                    && !isCssApplied(tagWorker)) {
+                runApplier(element, tagWorker);
+            }
+            if (!context.getState().empty()) {
+                PageBreakApplierUtil.addPageBreakElementBefore(context, context.getState().top(), element, tagWorker);
+                tagWorker = processRunningElement(tagWorker, element, context);
+                boolean childProcessed = context.getState().top().processTagChild(tagWorker, context);
+                PageBreakApplierUtil.addPageBreakElementAfter(context, context.getState().top(), element, tagWorker);
+                if (!childProcessed && !ignoredChildTags.contains(element.name())) {
+                    logger.error(
+                            MessageFormatUtil.format(
+                                    Html2PdfLogMessageConstant.WORKER_UNABLE_TO_PROCESS_OTHER_WORKER,
+                                    context.getState().top().getClass().getName(),
+                                    tagWorker.getClass().getName()));
+                }
+            } else if (tagWorker.getElementResult() != null) {
+                roots.add(tagWorker.getElementResult());
+            }
+
+            if (tagWorker.getElementResult() != null && context.isContinuousContainerEnabled()) {
+                tagWorker.getElementResult().setProperty(Property.COLLAPSING_MARGINS, Boolean.FALSE);
+                tagWorker.getElementResult().setProperty(Property.TREAT_AS_CONTINUOUS_CONTAINER, true);
+            }
+        }
+
+        element.setStyles(null);
     }
 
     private void runApplier(IElementNode element, ITagWorker tagWorker) {
@@ -400,6 +562,21 @@ public class DefaultHtmlProcessor implements IHtmlProcessor {
         }
     }
 
+    /**
+     * Checks whether the styles of the element have already been applied by its tag worker,
+     * e.g. by a large table which has been added to the document before its end.
+     *
+     * @param tagWorker the tag worker of the element
+     * @return true if the styles shall not be applied once more
+     */
+    private static boolean isCssApplied(ITagWorker tagWorker) {
+        return tagWorker instanceof TableTagWorker && ((TableTagWorker) tagWorker).isCssApplied();
+    }
+
+    private static boolean isDestinationSet(ITagWorker tagWorker) {
+        return tagWorker instanceof TableTagWorker && ((TableTagWorker) tagWorker).isDestinationSet();
+    }
+
     private ITagWorker processRunningElement(ITagWorker tagWorker, IElementNode element, ProcessorContext context) {
         String runningPrefix = CssConstants.RUNNING + "(";
         String positionVal;
@@ -429,23 +606,157 @@ public class DefaultHtmlProcessor implements IHtmlProcessor {
     private void addFontFaceFonts() {
         if (cssResolver instanceof DefaultCssResolver) {
             for (CssFontFaceRule fontFace : ((DefaultCssResolver) cssResolver).getFonts()) {
-                boolean findSupportedSrc = false;
-                List<CssDeclaration> declarations = fontFace.getProperties();
-                CssFontFace ff = CssFontFace.create(declarations);
-                if (ff != null) {
-                    for (CssFontFace.CssFontFaceSrc src : ff.getSources()) {
-                        if (createFont(ff.getFontFamily(), src, fontFace.resolveUnicodeRange())) {
-                            findSupportedSrc = true;
-                            break;
+                CssFontFace ff = CssFontFace.create(fontFace.getProperties());
+                if (deferredFontFaces != null && ff != null) {
+                    String fontFamily = ff.getFontFamily().toLowerCase();
+                    List<CssFontFaceRule> fontFaces = deferredFontFaces.get(fontFamily);
+                    if (fontFaces == null) {
+                        fontFaces = new ArrayList<>();
+                        deferredFontFaces.put(fontFamily, fontFaces);
+                    }
+                    fontFaces.add(fontFace);
+                } else {
+                    addFontFaceFont(fontFace, ff);
+                }
+            }
+            if (deferredFontFaces != null && !deferredFontFaces.isEmpty()) {
+                // The set is given to the root elements up front, the fonts are added to it later
+                context.createTempFonts();
+            }
+        }
+    }
+
+    /**
+     * Gets the resource resolver of the context if it prefetches the resources.
+     *
+     * @return the {@link HtmlResourceResolver} instance, or null if the resources aren't prefetched
+     */
+    private HtmlResourceResolver getPrefetchingResourceResolver() {
+        if (context.getResourceResolver() instanceof HtmlResourceResolver
+                && ((HtmlResourceResolver) context.getResourceResolver()).isPrefetchEnabled()) {
+            return (HtmlResourceResolver) context.getResourceResolver();
+        }
+        return null;
+    }
+
+    /**
+     * Starts prefetching the resources referenced by the style sheets: the {@code url()} values of the declarations
+     * and the first supported source of each @font-face rule. The deferred @font-face fonts aren't prefetched,
+     * since they may be not used.
+     *
+     * @param resourceResolver the resource resolver prefetching the resources
+     */
+    private void prefetchStyleSheetResources(HtmlResourceResolver resourceResolver) {
+        if (!(cssResolver instanceof DefaultCssResolver)) {
+            return;
+        }
+        List<String> sources = new ArrayList<>();
+        ((DefaultCssResolver) cssResolver).collectResourceUrls(sources);
+        if (deferredFontFaces == null) {
+            for (CssFontFaceRule fontFace : ((DefaultCssResolver) cssResolver).getFonts()) {
+                CssFontFace ff = CssFontFace.create(fontFace.getProperties());
+                if (ff == null) {
+                    continue;
+                }
+                for (CssFontFace.CssFontFaceSrc src : ff.getSources()) {
+                    if (CssFontFace.isSupportedFontFormat(src.getFormat())) {
+                        if (!src.isLocal()) {
+                            sources.add(src.getSrc());
                         }
+                        break;
                     }
                 }
-                if (!findSupportedSrc) {
-                    logger.error(MessageFormatUtil.format(
-                            Html2PdfLogMessageConstant.UNABLE_TO_RETRIEVE_FONT, fontFace));
+            }
+        }
+        resourceResolver.prefetchResources(sources);
+    }
+
+    /**
+     * Adds the font of a single @font-face rule to the context.
+     *
+     * @param fontFace the @font-face rule
+     * @param ff       the font face created from the rule, or null if the rule is invalid
+     */
+    private void addFontFaceFont(CssFontFaceRule fontFace, CssFontFace ff) {
+        boolean findSupportedSrc = false;
+        if (ff != null) {
+            for (CssFontFace.CssFontFaceSrc src : ff.getSources()) {
+                if (createFont(ff.getFontFamily(), src, fontFace.resolveUnicodeRange())) {
+                    findSupportedSrc = true;
+                    break;
+                }
+            }
+        }
+        if (!findSupportedSrc) {
+            logger.error(MessageFormatUtil.format(
+                    Html2PdfLogMessageConstant.UNABLE_TO_RETRIEVE_FONT, fontFace));
+        }
+    }
+
+    /**
+     * Adds the deferred @font-face fonts which are requested by the resolved styles to the context.
+     * If none of the fonts declared for a requested family match the requested font-weight and font-style,
+     * all of them are added, so that the font selection can choose the closest one.
+     *
+     * @param styles the resolved styles of an element or a page margin box
+     */
+    private void addRequestedFontFaceFonts(Map<String, String> styles) {
+        if (deferredFontFaces == null || deferredFontFaces.isEmpty() || styles == null) {
+            return;
+        }
+        List<String> fontFamilies = FontFamilySplitterUtil.splitFontFamily(styles.get(CssConstants.FONT_FAMILY));
+        if (fontFamilies == null) {
+            return;
+        }
+        for (String fontFamily : fontFamilies) {
+            String key = fontFamily.toLowerCase();
+            List<CssFontFaceRule> fontFaces = deferredFontFaces.get(key);
+            if (fontFaces == null) {
+                continue;
+            }
+            List<CssFontFaceRule> requestedFontFaces = new ArrayList<>();
+            for (CssFontFaceRule fontFace : fontFaces) {
+                if (FontFaceMatcher.matches(fontFace, styles)) {
+                    requestedFontFaces.add(fontFace);
+                }
+            }
+            if (requestedFontFaces.isEmpty()) {
+                requestedFontFaces = fontFaces;
+            }
+            for (CssFontFaceRule fontFace : requestedFontFaces) {
+                if (loadedFontFaces.add(fontFace)) {
+                    addFontFaceFont(fontFace, CssFontFace.create(fontFace.getProperties()));
                 }
             }
+            if (loadedFontFaces.containsAll(fontFaces)) {
+                deferredFontFaces.remove(key);
+            }
+        }
+    }
+
+    /**
+     * Creates the CSS resolver for the document.
+     *
+     * @param preScan the result of the pre-scan of the document
+     * @return the CSS resolver
+     */
+    private DefaultCssResolver createCssResolver(DomPreScan preScan) {
+        List<IElementNode> styleSheetElements = preScan.getStyleSheetElements();
+        if (!context.isDeferredFontFaceLoading()) {
+            deferredFontFaces = null;
+            loadedFontFaces = null;
+            return new DefaultCssResolver(styleSheetElements, context);
         }
+        deferredFontFaces = new HashMap<>();
+        loadedFontFaces = new HashSet<>();
+        return new DefaultCssResolver(styleSheetElements, context) {
+            @Override
+            public Map<String, String> resolveStyles(INode element, AbstractCssContext cssContext) {
+                Map<String, String> styles = super.resolveStyles(element, cssContext);
+                addRequestedFontFaceFonts(styles);
+                return styles;
+            }
+        };
     }
 
     /**
@@ -471,11 +782,12 @@ public class DefaultHtmlProcessor implements IHtmlProcessor {
             }
         } else {
             try {
-                // Cache at resource resolver level only, at font level we will create font in any case.
+                // Without the font program cache the fonts are cached at resource resolver level only,
+                // at font level we will create font in any case.
                 // The instance of fontProgram will be collected by GC if the is no need in it.
                 byte[] bytes = context.getResourceResolver().retrieveBytesFromResource(src.getSrc());
                 if (bytes != null) {
-                    FontProgram fp = FontProgramFactory.createFont(bytes, false);
+                    FontProgram fp = createFontProgram(src.getSrc(), bytes);
                     context.addTemporaryFont(fp, PdfEncodings.IDENTITY_H, fontFamily, unicodeRange);
                     return true;
                 }
@@ -485,6 +797,36 @@ public class DefaultHtmlProcessor implements IHtmlProcessor {
         }
     }
 
+    /**
+     * Creates a font program from the @font-face source data, using the font program cache if it's set.
+     *
+     * @param src   the @font-face source
+     * @param bytes the data retrieved from the source
+     * @return the font program
+     * @throws IOException if the font program can't be created
+     */
+    private FontProgram createFontProgram(String src, byte[] bytes) throws IOException {
+        IFontProgramCache fontProgramCache = context.getFontProgramCache();
+        if (fontProgramCache == null) {
+            return FontProgramFactory.createFont(bytes, false);
+        }
+        String url = "";
+        if (!ResourceResolver.isDataSrc(src)) {
+            try {
+                url = context.getResourceResolver().resolveAgainstBaseUri(src).toExternalForm();
+            } catch (MalformedURLException e) {
+                url = src;
+            }
+        }
+        ContentKey key = new ContentKey(url, bytes);
+        FontProgram fontProgram = fontProgramCache.get(key);
+        if (fontProgram == null) {
+            fontProgram = FontProgramFactory.createFont(bytes, false);
+            fontProgramCache.put(key, fontProgram);
+        }
+        return fontProgram;
+    }
+
     /**
      * Creates a pseudo element (before and after CSS).
      *
@@ -516,51 +858,6 @@ public class DefaultHtmlProcessor implements IHtmlProcessor {
         return new CssPseudoElementNode(node, pseudoElementName);
     }
 
-    /**
-     * Find an element in a node.
-     *
-     * @param node    the node
-     * @param tagName the tag name
-     * @return the element node
-     */
-    private IElementNode findElement(INode node, String tagName) {
-        LinkedList<INode> q = new LinkedList<>();
-        q.add(node);
-        while (!q.isEmpty()) {
-            INode currentNode = q.getFirst();
-            q.removeFirst();
-            if (currentNode instanceof IElementNode && ((IElementNode) currentNode).name().equals(tagName)) {
-                return (IElementNode) currentNode;
-            }
-            for (INode child : currentNode.childNodes()) {
-                if (child instanceof IElementNode) {
-                    q.add(child);
-                }
-            }
-        }
-        return null;
-    }
-
-    /**
-     * Find the HTML node.
-     *
-     * @param node the node
-     * @return the i element node
-     */
-    private IElementNode findHtmlNode(INode node) {
-        return findElement(node, TagConstants.HTML);
-    }
-
-    /**
-     * Find the BODY node.
-     *
-     * @param node the node
-     * @return the i element node
-     */
-    private IElementNode findBodyNode(INode node) {
-        return findElement(node, TagConstants.BODY);
-    }
-
     /**
      * Checks if an element should be displayed.
      *
@@ -601,30 +898,109 @@ public class DefaultHtmlProcessor implements IHtmlProcessor {
         return element instanceof CssPseudoElementNode && CssConstants.PLACEHOLDER.equals(((CssPseudoElementNode) element).getPseudoElementName());
     }
 
-    private static void updateSequenceId(IElement element, SequenceId sequenceId) {
-        if (element instanceof AbstractIdentifiableElement) {
-            final AbstractIdentifiableElement identifiableElement = (AbstractIdentifiableElement) element;
-
-            if (SequenceIdManager.getSequenceId(identifiableElement) == sequenceId) {
-                // potential cyclic reference case: element has been processed already
-                return;
-            }
+    private static void updateSequenceId(IElement root, SequenceId sequenceId) {
+        // the elements are collected into a work list instead of recursion, as the tree may be very deep
+        Deque<IElement> elements = new ArrayDeque<>();
+        elements.push(root);
+        while (!elements.isEmpty()) {
+            IElement element = elements.pop();
+            if (element instanceof AbstractIdentifiableElement) {
+                final AbstractIdentifiableElement identifiableElement = (AbstractIdentifiableElement) element;
+
+                if (SequenceIdManager.getSequenceId(identifiableElement) == sequenceId) {
+                    // potential cyclic reference case: element has been processed already
+                    continue;
+                }
 
-            SequenceIdManager.setSequenceId(identifiableElement, sequenceId);
+                SequenceIdManager.setSequenceId(identifiableElement, sequenceId);
 
-            if (identifiableElement instanceof IAbstractElement) {
-                IAbstractElement abstractElement = (IAbstractElement) identifiableElement;
-                updateChildren(abstractElement.getChildren(), sequenceId);
+                if (identifiableElement instanceof IAbstractElement) {
+                    List<IElement> children = ((IAbstractElement) identifiableElement).getChildren();
+                    if (children != null) {
+                        for (IElement child : children) {
+                            elements.push(child);
+                        }
+                    }
+                }
             }
         }
     }
 
-    private static void updateChildren(List<IElement> children, SequenceId sequenceId) {
-        if (children == null) {
-            return;
+    /**
+     * The state of an element whose content is being processed by the traversal.
+     */
+    private static final class VisitFrame {
+
+        /**
+         * The step at which the ::before pseudo-element is processed.
+         */
+        static final int BEFORE = 0;
+
+        /**
+         * The step at which the ::placeholder pseudo-element is processed.
+         */
+        static final int PLACEHOLDER = 1;
+
+        /**
+         * The step at which the child nodes are processed.
+         */
+        static final int CHILDREN = 2;
+
+        /**
+         * The step at which the ::after pseudo-element is processed.
+         */
+        static final int AFTER = 3;
+
+        /**
+         * The step at which all the content has been processed.
+         */
+        static final int FINISHED = 4;
+
+        /**
+         * The element.
+         */
+        final IElementNode element;
+
+        /**
+         * The tag worker of the element, may be null.
+         */
+        final ITagWorker tagWorker;
+
+        /**
+         * Defines whether only target-counters are preprocessed.
+         */
+        final boolean countersOnly;
+
+        /**
+         * The current step.
+         */
+        int step = BEFORE;
+
+        /**
+         * The index of the next child node to be processed.
+         */
+        int childIndex = 0;
+
+        /**
+         * Creates a new {@link VisitFrame} instance.
+         *
+         * @param element      the element
+         * @param tagWorker    the tag worker of the element, may be null
+         * @param countersOnly defines whether only target-counters are preprocessed
+         */
+        VisitFrame(IElementNode element, ITagWorker tagWorker, boolean countersOnly) {
+            this.element = element;
+            this.tagWorker = tagWorker;
+            this.countersOnly = countersOnly;
         }
-        for (IElement child : children) {
-            updateSequenceId(child, sequenceId);
+
+        /**
+         * Checks whether all the content of the element has been processed.
+         *
+         * @return true if all the content has been processed
+         */
+        boolean isFinished() {
+            return step == FINISHED;
         }
     }
 }
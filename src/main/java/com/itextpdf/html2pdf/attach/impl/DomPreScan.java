@@ -0,0 +1,189 @@
+/*
+    This file is part of the iText (R) project.
+    Copyright (c) 1998-2024 Apryse Group NV
+    Authors: Apryse Software.
+
+    This program is offered under a commercial and under the AGPL license.
+    For commercial licensing, contact us at https://itextpdf.com/sales.  For AGPL licensing, see below.
+
+    AGPL licensing:
+    This program is free software: you can redistribute it and/or modify
+    it under the terms of the GNU Affero General Public License as published by
+    the Free Software Foundation, either version 3 of the License, or
+    (at your option) any later version.
+
+    This program is distributed in the hope that it will be useful,
+    but WITHOUT ANY WARRANTY; without even the implied warranty of
+    MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE.  See the
+    GNU Affero General Public License for more details.
+
+    You should have received a copy of the GNU Affero General Public License
+    along with this program.  If not, see <https://www.gnu.org/licenses/>.
+ */
+package com.itextpdf.html2pdf.attach.impl;
+
+import com.itextpdf.html2pdf.css.util.CssStyleSheetAnalyzer;
+import com.itextpdf.html2pdf.html.AttributeConstants;
+import com.itextpdf.html2pdf.html.ReleasableElementNode;
+import com.itextpdf.html2pdf.html.TagConstants;
+import com.itextpdf.styledxmlparser.css.CssDeclaration;
+import com.itextpdf.styledxmlparser.css.parse.CssRuleSetParser;
+import com.itextpdf.styledxmlparser.css.util.CssUtils;
+import com.itextpdf.styledxmlparser.node.IElementNode;
+import com.itextpdf.styledxmlparser.node.INode;
+
+import java.util.ArrayDeque;
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.List;
+
+/**
+ * The result of a single breadth-first walk over the DOM tree, performed before the conversion.
+ * <p>
+ * The walk gathers everything the processor needs to know about the document upfront: the internal
+ * link destinations, the style sheet elements (in document order), and the html and body elements.
+ * Previously each of these was found by a separate walk over the whole tree. If requested, the walk also
+ * collects the sources of the resources referenced by the elements, so that they can be prefetched.
+ */
+final class DomPreScan {
+
+    /**
+     * The style and link elements defining the style sheets of the document, in breadth-first order.
+     */
+    private final List<IElementNode> styleSheetElements = new ArrayList<>();
+
+    /**
+     * The sources of the linked style sheets, images, objects and inline style {@code url()} values,
+     * or null if they're not collected.
+     */
+    private final List<String> resourceSources;
+
+    /**
+     * The first html element in breadth-first order.
+     */
+    private IElementNode html;
+
+    /**
+     * The first body element in breadth-first order.
+     */
+    private IElementNode body;
+
+    /**
+     * Creates a new {@link DomPreScan} instance.
+     */
+    private DomPreScan(boolean collectResourceSources) {
+        this.resourceSources = collectResourceSources ? new ArrayList<String>() : null;
+    }
+
+    /**
+     * Scans the DOM tree and registers the link destinations found in it in the link context.
+     *
+     * @param root                   the root node of the tree
+     * @param linkContext            the link context to be filled, the previous destinations are cleared
+     * @param collectResourceSources whether the sources of the resources referenced by the elements are collected
+     * @return the result of the scan
+     */
+    static DomPreScan scan(INode root, LinkContext linkContext, boolean collectResourceSources) {
+        DomPreScan result = new DomPreScan(collectResourceSources);
+        // link destinations are collected over the whole tree, even if a subtree is converted
+        boolean scanIdsSeparately = root.parentNode() != null;
+        if (scanIdsSeparately) {
+            linkContext.scanForIds(root);
+        } else {
+            linkContext.clearLinkDestinations();
+        }
+
+        ArrayDeque<INode> queue = new ArrayDeque<>();
+        queue.add(root);
+        while (!queue.isEmpty()) {
+            INode currentNode = queue.removeFirst();
+            if (currentNode instanceof IElementNode) {
+                IElementNode element = (IElementNode) currentNode;
+                String name = element.name();
+                if (!scanIdsSeparately) {
+                    linkContext.addLinkDestination(element);
+                }
+                if (TagConstants.STYLE.equals(name) || CssUtils.isStyleSheetLink(element)) {
+                    result.styleSheetElements.add(element);
+                } else if (result.html == null && TagConstants.HTML.equals(name)) {
+                    result.html = element;
+                } else if (result.body == null && TagConstants.BODY.equals(name)) {
+                    result.body = element;
+                }
+                if (collectResourceSources) {
+                    result.collectResourceSources(element);
+                }
+            }
+            // The streamed subtrees are scanned without being materialized, so that they're wrapped one by one
+            List<INode> children = currentNode instanceof ReleasableElementNode
+                    ? ((ReleasableElementNode) currentNode).scanChildNodes() : currentNode.childNodes();
+            for (INode child : children) {
+                if (child instanceof IElementNode) {
+                    queue.add(child);
+                }
+            }
+        }
+        return result;
+    }
+
+    /**
+     * Gets the style and link elements defining the style sheets of the document.
+     *
+     * @return the unmodifiable list of the elements, in breadth-first order
+     */
+    List<IElementNode> getStyleSheetElements() {
+        return Collections.unmodifiableList(styleSheetElements);
+    }
+
+    /**
+     * Gets the sources of the resources referenced by the elements: the linked style sheets, the images,
+     * the objects and the {@code url()} values of the inline styles.
+     *
+     * @return the unmodifiable list of the sources, or an empty list if they were not collected
+     */
+    List<String> getResourceSources() {
+        return resourceSources == null
+                ? Collections.<String>emptyList() : Collections.unmodifiableList(resourceSources);
+    }
+
+    /**
+     * Gets the html element.
+     *
+     * @return the first html element in breadth-first order, or null if there is none
+     */
+    IElementNode getHtml() {
+        return html;
+    }
+
+    /**
+     * Gets the body element.
+     *
+     * @return the first body element in breadth-first order, or null if there is none
+     */
+    IElementNode getBody() {
+        return body;
+    }
+
+    private void collectResourceSources(IElementNode element) {
+        String name = element.name();
+        if (TagConstants.IMG.equals(name)) {
+            addResourceSource(element.getAttribute(AttributeConstants.SRC));
+        } else if (TagConstants.OBJECT.equals(name)) {
+            addResourceSource(element.getAttribute(AttributeConstants.DATA));
+        } else if (TagConstants.LINK.equals(name) && CssUtils.isStyleSheetLink(element)) {
+            addResourceSource(element.getAttribute(AttributeConstants.HREF));
+        }
+        String style = element.getAttribute(AttributeConstants.STYLE);
+        if (style != null && style.contains("url(")) {
+            for (CssDeclaration declaration : CssRuleSetParser.parsePropertyDeclarations(style)) {
+                CssStyleSheetAnalyzer.collectResourceUrls(declaration, resourceSources);
+            }
+        }
+    }
+
+    private void addResourceSource(String source) {
+        if (source != null) {
+            resourceSources.add(source);
+        }
+    }
+}
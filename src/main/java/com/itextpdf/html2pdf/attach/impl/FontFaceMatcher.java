@@ -0,0 +1,111 @@
+/*
+    This file is part of the iText (R) project.
+    Copyright (c) 1998-2024 Apryse Group NV
+    Authors: Apryse Software.
+
+    This program is offered under a commercial and under the AGPL license.
+    For commercial licensing, contact us at https://itextpdf.com/sales.  For AGPL licensing, see below.
+
+    AGPL licensing:
+    This program is free software: you can redistribute it and/or modify
+    it under the terms of the GNU Affero General Public License as published by
+    the Free Software Foundation, either version 3 of the License, or
+    (at your option) any later version.
+
+    This program is distributed in the hope that it will be useful,
+    but WITHOUT ANY WARRANTY; without even the implied warranty of
+    MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE.  See the
+    GNU Affero General Public License for more details.
+
+    You should have received a copy of the GNU Affero General Public License
+    along with this program.  If not, see <https://www.gnu.org/licenses/>.
+ */
+package com.itextpdf.html2pdf.attach.impl;
+
+import com.itextpdf.html2pdf.css.CssConstants;
+import com.itextpdf.styledxmlparser.css.CssDeclaration;
+import com.itextpdf.styledxmlparser.css.CssFontFaceRule;
+
+import java.util.Map;
+
+/**
+ * Utility class to check whether a @font-face rule matches the font-weight and the font-style of the resolved styles.
+ */
+final class FontFaceMatcher {
+
+    /**
+     * The numeric value of the normal font weight.
+     */
+    private static final int NORMAL_FONT_WEIGHT = 400;
+
+    /**
+     * The numeric value of the bold font weight.
+     */
+    private static final int BOLD_FONT_WEIGHT = 700;
+
+    /**
+     * Creates a new {@link FontFaceMatcher} instance.
+     */
+    private FontFaceMatcher() {
+        // Empty constructor
+    }
+
+    /**
+     * Checks whether the @font-face rule matches the font-weight and the font-style of the resolved styles.
+     * The missing descriptors of the rule are treated as normal, according to the CSS specification.
+     * If the weight of the styles can't be resolved to a number (e.g. bolder), any weight matches.
+     *
+     * @param fontFace the @font-face rule
+     * @param styles   the resolved styles
+     * @return true if the rule declares the requested font-weight and font-style, false otherwise
+     */
+    static boolean matches(CssFontFaceRule fontFace, Map<String, String> styles) {
+        String fontFaceWeight = null;
+        String fontFaceStyle = null;
+        for (CssDeclaration declaration : fontFace.getProperties()) {
+            if (CssConstants.FONT_WEIGHT.equals(declaration.getProperty())) {
+                fontFaceWeight = declaration.getExpression();
+            } else if (CssConstants.FONT_STYLE.equals(declaration.getProperty())) {
+                fontFaceStyle = declaration.getExpression();
+            }
+        }
+        return matchesWeight(fontFaceWeight, styles.get(CssConstants.FONT_WEIGHT))
+                && isItalic(fontFaceStyle) == isItalic(styles.get(CssConstants.FONT_STYLE));
+    }
+
+    private static boolean matchesWeight(String fontFaceWeight, String requestedWeight) {
+        int weight = parseWeight(requestedWeight);
+        if (weight < 0) {
+            return true;
+        }
+        if (fontFaceWeight == null) {
+            return weight == NORMAL_FONT_WEIGHT;
+        }
+        // font-weight descriptor may be a range, e.g. 100 900
+        String[] bounds = fontFaceWeight.trim().split("\\s+");
+        int min = parseWeight(bounds[0]);
+        int max = bounds.length > 1 ? parseWeight(bounds[1]) : min;
+        if (min < 0 || max < 0) {
+            return true;
+        }
+        return min <= weight && weight <= max;
+    }
+
+    private static int parseWeight(String weight) {
+        if (weight == null || CssConstants.NORMAL.equals(weight)) {
+            return NORMAL_FONT_WEIGHT;
+        }
+        if (CssConstants.BOLD.equals(weight)) {
+            return BOLD_FONT_WEIGHT;
+        }
+        try {
+            return Integer.parseInt(weight);
+        } catch (NumberFormatException e) {
+            return -1;
+        }
+    }
+
+    private static boolean isItalic(String style) {
+        return CssConstants.ITALIC.equals(style) || (style != null && style.startsWith(CssConstants.OBLIQUE));
+    }
+}
@@ -23,6 +23,7 @@
 package com.itextpdf.html2pdf.attach.impl;
 
 import com.itextpdf.html2pdf.html.AttributeConstants;
+import com.itextpdf.html2pdf.html.ReleasableElementNode;
 import com.itextpdf.html2pdf.html.TagConstants;
 import com.itextpdf.kernel.pdf.annot.PdfLinkAnnotation;
 import com.itextpdf.styledxmlparser.node.IElementNode;
@@ -30,6 +31,7 @@ import com.itextpdf.styledxmlparser.node.INode;
 
 import java.util.HashMap;
 import java.util.HashSet;
+import java.util.List;
 import java.util.Map;
 import java.util.Set;
 import java.util.Stack;
@@ -80,22 +82,41 @@ public class LinkContext {
         while (!stk.isEmpty()) {
             INode n = stk.pop();
             if (n instanceof IElementNode) {
-                IElementNode elem = (IElementNode) n;
-                if (TagConstants.A.equals(elem.name())) {
-                    String href = elem.getAttribute(AttributeConstants.HREF);
-                    if (href != null && href.startsWith("#")){
-                        linkDestinations.add(href.substring(1));
-                    }
-                }
+                addLinkDestination((IElementNode) n);
             }
-            if (!n.childNodes().isEmpty()) {
-                stk.addAll(n.childNodes());
+            // The streamed subtrees are scanned without being materialized
+            List<INode> children = n instanceof ReleasableElementNode
+                    ? ((ReleasableElementNode) n).scanChildNodes() : n.childNodes();
+            if (!children.isEmpty()) {
+                stk.addAll(children);
             }
         }
 
         return this;
     }
 
+    /**
+     * Clears the (internal) link destinations found by the previous scan.
+     */
+    void clearLinkDestinations() {
+        linkDestinations.clear();
+    }
+
+    /**
+     * Registers the (internal) link destination of an element, if the element is a link to
+     * an anchor in the document.
+     *
+     * @param elem the element
+     */
+    void addLinkDestination(IElementNode elem) {
+        if (TagConstants.A.equals(elem.name())) {
+            String href = elem.getAttribute(AttributeConstants.HREF);
+            if (href != null && href.startsWith("#")){
+                linkDestinations.add(href.substring(1));
+            }
+        }
+    }
+
     /**
      * Returns whether a given (internal) link destination is used by at least one href element in the document
      *
@@ -376,6 +376,19 @@ public class OutlineHandler {
         return this;
     }
 
+    /**
+     * Sets the destination to the element whose result is added to the document before the element is processed
+     * completely, e.g. a large table whose first rows are laid out while the following ones are converted.
+     * The destination is not set once more when the processing of the element is finished.
+     *
+     * @param tagWorker the tag worker
+     * @param element   the element
+     * @return the outline handler
+     */
+    public OutlineHandler setDestinationToAddedElement(ITagWorker tagWorker, IElementNode element) {
+        return setDestinationToElement(tagWorker, element);
+    }
+
     /**
      * Gets the unique ID.
      *
@@ -25,6 +25,7 @@ package com.itextpdf.html2pdf.attach.impl.layout;
 import com.itextpdf.kernel.geom.PageSize;
 import com.itextpdf.kernel.pdf.PdfDocument;
 import com.itextpdf.layout.Document;
+import com.itextpdf.layout.renderer.RootRenderer;
 
 /**
  * This class is a wrapper on {@link Document}, which is the default root element while creating a self-sufficient PDF.
@@ -51,9 +52,34 @@ public class HtmlDocument extends Document {
     @Override
     public void relayout() {
         if (rootRenderer instanceof HtmlDocumentRenderer) {
-            ((HtmlDocumentRenderer) rootRenderer).removeEventHandlers();
-            super.relayout();
+            HtmlDocumentRenderer renderer = (HtmlDocumentRenderer) rootRenderer;
+            renderer.removeEventHandlers();
+            HtmlDocumentRenderer.LayoutCheckpoint checkpoint = immediateFlush ? null : renderer.findRelayoutCheckpoint();
+            if (checkpoint != null && checkpoint.getChildIndex() < childElements.size()
+                    && childElements.get(checkpoint.getChildIndex()) == checkpoint.getModelElement()) {
+                relayoutFromCheckpoint(renderer, checkpoint);
+            } else {
+                super.relayout();
+            }
             ((HtmlDocumentRenderer) rootRenderer).processWaitingElement();
         }
     }
+
+    /**
+     * Relays out the document starting from the checkpoint page: the pages preceding it are kept
+     * together with their layout, and only the child elements starting from the checkpoint are added again.
+     *
+     * @param renderer   the renderer the document has been laid out with
+     * @param checkpoint the checkpoint to relayout the document from
+     */
+    private void relayoutFromCheckpoint(HtmlDocumentRenderer renderer, HtmlDocumentRenderer.LayoutCheckpoint checkpoint) {
+        RootRenderer nextRenderer = renderer.createNextRenderer(checkpoint);
+        while (pdfDocument.getNumberOfPages() >= checkpoint.getPageNumber()) {
+            pdfDocument.removePage(pdfDocument.getNumberOfPages());
+        }
+        rootRenderer = nextRenderer;
+        for (int i = checkpoint.getChildIndex(); i < childElements.size(); ++i) {
+            createAndAddRendererSubTree(childElements.get(i));
+        }
+    }
 }
@@ -25,9 +25,12 @@ package com.itextpdf.html2pdf.attach.impl.layout;
 import com.itextpdf.html2pdf.attach.ProcessorContext;
 import com.itextpdf.html2pdf.attach.impl.layout.HtmlBodyStylesApplierHandler.LowestAndHighest;
 import com.itextpdf.html2pdf.attach.impl.layout.HtmlBodyStylesApplierHandler.PageStylesProperties;
+import com.itextpdf.html2pdf.css.resolve.func.counter.CounterDigitsGlyphStyle;
+import com.itextpdf.html2pdf.html.HtmlUtils;
 import com.itextpdf.kernel.events.Event;
 import com.itextpdf.kernel.events.IEventHandler;
 import com.itextpdf.kernel.events.PdfDocumentEvent;
+import com.itextpdf.kernel.font.PdfFont;
 import com.itextpdf.kernel.geom.PageSize;
 import com.itextpdf.kernel.geom.Rectangle;
 import com.itextpdf.kernel.pdf.PdfDocument;
@@ -38,8 +41,11 @@ import com.itextpdf.layout.element.AreaBreak;
 import com.itextpdf.layout.layout.LayoutArea;
 import com.itextpdf.layout.layout.LayoutPosition;
 import com.itextpdf.layout.layout.LayoutResult;
+import com.itextpdf.layout.layout.RootLayoutArea;
 import com.itextpdf.layout.properties.FloatPropertyValue;
 import com.itextpdf.layout.properties.Property;
+import com.itextpdf.layout.renderer.AbstractRenderer;
+import com.itextpdf.layout.renderer.AreaBreakRenderer;
 import com.itextpdf.layout.renderer.DocumentRenderer;
 import com.itextpdf.layout.renderer.IRenderer;
 import com.itextpdf.layout.renderer.ParagraphRenderer;
@@ -48,6 +54,7 @@ import com.itextpdf.styledxmlparser.css.ICssResolver;
 import com.itextpdf.styledxmlparser.css.page.PageContextConstants;
 import com.itextpdf.styledxmlparser.node.INode;
 
+import java.util.ArrayList;
 import java.util.HashMap;
 import java.util.List;
 import java.util.Map;
@@ -64,6 +71,9 @@ public class HtmlDocumentRenderer extends DocumentRenderer {
      */
     private static final boolean TRIM_LAST_BLANK_PAGE = true;
 
+    /** The tolerance of the comparison of the laid out and the actual total page count widths. */
+    private static final float WIDTH_EPS = 1e-4f;
+
     /** The page context processor for the first page. */
     private PageContextProcessor firstPageProc;
 
@@ -104,6 +114,42 @@ public class HtmlDocumentRenderer extends DocumentRenderer {
     /** The estimated number of pages. */
     private int estimatedNumberOfPages;
 
+    /** The total number of pages, resolved once the document renderer is closed, or 0 if it isn't known yet. */
+    private int totalNumberOfPages;
+
+    /** The total page counts laid out by the page count renderers, in the fonts they were laid out with. */
+    private final List<LaidOutTotalPageCount> laidOutTotalPageCounts = new ArrayList<>();
+
+    /** The target page numbers laid out by the page target count renderers. */
+    private final List<LaidOutTargetCount> laidOutTargetCounts = new ArrayList<>();
+
+    /**
+     * The layout checkpoints, i.e. the child elements which started a new page and which the document
+     * can be relaid out from, in the order they were laid out.
+     */
+    private final List<LayoutCheckpoint> layoutCheckpoints = new ArrayList<>();
+
+    /** The index of the next child element to be added, among the child elements of the document. */
+    private int nextChildIndex;
+
+    /** The index of the waiting element among the child elements of the document. */
+    private int waitingElementIndex;
+
+    /** The model element of the last laid out child element. */
+    private IPropertyContainer lastLaidOutModelElement;
+
+    /** Indicates if the last laid out child element shall be kept with the next one. */
+    private boolean lastLaidOutChildKeptWithNext;
+
+    /** The number of the child renderers which have been taken into account in {@link #lastLaidOutPageNumber}. */
+    private int countedChildRenderers;
+
+    /** The last page number occupied by the counted child renderers. */
+    private int lastLaidOutPageNumber;
+
+    /** The number of the page the layout is resumed from, or 0 if the layout starts from the first page. */
+    private int resumedPageNumber;
+
     /**
      * Instantiates a new {@link HtmlDocumentRenderer} instance.
      *
@@ -153,19 +199,20 @@ public class HtmlDocumentRenderer extends DocumentRenderer {
             }
             IRenderer element = waitingElement;
             waitingElement = null;
-            super.addChild(element);
+            layoutChild(element, waitingElementIndex);
             if (!isRunningElementsOnly(element)) {
                 // After we have added any child, we should not trim first pages because of break before element, even if the added child had zero height
                 shouldTrimFirstBlankPagesCausedByBreakBeforeFirstElement = false;
             }
         }
         waitingElement = renderer;
+        waitingElementIndex = nextChildIndex++;
 
         FloatPropertyValue floatPropertyValue = renderer.<FloatPropertyValue>getProperty(Property.FLOAT);
         Integer position = renderer.<Integer>getProperty(Property.POSITION);
         if ((position != null && position == LayoutPosition.ABSOLUTE) || (floatPropertyValue != null && !floatPropertyValue.equals(FloatPropertyValue.NONE))) {
             waitingElement = null;
-            super.addChild(renderer);
+            layoutChild(renderer, waitingElementIndex);
         }
     }
 
@@ -175,6 +222,9 @@ public class HtmlDocumentRenderer extends DocumentRenderer {
     @Override
     public void close() {
         processWaitingElement();
+        // the total page counts, including the ones in the margin boxes, are drawn on closing,
+        // when all the pages have been laid out
+        totalNumberOfPages = resolveNumberOfPages();
         super.close();
         trimLastPageIfNecessary();
         document.getPdfDocument().removeEventHandler(PdfDocumentEvent.END_PAGE, marginBoxesHandler);
@@ -202,6 +252,17 @@ public class HtmlDocumentRenderer extends DocumentRenderer {
      */
     @Override
     public IRenderer getNextRenderer() {
+        return createNextRenderer(null);
+    }
+
+    /**
+     * Creates the renderer to relayout the document with.
+     *
+     * @param checkpoint the checkpoint found by {@link #findRelayoutCheckpoint()} the next renderer resumes
+     *                   the layout from, or null if the whole document shall be relaid out
+     * @return the next renderer
+     */
+    HtmlDocumentRenderer createNextRenderer(LayoutCheckpoint checkpoint) {
         // Process waiting element to get the correct number of pages
         processWaitingElement();
         HtmlDocumentRenderer relayoutRenderer = new HtmlDocumentRenderer(document, immediateFlush);
@@ -211,12 +272,88 @@ public class HtmlDocumentRenderer extends DocumentRenderer {
         relayoutRenderer.leftPageProc = leftPageProc.reset(defaultPageSize, defaultPageMargins);
         relayoutRenderer.rightPageProc = rightPageProc.reset(defaultPageSize, defaultPageMargins);
         relayoutRenderer.estimatedNumberOfPages = currentArea == null ? estimatedNumberOfPages :
-                currentArea.getPageNumber() - simulateTrimLastPage();
+                resolveNumberOfPages();
         relayoutRenderer.marginBoxesHandler = marginBoxesHandler.setHtmlDocumentRenderer(relayoutRenderer);
         relayoutRenderer.targetCounterHandler = new TargetCounterHandler(targetCounterHandler);
+        if (checkpoint != null) {
+            relayoutRenderer.resumeFrom(this, checkpoint);
+        }
         return relayoutRenderer;
     }
 
+    /**
+     * Finds the latest layout checkpoint the document can be relaid out from. The pages preceding the
+     * checkpoint page are kept as they are, so the checkpoint page must not follow the first page
+     * whose content was laid out with a total page count or a target counter which is going to change.
+     * The target counters are prepared to the relayout.
+     *
+     * @return the checkpoint, or null if the whole document shall be relaid out
+     */
+    LayoutCheckpoint findRelayoutCheckpoint() {
+        processWaitingElement();
+        int numberOfPages = resolveNumberOfPages();
+        targetCounterHandler.prepareHandlerToRelayout();
+        if (immediateFlush || document.getPdfDocument().isTagged()) {
+            return null;
+        }
+        int firstAffectedPage = Integer.MAX_VALUE;
+        for (LaidOutTotalPageCount pageCount : laidOutTotalPageCounts) {
+            if (pageCount.pageNumber < firstAffectedPage && !pageCount.fitsNumberOfPages(numberOfPages)) {
+                firstAffectedPage = pageCount.pageNumber;
+            }
+        }
+        for (LaidOutTargetCount targetCount : laidOutTargetCounts) {
+            if (targetCount.pageNumber < firstAffectedPage
+                    && !targetCount.fitsTargetPage(TargetCounterHandler.getPageByID(this, targetCount.target))) {
+                firstAffectedPage = targetCount.pageNumber;
+            }
+        }
+        LayoutCheckpoint relayoutCheckpoint = null;
+        for (LayoutCheckpoint checkpoint : layoutCheckpoints) {
+            if (checkpoint.pageNumber > firstAffectedPage) {
+                break;
+            }
+            relayoutCheckpoint = checkpoint;
+        }
+        return relayoutCheckpoint;
+    }
+
+    /**
+     * Gets the root renderer of the renderer tree a renderer belongs to.
+     *
+     * @param renderer the renderer
+     * @return the root renderer
+     */
+    static IRenderer getRootRenderer(IRenderer renderer) {
+        IRenderer rootRenderer = renderer;
+        while (rootRenderer instanceof AbstractRenderer && ((AbstractRenderer) rootRenderer).getParent() != null) {
+            rootRenderer = ((AbstractRenderer) rootRenderer).getParent();
+        }
+        return rootRenderer;
+    }
+
+    /**
+     * Checks whether the document shall be relaid out. Apart from the target counters, which are checked by
+     * {@link DocumentRenderer}, the document is relaid out if the total page count has been laid out with a text
+     * which is wider or narrower than the actual total number of pages, so that the line breaking may change.
+     * Otherwise, the actual total number of pages is drawn in place of the laid out one on closing.
+     *
+     * @return true if the document shall be relaid out
+     */
+    @Override
+    public boolean isRelayoutRequired() {
+        if (super.isRelayoutRequired()) {
+            return true;
+        }
+        int numberOfPages = resolveNumberOfPages();
+        for (LaidOutTotalPageCount pageCount : laidOutTotalPageCounts) {
+            if (!pageCount.fitsNumberOfPages(numberOfPages)) {
+                return true;
+            }
+        }
+        return false;
+    }
+
     @Override
     public void flush(){
         processWaitingElement();
@@ -230,7 +367,7 @@ public class HtmlDocumentRenderer extends DocumentRenderer {
         if (waitingElement != null) {
             IRenderer r = this.waitingElement;
             waitingElement = null;
-            super.addChild(r);
+            layoutChild(r, waitingElementIndex);
         }
     }
 
@@ -239,6 +376,11 @@ public class HtmlDocumentRenderer extends DocumentRenderer {
      */
     @Override
     protected LayoutArea updateCurrentArea(LayoutResult overflowResult) {
+        if (currentArea == null && resumedPageNumber > 1) {
+            // the layout is resumed from a checkpoint, so the next area is the one on the checkpoint page
+            currentArea = new RootLayoutArea(resumedPageNumber - 1, new Rectangle(0, 0));
+            resumedPageNumber = 0;
+        }
         AreaBreak areaBreak = overflowResult != null ? overflowResult.getAreaBreak() : null;
         if (areaBreak instanceof HtmlPageBreak) {
             HtmlPageBreakType htmlPageBreakType = ((HtmlPageBreak) areaBreak).getBreakType();
@@ -412,6 +554,151 @@ public class HtmlDocumentRenderer extends DocumentRenderer {
         return estimatedNumberOfPages;
     }
 
+    /**
+     * Gets the total number of pages, which is known once the document renderer is closed.
+     *
+     * @return the total number of pages, or 0 if it isn't known yet
+     */
+    int getTotalNumberOfPages() {
+        return totalNumberOfPages;
+    }
+
+    /**
+     * Registers the text the total page count has been laid out with, so that the document is relaid out
+     * only if the actual total number of pages takes a different width.
+     *
+     * @param pageNumber       the number of the page the total page count has been laid out on
+     * @param text             the laid out text
+     * @param font             the font of the text, or null if it's unknown
+     * @param fontSize         the font size of the text
+     * @param digitsGlyphStyle the glyph style of the digits
+     */
+    void addLaidOutTotalPageCount(int pageNumber, String text, PdfFont font, float fontSize,
+            CounterDigitsGlyphStyle digitsGlyphStyle) {
+        laidOutTotalPageCounts.add(new LaidOutTotalPageCount(pageNumber, text, font, fontSize, digitsGlyphStyle));
+    }
+
+    /**
+     * Registers the target page number a target counter has been laid out with, so that the document
+     * is relaid out starting from a page not following the page of the target counter if the target moves.
+     *
+     * @param pageNumber the number of the page the target counter has been laid out on
+     * @param target     the id of the target element
+     * @param targetPage the laid out page number of the target element, or null if it was unknown
+     */
+    void addLaidOutTargetCount(int pageNumber, String target, Integer targetPage) {
+        laidOutTargetCounts.add(new LaidOutTargetCount(pageNumber, target, targetPage));
+    }
+
+    /**
+     * Resolves the number of pages laid out so far, excluding the last page which is going to be trimmed.
+     *
+     * @return the number of pages
+     */
+    private int resolveNumberOfPages() {
+        return currentArea == null ? document.getPdfDocument().getNumberOfPages()
+                : currentArea.getPageNumber() - simulateTrimLastPage();
+    }
+
+    /**
+     * Lays out a child element and records a layout checkpoint if the element starts a new page,
+     * so that nothing laid out before it is placed on that page or the next ones.
+     *
+     * @param renderer   the renderer of the child element
+     * @param childIndex the index of the child element among the child elements of the document
+     */
+    private void layoutChild(IRenderer renderer, int childIndex) {
+        int childRenderersBefore = childRenderers.size();
+        // parts of a large table are added to the document as the same element, so they can't be checkpoints
+        boolean mayBeCheckpoint = !immediateFlush && !lastLaidOutChildKeptWithNext
+                && renderer.getModelElement() != lastLaidOutModelElement
+                && !(renderer instanceof AreaBreakRenderer) && !isElementOnNonStaticLayout(renderer);
+        lastLaidOutModelElement = renderer.getModelElement();
+        lastLaidOutChildKeptWithNext = Boolean.TRUE.equals(renderer.<Boolean>getProperty(Property.KEEP_WITH_NEXT));
+        super.addChild(renderer);
+        if (mayBeCheckpoint && childRenderers.size() > childRenderersBefore) {
+            IRenderer firstLaidOutRenderer = childRenderers.get(childRenderersBefore);
+            int pageNumber = firstLaidOutRenderer.getOccupiedArea().getPageNumber();
+            if (firstLaidOutRenderer.getModelElement() == renderer.getModelElement()
+                    && pageNumber > resolveLastLaidOutPageNumber(childRenderersBefore)) {
+                layoutCheckpoints.add(new LayoutCheckpoint(childIndex, pageNumber, renderer.getModelElement()));
+            }
+        }
+    }
+
+    /**
+     * Resolves the last page occupied by the renderers laid out before the given child renderer.
+     *
+     * @param childRenderersCount the number of the child renderers to take into account
+     * @return the last occupied page number, or 0 if nothing has been laid out
+     */
+    private int resolveLastLaidOutPageNumber(int childRenderersCount) {
+        if (countedChildRenderers > childRenderersCount) {
+            countedChildRenderers = 0;
+            lastLaidOutPageNumber = 0;
+        }
+        for (; countedChildRenderers < childRenderersCount; ++countedChildRenderers) {
+            lastLaidOutPageNumber = Math.max(lastLaidOutPageNumber,
+                    childRenderers.get(countedChildRenderers).getOccupiedArea().getPageNumber());
+        }
+        int pageNumber = lastLaidOutPageNumber;
+        for (IRenderer renderer : positionedRenderers) {
+            pageNumber = Math.max(pageNumber, renderer.getOccupiedArea().getPageNumber());
+        }
+        for (IRenderer renderer : waitingDrawingElements) {
+            pageNumber = Math.max(pageNumber, renderer.getOccupiedArea().getPageNumber());
+        }
+        return pageNumber;
+    }
+
+    /**
+     * Takes over the layout of the pages preceding the checkpoint page from the previous renderer,
+     * so that only the child elements starting from the checkpoint are laid out again.
+     *
+     * @param previous   the renderer the document has been laid out with
+     * @param checkpoint the checkpoint to resume the layout from
+     */
+    private void resumeFrom(HtmlDocumentRenderer previous, LayoutCheckpoint checkpoint) {
+        int pageNumber = checkpoint.pageNumber;
+        retainRenderers(previous.childRenderers, childRenderers, pageNumber);
+        retainRenderers(previous.positionedRenderers, positionedRenderers, pageNumber);
+        retainRenderers(previous.waitingDrawingElements, waitingDrawingElements, pageNumber);
+        for (Map.Entry<Integer, PageStylesProperties> entry : previous.pageStylesPropertiesMap.entrySet()) {
+            if (entry.getKey() < pageNumber) {
+                pageStylesPropertiesMap.put(entry.getKey(), entry.getValue());
+            }
+        }
+        for (LaidOutTotalPageCount pageCount : previous.laidOutTotalPageCounts) {
+            if (pageCount.pageNumber < pageNumber) {
+                laidOutTotalPageCounts.add(pageCount);
+            }
+        }
+        for (LaidOutTargetCount targetCount : previous.laidOutTargetCounts) {
+            if (targetCount.pageNumber < pageNumber) {
+                laidOutTargetCounts.add(targetCount);
+            }
+        }
+        for (LayoutCheckpoint previousCheckpoint : previous.layoutCheckpoints) {
+            if (previousCheckpoint.childIndex < checkpoint.childIndex) {
+                layoutCheckpoints.add(previousCheckpoint);
+            }
+        }
+        evenPagesAreLeft = previous.evenPagesAreLeft;
+        shouldTrimFirstBlankPagesCausedByBreakBeforeFirstElement = false;
+        nextChildIndex = checkpoint.childIndex;
+        resumedPageNumber = pageNumber;
+    }
+
+    private void retainRenderers(List<IRenderer> previousRenderers, List<IRenderer> retainedRenderers,
+            int pageNumber) {
+        for (IRenderer renderer : previousRenderers) {
+            if (renderer.getOccupiedArea().getPageNumber() < pageNumber) {
+                renderer.setParent(this);
+                retainedRenderers.add(renderer);
+            }
+        }
+    }
+
     private void updateDefaultMargins(BodyHtmlStylesContainer[] styles, float[] defaultMargins) {
         for (int i = 0; i < 2; i++) {
             if (styles[i] != null) {
@@ -483,6 +770,76 @@ public class HtmlDocumentRenderer extends DocumentRenderer {
         return !isPageLeft(pageNum);
     }
 
+    /**
+     * A child element which started a new page, so that the document can be relaid out from it keeping
+     * the layout of the preceding pages.
+     */
+    static final class LayoutCheckpoint {
+        private final int childIndex;
+        private final int pageNumber;
+        private final IPropertyContainer modelElement;
+
+        LayoutCheckpoint(int childIndex, int pageNumber, IPropertyContainer modelElement) {
+            this.childIndex = childIndex;
+            this.pageNumber = pageNumber;
+            this.modelElement = modelElement;
+        }
+
+        int getChildIndex() {
+            return childIndex;
+        }
+
+        int getPageNumber() {
+            return pageNumber;
+        }
+
+        IPropertyContainer getModelElement() {
+            return modelElement;
+        }
+    }
+
+    private static final class LaidOutTargetCount {
+        private final int pageNumber;
+        private final String target;
+        private final Integer targetPage;
+
+        LaidOutTargetCount(int pageNumber, String target, Integer targetPage) {
+            this.pageNumber = pageNumber;
+            this.target = target;
+            this.targetPage = targetPage;
+        }
+
+        boolean fitsTargetPage(Integer actualTargetPage) {
+            return targetPage == null ? actualTargetPage == null : targetPage.equals(actualTargetPage);
+        }
+    }
+
+    private static final class LaidOutTotalPageCount {
+        private final int pageNumber;
+        private final String text;
+        private final PdfFont font;
+        private final float fontSize;
+        private final CounterDigitsGlyphStyle digitsGlyphStyle;
+
+        LaidOutTotalPageCount(int pageNumber, String text, PdfFont font, float fontSize,
+                CounterDigitsGlyphStyle digitsGlyphStyle) {
+            this.pageNumber = pageNumber;
+            this.text = text;
+            this.font = font;
+            this.fontSize = fontSize;
+            this.digitsGlyphStyle = digitsGlyphStyle;
+        }
+
+        boolean fitsNumberOfPages(int numberOfPages) {
+            String actualText = HtmlUtils.convertNumberAccordingToGlyphStyle(digitsGlyphStyle, numberOfPages);
+            if (actualText.equals(text)) {
+                return true;
+            }
+            return font != null && actualText.length() == text.length()
+                    && Math.abs(font.getWidth(actualText, fontSize) - font.getWidth(text, fontSize)) < WIDTH_EPS;
+        }
+    }
+
     private static class PageMarginBoxesDrawingHandler implements IEventHandler {
         private HtmlDocumentRenderer htmlDocumentRenderer;
 
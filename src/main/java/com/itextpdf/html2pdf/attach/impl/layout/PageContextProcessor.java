@@ -37,6 +37,7 @@ import com.itextpdf.kernel.pdf.canvas.CanvasArtifact;
 import com.itextpdf.kernel.pdf.canvas.PdfCanvas;
 import com.itextpdf.kernel.pdf.tagging.StandardRoles;
 import com.itextpdf.kernel.pdf.tagutils.TagTreePointer;
+import com.itextpdf.kernel.pdf.xobject.PdfFormXObject;
 import com.itextpdf.layout.Canvas;
 import com.itextpdf.layout.borders.Border;
 import com.itextpdf.layout.element.Div;
@@ -109,6 +110,29 @@ class PageContextProcessor {
     private ProcessorContext context;
     private PageMarginBoxBuilder pageMarginBoxHelper;
 
+    /**
+     * The laid out margin box renderers, which are drawn on every page processed by this processor
+     * if the margin boxes content doesn't depend on the page, or null if they are not built yet.
+     * Unlike the page background, borders and marks, they are drawn into the content stream of each page,
+     * so reusing them doesn't change the margin box content of the pages.
+     */
+    private IRenderer[] laidOutMarginBoxRenderers;
+
+    /**
+     * The page background drawn once and referenced from every page processed by this processor.
+     */
+    private PageContentXObject pageBackgroundXObject;
+
+    /**
+     * The page borders drawn once and referenced from every page processed by this processor.
+     */
+    private PageContentXObject pageBordersXObject;
+
+    /**
+     * The printer marks drawn once and referenced from every page processed by this processor.
+     */
+    private PageContentXObject marksXObject;
+
     /**
      * The logger.
      */
@@ -179,6 +203,10 @@ class PageContextProcessor {
         parsePaddings(styles, em, rem);
         createPageSimulationElements(styles, context);
         pageMarginBoxHelper = new PageMarginBoxBuilder(properties.getResolvedPageMarginBoxes(), margins, pageSize);
+        laidOutMarginBoxRenderers = null;
+        pageBackgroundXObject = null;
+        pageBordersXObject = null;
+        marksXObject = null;
 
         return this;
     }
@@ -242,10 +270,18 @@ class PageContextProcessor {
         PdfCanvas pdfCanvas = null;
         if (pageBackgroundSimulation != null) {
             pdfCanvas = new PdfCanvas(page.newContentStreamBefore(), page.getResources(),page.getDocument());
-            Canvas canvas = new Canvas(pdfCanvas, page.getBleedBox());
-            canvas.enableAutoTagging(page);
-            canvas.add(pageBackgroundSimulation);
-            canvas.close();
+            if (page.getDocument().isTagged()) {
+                Canvas canvas = new Canvas(pdfCanvas, page.getBleedBox());
+                canvas.enableAutoTagging(page);
+                canvas.add(pageBackgroundSimulation);
+                canvas.close();
+            } else {
+                if (pageBackgroundXObject == null || !pageBackgroundXObject.isReusableFor(page, page.getBleedBox())) {
+                    pageBackgroundXObject = new PageContentXObject(page, page.getBleedBox());
+                    pageBackgroundXObject.add(pageBackgroundSimulation);
+                }
+                pageBackgroundXObject.addTo(pdfCanvas);
+            }
         }
         return pdfCanvas;
     }
@@ -300,10 +336,31 @@ class PageContextProcessor {
         trimBox.moveRight(horizontalIndent);
         page.setTrimBox(trimBox);
 
-        PdfCanvas canvas = new PdfCanvas(page);
         if (page.getDocument().isTagged()) {
+            PdfCanvas canvas = new PdfCanvas(page);
             canvas.openTag(new CanvasArtifact());
+            drawMarks(canvas, mediaBox, trimBox, horizontalIndent, verticalIndent);
+            canvas.closeTag();
+        } else {
+            if (marksXObject == null || !marksXObject.isReusableFor(page, trimBox)) {
+                marksXObject = new PageContentXObject(page, trimBox);
+                drawMarks(marksXObject.getCanvas(), mediaBox, trimBox, horizontalIndent, verticalIndent);
+            }
+            marksXObject.addTo(new PdfCanvas(page));
         }
+    }
+
+    /**
+     * Draws the printer marks.
+     *
+     * @param canvas           the canvas to draw on
+     * @param mediaBox         the media box of the page
+     * @param trimBox          the trim box of the page
+     * @param horizontalIndent the horizontal indent of the trim box
+     * @param verticalIndent   the vertical indent of the trim box
+     */
+    private void drawMarks(PdfCanvas canvas, Rectangle mediaBox, Rectangle trimBox, float horizontalIndent,
+            float verticalIndent) {
         if (marks.contains(CssConstants.CROP)) {
             float cropLineLength = 24;
             float verticalCropStartIndent = verticalIndent - cropLineLength;
@@ -361,13 +418,10 @@ class PageContextProcessor {
 
             canvas.restoreState();
         }
-        if (page.getDocument().isTagged()) {
-            canvas.closeTag();
-        }
     }
 
     /**
-     * Draws a cross (used in the {@link #drawMarks(PdfPage)} method).
+     * Draws a cross (used in the {@link #drawMarks(PdfCanvas, Rectangle, Rectangle, float, float)} method).
      *
      * @param canvas          the canvas to draw on
      * @param x               the x value
@@ -404,10 +458,18 @@ class PageContextProcessor {
         if (pageBordersSimulation == null) {
             return;
         }
-        Canvas canvas = new Canvas(new PdfCanvas(page), page.getTrimBox());
-        canvas.enableAutoTagging(page);
-        canvas.add(pageBordersSimulation);
-        canvas.close();
+        if (page.getDocument().isTagged()) {
+            Canvas canvas = new Canvas(new PdfCanvas(page), page.getTrimBox());
+            canvas.enableAutoTagging(page);
+            canvas.add(pageBordersSimulation);
+            canvas.close();
+        } else {
+            if (pageBordersXObject == null || !pageBordersXObject.isReusableFor(page, page.getTrimBox())) {
+                pageBordersXObject = new PageContentXObject(page, page.getTrimBox());
+                pageBordersXObject.add(pageBordersSimulation);
+            }
+            pageBordersXObject.addTo(new PdfCanvas(page));
+        }
     }
 
     /**
@@ -418,35 +480,34 @@ class PageContextProcessor {
      * @param documentRenderer the document renderer
      */
     private void drawMarginBoxes(int pageNumber, PdfDocument pdfDocument, DocumentRenderer documentRenderer) {
-        pageMarginBoxHelper.buildForSinglePage(pageNumber, pdfDocument, documentRenderer, context);
-        if (pageMarginBoxHelper.getRenderers() != null) {
-            for (int i = 0; i < 16; i++)
-                if (pageMarginBoxHelper.getRenderers()[i] != null)
-                    draw(pageMarginBoxHelper.getRenderers()[i], pageMarginBoxHelper.getNodes()[i], pdfDocument, pdfDocument.getPage(pageNumber), documentRenderer, pageNumber);
+        IRenderer[] renderersToDraw = laidOutMarginBoxRenderers;
+        if (renderersToDraw == null) {
+            pageMarginBoxHelper.buildForSinglePage(pageNumber, pdfDocument, documentRenderer, context);
+            if (pageMarginBoxHelper.getRenderers() == null) {
+                return;
+            }
+            renderersToDraw = new IRenderer[16];
+            for (int i = 0; i < 16; i++) {
+                if (pageMarginBoxHelper.getRenderers()[i] != null) {
+                    renderersToDraw[i] = layout(pageMarginBoxHelper.getRenderers()[i], pageMarginBoxHelper.getNodes()[i], pageNumber);
+                }
+            }
+            // the same content is built for all the pages of this page class, so it's laid out only once
+            if (pageMarginBoxHelper.isPageIndependent() && !pdfDocument.isTagged()) {
+                laidOutMarginBoxRenderers = renderersToDraw;
+            }
+        }
+        for (int i = 0; i < 16; i++) {
+            if (renderersToDraw[i] != null) {
+                draw(renderersToDraw[i], pdfDocument, pdfDocument.getPage(pageNumber), documentRenderer);
+            }
         }
     }
 
-    private void draw(IRenderer renderer, PageMarginBoxContextNode node, PdfDocument pdfDocument, PdfPage page, DocumentRenderer documentRenderer, int pageNumber) {
+    private IRenderer layout(IRenderer renderer, PageMarginBoxContextNode node, int pageNumber) {
         LayoutResult result = renderer.layout(new LayoutContext(new LayoutArea(pageNumber, node.getPageMarginBoxRectangle())));
         IRenderer rendererToDraw = result.getStatus() == LayoutResult.FULL ? renderer : result.getSplitRenderer();
-        if (rendererToDraw != null) {
-            TagTreePointer tagPointer = null, backupPointer = null;
-            PdfPage backupPage = null;
-            if (pdfDocument.isTagged()) {
-                tagPointer = pdfDocument.getTagStructureContext().getAutoTaggingPointer();
-                backupPage = tagPointer.getCurrentPage();
-                backupPointer = new TagTreePointer(tagPointer);
-                tagPointer.moveToRoot();
-                tagPointer.setPageForTagging(page);
-            }
-
-            rendererToDraw.setParent(documentRenderer).draw(new DrawContext(page.getDocument(), new PdfCanvas(page), pdfDocument.isTagged()));
-
-            if (pdfDocument.isTagged()) {
-                tagPointer.setPageForTagging(backupPage);
-                tagPointer.moveToPointer(backupPointer);
-            }
-        } else {
+        if (rendererToDraw == null) {
             // marginBoxElements have overflow property set to HIDDEN, therefore it is not expected to neither get
             // LayoutResult other than FULL nor get no split renderer (result NOTHING) even if result is not FULL
             LOGGER.error(
@@ -454,6 +515,26 @@ class PageContextProcessor {
                             Html2PdfLogMessageConstant.PAGE_MARGIN_BOX_CONTENT_CANNOT_BE_DRAWN,
                             node.getMarginBoxName()));
         }
+        return rendererToDraw;
+    }
+
+    private void draw(IRenderer rendererToDraw, PdfDocument pdfDocument, PdfPage page, DocumentRenderer documentRenderer) {
+        TagTreePointer tagPointer = null, backupPointer = null;
+        PdfPage backupPage = null;
+        if (pdfDocument.isTagged()) {
+            tagPointer = pdfDocument.getTagStructureContext().getAutoTaggingPointer();
+            backupPage = tagPointer.getCurrentPage();
+            backupPointer = new TagTreePointer(tagPointer);
+            tagPointer.moveToRoot();
+            tagPointer.setPageForTagging(page);
+        }
+
+        rendererToDraw.setParent(documentRenderer).draw(new DrawContext(page.getDocument(), new PdfCanvas(page), pdfDocument.isTagged()));
+
+        if (pdfDocument.isTagged()) {
+            tagPointer.setPageForTagging(backupPage);
+            tagPointer.moveToPointer(backupPointer);
+        }
     }
 
     /**
@@ -520,4 +601,63 @@ class PageContextProcessor {
         pageBordersSimulation.setBorderLeft(borders[3]);
         pageBordersSimulation.getAccessibilityProperties().setRole(StandardRoles.ARTIFACT);
     }
+
+    /**
+     * A form XObject with the content which is the same on all the pages of the same size processed by
+     * a {@link PageContextProcessor}, so that it's drawn once and only referenced from the page content streams.
+     */
+    private static final class PageContentXObject {
+        private final Rectangle mediaBox;
+        private final Rectangle area;
+        private final PdfFormXObject xObject;
+        private final PdfCanvas canvas;
+
+        /**
+         * Creates an empty form XObject covering the media box of the page.
+         *
+         * @param page the page the content is drawn for
+         * @param area the area of the page the content is laid out in
+         */
+        PageContentXObject(PdfPage page, Rectangle area) {
+            this.mediaBox = page.getMediaBox();
+            this.area = area;
+            this.xObject = new PdfFormXObject(mediaBox);
+            this.canvas = new PdfCanvas(xObject, page.getDocument());
+        }
+
+        PdfCanvas getCanvas() {
+            return canvas;
+        }
+
+        /**
+         * Lays out and draws the element in the area of the form XObject.
+         *
+         * @param element the element to draw
+         */
+        void add(Div element) {
+            Canvas layoutCanvas = new Canvas(canvas, area);
+            layoutCanvas.add(element);
+            layoutCanvas.close();
+        }
+
+        /**
+         * Checks whether the form XObject has been drawn for a page with the same media box and content area.
+         *
+         * @param page the page
+         * @param area the area of the page the content is laid out in
+         * @return true if the form XObject can be added to the page
+         */
+        boolean isReusableFor(PdfPage page, Rectangle area) {
+            return this.mediaBox.equalsWithEpsilon(page.getMediaBox()) && this.area.equalsWithEpsilon(area);
+        }
+
+        /**
+         * Adds the form XObject to a page canvas.
+         *
+         * @param pageCanvas the canvas of the page
+         */
+        void addTo(PdfCanvas pageCanvas) {
+            pageCanvas.addXObjectWithTransformationMatrix(xObject, 1, 0, 0, 1, 0, 0);
+        }
+    }
 }
@@ -32,8 +32,9 @@ import com.itextpdf.layout.Document;
 import com.itextpdf.layout.layout.LayoutContext;
 import com.itextpdf.layout.layout.LayoutResult;
 import com.itextpdf.layout.properties.Property;
-import com.itextpdf.layout.renderer.AbstractRenderer;
+import com.itextpdf.layout.properties.UnitValue;
 import com.itextpdf.layout.renderer.DocumentRenderer;
+import com.itextpdf.layout.renderer.DrawContext;
 import com.itextpdf.layout.renderer.IRenderer;
 import com.itextpdf.layout.renderer.TextRenderer;
 
@@ -75,33 +76,64 @@ class PageCountRenderer extends TextRenderer {
         // iText processes its content (see LineRenderer#updateBidiLevels) before layouting it.
         // This might result in an ArrayIndexOutOfBounds exception, because currently iText updates the page counter's content on layout.
         // To solve this, this workaround has been implemented: the renderer's strToBeConverted shouldn't be updated by layout.
-        boolean textHasBeenReplaced = false;
+        String replacingText = null;
+        IRenderer rootRenderer = null;
         if (pageCountType == PageCountType.CURRENT_PAGE_NUMBER) {
-            setText(HtmlUtils.convertNumberAccordingToGlyphStyle(digitsGlyphStyle,
-                    layoutContext.getArea().getPageNumber()));
-            textHasBeenReplaced = true;
+            replacingText = HtmlUtils.convertNumberAccordingToGlyphStyle(digitsGlyphStyle,
+                    layoutContext.getArea().getPageNumber());
         } else if (pageCountType == PageCountType.TOTAL_PAGE_COUNT) {
-            IRenderer rootRenderer = this;
-            while (rootRenderer instanceof AbstractRenderer && ((AbstractRenderer) rootRenderer).getParent() != null) {
-                rootRenderer = ((AbstractRenderer) rootRenderer).getParent();
-            }
+            rootRenderer = HtmlDocumentRenderer.getRootRenderer(this);
             if (rootRenderer instanceof HtmlDocumentRenderer && ((HtmlDocumentRenderer) rootRenderer).getEstimatedNumberOfPages() > 0) {
-                setText(HtmlUtils.convertNumberAccordingToGlyphStyle(digitsGlyphStyle,
-                        ((HtmlDocumentRenderer) rootRenderer).getEstimatedNumberOfPages()));
-                textHasBeenReplaced = true;
+                replacingText = HtmlUtils.convertNumberAccordingToGlyphStyle(digitsGlyphStyle,
+                        ((HtmlDocumentRenderer) rootRenderer).getEstimatedNumberOfPages());
             } else if (rootRenderer instanceof DocumentRenderer && rootRenderer.getModelElement() instanceof Document) {
-                setText(HtmlUtils.convertNumberAccordingToGlyphStyle(digitsGlyphStyle,
-                        ((Document) rootRenderer.getModelElement()).getPdfDocument().getNumberOfPages()));
-                textHasBeenReplaced = true;
+                replacingText = HtmlUtils.convertNumberAccordingToGlyphStyle(digitsGlyphStyle,
+                        ((Document) rootRenderer.getModelElement()).getPdfDocument().getNumberOfPages());
             }
         }
+        if (replacingText != null) {
+            setText(replacingText);
+        }
         LayoutResult result = super.layout(layoutContext);
-        if (textHasBeenReplaced) {
+        if (replacingText != null) {
             setText(previousText);
+            if (rootRenderer instanceof HtmlDocumentRenderer) {
+                // the width of the total page count defines whether the document needs to be relaid out
+                ((HtmlDocumentRenderer) rootRenderer).addLaidOutTotalPageCount(
+                        layoutContext.getArea().getPageNumber(), replacingText, getFont(), getFontSize(),
+                        digitsGlyphStyle);
+            }
         }
         return result;
     }
 
+    /**
+     * Draws the page count. If the total page count has been laid out before the total number of pages became
+     * known, the actual total number of pages is drawn in place of the laid out one.
+     *
+     * @param drawContext the context (canvas, document, etc) of this drawing operation
+     */
+    @Override
+    public void draw(DrawContext drawContext) {
+        PageCountType pageCountType = (PageCountType)this.<PageCountType>getProperty(Html2PdfProperty.PAGE_COUNT_TYPE);
+        IRenderer rootRenderer = pageCountType == PageCountType.TOTAL_PAGE_COUNT
+                ? HtmlDocumentRenderer.getRootRenderer(this) : null;
+        int totalNumberOfPages = rootRenderer instanceof HtmlDocumentRenderer
+                ? ((HtmlDocumentRenderer) rootRenderer).getTotalNumberOfPages() : 0;
+        PdfFont font = getFont();
+        if (totalNumberOfPages > 0 && line != null && font != null) {
+            String totalPageCount = HtmlUtils.convertNumberAccordingToGlyphStyle(digitsGlyphStyle, totalNumberOfPages);
+            if (!totalPageCount.equals(line.toUnicodeString(line.start, line.end))) {
+                GlyphLine laidOutLine = line;
+                line = font.createGlyphLine(totalPageCount);
+                super.draw(drawContext);
+                line = laidOutLine;
+                return;
+            }
+        }
+        super.draw(drawContext);
+    }
+
     /**
      * {@inheritDoc}
      */
@@ -141,4 +173,23 @@ class PageCountRenderer extends TextRenderer {
         return true;
     }
 
+    /**
+     * Gets the font the page count is laid out with.
+     *
+     * @return the font, or null if the font hasn't been resolved yet
+     */
+    private PdfFont getFont() {
+        Object font = this.<Object>getProperty(Property.FONT);
+        return font instanceof PdfFont ? (PdfFont) font : null;
+    }
+
+    /**
+     * Gets the font size of the page count in points.
+     *
+     * @return the font size
+     */
+    private float getFontSize() {
+        UnitValue fontSize = this.getPropertyAsUnitValue(Property.FONT_SIZE);
+        return fontSize == null ? 0 : fontSize.getValue();
+    }
 }
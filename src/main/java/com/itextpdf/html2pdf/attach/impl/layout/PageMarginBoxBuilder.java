@@ -28,6 +28,7 @@ import com.itextpdf.html2pdf.attach.ProcessorContext;
 import com.itextpdf.html2pdf.css.apply.ICssApplier;
 import com.itextpdf.html2pdf.css.page.PageMarginRunningElementNode;
 import com.itextpdf.html2pdf.css.resolve.DefaultCssResolver;
+import com.itextpdf.html2pdf.css.resolve.func.counter.PageCountElementNode;
 import com.itextpdf.kernel.geom.PageSize;
 import com.itextpdf.kernel.geom.Rectangle;
 import com.itextpdf.kernel.pdf.PdfDocument;
@@ -65,6 +66,9 @@ class PageMarginBoxBuilder {
 
     List<PageMarginBoxContextNode> resolvedPageMarginBoxes;
 
+    // the margin boxes contain neither running elements nor page counters, so they're the same on every page
+    private final boolean pageIndependent;
+
     private static final float EPSILON = 0.00001f;
 
     public PageMarginBoxBuilder(List<PageMarginBoxContextNode> resolvedPageMarginBoxes, float[] margins, PageSize pageSize) {
@@ -83,6 +87,11 @@ class PageMarginBoxBuilder {
                 marginBoxContentNode.setPageMarginBoxRectangle(new Rectangle(marginBoxRectangles[marginBoxInd]).increaseHeight(EPSILON));
             marginBoxContentNode.setContainingBlockForMarginBox(calculateContainingBlockSizesForMarginBox(marginBoxInd, marginBoxRectangles[marginBoxInd]));
         }
+        boolean pageIndependentContent = true;
+        for (PageMarginBoxContextNode marginBoxContentNode : this.resolvedPageMarginBoxes) {
+            pageIndependentContent = pageIndependentContent && isPageIndependent(marginBoxContentNode);
+        }
+        this.pageIndependent = pageIndependentContent;
     }
 
     public void buildForSinglePage(int pageNumber, PdfDocument pdfDocument, DocumentRenderer documentRenderer, ProcessorContext context) {
@@ -105,6 +114,16 @@ class PageMarginBoxBuilder {
         getPMBRenderers(elements, documentRenderer, pdfDocument);
     }
 
+    /**
+     * Checks whether the content of the margin boxes is the same on every page, so that the margin boxes
+     * built and laid out for one page can be drawn on the other pages of the same page class.
+     *
+     * @return true if the margin boxes contain neither running elements nor page counters
+     */
+    public boolean isPageIndependent() {
+        return pageIndependent;
+    }
+
     public IRenderer[] getRenderers() {
         return renderers;
     }
@@ -113,6 +132,16 @@ class PageMarginBoxBuilder {
         return nodes;
     }
 
+    private static boolean isPageIndependent(INode node) {
+        for (INode childNode : node.childNodes()) {
+            if (childNode instanceof PageMarginRunningElementNode || childNode instanceof PageCountElementNode
+                    || !isPageIndependent(childNode)) {
+                return false;
+            }
+        }
+        return true;
+    }
+
     private IElement processMarginBoxContent(PageMarginBoxContextNode marginBoxContentNode, int pageNumber, ProcessorContext context) {
         marginBoxContentNode.setStyles(marginBoxContentNode.getStyles());
         DefaultCssResolver cssResolver = new DefaultCssResolver(marginBoxContentNode, context);
@@ -85,6 +85,12 @@ class PageTargetCountRenderer extends TextRenderer {
         }
         final LayoutResult result = super.layout(layoutContext);
         setText(previousText);
+        final IRenderer rootRenderer = HtmlDocumentRenderer.getRootRenderer(this);
+        if (rootRenderer instanceof HtmlDocumentRenderer) {
+            // the page of the target counter defines the page the document is relaid out from if the target moves
+            ((HtmlDocumentRenderer) rootRenderer).addLaidOutTargetCount(layoutContext.getArea().getPageNumber(),
+                    target, page);
+        }
         return result;
     }
 
@@ -23,6 +23,7 @@
 package com.itextpdf.html2pdf.attach.impl.layout;
 
 import com.itextpdf.html2pdf.attach.ITagWorker;
+import com.itextpdf.html2pdf.css.page.CssRunningManager;
 import com.itextpdf.styledxmlparser.node.IElementNode;
 
 /**
@@ -33,6 +34,7 @@ public class RunningElementContainer {
     private ITagWorker processedElementWorker;
     private int pageNum;
     private boolean firstOnPage;
+    private CssRunningManager runningManager;
 
     /**
      * Initializes a new instance of {@link RunningElementContainer} that contains
@@ -52,8 +54,21 @@ public class RunningElementContainer {
      * @param firstOnPage specifies if the given running element would have placed as the first element on the page or not.
      */
     public void setOccurrencePage(int pageNum, boolean firstOnPage) {
+        int previousPage = this.pageNum;
         this.pageNum = pageNum;
         this.firstOnPage = firstOnPage;
+        if (runningManager != null && previousPage != pageNum) {
+            runningManager.updateOccurrencePage(this, previousPage);
+        }
+    }
+
+    /**
+     * Sets the {@link CssRunningManager} this running element is registered in. The manager
+     * is notified each time the occurrence page of the running element changes.
+     * @param runningManager the {@link CssRunningManager} instance.
+     */
+    public void setRunningManager(CssRunningManager runningManager) {
+        this.runningManager = runningManager;
     }
 
     /**
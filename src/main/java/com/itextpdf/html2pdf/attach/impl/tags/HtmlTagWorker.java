@@ -118,7 +118,10 @@ public class HtmlTagWorker implements ITagWorker {
     @Override
     public boolean processTagChild(ITagWorker childTagWorker, ProcessorContext context) {
         boolean processed = false;
-        if (childTagWorker instanceof SpanTagWorker) {
+        if (childTagWorker instanceof TableTagWorker && ((TableTagWorker) childTagWorker).isAddedToDocument()) {
+            // large table has been added to the document before its rows were converted
+            processed = true;
+        } else if (childTagWorker instanceof SpanTagWorker) {
             boolean allChildrenProcessed = true;
             for (IPropertyContainer propertyContainer : ((SpanTagWorker) childTagWorker).getAllElements()) {
                 if (propertyContainer instanceof ILeafElement) {
@@ -31,11 +31,11 @@ import com.itextpdf.html2pdf.html.AttributeConstants;
 import com.itextpdf.html2pdf.util.SvgProcessingUtil;
 import com.itextpdf.commons.utils.FileUtil;
 import com.itextpdf.commons.utils.MessageFormatUtil;
+import com.itextpdf.io.util.StreamUtil;
 import com.itextpdf.layout.IPropertyContainer;
 import com.itextpdf.layout.element.Image;
 import com.itextpdf.styledxmlparser.node.IElementNode;
 import com.itextpdf.styledxmlparser.resolver.resource.ResourceResolver;
-import com.itextpdf.svg.converter.SvgConverter;
 import com.itextpdf.svg.exceptions.SvgProcessingException;
 import com.itextpdf.svg.processors.ISvgProcessorResult;
 import com.itextpdf.svg.processors.impl.SvgConverterProperties;
@@ -94,7 +94,7 @@ public class ObjectTagWorker implements ITagWorker {
                         String dir = FileUtil.parentDirectory(fullURL);
                         props.setBaseUri(dir);
                     }
-                    res = SvgConverter.parseAndProcess(svgStream, props);
+                    res = context.getSvgRenderCache().process(StreamUtil.inputStreamToArray(svgStream), props);
                 }
             } catch (SvgProcessingException spe) {
                 LOGGER.error(spe.getMessage());
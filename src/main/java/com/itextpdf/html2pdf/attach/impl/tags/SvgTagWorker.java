@@ -31,11 +31,10 @@ import com.itextpdf.html2pdf.util.SvgProcessingUtil;
 import com.itextpdf.layout.IPropertyContainer;
 import com.itextpdf.layout.element.Image;
 import com.itextpdf.styledxmlparser.node.IElementNode;
-import com.itextpdf.styledxmlparser.node.INode;
+import com.itextpdf.svg.element.SvgImage;
 import com.itextpdf.svg.exceptions.SvgProcessingException;
-import com.itextpdf.svg.processors.ISvgProcessorResult;
-import com.itextpdf.svg.processors.impl.DefaultSvgProcessor;
 import com.itextpdf.svg.processors.impl.SvgConverterProperties;
+import com.itextpdf.svg.xobject.SvgImageXObject;
 
 import org.slf4j.Logger;
 import org.slf4j.LoggerFactory;
@@ -47,7 +46,7 @@ public class SvgTagWorker implements ITagWorker {
     private static final Logger LOGGER = LoggerFactory.getLogger(SvgTagWorker.class);
 
     private Image svgImage;
-    private ISvgProcessorResult processingResult;
+    private SvgImageXObject svgXObject;
 
     /**
      * Creates a new {@link SvgTagWorker} instance.
@@ -59,7 +58,9 @@ public class SvgTagWorker implements ITagWorker {
         svgImage = null;
         SvgConverterProperties props = ContextMappingHelper.mapToSvgConverterProperties(context);
         try {
-            processingResult = new DefaultSvgProcessor().process((INode) element, props);
+            // Identical inline SVG elements, e.g. an icon repeated on every table row, share one XObject
+            SvgProcessingUtil util = new SvgProcessingUtil(context.getResourceResolver());
+            svgXObject = (SvgImageXObject) context.getSvgRenderCache().createXObject(element, props, util, null);
         } catch (SvgProcessingException spe) {
             LOGGER.error(Html2PdfLogMessageConstant.UNABLE_TO_PROCESS_SVG_ELEMENT, spe);
         }
@@ -68,9 +69,8 @@ public class SvgTagWorker implements ITagWorker {
 
     @Override
     public void processEnd(IElementNode element, ProcessorContext context) {
-        if (processingResult != null) {
-            SvgProcessingUtil util = new SvgProcessingUtil(context.getResourceResolver());
-            svgImage = util.createSvgImageFromProcessingResult(processingResult);
+        if (svgXObject != null) {
+            svgImage = new SvgImage(svgXObject);
 
             AccessiblePropHelper.trySetLangAttribute(svgImage, element);
             context.endProcessingInlineSvg();
@@ -24,16 +24,27 @@ package com.itextpdf.html2pdf.attach.impl.tags;
 
 import com.itextpdf.html2pdf.attach.ITagWorker;
 import com.itextpdf.html2pdf.attach.ProcessorContext;
+import com.itextpdf.html2pdf.attach.impl.layout.HtmlDocumentRenderer;
+import com.itextpdf.html2pdf.attach.util.LinkHelper;
+import com.itextpdf.html2pdf.attach.util.RowColHelper;
 import com.itextpdf.html2pdf.attach.util.WaitingColgroupsHelper;
 import com.itextpdf.html2pdf.attach.wrapelement.TableRowWrapper;
 import com.itextpdf.html2pdf.attach.wrapelement.TableWrapper;
 import com.itextpdf.html2pdf.css.CssConstants;
+import com.itextpdf.html2pdf.css.apply.ICssApplier;
 import com.itextpdf.html2pdf.html.AttributeConstants;
+import com.itextpdf.html2pdf.html.TagConstants;
+import com.itextpdf.layout.Document;
 import com.itextpdf.layout.IPropertyContainer;
 import com.itextpdf.layout.element.Cell;
 import com.itextpdf.layout.element.Div;
 import com.itextpdf.layout.element.Table;
+import com.itextpdf.layout.renderer.IRenderer;
+import com.itextpdf.styledxmlparser.css.util.CssDimensionParsingUtils;
 import com.itextpdf.styledxmlparser.node.IElementNode;
+import com.itextpdf.styledxmlparser.node.INode;
+
+import java.util.Map;
 
 /**
  * TagWorker class for the {@code table} element.
@@ -75,6 +86,36 @@ public class TableTagWorker implements ITagWorker, IDisplayAware {
      */
     private String display;
 
+    /**
+     * The element of the table, if the table is converted as a large one, otherwise null.
+     */
+    private IElementNode largeTableElement;
+
+    /**
+     * The number of body rows after which the large table is flushed.
+     */
+    private int largeTableFlushInterval;
+
+    /**
+     * The number of the columns spanned by the body rows of the large table.
+     */
+    private int largeTableColumnCount;
+
+    /**
+     * Indicates whether the large table has been added to the document.
+     */
+    private boolean addedToDocument;
+
+    /**
+     * Indicates whether the styles of the large table have been applied before its conversion is finished.
+     */
+    private boolean cssApplied;
+
+    /**
+     * Indicates whether the destination of the large table has been set before its conversion is finished.
+     */
+    private boolean destinationSet;
+
     /**
      * Creates a new {@link TableTagWorker} instance.
      *
@@ -97,6 +138,12 @@ public class TableTagWorker implements ITagWorker, IDisplayAware {
         if (lang != null) {
             tableWrapper.setLang(lang);
         }
+        if (isLargeTable(element, context)) {
+            largeTableElement = element;
+            largeTableFlushInterval = context.getLargeTableFlushInterval();
+            // the columns of a large table are fixed once its first rows are flushed
+            tableWrapper.reserveColumns(largeTableColumnCount);
+        }
     }
 
     /* (non-Javadoc)
@@ -104,7 +151,12 @@ public class TableTagWorker implements ITagWorker, IDisplayAware {
      */
     @Override
     public void processEnd(IElementNode element, ProcessorContext context) {
-        table = tableWrapper.toTable(colgroupsHelper);
+        if (table != null && !table.isComplete()) {
+            layoutFlushedRows();
+            tableWrapper.completeLargeTable(table);
+        } else {
+            table = tableWrapper.toTable(colgroupsHelper);
+        }
     }
 
     /* (non-Javadoc)
@@ -126,6 +178,9 @@ public class TableTagWorker implements ITagWorker, IDisplayAware {
             for (Cell cell : wrapper.getCells()) {
                 tableWrapper.addCell(cell);
             }
+            if (largeTableElement != null) {
+                flushLargeTable(context);
+            }
             return true;
         } else if (childTagWorker instanceof TableTagWorker) {
             if (((TableTagWorker) childTagWorker).header) {
@@ -185,6 +240,38 @@ public class TableTagWorker implements ITagWorker, IDisplayAware {
         return display;
     }
 
+    /**
+     * Checks whether the table is a large one which has already been added to the document, so that
+     * it shall not be added once more when its conversion is finished.
+     *
+     * @return true if the table has already been added to the document
+     */
+    public boolean isAddedToDocument() {
+        return addedToDocument;
+    }
+
+    /**
+     * Checks whether the styles of the table have already been applied, which is the case for a large table
+     * whose first rows have been laid out before its conversion is finished, so that they shall not be
+     * applied once more.
+     *
+     * @return true if the styles of the table have already been applied
+     */
+    public boolean isCssApplied() {
+        return cssApplied;
+    }
+
+    /**
+     * Checks whether the link and outline destination of the table has already been set, which is the case
+     * for a large table whose first rows have been laid out before its conversion is finished, so that it shall
+     * not be set once more.
+     *
+     * @return true if the destination of the table has already been set
+     */
+    public boolean isDestinationSet() {
+        return destinationSet;
+    }
+
     /**
      * Method to indicate that this is actually a {@link TableFooterTagWorker} instance.
      */
@@ -207,4 +294,144 @@ public class TableTagWorker implements ITagWorker, IDisplayAware {
             colgroupsHelper.applyColStyles();
         }
     }
+
+    /**
+     * Adds the large table to the document, or flushes the body rows converted since the previous flush,
+     * once there are enough of them and none of their cells spans the rows which haven't been flushed yet.
+     *
+     * @param context the processor context
+     */
+    private void flushLargeTable(ProcessorContext context) {
+        if (tableWrapper.getRowsSize() <= largeTableFlushInterval || !tableWrapper.canFlushRows()) {
+            return;
+        }
+        if (table == null) {
+            table = tableWrapper.toLargeTable(colgroupsHelper);
+            // the styles must be applied before the first rows are laid out
+            ICssApplier cssApplier = context.getCssApplierFactory().getCssApplier(largeTableElement);
+            if (cssApplier != null) {
+                cssApplier.apply(context, largeTableElement, this);
+                cssApplied = true;
+            }
+            // the destination must be set before the first rows are laid out, as the table is drawn on their page
+            LinkHelper.createDestination(this, largeTableElement, context);
+            context.getOutlineHandler().setDestinationToAddedElement(this, largeTableElement);
+            destinationSet = true;
+            addedToDocument = parentTagWorker.processTagChild(this, context);
+        } else {
+            tableWrapper.flushRows(table);
+        }
+        if (addedToDocument) {
+            table.flush();
+            layoutFlushedRows();
+        }
+    }
+
+    /**
+     * Lays out the body rows flushed to the document right away. The document renderer keeps the last added
+     * renderer waiting for the next one, while the rows of a large table must be laid out before the following
+     * ones are flushed and before the table is completed, otherwise they would be laid out as the last ones.
+     */
+    private void layoutFlushedRows() {
+        if (addedToDocument) {
+            IRenderer documentRenderer = ((Document) parentTagWorker.getElementResult()).getRenderer();
+            if (documentRenderer instanceof HtmlDocumentRenderer) {
+                ((HtmlDocumentRenderer) documentRenderer).processWaitingElement();
+            }
+        }
+    }
+
+    /**
+     * Checks whether the table shall be converted as a large one, which is added to the document right away and
+     * flushed while its rows are converted.
+     *
+     * @param element the table element
+     * @param context the processor context
+     * @return true if the table shall be converted as a large one
+     */
+    private boolean isLargeTable(IElementNode element, ProcessorContext context) {
+        int flushInterval = context.getLargeTableFlushInterval();
+        if (flushInterval <= 0 || context.getPdfDocument() == null || !TagConstants.TABLE.equals(element.name())
+                || parentTagWorker == null || !(parentTagWorker.getElementResult() instanceof Document)) {
+            return false;
+        }
+        // the flushed rows can't be laid out once more, so the document must not be relaid out
+        if (!context.isImmediateFlush() || context.getCssContext().isPagesCounterPresent()
+                || context.isCreateAcroForm()) {
+            return false;
+        }
+        Map<String, String> styles = element.getStyles();
+        String floatValue = styles.get(CssConstants.FLOAT);
+        String position = styles.get(CssConstants.POSITION);
+        String pageBreakBefore = styles.get(CssConstants.PAGE_BREAK_BEFORE);
+        if ((display != null && !CssConstants.TABLE.equals(display))
+                || (floatValue != null && !CssConstants.NONE.equals(floatValue))
+                || (position != null && !CssConstants.STATIC.equals(position)
+                        && !CssConstants.RELATIVE.equals(position))
+                || CssConstants.ALWAYS.equals(pageBreakBefore) || CssConstants.LEFT.equals(pageBreakBefore)
+                || CssConstants.RIGHT.equals(pageBreakBefore)) {
+            return false;
+        }
+        return countBodyRows(element) > flushInterval;
+    }
+
+    /**
+     * Counts the body rows of a table and the columns spanned by them.
+     *
+     * @param element the table element
+     * @return the number of the body rows, or -1 if the table has a caption, which is laid out together with
+     * the whole table, or if the header or the footer of the table follow the body rows, so that they would be
+     * converted after the table is added to the document
+     */
+    private int countBodyRows(IElementNode element) {
+        int rowCount = 0;
+        RowColHelper rowColHelper = new RowColHelper();
+        for (INode child : element.childNodes()) {
+            if (!(child instanceof IElementNode)) {
+                continue;
+            }
+            String name = ((IElementNode) child).name();
+            if (TagConstants.TR.equals(name)) {
+                ++rowCount;
+                countColumns(child, rowColHelper);
+            } else if (TagConstants.TBODY.equals(name)) {
+                for (INode row : child.childNodes()) {
+                    if (row instanceof IElementNode && TagConstants.TR.equals(((IElementNode) row).name())) {
+                        ++rowCount;
+                        countColumns(row, rowColHelper);
+                    }
+                }
+            } else if (TagConstants.CAPTION.equals(name)
+                    || rowCount > 0 && (TagConstants.THEAD.equals(name) || TagConstants.TFOOT.equals(name))) {
+                return -1;
+            }
+        }
+        return rowCount;
+    }
+
+    /**
+     * Places the cells of a body row the same way the {@link TableWrapper} does, and updates the number
+     * of the columns spanned by the body rows.
+     *
+     * @param row          the row element
+     * @param rowColHelper the helper keeping track of the cells spanning several rows
+     */
+    private void countColumns(INode row, RowColHelper rowColHelper) {
+        rowColHelper.newRow();
+        for (INode child : row.childNodes()) {
+            if (!(child instanceof IElementNode)) {
+                continue;
+            }
+            IElementNode cell = (IElementNode) child;
+            if (TagConstants.TD.equals(cell.name()) || TagConstants.TH.equals(cell.name())) {
+                Integer colspan = CssDimensionParsingUtils.parseInteger(cell.getAttribute(AttributeConstants.COLSPAN));
+                Integer rowspan = CssDimensionParsingUtils.parseInteger(cell.getAttribute(AttributeConstants.ROWSPAN));
+                colspan = colspan != null ? colspan : 1;
+                rowspan = rowspan != null ? rowspan : 1;
+                int col = rowColHelper.moveToNextEmptyCol();
+                rowColHelper.updateCurrentPosition((int) colspan, (int) rowspan);
+                largeTableColumnCount = Math.max(largeTableColumnCount, col + (int) colspan);
+            }
+        }
+    }
 }
@@ -0,0 +1,297 @@
+/*
+    This file is part of the iText (R) project.
+    Copyright (c) 1998-2024 Apryse Group NV
+    Authors: Apryse Software.
+
+    This program is offered under a commercial and under the AGPL license.
+    For commercial licensing, contact us at https://itextpdf.com/sales.  For AGPL licensing, see below.
+
+    AGPL licensing:
+    This program is free software: you can redistribute it and/or modify
+    it under the terms of the GNU Affero General Public License as published by
+    the Free Software Foundation, either version 3 of the License, or
+    (at your option) any later version.
+
+    This program is distributed in the hope that it will be useful,
+    but WITHOUT ANY WARRANTY; without even the implied warranty of
+    MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE.  See the
+    GNU Affero General Public License for more details.
+
+    You should have received a copy of the GNU Affero General Public License
+    along with this program.  If not, see <https://www.gnu.org/licenses/>.
+ */
+package com.itextpdf.html2pdf.attach.util;
+
+import com.itextpdf.html2pdf.resolver.resource.IParsedSvgCache;
+import com.itextpdf.html2pdf.util.ContentKey;
+import com.itextpdf.html2pdf.util.SvgProcessingUtil;
+import com.itextpdf.kernel.pdf.PdfDocument;
+import com.itextpdf.kernel.pdf.xobject.PdfFormXObject;
+import com.itextpdf.styledxmlparser.node.IAttribute;
+import com.itextpdf.styledxmlparser.node.IDataNode;
+import com.itextpdf.styledxmlparser.node.IElementNode;
+import com.itextpdf.styledxmlparser.node.INode;
+import com.itextpdf.styledxmlparser.node.IStylesContainer;
+import com.itextpdf.styledxmlparser.node.ITextNode;
+import com.itextpdf.svg.converter.SvgConverter;
+import com.itextpdf.svg.processors.ISvgProcessorResult;
+import com.itextpdf.svg.processors.impl.DefaultSvgProcessor;
+import com.itextpdf.svg.processors.impl.SvgConverterProperties;
+
+import java.io.ByteArrayInputStream;
+import java.io.IOException;
+import java.io.InputStream;
+import java.nio.ByteBuffer;
+import java.nio.charset.StandardCharsets;
+import java.security.MessageDigest;
+import java.security.NoSuchAlgorithmException;
+import java.util.ArrayDeque;
+import java.util.Deque;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.Objects;
+
+/**
+ * Processes the SVG documents of a single HTML document, so that each distinct SVG, e.g. an icon repeated
+ * on every table row, is parsed once and drawn into a single form XObject.
+ * <p>
+ * The trees parsed from the SVG data are identified by the digest of the data together with the charset it's
+ * decoded with. They are reused until the cache is reset for the next document, and are also put to the
+ * {@link IParsedSvgCache}, if there is one, to be shared by other documents. Each processing builds a fresh
+ * renderer tree from the parsed tree, as drawing a renderer tree updates the state of its renderers. A renderer
+ * tree is only reused through the form XObject it's drawn into once, which is identified by the SVG source
+ * together with the effective {@link SvgConverterProperties}. The source of an inline SVG element is the digest
+ * of its subtree together with its styles and the styles of its parent.
+ */
+public class SvgRenderCache {
+
+    private static final byte SEPARATOR = 0;
+
+    private static final Object END_OF_NODE = new Object();
+
+    /**
+     * The cache of the parsed SVG trees shared by the documents, or null.
+     */
+    private final IParsedSvgCache parsedSvgCache;
+
+    /**
+     * The parsed SVG trees of the current document.
+     */
+    private final Map<ContentKey, INode> parsedTrees = new HashMap<>();
+
+    /**
+     * The form XObjects of the current document.
+     */
+    private final Map<RenderKey, PdfFormXObject> xObjects = new HashMap<>();
+
+    /**
+     * Creates a new {@link SvgRenderCache} instance.
+     *
+     * @param parsedSvgCache the cache of the parsed SVG trees shared by the documents, or null
+     */
+    public SvgRenderCache(IParsedSvgCache parsedSvgCache) {
+        this.parsedSvgCache = parsedSvgCache;
+    }
+
+    /**
+     * Processes the SVG data, parsing it only if the same data wasn't parsed yet. The result has its own
+     * renderer tree, so it can be drawn independently of the other results.
+     *
+     * @param svgData the data of the SVG document
+     * @param properties the SVG converter properties
+     * @return the SVG processing result
+     * @throws IOException if the SVG data can't be parsed
+     */
+    public ISvgProcessorResult process(byte[] svgData, SvgConverterProperties properties) throws IOException {
+        return process(createContentKey(svgData, properties), svgData, properties);
+    }
+
+    /**
+     * Creates the form XObject for the SVG data, or returns the one created for the same data
+     * with the same properties in the current document.
+     *
+     * @param svgData the data of the SVG document
+     * @param properties the SVG converter properties
+     * @param processingUtil the {@link SvgProcessingUtil} creating the XObject from the processing result
+     * @param pdfDocument the document the XObject is drawn for
+     * @return the form XObject
+     * @throws IOException if the SVG data can't be parsed
+     */
+    public PdfFormXObject createXObject(byte[] svgData, SvgConverterProperties properties,
+            SvgProcessingUtil processingUtil, PdfDocument pdfDocument) throws IOException {
+        // The data is digested once, for both the XObjects and the parsed SVG trees
+        ContentKey contentKey = createContentKey(svgData, properties);
+        RenderKey key = new RenderKey(contentKey, properties, null, null);
+        PdfFormXObject xObject = xObjects.get(key);
+        if (xObject == null) {
+            ISvgProcessorResult result = process(contentKey, svgData, properties);
+            xObject = processingUtil.createXObjectFromProcessingResult(result, pdfDocument);
+            xObjects.put(key, xObject);
+        }
+        return xObject;
+    }
+
+    /**
+     * Creates the form XObject for the inline SVG element, or returns the one created for an identical element
+     * with the same styles and properties in the current document.
+     *
+     * @param svgElement the {@code svg} element
+     * @param properties the SVG converter properties
+     * @param processingUtil the {@link SvgProcessingUtil} creating the XObject from the processing result
+     * @param pdfDocument the document the XObject is drawn for, or null if it's drawn on its first use
+     * @return the form XObject
+     */
+    public PdfFormXObject createXObject(IElementNode svgElement, SvgConverterProperties properties,
+            SvgProcessingUtil processingUtil, PdfDocument pdfDocument) {
+        MessageDigest digest = createDigest();
+        updateDigest(digest, svgElement);
+        Map<String, String> parentStyles = null;
+        if (svgElement.parentNode() instanceof IStylesContainer) {
+            parentStyles = ((IStylesContainer) svgElement.parentNode()).getStyles();
+        }
+        RenderKey key = new RenderKey(ByteBuffer.wrap(digest.digest()), properties, svgElement.getStyles(),
+                parentStyles);
+        PdfFormXObject xObject = xObjects.get(key);
+        if (xObject == null) {
+            ISvgProcessorResult result = new DefaultSvgProcessor().process(svgElement, properties);
+            xObject = processingUtil.createXObjectFromProcessingResult(result, pdfDocument);
+            xObjects.put(key, xObject);
+        }
+        return xObject;
+    }
+
+    /**
+     * Removes the parsed SVG trees and the XObjects of the current document.
+     */
+    public void reset() {
+        parsedTrees.clear();
+        xObjects.clear();
+    }
+
+    private ISvgProcessorResult process(ContentKey contentKey, byte[] svgData, SvgConverterProperties properties)
+            throws IOException {
+        INode root = parsedTrees.get(contentKey);
+        if (root == null && parsedSvgCache != null) {
+            root = parsedSvgCache.get(contentKey);
+        }
+        if (root == null) {
+            try (InputStream stream = new ByteArrayInputStream(svgData)) {
+                root = SvgConverter.parse(stream, properties);
+            }
+            if (parsedSvgCache != null) {
+                parsedSvgCache.put(contentKey, root);
+            }
+        }
+        parsedTrees.put(contentKey, root);
+        // The processing stores the resolved styles in the nodes of the tree, which may be shared by
+        // concurrent conversions
+        synchronized (root) {
+            return SvgConverter.process(root, properties);
+        }
+    }
+
+    private static ContentKey createContentKey(byte[] svgData, SvgConverterProperties properties) {
+        // The data is decoded with the charset of the properties, which takes the place of the URL in the key
+        return new ContentKey(properties.getCharset(), svgData);
+    }
+
+    private static void updateDigest(MessageDigest digest, INode root) {
+        // The subtree is walked with an explicit stack, the end of each node is marked by a separate entry
+        Deque<Object> stack = new ArrayDeque<>();
+        stack.push(root);
+        while (!stack.isEmpty()) {
+            Object entry = stack.pop();
+            if (entry == END_OF_NODE) {
+                digest.update((byte) '>');
+                continue;
+            }
+            INode node = (INode) entry;
+            if (node instanceof IElementNode) {
+                IElementNode element = (IElementNode) node;
+                updateDigest(digest, element.name());
+                for (IAttribute attribute : element.getAttributes()) {
+                    updateDigest(digest, attribute.getKey());
+                    updateDigest(digest, attribute.getValue());
+                }
+            } else if (node instanceof ITextNode) {
+                updateDigest(digest, ((ITextNode) node).wholeText());
+            } else if (node instanceof IDataNode) {
+                updateDigest(digest, ((IDataNode) node).getWholeData());
+            }
+            digest.update((byte) '<');
+            stack.push(END_OF_NODE);
+            List<INode> children = node.childNodes();
+            for (int i = children.size() - 1; i >= 0; i--) {
+                stack.push(children.get(i));
+            }
+        }
+    }
+
+    private static void updateDigest(MessageDigest digest, String value) {
+        if (value != null) {
+            digest.update(value.getBytes(StandardCharsets.UTF_8));
+        }
+        digest.update(SEPARATOR);
+    }
+
+    private static MessageDigest createDigest() {
+        try {
+            return MessageDigest.getInstance("SHA-256");
+        } catch (NoSuchAlgorithmException e) {
+            // SHA-256 is required to be supported by every Java platform
+            throw new IllegalStateException(e);
+        }
+    }
+
+    /**
+     * The key of a form XObject: the source of the SVG, the properties which affect the processing,
+     * and the styles of an inline SVG element and of its parent.
+     * <p>
+     * The source is the {@link ContentKey} of the SVG data, or the digest of an inline SVG element.
+     */
+    private static final class RenderKey {
+        private final Object source;
+        private final String baseUri;
+        private final Object fontProvider;
+        private final Object deviceDescription;
+        private final Object resourceRetriever;
+        private final Map<String, String> styles;
+        private final Map<String, String> parentStyles;
+        private final int hash;
+
+        RenderKey(Object source, SvgConverterProperties properties, Map<String, String> styles,
+                Map<String, String> parentStyles) {
+            this.source = source;
+            this.baseUri = properties.getBaseUri();
+            this.fontProvider = properties.getFontProvider();
+            this.deviceDescription = properties.getMediaDeviceDescription();
+            this.resourceRetriever = properties.getResourceRetriever();
+            this.styles = styles == null ? null : new HashMap<>(styles);
+            this.parentStyles = parentStyles == null ? null : new HashMap<>(parentStyles);
+            this.hash = 31 * source.hashCode() + Objects.hash(baseUri, this.styles, this.parentStyles);
+        }
+
+        @Override
+        public boolean equals(Object o) {
+            if (this == o) {
+                return true;
+            }
+            if (o == null || getClass() != o.getClass()) {
+                return false;
+            }
+            RenderKey other = (RenderKey) o;
+            // The font provider, the device description and the retriever are compared by identity,
+            // they are the same for all the SVG documents of an HTML document
+            return source.equals(other.source) && Objects.equals(baseUri, other.baseUri)
+                    && fontProvider == other.fontProvider && deviceDescription == other.deviceDescription
+                    && resourceRetriever == other.resourceRetriever && Objects.equals(styles, other.styles)
+                    && Objects.equals(parentStyles, other.parentStyles);
+        }
+
+        @Override
+        public int hashCode() {
+            return hash;
+        }
+    }
+}
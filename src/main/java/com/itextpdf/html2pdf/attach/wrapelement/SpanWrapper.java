@@ -27,8 +27,11 @@ import com.itextpdf.layout.element.IBlockElement;
 import com.itextpdf.layout.element.IElement;
 import com.itextpdf.layout.element.ILeafElement;
 
+import java.util.ArrayDeque;
 import java.util.ArrayList;
 import java.util.Collection;
+import java.util.Deque;
+import java.util.Iterator;
 import java.util.List;
 
 /**
@@ -82,11 +85,20 @@ public class SpanWrapper implements IWrapElement {
      */
     public List<IPropertyContainer> getElements() {
         List<IPropertyContainer> leafs = new ArrayList<>();
-        for (Object child : children) {
+        // nested spans are flattened with an explicit stack, so that deep nesting doesn't exhaust the native stack
+        Deque<Iterator<Object>> stack = new ArrayDeque<>();
+        stack.push(children.iterator());
+        while (!stack.isEmpty()) {
+            Iterator<Object> iterator = stack.peek();
+            if (!iterator.hasNext()) {
+                stack.pop();
+                continue;
+            }
+            Object child = iterator.next();
             if (child instanceof IPropertyContainer) {
                 leafs.add((IPropertyContainer) child);
             } else if (child instanceof SpanWrapper) {
-                leafs.addAll(((SpanWrapper) child).getElements());
+                stack.push(((SpanWrapper) child).children.iterator());
             }
         }
         return leafs;
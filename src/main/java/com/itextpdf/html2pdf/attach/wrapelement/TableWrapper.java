@@ -22,9 +22,11 @@
  */
 package com.itextpdf.html2pdf.attach.wrapelement;
 
+import com.itextpdf.commons.utils.MessageFormatUtil;
 import com.itextpdf.html2pdf.attach.util.AccessiblePropHelper;
 import com.itextpdf.html2pdf.attach.util.RowColHelper;
 import com.itextpdf.html2pdf.attach.util.WaitingColgroupsHelper;
+import com.itextpdf.html2pdf.logs.Html2PdfLogMessageConstant;
 import com.itextpdf.layout.element.Cell;
 import com.itextpdf.layout.element.Div;
 import com.itextpdf.layout.element.Table;
@@ -33,6 +35,7 @@ import com.itextpdf.layout.properties.UnitValue;
 import java.util.ArrayList;
 import java.util.Collections;
 import java.util.List;
+import org.slf4j.LoggerFactory;
 
 /**
  * Wrapper for the {@code table} element.
@@ -75,6 +78,18 @@ public class TableWrapper implements IWrapElement {
     /** The header lang attribute value. */
     private String headerLang;
 
+    /** Indicates whether the rows which need more columns than the large table has have been reported. */
+    private boolean columnsOverflowReported = false;
+
+    /** The index of the current body row, counting the rows dropped from the wrapper. */
+    private int currentRow = -1;
+
+    /** The index of the last body row spanned by the multi-row cells of the rows before the current one. */
+    private int lastRowspanEndBeforeCurrentRow = -1;
+
+    /** The index of the last body row spanned by the multi-row cells converted so far. */
+    private int lastRowspanEnd = -1;
+
     public TableWrapper() {
     }
 
@@ -100,6 +115,8 @@ public class TableWrapper implements IWrapElement {
         }
         rowShift.newRow();
         rows.add(new ArrayList<CellWrapper>());
+        ++currentRow;
+        lastRowspanEndBeforeCurrentRow = lastRowspanEnd;
     }
 
     /**
@@ -167,6 +184,9 @@ public class TableWrapper implements IWrapElement {
             newRow();
         }
         addCellToTable(cell, rows, rowShift);
+        if (cell.getRowspan() > 1) {
+            lastRowspanEnd = Math.max(lastRowspanEnd, currentRow + cell.getRowspan() - 1);
+        }
     }
 
     public void setLang(String lang) {
@@ -196,6 +216,16 @@ public class TableWrapper implements IWrapElement {
         numberOfColumns = Math.max(numberOfColumns, col + cell.getColspan());
     }
 
+    /**
+     * Reserves the columns for the body rows which haven't been converted yet, as the columns of a large table
+     * are fixed once it's created.
+     *
+     * @param columnCount the number of the columns spanned by all the body rows
+     */
+    public void reserveColumns(int columnCount) {
+        numberOfColumns = Math.max(numberOfColumns, columnCount);
+    }
+
     /**
      * Sets the table's caption.
      *
@@ -212,12 +242,84 @@ public class TableWrapper implements IWrapElement {
      * @return the table
      */
     public Table toTable(WaitingColgroupsHelper colgroupsHelper) {
+        Table table = createTable(colgroupsHelper, false);
+        addBodyRows(table);
+        if (caption != null) {
+            table.setCaption(caption);
+        }
+
+        return table;
+    }
+
+    /**
+     * Renders the header, the footer and the body rows converted so far, except the last one, to a large
+     * {@link Table} object. The rendered body rows are dropped from the wrapper, the following rows shall be added
+     * with {@link #flushRows(Table)} and {@link #completeLargeTable(Table)}.
+     *
+     * @param colgroupsHelper the colgroups helper class
+     * @return the large table
+     */
+    public Table toLargeTable(WaitingColgroupsHelper colgroupsHelper) {
+        Table table = createTable(colgroupsHelper, true);
+        flushRows(table);
+
+        return table;
+    }
+
+    /**
+     * Adds the body rows converted since the previous call, except the last one, to a large table created by
+     * {@link #toLargeTable(WaitingColgroupsHelper)}, and drops them from the wrapper. The last row is kept, as
+     * the following rows may still be needed to complete it, and the table can't be completed without rows.
+     *
+     * @param table the large table
+     */
+    public void flushRows(Table table) {
+        if (rows != null && rows.size() > 1) {
+            List<CellWrapper> lastRow = rows.remove(rows.size() - 1);
+            addBodyRows(table);
+            rows.clear();
+            rows.add(lastRow);
+        }
+    }
+
+    /**
+     * Adds the rest of the body rows to a large table created by {@link #toLargeTable(WaitingColgroupsHelper)}
+     * and completes the table.
+     *
+     * @param table the large table
+     */
+    public void completeLargeTable(Table table) {
+        addBodyRows(table);
+        if (rows != null) {
+            rows.clear();
+        }
+        table.complete();
+    }
+
+    /**
+     * Checks whether the body rows converted so far, except the last one, can be flushed, i.e. none of their
+     * cells spans the last row or the rows which haven't been converted yet.
+     *
+     * @return true if the body rows before the last one can be flushed
+     */
+    public boolean canFlushRows() {
+        return rows != null && rows.size() > 1 && lastRowspanEndBeforeCurrentRow < currentRow;
+    }
+
+    /**
+     * Creates a table with the header and the footer rows.
+     *
+     * @param colgroupsHelper the colgroups helper class
+     * @param largeTable      whether the table is a large one
+     * @return the table
+     */
+    private Table createTable(WaitingColgroupsHelper colgroupsHelper, boolean largeTable) {
         Table table;
         if (numberOfColumns > 0) {
-            table = new Table(getColWidths(colgroupsHelper));
+            table = new Table(getColWidths(colgroupsHelper), largeTable);
         } else {
             // if table is empty, create empty table with single column
-            table = new Table(1);
+            table = new Table(1, largeTable);
         }
         AccessiblePropHelper.trySetLangAttribute(table, lang);
 
@@ -267,6 +369,22 @@ public class TableWrapper implements IWrapElement {
             }
             AccessiblePropHelper.trySetLangAttribute(table.getFooter(), footerLang);
         }
+        return table;
+    }
+
+    /**
+     * Adds the body rows to a table.
+     *
+     * @param table the table
+     */
+    private void addBodyRows(Table table) {
+        if (numberOfColumns > table.getNumberOfColumns() && !columnsOverflowReported) {
+            // the columns of a large table are fixed once its first rows are flushed
+            LoggerFactory.getLogger(TableWrapper.class).warn(MessageFormatUtil.format(
+                    Html2PdfLogMessageConstant.LARGE_TABLE_COLUMNS_OVERFLOW, table.getNumberOfColumns(),
+                    numberOfColumns));
+            columnsOverflowReported = true;
+        }
         if (rows != null) {
             for (int i = 0; i < rows.size(); i++) {
                 table.startNewRow();
@@ -280,11 +398,6 @@ public class TableWrapper implements IWrapElement {
                 }
             }
         }
-        if (caption != null) {
-            table.setCaption(caption);
-        }
-
-        return table;
     }
 
     /**
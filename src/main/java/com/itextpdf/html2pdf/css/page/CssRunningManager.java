@@ -25,15 +25,20 @@ package com.itextpdf.html2pdf.css.page;
 import com.itextpdf.html2pdf.attach.impl.layout.RunningElementContainer;
 import com.itextpdf.html2pdf.css.CssConstants;
 
+import java.util.ArrayList;
 import java.util.HashMap;
-import java.util.LinkedHashSet;
+import java.util.Iterator;
+import java.util.List;
 import java.util.Map;
+import java.util.TreeMap;
 
 /**
  * Class that manages running elements.
  */
 public class CssRunningManager {
-    private Map<String, LinkedHashSet<RunningElementContainer>> runningElements = new HashMap<>();
+    private Map<String, RunningElementsIndex> runningElements = new HashMap<>();
+
+    private Map<RunningElementContainer, List<RunningElementsIndex>> containerIndexes = new HashMap<>();
 
     /**
      * Registers new running element from HTML document.
@@ -42,12 +47,21 @@ public class CssRunningManager {
      * @param container       a wrapper for the running elements taken out of the normal flow.
      */
     public void addRunningElement(String runningElemName, RunningElementContainer container) {
-        LinkedHashSet<RunningElementContainer> runningElems = runningElements.get(runningElemName);
+        RunningElementsIndex runningElems = runningElements.get(runningElemName);
         if (runningElems == null) {
-            runningElems = new LinkedHashSet<>();
+            runningElems = new RunningElementsIndex();
             runningElements.put(runningElemName, runningElems);
         }
-        runningElems.add(container);
+        if (!runningElems.add(container)) {
+            return;
+        }
+        List<RunningElementsIndex> indexes = containerIndexes.get(container);
+        if (indexes == null) {
+            indexes = new ArrayList<>(1);
+            containerIndexes.put(container, indexes);
+            container.setRunningManager(this);
+        }
+        indexes.add(runningElems);
     }
 
     /**
@@ -62,41 +76,162 @@ public class CssRunningManager {
      * element should be displayed for the given page with the given name or occurrence option.
      */
     public RunningElementContainer getRunningElement(String runningElemName, String occurrenceOption, int pageNum) {
-        LinkedHashSet<RunningElementContainer> runningElementContainers = runningElements.get(runningElemName);
-        if (runningElementContainers == null || runningElementContainers.isEmpty()) {
+        RunningElementsIndex runningElementContainers = runningElements.get(runningElemName);
+        if (runningElementContainers == null || pageNum < 1) {
             return null;
         }
 
-        boolean isLast = CssConstants.LAST.equals(occurrenceOption);
-        boolean isFirstExcept = CssConstants.FIRST_EXCEPT.equals(occurrenceOption);
-        boolean isStart = CssConstants.START.equals(occurrenceOption);
-
-        RunningElementContainer runningElementContainer = null;
-        for (RunningElementContainer container : runningElementContainers) {
-            if (container.getOccurrencePage() == 0 || container.getOccurrencePage() > pageNum) {
-                // Imagine that floating element is before some normal element, but is drawn on the next page,
-                // while this normal element is drawn on previous page.
-                // This example covers both the cases when zero and bigger page nums are required to be skipped,
-                // rather than breaking here.
-                continue;
+        TreeMap<Integer, RunningElementContainer> onPage = runningElementContainers.pages.get(pageNum);
+        // The running elements are chosen in the document order rather than in the page order, since a floating
+        // running element may be drawn on a page following the one of a running element which comes after it
+        int orderLimit = Integer.MAX_VALUE;
+        if (onPage != null) {
+            if (CssConstants.FIRST_EXCEPT.equals(occurrenceOption)) {
+                return null;
+            }
+            if (CssConstants.LAST.equals(occurrenceOption)) {
+                return runningElementContainers.lastBefore(pageNum + 1, Integer.MAX_VALUE);
+            }
+            Map.Entry<Integer, RunningElementContainer> first = onPage.firstEntry();
+            if (!CssConstants.START.equals(occurrenceOption) || first.getValue().isFirstOnPage()) {
+                return first.getValue();
+            }
+            orderLimit = first.getKey();
+        }
+
+        // The running element which was the last one in the document order among the ones drawn on the preceding
+        // pages is still in effect. Zero page is not a valid occurrence page: it means that the element is not drawn
+        // yet.
+        return runningElementContainers.lastBefore(pageNum, orderLimit);
+    }
+
+    /**
+     * Updates the page index of the running elements after the occurrence page of the given
+     * container has been changed. Called by {@link RunningElementContainer#setOccurrencePage(int, boolean)}.
+     *
+     * @param container    the container which occurrence page has been changed.
+     * @param previousPage the occurrence page the container had before the change.
+     */
+    public void updateOccurrencePage(RunningElementContainer container, int previousPage) {
+        List<RunningElementsIndex> indexes = containerIndexes.get(container);
+        if (indexes == null) {
+            return;
+        }
+        for (RunningElementsIndex index : indexes) {
+            index.move(container, previousPage);
+        }
+    }
+
+    /**
+     * Running elements registered with the same name, indexed by the page they were drawn on. On each page
+     * they are kept in the document order, so that the first and the last running elements
+     * of a page are found without going through the whole document. The last running element in the document
+     * order among the ones drawn up to a page is kept up to date as well, so that it's found without going
+     * through the preceding pages.
+     */
+    private static final class RunningElementsIndex {
+        private Map<RunningElementContainer, Integer> documentOrder = new HashMap<>();
+
+        private TreeMap<Integer, TreeMap<Integer, RunningElementContainer>> pages = new TreeMap<>();
+
+        /**
+         * The greatest document order among the running elements drawn on the pages up to the key page, stored
+         * only for the pages where it grows. The values increase together with the keys.
+         */
+        private TreeMap<Integer, Integer> lastOrders = new TreeMap<>();
+
+        boolean add(RunningElementContainer container) {
+            if (documentOrder.containsKey(container)) {
+                return false;
             }
+            documentOrder.put(container, documentOrder.size());
+            move(container, 0);
+            return true;
+        }
 
-            if (container.getOccurrencePage() < pageNum) {
-                runningElementContainer = container;
+        /**
+         * Finds the running element which comes last in the document order among the ones drawn on the pages
+         * preceding the given one and preceding the given position in the document order.
+         *
+         * @param pageNum    the page number
+         * @param orderLimit the exclusive limit of the position in the document order
+         * @return the running element, or null if there is no such element
+         */
+        RunningElementContainer lastBefore(int pageNum, int orderLimit) {
+            Map.Entry<Integer, Integer> lastOrder = lastOrders.lowerEntry(pageNum);
+            if (lastOrder == null) {
+                return null;
             }
-            if (container.getOccurrencePage() == pageNum) {
-                if (isFirstExcept) {
-                    return null;
+            if (lastOrder.getValue() < orderLimit) {
+                return pages.get(lastOrder.getKey()).get(lastOrder.getValue());
+            }
+            // The last element is limited only for the start occurrence, when an element of the page precedes
+            // in the document order some elements of the preceding pages
+            Map.Entry<Integer, RunningElementContainer> last = null;
+            for (TreeMap<Integer, RunningElementContainer> onPage : pages.headMap(pageNum, false).values()) {
+                Map.Entry<Integer, RunningElementContainer> candidate = onPage.lowerEntry(orderLimit);
+                if (candidate != null && (last == null || candidate.getKey() > last.getKey())) {
+                    last = candidate;
                 }
-                if (!isStart || container.isFirstOnPage()) {
-                    runningElementContainer = container;
+            }
+            return last == null ? null : last.getValue();
+        }
+
+        void move(RunningElementContainer container, int previousPage) {
+            Integer order = documentOrder.get(container);
+            if (previousPage > 0) {
+                TreeMap<Integer, RunningElementContainer> onPage = pages.get(previousPage);
+                if (onPage != null && onPage.remove(order) != null) {
+                    if (onPage.isEmpty()) {
+                        pages.remove(previousPage);
+                    }
+                    removeLastOrder(previousPage, order);
                 }
-                if (!isLast) {
-                    break;
+            }
+            int pageNum = container.getOccurrencePage();
+            if (pageNum > 0) {
+                TreeMap<Integer, RunningElementContainer> onPage = pages.get(pageNum);
+                if (onPage == null) {
+                    onPage = new TreeMap<>();
+                    pages.put(pageNum, onPage);
                 }
+                onPage.put(order, container);
+                addLastOrder(pageNum, order);
+            }
+        }
+
+        private void addLastOrder(int pageNum, int order) {
+            Map.Entry<Integer, Integer> lastOrder = lastOrders.floorEntry(pageNum);
+            if (lastOrder != null && lastOrder.getValue() >= order) {
+                return;
+            }
+            lastOrders.put(pageNum, order);
+            // The following pages which don't have a greater order anymore are dropped
+            Iterator<Integer> following = lastOrders.tailMap(pageNum, false).values().iterator();
+            while (following.hasNext() && following.next() <= order) {
+                following.remove();
             }
         }
 
-        return runningElementContainer;
+        private void removeLastOrder(int pageNum, int order) {
+            Integer lastOrder = lastOrders.get(pageNum);
+            if (lastOrder == null || lastOrder != order) {
+                return;
+            }
+            lastOrders.remove(pageNum);
+            // Only the pages up to the next greater order could have been dominated by the removed element
+            Map.Entry<Integer, Integer> previous = lastOrders.lowerEntry(pageNum);
+            int max = previous == null ? -1 : (int) previous.getValue();
+            Integer next = lastOrders.higherKey(pageNum);
+            Map<Integer, TreeMap<Integer, RunningElementContainer>> affectedPages = next == null
+                    ? pages.tailMap(pageNum, true) : pages.subMap(pageNum, true, next, false);
+            for (Map.Entry<Integer, TreeMap<Integer, RunningElementContainer>> page : affectedPages.entrySet()) {
+                int pageMax = page.getValue().lastKey();
+                if (pageMax > max) {
+                    max = pageMax;
+                    lastOrders.put(page.getKey(), max);
+                }
+            }
+        }
     }
 }
@@ -0,0 +1,481 @@
+/*
+    This file is part of the iText (R) project.
+    Copyright (c) 1998-2024 Apryse Group NV
+    Authors: Apryse Software.
+
+    This program is offered under a commercial and under the AGPL license.
+    For commercial licensing, contact us at https://itextpdf.com/sales.  For AGPL licensing, see below.
+
+    AGPL licensing:
+    This program is free software: you can redistribute it and/or modify
+    it under the terms of the GNU Affero General Public License as published by
+    the Free Software Foundation, either version 3 of the License, or
+    (at your option) any later version.
+
+    This program is distributed in the hope that it will be useful,
+    but WITHOUT ANY WARRANTY; without even the implied warranty of
+    MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE.  See the
+    GNU Affero General Public License for more details.
+
+    You should have received a copy of the GNU Affero General Public License
+    along with this program.  If not, see <https://www.gnu.org/licenses/>.
+ */
+package com.itextpdf.html2pdf.css.resolve;
+
+import java.util.AbstractMap;
+import java.util.AbstractSet;
+import java.util.ConcurrentModificationException;
+import java.util.Iterator;
+import java.util.Map;
+import java.util.NoSuchElementException;
+import java.util.Set;
+
+/**
+ * Compact representation of the resolved styles of a node, exposed as a {@link Map}.
+ * <p>
+ * The properties are stored in insertion order in two arrays of names and values, which are looked up through
+ * an open addressing hash table of array positions, so no entry object is allocated per property.
+ * The names and the short, keyword-like values can be interned into a pool shared by all the nodes of a document,
+ * and copies share the arrays of the original map until one of them is modified.
+ */
+final class CompactStylesMap extends AbstractMap<String, String> {
+
+    /** The minimal capacity of the arrays. */
+    private static final int MIN_CAPACITY = 8;
+
+    /** The maximum number of strings in a pool, after which the strings are stored as they are. */
+    static final int MAX_POOL_SIZE = 4096;
+
+    /** The maximum length of a pooled value, longer values such as URLs or content strings are rarely repeated. */
+    static final int MAX_POOLED_VALUE_LENGTH = 32;
+
+    /** The property names, in insertion order. */
+    private String[] keys;
+
+    /** The property values, in the order of the names. */
+    private String[] values;
+
+    /** The hash table of the positions of the properties, incremented by one, 0 meaning an empty slot. */
+    private int[] table;
+
+    /** The number of properties. */
+    private int size;
+
+    /** Indicates whether the arrays are shared with another map and have to be copied before a modification. */
+    private boolean shared;
+
+    /** The number of structural modifications, used to detect concurrent modifications while iterating. */
+    private int modCount;
+
+    /**
+     * Creates a new {@link CompactStylesMap} instance with the styles of another map.
+     *
+     * @param styles the styles
+     * @param pool the pool used to intern the property names and the short values, may be null
+     */
+    CompactStylesMap(Map<String, String> styles, Map<String, String> pool) {
+        int capacity = Math.max(MIN_CAPACITY, styles.size());
+        keys = new String[capacity];
+        values = new String[capacity];
+        table = new int[tableSize(capacity)];
+        for (Map.Entry<String, String> entry : styles.entrySet()) {
+            String value = entry.getValue();
+            if (value != null && value.length() <= MAX_POOLED_VALUE_LENGTH) {
+                value = intern(value, pool);
+            }
+            put(intern(entry.getKey(), pool), value);
+        }
+    }
+
+    /**
+     * Creates a new {@link CompactStylesMap} instance as a copy of another one.
+     * The maps share their arrays until one of them is modified.
+     *
+     * @param other the map to copy
+     */
+    CompactStylesMap(CompactStylesMap other) {
+        keys = other.keys;
+        values = other.values;
+        table = other.table;
+        size = other.size;
+        shared = true;
+        other.shared = true;
+    }
+
+    /**
+     * {@inheritDoc}
+     */
+    @Override
+    public int size() {
+        return size;
+    }
+
+    /**
+     * {@inheritDoc}
+     */
+    @Override
+    public boolean containsKey(Object key) {
+        return indexOf(key) >= 0;
+    }
+
+    /**
+     * {@inheritDoc}
+     */
+    @Override
+    public String get(Object key) {
+        int index = indexOf(key);
+        return index >= 0 ? values[index] : null;
+    }
+
+    /**
+     * {@inheritDoc}
+     */
+    @Override
+    public String put(String key, String value) {
+        if (key == null) {
+            throw new NullPointerException("key");
+        }
+        int index = indexOf(key);
+        ensureNotShared();
+        if (index >= 0) {
+            String previousValue = values[index];
+            values[index] = value;
+            return previousValue;
+        }
+        if (size == keys.length) {
+            grow();
+        }
+        keys[size] = key;
+        values[size] = value;
+        insertIntoTable(key, size);
+        size++;
+        modCount++;
+        return null;
+    }
+
+    /**
+     * {@inheritDoc}
+     */
+    @Override
+    public String remove(Object key) {
+        int index = indexOf(key);
+        if (index < 0) {
+            return null;
+        }
+        String previousValue = values[index];
+        removeAt(index);
+        return previousValue;
+    }
+
+    /**
+     * {@inheritDoc}
+     */
+    @Override
+    public void clear() {
+        keys = new String[MIN_CAPACITY];
+        values = new String[MIN_CAPACITY];
+        table = new int[tableSize(MIN_CAPACITY)];
+        size = 0;
+        shared = false;
+        modCount++;
+    }
+
+    /**
+     * {@inheritDoc}
+     */
+    @Override
+    public Set<Map.Entry<String, String>> entrySet() {
+        return new EntrySet();
+    }
+
+    /**
+     * Interns a string into a pool, unless the pool is full.
+     *
+     * @param value the string
+     * @param pool the pool, may be null
+     * @return the pooled instance equal to the string, or the string itself
+     */
+    private static String intern(String value, Map<String, String> pool) {
+        if (value == null || pool == null) {
+            return value;
+        }
+        String pooledValue = pool.get(value);
+        if (pooledValue == null) {
+            if (pool.size() < MAX_POOL_SIZE) {
+                pool.put(value, value);
+            }
+            return value;
+        }
+        return pooledValue;
+    }
+
+    /**
+     * Gets the size of the hash table for a given capacity, keeping the load factor at most 0.5.
+     *
+     * @param capacity the capacity of the arrays
+     * @return the size of the hash table, a power of two
+     */
+    private static int tableSize(int capacity) {
+        int tableSize = MIN_CAPACITY * 2;
+        while (tableSize < capacity * 2) {
+            tableSize <<= 1;
+        }
+        return tableSize;
+    }
+
+    /**
+     * Gets the first slot of the hash table to probe for a key.
+     *
+     * @param key the key
+     * @param mask the mask of the hash table
+     * @return the slot
+     */
+    private static int slotOf(Object key, int mask) {
+        int hash = key.hashCode();
+        return (hash ^ (hash >>> 16)) & mask;
+    }
+
+    /**
+     * Gets the position of a property in the arrays.
+     *
+     * @param key the property name
+     * @return the position, or -1 if there is no such property
+     */
+    private int indexOf(Object key) {
+        if (key == null) {
+            return -1;
+        }
+        int mask = table.length - 1;
+        for (int slot = slotOf(key, mask); table[slot] != 0; slot = (slot + 1) & mask) {
+            int index = table[slot] - 1;
+            if (keys[index] == key || keys[index].equals(key)) {
+                return index;
+            }
+        }
+        return -1;
+    }
+
+    /**
+     * Inserts the position of a property into the hash table.
+     *
+     * @param key the property name
+     * @param index the position of the property in the arrays
+     */
+    private void insertIntoTable(String key, int index) {
+        int mask = table.length - 1;
+        int slot = slotOf(key, mask);
+        while (table[slot] != 0) {
+            slot = (slot + 1) & mask;
+        }
+        table[slot] = index + 1;
+    }
+
+    /**
+     * Rebuilds the hash table from the arrays.
+     *
+     * @param tableSize the size of the hash table
+     */
+    private void rebuildTable(int tableSize) {
+        table = new int[tableSize];
+        for (int i = 0; i < size; i++) {
+            insertIntoTable(keys[i], i);
+        }
+    }
+
+    /**
+     * Grows the arrays and the hash table.
+     */
+    private void grow() {
+        int capacity = keys.length + (keys.length >> 1);
+        String[] newKeys = new String[capacity];
+        String[] newValues = new String[capacity];
+        System.arraycopy(keys, 0, newKeys, 0, size);
+        System.arraycopy(values, 0, newValues, 0, size);
+        keys = newKeys;
+        values = newValues;
+        rebuildTable(tableSize(capacity));
+    }
+
+    /**
+     * Removes the property at a given position, keeping the insertion order of the other properties.
+     *
+     * @param index the position of the property
+     */
+    private void removeAt(int index) {
+        ensureNotShared();
+        int movedCount = size - index - 1;
+        System.arraycopy(keys, index + 1, keys, index, movedCount);
+        System.arraycopy(values, index + 1, values, index, movedCount);
+        size--;
+        keys[size] = null;
+        values[size] = null;
+        rebuildTable(table.length);
+        modCount++;
+    }
+
+    /**
+     * Copies the arrays if they are shared with another map.
+     */
+    private void ensureNotShared() {
+        if (shared) {
+            keys = keys.clone();
+            values = values.clone();
+            table = table.clone();
+            shared = false;
+        }
+    }
+
+    /**
+     * The entry set view of the map.
+     */
+    private final class EntrySet extends AbstractSet<Map.Entry<String, String>> {
+
+        /**
+         * {@inheritDoc}
+         */
+        @Override
+        public Iterator<Map.Entry<String, String>> iterator() {
+            return new EntryIterator();
+        }
+
+        /**
+         * {@inheritDoc}
+         */
+        @Override
+        public int size() {
+            return size;
+        }
+    }
+
+    /**
+     * The iterator over the entries of the map, in insertion order.
+     */
+    private final class EntryIterator implements Iterator<Map.Entry<String, String>> {
+
+        /** The position of the next entry. */
+        private int next;
+
+        /** The position of the last returned entry, or -1. */
+        private int last = -1;
+
+        /** The expected number of structural modifications of the map. */
+        private int expectedModCount = modCount;
+
+        /**
+         * {@inheritDoc}
+         */
+        @Override
+        public boolean hasNext() {
+            return next < size;
+        }
+
+        /**
+         * {@inheritDoc}
+         */
+        @Override
+        public Map.Entry<String, String> next() {
+            if (modCount != expectedModCount) {
+                throw new ConcurrentModificationException();
+            }
+            if (next >= size) {
+                throw new NoSuchElementException();
+            }
+            last = next++;
+            return new Entry(last);
+        }
+
+        /**
+         * {@inheritDoc}
+         */
+        @Override
+        public void remove() {
+            if (last < 0) {
+                throw new IllegalStateException();
+            }
+            if (modCount != expectedModCount) {
+                throw new ConcurrentModificationException();
+            }
+            removeAt(last);
+            next = last;
+            last = -1;
+            expectedModCount = modCount;
+        }
+    }
+
+    /**
+     * An entry of the map, backed by the arrays of the map.
+     */
+    private final class Entry implements Map.Entry<String, String> {
+
+        /** The property name. */
+        private final String key;
+
+        /** The position of the property at the moment the entry was created. */
+        private final int index;
+
+        /**
+         * Creates a new {@link Entry} instance.
+         *
+         * @param index the position of the property
+         */
+        Entry(int index) {
+            this.key = keys[index];
+            this.index = index;
+        }
+
+        /**
+         * {@inheritDoc}
+         */
+        @Override
+        public String getKey() {
+            return key;
+        }
+
+        /**
+         * {@inheritDoc}
+         */
+        @Override
+        public String getValue() {
+            return index < size && keys[index] == key ? values[index] : get(key);
+        }
+
+        /**
+         * {@inheritDoc}
+         */
+        @Override
+        public String setValue(String value) {
+            return put(key, value);
+        }
+
+        /**
+         * {@inheritDoc}
+         */
+        @Override
+        public boolean equals(Object o) {
+            if (!(o instanceof Map.Entry)) {
+                return false;
+            }
+            Map.Entry<?, ?> other = (Map.Entry<?, ?>) o;
+            String value = getValue();
+            return key.equals(other.getKey())
+                    && (value == null ? other.getValue() == null : value.equals(other.getValue()));
+        }
+
+        /**
+         * {@inheritDoc}
+         */
+        @Override
+        public int hashCode() {
+            String value = getValue();
+            return key.hashCode() ^ (value == null ? 0 : value.hashCode());
+        }
+
+        /**
+         * {@inheritDoc}
+         */
+        @Override
+        public String toString() {
+            return key + "=" + getValue();
+        }
+    }
+}
@@ -0,0 +1,138 @@
+/*
+    This file is part of the iText (R) project.
+    Copyright (c) 1998-2024 Apryse Group NV
+    Authors: Apryse Software.
+
+    This program is offered under a commercial and under the AGPL license.
+    For commercial licensing, contact us at https://itextpdf.com/sales.  For AGPL licensing, see below.
+
+    AGPL licensing:
+    This program is free software: you can redistribute it and/or modify
+    it under the terms of the GNU Affero General Public License as published by
+    the Free Software Foundation, either version 3 of the License, or
+    (at your option) any later version.
+
+    This program is distributed in the hope that it will be useful,
+    but WITHOUT ANY WARRANTY; without even the implied warranty of
+    MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE.  See the
+    GNU Affero General Public License for more details.
+
+    You should have received a copy of the GNU Affero General Public License
+    along with this program.  If not, see <https://www.gnu.org/licenses/>.
+ */
+package com.itextpdf.html2pdf.css.resolve;
+
+import com.itextpdf.html2pdf.util.ContentKey;
+import com.itextpdf.html2pdf.util.ContentLruCache;
+import com.itextpdf.styledxmlparser.css.CssStyleSheet;
+
+/**
+ * The default {@link ICompiledStyleSheetCache} implementation, which keeps the least recently used style sheets
+ * within the limits on the number of style sheets and on the total size of their content.
+ * <p>
+ * This class is thread-safe.
+ */
+public class CompiledStyleSheetCache implements ICompiledStyleSheetCache {
+
+    /**
+     * The default maximum number of cached style sheets.
+     */
+    public static final int DEFAULT_MAX_STYLE_SHEET_COUNT = 128;
+
+    /**
+     * The default maximum total size of the cached style sheet content, in bytes.
+     */
+    public static final long DEFAULT_MAX_TOTAL_SIZE = 16L * 1024 * 1024;
+
+    /**
+     * The cached style sheets.
+     */
+    private final ContentLruCache<CssStyleSheet> cache;
+
+    /**
+     * Creates a new {@link CompiledStyleSheetCache} instance with the default limits.
+     */
+    public CompiledStyleSheetCache() {
+        this(DEFAULT_MAX_STYLE_SHEET_COUNT, DEFAULT_MAX_TOTAL_SIZE);
+    }
+
+    /**
+     * Creates a new {@link CompiledStyleSheetCache} instance.
+     *
+     * @param maxStyleSheetCount the maximum number of cached style sheets
+     * @param maxTotalSize the maximum total size of the cached style sheet content, in bytes
+     */
+    public CompiledStyleSheetCache(int maxStyleSheetCount, long maxTotalSize) {
+        this.cache = new ContentLruCache<>(maxStyleSheetCount, maxTotalSize);
+    }
+
+    /**
+     * {@inheritDoc}
+     */
+    @Override
+    public CssStyleSheet get(ContentKey key) {
+        return cache.get(key);
+    }
+
+    /**
+     * {@inheritDoc}
+     * <p>
+     * A style sheet whose content alone exceeds the maximum total size is not cached.
+     */
+    @Override
+    public void put(ContentKey key, CssStyleSheet styleSheet) {
+        cache.put(key, styleSheet, key.getContentLength());
+    }
+
+    /**
+     * Removes all the style sheets from the cache. The statistics are kept.
+     */
+    public void clear() {
+        cache.clear();
+    }
+
+    /**
+     * Gets the number of the cached style sheets.
+     *
+     * @return the number of the cached style sheets
+     */
+    public int getStyleSheetCount() {
+        return cache.getEntryCount();
+    }
+
+    /**
+     * Gets the total size of the cached style sheet content.
+     *
+     * @return the total size of the cached style sheet content, in bytes
+     */
+    public long getTotalSize() {
+        return cache.getTotalSize();
+    }
+
+    /**
+     * Gets the number of the requests that were served from the cache.
+     *
+     * @return the hit count
+     */
+    public long getHitCount() {
+        return cache.getHitCount();
+    }
+
+    /**
+     * Gets the number of the requests that weren't served from the cache.
+     *
+     * @return the miss count
+     */
+    public long getMissCount() {
+        return cache.getMissCount();
+    }
+
+    /**
+     * Gets the number of the style sheets that were removed from the cache to stay within the limits.
+     *
+     * @return the eviction count
+     */
+    public long getEvictionCount() {
+        return cache.getEvictionCount();
+    }
+}
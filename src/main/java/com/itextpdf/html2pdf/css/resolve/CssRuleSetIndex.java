@@ -0,0 +1,447 @@
+/*
+    This file is part of the iText (R) project.
+    Copyright (c) 1998-2024 Apryse Group NV
+    Authors: Apryse Software.
+
+    This program is offered under a commercial and under the AGPL license.
+    For commercial licensing, contact us at https://itextpdf.com/sales.  For AGPL licensing, see below.
+
+    AGPL licensing:
+    This program is free software: you can redistribute it and/or modify
+    it under the terms of the GNU Affero General Public License as published by
+    the Free Software Foundation, either version 3 of the License, or
+    (at your option) any later version.
+
+    This program is distributed in the hope that it will be useful,
+    but WITHOUT ANY WARRANTY; without even the implied warranty of
+    MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE.  See the
+    GNU Affero General Public License for more details.
+
+    You should have received a copy of the GNU Affero General Public License
+    along with this program.  If not, see <https://www.gnu.org/licenses/>.
+ */
+package com.itextpdf.html2pdf.css.resolve;
+
+import com.itextpdf.html2pdf.html.AttributeConstants;
+import com.itextpdf.styledxmlparser.CssRuleSetComparator;
+import com.itextpdf.styledxmlparser.css.CssFontFaceRule;
+import com.itextpdf.styledxmlparser.css.CssNestedAtRule;
+import com.itextpdf.styledxmlparser.css.CssRuleSet;
+import com.itextpdf.styledxmlparser.css.CssSemicolonAtRule;
+import com.itextpdf.styledxmlparser.css.CssStatement;
+import com.itextpdf.styledxmlparser.css.CssStyleSheet;
+import com.itextpdf.styledxmlparser.css.media.CssMediaRule;
+import com.itextpdf.styledxmlparser.css.media.MediaDeviceDescription;
+import com.itextpdf.styledxmlparser.css.page.CssMarginRule;
+import com.itextpdf.styledxmlparser.css.page.CssPageRule;
+import com.itextpdf.styledxmlparser.css.pseudo.CssPseudoElementNode;
+import com.itextpdf.styledxmlparser.css.selector.CssPageMarginBoxSelector;
+import com.itextpdf.styledxmlparser.css.selector.CssPageSelector;
+import com.itextpdf.styledxmlparser.css.selector.CssSelector;
+import com.itextpdf.styledxmlparser.css.selector.ICssSelector;
+import com.itextpdf.styledxmlparser.css.selector.item.CssAttributeSelectorItem;
+import com.itextpdf.styledxmlparser.css.selector.item.CssClassSelectorItem;
+import com.itextpdf.styledxmlparser.css.selector.item.CssIdSelectorItem;
+import com.itextpdf.styledxmlparser.css.selector.item.CssPseudoClassSelectorItem;
+import com.itextpdf.styledxmlparser.css.selector.item.CssPseudoElementSelectorItem;
+import com.itextpdf.styledxmlparser.css.selector.item.CssSeparatorSelectorItem;
+import com.itextpdf.styledxmlparser.css.selector.item.CssTagSelectorItem;
+import com.itextpdf.styledxmlparser.css.selector.item.ICssSelectorItem;
+import com.itextpdf.styledxmlparser.node.ICustomElementNode;
+import com.itextpdf.styledxmlparser.node.IDocumentNode;
+import com.itextpdf.styledxmlparser.node.IElementNode;
+import com.itextpdf.styledxmlparser.node.INode;
+
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.Comparator;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+
+/**
+ * Index of the rule sets of a {@link CssStyleSheet} which allows to match a node only against its candidate rule sets.
+ * <p>
+ * Each rule set is put into a bucket according to the rightmost compound selector, i.e. the part of the selector
+ * which has to match the node itself: by id, class, tag name or attribute name, in this order of preference.
+ * Rule sets targeting pseudo-elements are bucketed by the pseudo-element name, and the statements which cannot be
+ * bucketed are checked against every node. Page and margin box nodes are matched against the whole style sheet.
+ * <p>
+ * The matched rule sets are the same, and in the same order, as the ones returned by
+ * {@link CssStyleSheet#getCssRuleSets}, the media rules being evaluated once against the device description
+ * when the index is built.
+ */
+final class CssRuleSetIndex {
+
+    /** The {@code :disabled} pseudo-class, which only depends on the attributes of an element. */
+    private static final String DISABLED_PSEUDO_CLASS = ":disabled";
+
+    /** The indexed style sheet. */
+    private final CssStyleSheet styleSheet;
+
+    /** The device description. */
+    private final MediaDeviceDescription deviceDescription;
+
+    /** The rule sets whose rightmost compound selector contains an id, by id. */
+    private final Map<String, List<IndexedStatement>> idIndex = new HashMap<>();
+
+    /** The rule sets whose rightmost compound selector contains a class, by class name. */
+    private final Map<String, List<IndexedStatement>> classIndex = new HashMap<>();
+
+    /** The rule sets whose rightmost compound selector contains a tag, by tag name. */
+    private final Map<String, List<IndexedStatement>> tagIndex = new HashMap<>();
+
+    /** The rule sets whose rightmost compound selector contains an attribute, by attribute name. */
+    private final Map<String, List<IndexedStatement>> attributeIndex = new HashMap<>();
+
+    /** The rule sets whose rightmost compound selector contains a pseudo-element, by pseudo-element name. */
+    private final Map<String, List<IndexedStatement>> pseudoElementIndex = new HashMap<>();
+
+    /** The statements which have to be checked against every node. */
+    private final List<IndexedStatement> universalStatements = new ArrayList<>();
+
+    /**
+     * Creates a new {@link CssRuleSetIndex} instance.
+     *
+     * @param styleSheet the style sheet to index, which should not be modified afterwards
+     * @param deviceDescription the device description
+     */
+    CssRuleSetIndex(CssStyleSheet styleSheet, MediaDeviceDescription deviceDescription) {
+        this.styleSheet = styleSheet;
+        this.deviceDescription = deviceDescription;
+        indexStatements(styleSheet.getStatements(), new int[] {0});
+    }
+
+    /**
+     * Gets the rule sets of the style sheet which match a node.
+     *
+     * @param node the node
+     * @return the list of the matching {@link CssRuleSet} instances, sorted by specificity and style sheet order
+     */
+    List<CssRuleSet> getCssRuleSets(INode node) {
+        List<IndexedStatement> candidates;
+        if (isRegularElement(node)) {
+            candidates = collectElementCandidates((IElementNode) node);
+        } else if (node instanceof CssPseudoElementNode) {
+            candidates = new ArrayList<>(universalStatements);
+            addAll(candidates, pseudoElementIndex.get(((CssPseudoElementNode) node).getPseudoElementName()));
+        } else {
+            return styleSheet.getCssRuleSets(node, deviceDescription);
+        }
+        Collections.sort(candidates, new Comparator<IndexedStatement>() {
+            @Override
+            public int compare(IndexedStatement o1, IndexedStatement o2) {
+                return Integer.compare(o1.order, o2.order);
+            }
+        });
+        List<CssRuleSet> ruleSets = new ArrayList<>();
+        int previousOrder = -1;
+        for (IndexedStatement candidate : candidates) {
+            // The same rule set may be found in a bucket several times, e.g. for repeated class names
+            if (candidate.order != previousOrder) {
+                ruleSets.addAll(candidate.statement.getCssRuleSets(node, deviceDescription));
+                previousOrder = candidate.order;
+            }
+        }
+        Collections.sort(ruleSets, new CssRuleSetComparator());
+        return ruleSets;
+    }
+
+    /**
+     * Checks if the rule sets which may match a node are all plain tag selectors,
+     * i.e. if the matching rule sets only depend on the tag name of the node.
+     *
+     * @param node the node
+     * @return true if the node is an element which can only be matched by plain tag selectors
+     */
+    boolean isMatchedByTagOnly(INode node) {
+        if (!isRegularElement(node) || !universalStatements.isEmpty()) {
+            return false;
+        }
+        IElementNode element = (IElementNode) node;
+        List<IndexedStatement> candidates = new ArrayList<>();
+        collectNonTagCandidates(element, candidates);
+        if (!candidates.isEmpty()) {
+            return false;
+        }
+        List<IndexedStatement> tagStatements = tagIndex.get(element.name());
+        if (tagStatements != null) {
+            for (IndexedStatement statement : tagStatements) {
+                if (!statement.plainTagSelector) {
+                    return false;
+                }
+            }
+        }
+        return true;
+    }
+
+    /**
+     * Gets the scope within which the elements having the same tag name and attributes as the given node
+     * are matched by the same rule sets.
+     *
+     * @param node the node
+     * @return the {@link StyleSharingScope} of the node
+     */
+    StyleSharingScope getStyleSharingScope(INode node) {
+        if (!isRegularElement(node)) {
+            return StyleSharingScope.NONE;
+        }
+        StyleSharingScope scope = StyleSharingScope.ANY;
+        for (IndexedStatement candidate : collectElementCandidates((IElementNode) node)) {
+            if (candidate.sharingScope.compareTo(scope) < 0) {
+                scope = candidate.sharingScope;
+                if (scope == StyleSharingScope.NONE) {
+                    break;
+                }
+            }
+        }
+        return scope;
+    }
+
+    /**
+     * Checks if a node is an element of the document, i.e. a node which can be matched by regular selectors only.
+     *
+     * @param node the node
+     * @return true if the node is a regular element
+     */
+    private static boolean isRegularElement(INode node) {
+        return node instanceof IElementNode && !(node instanceof ICustomElementNode)
+                && !(node instanceof IDocumentNode);
+    }
+
+    /**
+     * Collects the candidate statements of an element.
+     *
+     * @param element the element
+     * @return the list of candidate statements, possibly with duplicates
+     */
+    private List<IndexedStatement> collectElementCandidates(IElementNode element) {
+        List<IndexedStatement> candidates = new ArrayList<>(universalStatements);
+        addAll(candidates, tagIndex.get(element.name()));
+        collectNonTagCandidates(element, candidates);
+        return candidates;
+    }
+
+    /**
+     * Collects the candidate statements of an element from the id, class and attribute buckets.
+     *
+     * @param element the element
+     * @param candidates the list to add the candidate statements to
+     */
+    private void collectNonTagCandidates(IElementNode element, List<IndexedStatement> candidates) {
+        if (!idIndex.isEmpty()) {
+            String id = element.getAttribute(AttributeConstants.ID);
+            if (id != null) {
+                addAll(candidates, idIndex.get(id));
+            }
+        }
+        if (!classIndex.isEmpty()) {
+            String classAttribute = element.getAttribute(AttributeConstants.CLASS);
+            if (classAttribute != null) {
+                for (String className : classAttribute.split(" ")) {
+                    addAll(candidates, classIndex.get(className.trim()));
+                }
+            }
+        }
+        for (Map.Entry<String, List<IndexedStatement>> entry : attributeIndex.entrySet()) {
+            if (element.getAttribute(entry.getKey()) != null) {
+                candidates.addAll(entry.getValue());
+            }
+        }
+    }
+
+    /**
+     * Indexes statements, flattening the nested at-rules which apply to the device description.
+     *
+     * @param statements the statements to index
+     * @param order a single-element array holding the position of the next statement in the style sheet
+     */
+    private void indexStatements(List<CssStatement> statements, int[] order) {
+        for (CssStatement statement : statements) {
+            if (statement instanceof CssMediaRule) {
+                if (((CssMediaRule) statement).matchMediaDevice(deviceDescription)) {
+                    indexStatements(((CssMediaRule) statement).getStatements(), order);
+                }
+            } else if (statement instanceof CssPageRule || statement instanceof CssMarginRule
+                    || statement instanceof CssFontFaceRule || statement.getClass() == CssNestedAtRule.class) {
+                indexStatements(((CssNestedAtRule) statement).getStatements(), order);
+            } else if (statement instanceof CssRuleSet) {
+                indexRuleSet((CssRuleSet) statement, order[0]++);
+            } else if (statement instanceof CssSemicolonAtRule) {
+                // @charset, @import and the like never yield rule sets, so they must not disable style sharing
+                continue;
+            } else {
+                universalStatements.add(new IndexedStatement(statement, order[0]++, false, StyleSharingScope.NONE));
+            }
+        }
+    }
+
+    /**
+     * Puts a rule set into the bucket of its rightmost compound selector.
+     *
+     * @param ruleSet the rule set
+     * @param order the position of the rule set in the style sheet
+     */
+    private void indexRuleSet(CssRuleSet ruleSet, int order) {
+        ICssSelector selector = ruleSet.getSelector();
+        if (selector instanceof CssPageSelector || selector instanceof CssPageMarginBoxSelector) {
+            // Page rules never match elements, page nodes are matched against the whole style sheet
+            return;
+        }
+        if (!(selector instanceof CssSelector)) {
+            universalStatements.add(new IndexedStatement(ruleSet, order, false, StyleSharingScope.NONE));
+            return;
+        }
+        List<ICssSelectorItem> items = ((CssSelector) selector).getSelectorItems();
+        String id = null;
+        String className = null;
+        String tagName = null;
+        String attributeName = null;
+        String pseudoElementName = null;
+        for (int i = items.size() - 1; i >= 0 && !(items.get(i) instanceof CssSeparatorSelectorItem); i--) {
+            ICssSelectorItem item = items.get(i);
+            if (item instanceof CssPseudoElementSelectorItem) {
+                // toString() of a pseudo-element selector item is "::name"
+                pseudoElementName = item.toString().substring(2);
+            } else if (item instanceof CssIdSelectorItem) {
+                id = item.toString().substring(1);
+            } else if (item instanceof CssClassSelectorItem) {
+                className = item.toString().substring(1);
+            } else if (item instanceof CssTagSelectorItem && !"*".equals(item.toString())) {
+                tagName = item.toString();
+            } else if (item instanceof CssAttributeSelectorItem) {
+                attributeName = getAttributeName(item.toString());
+            }
+        }
+        IndexedStatement indexedStatement = new IndexedStatement(ruleSet, order,
+                tagName != null && items.size() == 1, getStyleSharingScope(items));
+        if (pseudoElementName != null) {
+            // Pseudo-element selector items only match pseudo-element nodes
+            addToIndex(pseudoElementIndex, pseudoElementName, indexedStatement);
+        } else if (id != null) {
+            addToIndex(idIndex, id, indexedStatement);
+        } else if (className != null) {
+            addToIndex(classIndex, className, indexedStatement);
+        } else if (tagName != null) {
+            addToIndex(tagIndex, tagName, indexedStatement);
+        } else if (attributeName != null) {
+            addToIndex(attributeIndex, attributeName, indexedStatement);
+        } else {
+            universalStatements.add(indexedStatement);
+        }
+    }
+
+    /**
+     * Gets the scope within which a selector matches the elements having the same tag name and attributes alike.
+     * <p>
+     * Pseudo-classes of the rightmost compound selector (except for {@code :disabled}) and sibling combinators
+     * before it depend on the position of the element, so such selectors prevent style sharing. Other combinators
+     * and pseudo-classes only depend on the ancestors of the element, which are the same for siblings.
+     *
+     * @param items the selector items
+     * @return the {@link StyleSharingScope} of the selector
+     */
+    private static StyleSharingScope getStyleSharingScope(List<ICssSelectorItem> items) {
+        int i = items.size() - 1;
+        for (; i >= 0 && !(items.get(i) instanceof CssSeparatorSelectorItem); i--) {
+            if (items.get(i) instanceof CssPseudoClassSelectorItem
+                    && !DISABLED_PSEUDO_CLASS.equals(items.get(i).toString())) {
+                return StyleSharingScope.NONE;
+            }
+        }
+        if (i < 0) {
+            return StyleSharingScope.ANY;
+        }
+        char separator = ((CssSeparatorSelectorItem) items.get(i)).getSeparator();
+        return separator == '+' || separator == '~' ? StyleSharingScope.NONE : StyleSharingScope.SIBLINGS;
+    }
+
+    /**
+     * Gets the attribute name from the string representation of an attribute selector item.
+     *
+     * @param attributeSelector the attribute selector item, e.g. {@code [type="radio"]}
+     * @return the attribute name
+     */
+    private static String getAttributeName(String attributeSelector) {
+        int end = 1;
+        while (end < attributeSelector.length() && "~|^$*=]".indexOf(attributeSelector.charAt(end)) == -1) {
+            end++;
+        }
+        return attributeSelector.substring(1, end);
+    }
+
+    /**
+     * Adds a statement to a bucket of an index.
+     *
+     * @param index the index
+     * @param key the bucket key
+     * @param statement the statement
+     */
+    private static void addToIndex(Map<String, List<IndexedStatement>> index, String key, IndexedStatement statement) {
+        List<IndexedStatement> bucket = index.get(key);
+        if (bucket == null) {
+            bucket = new ArrayList<>();
+            index.put(key, bucket);
+        }
+        bucket.add(statement);
+    }
+
+    /**
+     * Adds the statements of a bucket to a list of candidates.
+     *
+     * @param candidates the list of candidates
+     * @param bucket the bucket, may be null
+     */
+    private static void addAll(List<IndexedStatement> candidates, List<IndexedStatement> bucket) {
+        if (bucket != null) {
+            candidates.addAll(bucket);
+        }
+    }
+
+    /**
+     * A statement of the style sheet along with its position in the style sheet.
+     */
+    private static class IndexedStatement {
+
+        /** The statement. */
+        private final CssStatement statement;
+
+        /** The position of the statement in the style sheet. */
+        private final int order;
+
+        /** Indicates whether the statement is a rule set with a single tag selector. */
+        private final boolean plainTagSelector;
+
+        /** The scope within which the statement matches the elements having the same tag name and attributes. */
+        private final StyleSharingScope sharingScope;
+
+        /**
+         * Creates a new {@link IndexedStatement} instance.
+         *
+         * @param statement the statement
+         * @param order the position of the statement in the style sheet
+         * @param plainTagSelector whether the statement is a rule set with a single tag selector
+         * @param sharingScope the style sharing scope of the statement
+         */
+        IndexedStatement(CssStatement statement, int order, boolean plainTagSelector,
+                StyleSharingScope sharingScope) {
+            this.statement = statement;
+            this.order = order;
+            this.plainTagSelector = plainTagSelector;
+            this.sharingScope = sharingScope;
+        }
+    }
+
+    /**
+     * The scope within which elements having the same tag name and attributes can share their resolved styles,
+     * from the narrowest to the widest.
+     */
+    enum StyleSharingScope {
+        /** The styles can't be shared. */
+        NONE,
+        /** The styles can be shared between siblings. */
+        SIBLINGS,
+        /** The styles can be shared between any elements having parents with equal styles. */
+        ANY
+    }
+}
@@ -30,7 +30,9 @@ import com.itextpdf.html2pdf.css.util.CssStyleSheetAnalyzer;
 import com.itextpdf.html2pdf.exceptions.Html2PdfException;
 import com.itextpdf.html2pdf.html.AttributeConstants;
 import com.itextpdf.html2pdf.html.TagConstants;
+import com.itextpdf.html2pdf.util.ContentKey;
 import com.itextpdf.io.util.DecimalFormatUtil;
+import com.itextpdf.io.util.StreamUtil;
 import com.itextpdf.styledxmlparser.css.CommonCssConstants;
 import com.itextpdf.styledxmlparser.css.CssFontFaceRule;
 import com.itextpdf.styledxmlparser.css.CssRuleSet;
@@ -58,10 +60,16 @@ import com.itextpdf.styledxmlparser.node.IStylesContainer;
 import com.itextpdf.styledxmlparser.resolver.resource.ResourceResolver;
 import com.itextpdf.styledxmlparser.util.StyleUtil;
 
+import java.io.ByteArrayInputStream;
+import java.io.IOException;
 import java.io.InputStream;
+import java.nio.charset.StandardCharsets;
+import java.util.ArrayDeque;
 import java.util.ArrayList;
+import java.util.Collection;
+import java.util.HashMap;
 import java.util.HashSet;
-import java.util.LinkedList;
+import java.util.LinkedHashMap;
 import java.util.List;
 import java.util.Map;
 import java.util.Map.Entry;
@@ -74,11 +82,21 @@ import org.slf4j.LoggerFactory;
  */
 public class DefaultCssResolver implements ICssResolver {
 
+    /**
+     * The maximum number of entries of the style sharing cache.
+     */
+    private static final int STYLE_SHARING_CACHE_SIZE = 256;
+
     /**
      * The CSS style sheet.
      */
     private CssStyleSheet cssStyleSheet;
 
+    /**
+     * The index of the rule sets of the CSS style sheet.
+     */
+    private CssRuleSetIndex cssRuleSetIndex;
+
     /**
      * The device description.
      */
@@ -94,6 +112,24 @@ public class DefaultCssResolver implements ICssResolver {
      */
     private List<CssFontFaceRule> fonts = new ArrayList<>();
 
+    /**
+     * The resolved styles of recently processed elements, which are reused for the elements
+     * having the same tag name, attributes and parent styles.
+     */
+    private final Map<StyleSharingKey, CompactStylesMap> styleSharingCache =
+            new LinkedHashMap<StyleSharingKey, CompactStylesMap>(16, 0.75f, true) {
+                @Override
+                protected boolean removeEldestEntry(Map.Entry<StyleSharingKey, CompactStylesMap> eldest) {
+                    return size() > STYLE_SHARING_CACHE_SIZE;
+                }
+            };
+
+    /**
+     * The pool of the property names and the short values of the resolved styles, shared by all the nodes
+     * of the document. The size of the pool is limited by {@link CompactStylesMap}.
+     */
+    private final Map<String, String> stylesPool = new HashMap<>();
+
     /**
      * Creates a new {@link DefaultCssResolver} instance.
      *
@@ -103,7 +139,7 @@ public class DefaultCssResolver implements ICssResolver {
      */
     public DefaultCssResolver(INode treeRoot, MediaDeviceDescription mediaDeviceDescription, ResourceResolver resourceResolver) {
         this.deviceDescription = mediaDeviceDescription;
-        collectCssDeclarations(treeRoot, resourceResolver, null);
+        collectCssDeclarations(treeRoot, resourceResolver, null, null);
         collectFonts();
     }
 
@@ -115,7 +151,23 @@ public class DefaultCssResolver implements ICssResolver {
      */
     public DefaultCssResolver(INode treeRoot, ProcessorContext context) {
         this.deviceDescription = context.getDeviceDescription();
-        collectCssDeclarations(treeRoot, context.getResourceResolver(), context.getCssContext());
+        collectCssDeclarations(treeRoot, context.getResourceResolver(), context.getCssContext(),
+                context.getCompiledStyleSheetCache());
+        collectFonts();
+    }
+
+    /**
+     * Creates a new {@link DefaultCssResolver} instance from the style sheet elements which were already
+     * collected from the document, so that the tree doesn't have to be walked once more.
+     *
+     * @param styleSheetElements the <code>&lt;style&gt;</code> and <code>&lt;link&gt;</code> elements of
+     *                           the document, in breadth-first document order
+     * @param context            the processor context
+     */
+    public DefaultCssResolver(List<IElementNode> styleSheetElements, ProcessorContext context) {
+        this.deviceDescription = context.getDeviceDescription();
+        collectCssDeclarations(styleSheetElements, context.getResourceResolver(), context.getCssContext(),
+                context.getCompiledStyleSheetCache());
         collectFonts();
     }
 
@@ -128,6 +180,16 @@ public class DefaultCssResolver implements ICssResolver {
         return fonts;
     }
 
+    /**
+     * Collects the sources of the resources referenced with {@code url()} by the style sheet declarations
+     * which apply to the media device, e.g. the background images.
+     *
+     * @param urls the collection the sources are added to
+     */
+    public void collectResourceUrls(Collection<String> urls) {
+        CssStyleSheetAnalyzer.collectResourceUrls(cssStyleSheet, deviceDescription, urls);
+    }
+
     /**
      * Resolves content and counter(s) styles of a node given the passed context.
      *
@@ -155,6 +217,69 @@ public class DefaultCssResolver implements ICssResolver {
      * @see com.itextpdf.html2pdf.css.resolve.ICssResolver#resolveStyles(com.itextpdf.html2pdf.html.node.INode, com.itextpdf.html2pdf.css.resolve.CssContext)
      */
     private Map<String, String> resolveStyles(INode element, CssContext context) {
+        StyleSharingKey sharingKey = createStyleSharingKey(element, context);
+        CompactStylesMap sharedStyles = sharingKey == null ? null : styleSharingCache.get(sharingKey);
+        CompactStylesMap elementStyles;
+        if (sharedStyles != null) {
+            elementStyles = new CompactStylesMap(sharedStyles);
+        } else {
+            elementStyles = new CompactStylesMap(computeStyles(element, context), stylesPool);
+            if (sharingKey != null) {
+                styleSharingCache.put(sharingKey.snapshot(), new CompactStylesMap(elementStyles));
+            }
+        }
+
+        // Update root font size
+        if (element instanceof IElementNode && TagConstants.HTML.equals(((IElementNode) element).name())) {
+            context.setRootFontSize(elementStyles.get(CssConstants.FONT_SIZE));
+        }
+
+        // This is needed for correct resolving of content property, so doing it right here
+        CounterProcessorUtil.processCounters(elementStyles, context);
+        resolveContentProperty(elementStyles, element, context);
+
+        return elementStyles;
+    }
+
+    /**
+     * Creates the key of the style sharing cache for a node.
+     *
+     * @param element the node
+     * @param context the CSS context
+     * @return the {@link StyleSharingKey}, or null if the styles of the node can't be shared
+     */
+    private StyleSharingKey createStyleSharingKey(INode element, CssContext context) {
+        // The HTML attributes of tables are propagated to their cells when the table styles are resolved
+        if (!(element instanceof IElementNode) || TagConstants.TABLE.equals(((IElementNode) element).name())
+                || !(element.parentNode() instanceof IStylesContainer)) {
+            return null;
+        }
+        Map<String, String> parentStyles = ((IStylesContainer) element.parentNode()).getStyles();
+        if (parentStyles == null) {
+            return null;
+        }
+        CssRuleSetIndex.StyleSharingScope scope = UserAgentCss.getStyleSharingScope(element);
+        if (scope != CssRuleSetIndex.StyleSharingScope.NONE) {
+            CssRuleSetIndex.StyleSharingScope authorScope = cssRuleSetIndex.getStyleSharingScope(element);
+            if (authorScope.compareTo(scope) < 0) {
+                scope = authorScope;
+            }
+        }
+        if (scope == CssRuleSetIndex.StyleSharingScope.NONE) {
+            return null;
+        }
+        return new StyleSharingKey((IElementNode) element, scope == CssRuleSetIndex.StyleSharingScope.SIBLINGS,
+                parentStyles, context.getRootFontSize());
+    }
+
+    /**
+     * Computes the styles of a node, before the counters and the content property are processed.
+     *
+     * @param element the node
+     * @param context the CSS context
+     * @return the map of the node styles
+     */
+    private Map<String, String> computeStyles(INode element, CssContext context) {
         Map<String, String> elementStyles = resolveElementsStyles(element);
 
         if (CssConstants.CURRENTCOLOR.equals(elementStyles.get(CssConstants.COLOR))) {
@@ -213,11 +338,6 @@ public class DefaultCssResolver implements ICssResolver {
             elementStyles.put(CssConstants.FONT_SIZE, Float.toString(CssDimensionParsingUtils.parseAbsoluteFontSize(elementFontSize)) + CssConstants.PT);
         }
 
-        // Update root font size
-        if (element instanceof IElementNode && TagConstants.HTML.equals(((IElementNode) element).name())) {
-            context.setRootFontSize(elementStyles.get(CssConstants.FONT_SIZE));
-        }
-
         Set<String> keys = new HashSet<>();
         for (Map.Entry<String, String> entry : elementStyles.entrySet()) {
             if (CssConstants.INITIAL.equals(entry.getValue())
@@ -229,10 +349,6 @@ public class DefaultCssResolver implements ICssResolver {
             elementStyles.put(key, CssDefaults.getDefaultValue(key));
         }
 
-        // This is needed for correct resolving of content property, so doing it right here
-        CounterProcessorUtil.processCounters(elementStyles, context);
-        resolveContentProperty(elementStyles, element, context);
-
         return elementStyles;
     }
 
@@ -242,7 +358,7 @@ public class DefaultCssResolver implements ICssResolver {
         if (element instanceof IElementNode) {
             ruleSets.add(new CssRuleSet(null, HtmlStylesToCssConverter.convert((IElementNode) element)));
         }
-        ruleSets.addAll(cssStyleSheet.getCssRuleSets(element, deviceDescription));
+        ruleSets.addAll(cssRuleSetIndex.getCssRuleSets(element));
         if (element instanceof IElementNode) {
             String styleAttribute = ((IElementNode) element).getAttribute(AttributeConstants.STYLE);
             if (styleAttribute != null) {
@@ -280,36 +396,19 @@ public class DefaultCssResolver implements ICssResolver {
      * @param rootNode         the root node
      * @param resourceResolver the resource resolver
      * @param cssContext       the CSS context
+     * @param styleSheetCache  the cache of the parsed style sheets, may be null
      */
-    private void collectCssDeclarations(INode rootNode, ResourceResolver resourceResolver, CssContext cssContext) {
-        cssStyleSheet = new CssStyleSheet();
-        LinkedList<INode> q = new LinkedList<>();
+    private void collectCssDeclarations(INode rootNode, ResourceResolver resourceResolver, CssContext cssContext,
+            ICompiledStyleSheetCache styleSheetCache) {
+        List<IElementNode> styleSheetElements = new ArrayList<>();
+        ArrayDeque<INode> q = new ArrayDeque<>();
         q.add(rootNode);
         while (!q.isEmpty()) {
-            INode currentNode = q.getFirst();
-            q.removeFirst();
+            INode currentNode = q.removeFirst();
             if (currentNode instanceof IElementNode) {
-                IElementNode headChildElement = (IElementNode) currentNode;
-                if (TagConstants.STYLE.equals(headChildElement.name())) {
-                    if (currentNode.childNodes().size() > 0 && currentNode.childNodes().get(0) instanceof IDataNode) {
-                        String styleData = ((IDataNode) currentNode.childNodes().get(0)).getWholeData();
-                        CssStyleSheet styleSheet = CssStyleSheetParser.parse(styleData);
-                        styleSheet = wrapStyleSheetInMediaQueryIfNecessary(headChildElement, styleSheet);
-                        cssStyleSheet.appendCssStyleSheet(styleSheet);
-                    }
-                } else if (CssUtils.isStyleSheetLink(headChildElement)) {
-                    String styleSheetUri = headChildElement.getAttribute(AttributeConstants.HREF);
-                    try (InputStream stream = resourceResolver.retrieveResourceAsInputStream(styleSheetUri)) {
-                        if (stream != null) {
-                            CssStyleSheet styleSheet = CssStyleSheetParser.parse(stream,
-                                    resourceResolver.resolveAgainstBaseUri(styleSheetUri).toExternalForm());
-                            styleSheet = wrapStyleSheetInMediaQueryIfNecessary(headChildElement, styleSheet);
-                            cssStyleSheet.appendCssStyleSheet(styleSheet);
-                        }
-                    } catch (Exception exc) {
-                        Logger logger = LoggerFactory.getLogger(DefaultCssResolver.class);
-                        logger.error(Html2PdfLogMessageConstant.UNABLE_TO_PROCESS_EXTERNAL_CSS_FILE, exc);
-                    }
+                IElementNode element = (IElementNode) currentNode;
+                if (TagConstants.STYLE.equals(element.name()) || CssUtils.isStyleSheetLink(element)) {
+                    styleSheetElements.add(element);
                 }
             }
 
@@ -319,10 +418,96 @@ public class DefaultCssResolver implements ICssResolver {
                 }
             }
         }
+        collectCssDeclarations(styleSheetElements, resourceResolver, cssContext, styleSheetCache);
+    }
+
+    /**
+     * Collects CSS declarations from the style sheet elements of the document.
+     *
+     * @param styleSheetElements the <code>&lt;style&gt;</code> and <code>&lt;link&gt;</code> elements, in
+     *                           document order
+     * @param resourceResolver   the resource resolver
+     * @param cssContext         the CSS context
+     * @param styleSheetCache    the cache of the parsed style sheets, may be null
+     */
+    private void collectCssDeclarations(List<IElementNode> styleSheetElements, ResourceResolver resourceResolver,
+            CssContext cssContext, ICompiledStyleSheetCache styleSheetCache) {
+        cssStyleSheet = new CssStyleSheet();
+        for (IElementNode headChildElement : styleSheetElements) {
+            if (TagConstants.STYLE.equals(headChildElement.name())) {
+                if (headChildElement.childNodes().size() > 0
+                        && headChildElement.childNodes().get(0) instanceof IDataNode) {
+                    String styleData = ((IDataNode) headChildElement.childNodes().get(0)).getWholeData();
+                    CssStyleSheet styleSheet = parseStyleSheet(styleData, styleSheetCache);
+                    styleSheet = wrapStyleSheetInMediaQueryIfNecessary(headChildElement, styleSheet);
+                    cssStyleSheet.appendCssStyleSheet(styleSheet);
+                }
+            } else if (CssUtils.isStyleSheetLink(headChildElement)) {
+                String styleSheetUri = headChildElement.getAttribute(AttributeConstants.HREF);
+                try (InputStream stream = resourceResolver.retrieveResourceAsInputStream(styleSheetUri)) {
+                    if (stream != null) {
+                        CssStyleSheet styleSheet = parseStyleSheet(stream,
+                                resourceResolver.resolveAgainstBaseUri(styleSheetUri).toExternalForm(),
+                                styleSheetCache);
+                        styleSheet = wrapStyleSheetInMediaQueryIfNecessary(headChildElement, styleSheet);
+                        cssStyleSheet.appendCssStyleSheet(styleSheet);
+                    }
+                } catch (Exception exc) {
+                    Logger logger = LoggerFactory.getLogger(DefaultCssResolver.class);
+                    logger.error(Html2PdfLogMessageConstant.UNABLE_TO_PROCESS_EXTERNAL_CSS_FILE, exc);
+                }
+            }
+        }
+        cssRuleSetIndex = new CssRuleSetIndex(cssStyleSheet, deviceDescription);
         enablePagesCounterIfMentioned(cssStyleSheet, cssContext);
         enableNonPageTargetCounterIfMentioned(cssStyleSheet, cssContext);
     }
 
+    /**
+     * Parses the content of a <code>&lt;style&gt;</code> element, or gets it from the cache.
+     *
+     * @param styleData       the content of the element
+     * @param styleSheetCache the cache of the parsed style sheets, may be null
+     * @return the {@link CssStyleSheet} instance
+     */
+    private static CssStyleSheet parseStyleSheet(String styleData, ICompiledStyleSheetCache styleSheetCache) {
+        if (styleSheetCache == null) {
+            return CssStyleSheetParser.parse(styleData);
+        }
+        byte[] content = styleData.getBytes(StandardCharsets.UTF_8);
+        ContentKey key = new ContentKey("", content);
+        CssStyleSheet styleSheet = styleSheetCache.get(key);
+        if (styleSheet == null) {
+            styleSheet = CssStyleSheetParser.parse(styleData);
+            styleSheetCache.put(key, styleSheet);
+        }
+        return styleSheet;
+    }
+
+    /**
+     * Parses a linked style sheet, or gets it from the cache.
+     *
+     * @param stream          the stream of the style sheet
+     * @param baseUrl         the resolved URL of the style sheet
+     * @param styleSheetCache the cache of the parsed style sheets, may be null
+     * @return the {@link CssStyleSheet} instance
+     * @throws IOException if the style sheet can't be read
+     */
+    private static CssStyleSheet parseStyleSheet(InputStream stream, String baseUrl,
+            ICompiledStyleSheetCache styleSheetCache) throws IOException {
+        if (styleSheetCache == null) {
+            return CssStyleSheetParser.parse(stream, baseUrl);
+        }
+        byte[] content = StreamUtil.inputStreamToArray(stream);
+        ContentKey key = new ContentKey(baseUrl, content);
+        CssStyleSheet styleSheet = styleSheetCache.get(key);
+        if (styleSheet == null) {
+            styleSheet = CssStyleSheetParser.parse(new ByteArrayInputStream(content), baseUrl);
+            styleSheetCache.put(key, styleSheet);
+        }
+        return styleSheet;
+    }
+
     private static boolean isFlexItem(Entry<String, String> parentEntry, String currentElementDisplay) {
         return CssConstants.DISPLAY.equals(parentEntry.getKey())
                 && CssConstants.FLEX.equals(parentEntry.getValue())
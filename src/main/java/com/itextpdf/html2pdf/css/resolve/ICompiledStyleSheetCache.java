@@ -0,0 +1,55 @@
+/*
+    This file is part of the iText (R) project.
+    Copyright (c) 1998-2024 Apryse Group NV
+    Authors: Apryse Software.
+
+    This program is offered under a commercial and under the AGPL license.
+    For commercial licensing, contact us at https://itextpdf.com/sales.  For AGPL licensing, see below.
+
+    AGPL licensing:
+    This program is free software: you can redistribute it and/or modify
+    it under the terms of the GNU Affero General Public License as published by
+    the Free Software Foundation, either version 3 of the License, or
+    (at your option) any later version.
+
+    This program is distributed in the hope that it will be useful,
+    but WITHOUT ANY WARRANTY; without even the implied warranty of
+    MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE.  See the
+    GNU Affero General Public License for more details.
+
+    You should have received a copy of the GNU Affero General Public License
+    along with this program.  If not, see <https://www.gnu.org/licenses/>.
+ */
+package com.itextpdf.html2pdf.css.resolve;
+
+import com.itextpdf.html2pdf.util.ContentKey;
+import com.itextpdf.styledxmlparser.css.CssStyleSheet;
+
+/**
+ * A cache of the {@link CssStyleSheet} instances parsed from the linked style sheets and the
+ * <code>&lt;style&gt;</code> elements, which can be shared across conversions.
+ * <p>
+ * The style sheets are identified by the resolved URL of the style sheet together with its content, so that
+ * a style sheet which was changed on the server is parsed again. The cached style sheets are shared by all
+ * the conversions and must not be modified. Implementations must be thread-safe if the same instance is used
+ * by concurrent conversions.
+ */
+public interface ICompiledStyleSheetCache {
+
+    /**
+     * Gets the cached style sheet.
+     *
+     * @param key the key built from the resolved URL of the style sheet, or an empty string for
+     *            the <code>&lt;style&gt;</code> elements, and the content of the style sheet
+     * @return the cached {@link CssStyleSheet}, or null if there is no such style sheet in the cache
+     */
+    CssStyleSheet get(ContentKey key);
+
+    /**
+     * Puts the style sheet to the cache.
+     *
+     * @param key the key the style sheet was looked up with
+     * @param styleSheet the {@link CssStyleSheet} parsed from the content
+     */
+    void put(ContentKey key, CssStyleSheet styleSheet);
+}
@@ -0,0 +1,166 @@
+/*
+    This file is part of the iText (R) project.
+    Copyright (c) 1998-2024 Apryse Group NV
+    Authors: Apryse Software.
+
+    This program is offered under a commercial and under the AGPL license.
+    For commercial licensing, contact us at https://itextpdf.com/sales.  For AGPL licensing, see below.
+
+    AGPL licensing:
+    This program is free software: you can redistribute it and/or modify
+    it under the terms of the GNU Affero General Public License as published by
+    the Free Software Foundation, either version 3 of the License, or
+    (at your option) any later version.
+
+    This program is distributed in the hope that it will be useful,
+    but WITHOUT ANY WARRANTY; without even the implied warranty of
+    MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE.  See the
+    GNU Affero General Public License for more details.
+
+    You should have received a copy of the GNU Affero General Public License
+    along with this program.  If not, see <https://www.gnu.org/licenses/>.
+ */
+package com.itextpdf.html2pdf.css.resolve;
+
+import com.itextpdf.styledxmlparser.node.IAttribute;
+import com.itextpdf.styledxmlparser.node.IElementNode;
+import com.itextpdf.styledxmlparser.node.INode;
+
+import java.util.ArrayList;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+
+/**
+ * Key of the style sharing cache of {@link DefaultCssResolver}.
+ * <p>
+ * Two elements with equal keys get the same resolved styles: they have the same tag name, attributes
+ * and additional HTML styles, their parents have equal styles and, if the selectors of the style sheets
+ * depend on the ancestors of the elements, they have the same parent.
+ */
+final class StyleSharingKey {
+
+    /** The tag name of the element. */
+    private final String name;
+
+    /** The attributes of the element, as a flat list of keys and values. */
+    private final List<String> attributes;
+
+    /** The additional HTML styles of the element, may be null. */
+    private final List<Map<String, String>> additionalHtmlStyles;
+
+    /** The parent of the element, if the styles can only be shared between siblings, otherwise null. */
+    private final INode parent;
+
+    /** The styles of the parent of the element. */
+    private final Map<String, String> parentStyles;
+
+    /** The root font size at the moment the styles are resolved. */
+    private final float rootFontSize;
+
+    /** The hash code of the key. */
+    private final int hash;
+
+    /**
+     * Creates a new {@link StyleSharingKey} instance.
+     *
+     * @param element the element
+     * @param siblingsOnly whether the styles of the element can only be shared between siblings
+     * @param parentStyles the styles of the parent of the element
+     * @param rootFontSize the root font size
+     */
+    StyleSharingKey(IElementNode element, boolean siblingsOnly, Map<String, String> parentStyles,
+            float rootFontSize) {
+        this.name = element.name();
+        this.attributes = new ArrayList<>();
+        for (IAttribute attribute : element.getAttributes()) {
+            attributes.add(attribute.getKey());
+            attributes.add(attribute.getValue());
+        }
+        this.additionalHtmlStyles = element.getAdditionalHtmlStyles();
+        this.parent = siblingsOnly ? element.parentNode() : null;
+        this.parentStyles = parentStyles;
+        this.rootFontSize = rootFontSize;
+        this.hash = computeHashCode();
+    }
+
+    /**
+     * Creates a new {@link StyleSharingKey} instance as a copy of another key.
+     *
+     * @param other the key to copy
+     * @param parentStyles the styles of the parent of the element
+     * @param additionalHtmlStyles the additional HTML styles of the element, may be null
+     */
+    private StyleSharingKey(StyleSharingKey other, Map<String, String> parentStyles,
+            List<Map<String, String>> additionalHtmlStyles) {
+        this.name = other.name;
+        this.attributes = other.attributes;
+        this.additionalHtmlStyles = additionalHtmlStyles;
+        this.parent = other.parent;
+        this.parentStyles = parentStyles;
+        this.rootFontSize = other.rootFontSize;
+        this.hash = other.hash;
+    }
+
+    /**
+     * Creates a copy of the key which doesn't depend on the mutable style maps of the elements,
+     * so that it can be stored in the cache.
+     *
+     * @return the copy of the key
+     */
+    StyleSharingKey snapshot() {
+        List<Map<String, String>> additionalHtmlStylesCopy = null;
+        if (additionalHtmlStyles != null) {
+            additionalHtmlStylesCopy = new ArrayList<>(additionalHtmlStyles.size());
+            for (Map<String, String> styles : additionalHtmlStyles) {
+                additionalHtmlStylesCopy.add(new HashMap<>(styles));
+            }
+        }
+        return new StyleSharingKey(this, new HashMap<>(parentStyles), additionalHtmlStylesCopy);
+    }
+
+    /**
+     * {@inheritDoc}
+     */
+    @Override
+    public boolean equals(Object o) {
+        if (this == o) {
+            return true;
+        }
+        if (o == null || getClass() != o.getClass()) {
+            return false;
+        }
+        StyleSharingKey that = (StyleSharingKey) o;
+        return hash == that.hash
+                && parent == that.parent
+                && Float.compare(rootFontSize, that.rootFontSize) == 0
+                && name.equals(that.name)
+                && attributes.equals(that.attributes)
+                && (additionalHtmlStyles == null ? that.additionalHtmlStyles == null
+                        : additionalHtmlStyles.equals(that.additionalHtmlStyles))
+                && parentStyles.equals(that.parentStyles);
+    }
+
+    /**
+     * {@inheritDoc}
+     */
+    @Override
+    public int hashCode() {
+        return hash;
+    }
+
+    /**
+     * Computes the hash code of the key.
+     *
+     * @return the hash code
+     */
+    private int computeHashCode() {
+        int result = name.hashCode();
+        result = 31 * result + attributes.hashCode();
+        result = 31 * result + (additionalHtmlStyles == null ? 0 : additionalHtmlStyles.hashCode());
+        result = 31 * result + System.identityHashCode(parent);
+        result = 31 * result + parentStyles.hashCode();
+        result = 31 * result + Float.floatToIntBits(rootFontSize);
+        return result;
+    }
+}
@@ -23,27 +23,45 @@
 package com.itextpdf.html2pdf.css.resolve;
 
 import com.itextpdf.io.util.ResourceUtil;
-import java.util.List;
-
 import com.itextpdf.styledxmlparser.css.CssDeclaration;
+import com.itextpdf.styledxmlparser.css.CssRuleSet;
 import com.itextpdf.styledxmlparser.css.CssStyleSheet;
 import com.itextpdf.styledxmlparser.css.media.MediaDeviceDescription;
 import com.itextpdf.styledxmlparser.css.parse.CssStyleSheetParser;
+import com.itextpdf.styledxmlparser.node.IElementNode;
 import com.itextpdf.styledxmlparser.node.INode;
 import org.slf4j.Logger;
 import org.slf4j.LoggerFactory;
 
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
+
 /**
  * Utilities class to get the styles of a node.
+ * <p>
+ * The rule sets of the default stylesheet are indexed once with a {@link CssRuleSetIndex}, so that only
+ * the candidate rules of a node are matched. The styles of elements which can only be matched by plain tag
+ * selectors are computed once per tag name.
  */
 class UserAgentCss {
 
     /** The path to the default CSS file. */
     private static final String DEFAULT_CSS_PATH = "com/itextpdf/html2pdf/default.css";
-    
+
+    /** The media device against which the default CSS is resolved. */
+    private static final MediaDeviceDescription DEFAULT_DEVICE = MediaDeviceDescription.createDefault();
+
     /** The default {@link CssStyleSheet} instance. */
     private static final CssStyleSheet defaultCss;
 
+    /** The index of the rule sets of the default CSS. */
+    private static final CssRuleSetIndex defaultCssIndex;
+
+    /** The resolved styles of elements only matched by plain tag selectors, by tag name. */
+    private static final Map<String, List<CssDeclaration>> tagStylesCache = new ConcurrentHashMap<>();
+
     static {
         CssStyleSheet parsedStylesheet = new CssStyleSheet();
         try {
@@ -54,6 +72,7 @@ class UserAgentCss {
         } finally {
             defaultCss = parsedStylesheet;
         }
+        defaultCssIndex = new CssRuleSetIndex(defaultCss, DEFAULT_DEVICE);
     }
 
     /**
@@ -63,6 +82,42 @@ class UserAgentCss {
      * @return a list of {@link CssDeclaration} values
      */
     public static List<CssDeclaration> getStyles(INode node) {
-        return defaultCss.getCssDeclarations(node, MediaDeviceDescription.createDefault());
+        if (defaultCssIndex.isMatchedByTagOnly(node)) {
+            String tagName = ((IElementNode) node).name();
+            List<CssDeclaration> styles = tagStylesCache.get(tagName);
+            if (styles == null) {
+                styles = resolveStyles(node);
+                tagStylesCache.put(tagName, styles);
+            }
+            return new ArrayList<>(styles);
+        }
+        return resolveStyles(node);
+    }
+
+    /**
+     * Gets the scope within which the elements having the same tag name and attributes as the given node
+     * get the same styles from the default CSS.
+     *
+     * @param node the node
+     * @return the {@link CssRuleSetIndex.StyleSharingScope} of the node
+     */
+    static CssRuleSetIndex.StyleSharingScope getStyleSharingScope(INode node) {
+        return defaultCssIndex.getStyleSharingScope(node);
+    }
+
+    /**
+     * Resolves the styles of a node against the candidate rule sets of the default CSS.
+     *
+     * @param node the node
+     * @return a list of {@link CssDeclaration} values
+     */
+    private static List<CssDeclaration> resolveStyles(INode node) {
+        // The specificity ordering and shorthand expansion are left to CssStyleSheet
+        // so that the result is the same as resolving against the whole default CSS
+        CssStyleSheet matchedStylesheet = new CssStyleSheet();
+        for (CssRuleSet ruleSet : defaultCssIndex.getCssRuleSets(node)) {
+            matchedStylesheet.addStatement(ruleSet);
+        }
+        return matchedStylesheet.getCssDeclarations(node, DEFAULT_DEVICE);
     }
 }
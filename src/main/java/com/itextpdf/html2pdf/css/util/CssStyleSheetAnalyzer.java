@@ -28,9 +28,11 @@ import com.itextpdf.styledxmlparser.css.CssRuleSet;
 import com.itextpdf.styledxmlparser.css.CssStatement;
 import com.itextpdf.styledxmlparser.css.CssStyleSheet;
 import com.itextpdf.styledxmlparser.css.media.CssMediaRule;
+import com.itextpdf.styledxmlparser.css.media.MediaDeviceDescription;
 import com.itextpdf.styledxmlparser.css.page.CssMarginRule;
 import com.itextpdf.styledxmlparser.css.page.CssPageRule;
 import com.itextpdf.styledxmlparser.css.parse.CssDeclarationValueTokenizer;
+import com.itextpdf.styledxmlparser.css.util.CssUtils;
 
 import java.util.Collection;
 
@@ -41,10 +43,66 @@ public class CssStyleSheetAnalyzer {
 
     private static final int TARGET_COUNTER_MIN_PARAMS_SIZE = 2;
     private static final int TARGET_COUNTERS_MIN_PARAMS_SIZE = 3;
+    private static final String URL_FUNCTION = "url(";
 
     private CssStyleSheetAnalyzer() {
     }
 
+    /**
+     * Helper method to collect the sources of the resources referenced with {@code url()} anywhere in the CSS,
+     * e.g. the background images. The statements of the media rules which don't match the device are skipped.
+     *
+     * @param styleSheet CSS stylesheet to analyze
+     * @param deviceDescription the media device description
+     * @param urls the collection the sources are added to
+     */
+    public static void collectResourceUrls(CssStyleSheet styleSheet, MediaDeviceDescription deviceDescription,
+            Collection<String> urls) {
+        collectResourceUrls(styleSheet.getStatements(), deviceDescription, urls);
+    }
+
+    /**
+     * Helper method to collect the sources of the resources referenced with {@code url()} in a CSS declaration.
+     *
+     * @param declaration CSS declaration to analyze
+     * @param urls the collection the sources are added to
+     */
+    public static void collectResourceUrls(CssDeclaration declaration, Collection<String> urls) {
+        String expression = declaration.getExpression();
+        if (expression == null || !expression.contains(URL_FUNCTION)) {
+            return;
+        }
+        CssDeclarationValueTokenizer tokenizer = new CssDeclarationValueTokenizer(expression);
+        CssDeclarationValueTokenizer.Token token;
+        while ((token = tokenizer.getNextValidToken()) != null) {
+            if (!token.isString() && token.getValue().startsWith(URL_FUNCTION)) {
+                urls.add(CssUtils.extractUrl(token.getValue()));
+            }
+        }
+    }
+
+    private static void collectResourceUrls(Collection<CssStatement> statements,
+            MediaDeviceDescription deviceDescription, Collection<String> urls) {
+        for (CssStatement statement : statements) {
+            if (statement instanceof CssMarginRule) {
+                collectResourceUrls(((CssMarginRule) statement).getStatements(), deviceDescription, urls);
+            } else if (statement instanceof CssMediaRule) {
+                if (((CssMediaRule) statement).matchMediaDevice(deviceDescription)) {
+                    collectResourceUrls(((CssMediaRule) statement).getStatements(), deviceDescription, urls);
+                }
+            } else if (statement instanceof CssPageRule) {
+                collectResourceUrls(((CssPageRule) statement).getStatements(), deviceDescription, urls);
+            } else if (statement instanceof CssRuleSet) {
+                for (CssDeclaration declaration : ((CssRuleSet) statement).getImportantDeclarations()) {
+                    collectResourceUrls(declaration, urls);
+                }
+                for (CssDeclaration declaration : ((CssRuleSet) statement).getNormalDeclarations()) {
+                    collectResourceUrls(declaration, urls);
+                }
+            }
+        }
+    }
+
     /**
      * Helper method to check if non-page(s) target-counter(s) is present anywhere in the CSS.
      * If presence is detected, it may require additional treatment
@@ -36,6 +36,10 @@ public class Html2PdfException extends ITextException {
     /** Message in case the font provider doesn't know about any fonts. */
     public static final String FONT_PROVIDER_CONTAINS_ZERO_FONTS = "Font Provider contains zero fonts. "
             + "At least one font shall be present";
+
+    /** Message in case a font provider given to a conversion engine can't be copied for each conversion. */
+    public static final String FONT_PROVIDER_CANNOT_BE_COPIED = "Font provider of type {0} can't be copied "
+            + "for each conversion. DefaultFontProvider subclasses shall override DefaultFontProvider#copy()";
     
     /** The Constant UnsupportedEncodingException. */
     public static final String UNSUPPORTED_ENCODING_EXCEPTION = "Unsupported encoding exception.";
@@ -0,0 +1,75 @@
+/*
+    This file is part of the iText (R) project.
+    Copyright (c) 1998-2024 Apryse Group NV
+    Authors: Apryse Software.
+
+    This program is offered under a commercial and under the AGPL license.
+    For commercial licensing, contact us at https://itextpdf.com/sales.  For AGPL licensing, see below.
+
+    AGPL licensing:
+    This program is free software: you can redistribute it and/or modify
+    it under the terms of the GNU Affero General Public License as published by
+    the Free Software Foundation, either version 3 of the License, or
+    (at your option) any later version.
+
+    This program is distributed in the hope that it will be useful,
+    but WITHOUT ANY WARRANTY; without even the implied warranty of
+    MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE.  See the
+    GNU Affero General Public License for more details.
+
+    You should have received a copy of the GNU Affero General Public License
+    along with this program.  If not, see <https://www.gnu.org/licenses/>.
+ */
+package com.itextpdf.html2pdf.html;
+
+import com.itextpdf.styledxmlparser.IXmlParser;
+import com.itextpdf.styledxmlparser.jsoup.Jsoup;
+import com.itextpdf.styledxmlparser.jsoup.nodes.Document;
+import com.itextpdf.styledxmlparser.jsoup.nodes.Node;
+import com.itextpdf.styledxmlparser.node.IDocumentNode;
+import com.itextpdf.styledxmlparser.node.INode;
+import com.itextpdf.styledxmlparser.node.impl.jsoup.node.JsoupDocumentNode;
+
+import java.io.IOException;
+import java.io.InputStream;
+
+/**
+ * HTML parser which builds the same DOM tree as the
+ * {@link com.itextpdf.styledxmlparser.node.impl.jsoup.JsoupHtmlParser}, but wraps the jsoup nodes without
+ * recursion, so that deeply nested documents can be parsed on a thread with a small stack.
+ */
+public class IterativeHtmlParser implements IXmlParser {
+
+    /* (non-Javadoc)
+     * @see com.itextpdf.styledxmlparser.IXmlParser#parse(java.io.InputStream, java.lang.String)
+     */
+    @Override
+    public IDocumentNode parse(InputStream htmlStream, String charset) throws IOException {
+        return wrapDocument(Jsoup.parse(htmlStream, charset, ""));
+    }
+
+    /* (non-Javadoc)
+     * @see com.itextpdf.styledxmlparser.IXmlParser#parse(java.lang.String)
+     */
+    @Override
+    public IDocumentNode parse(String html) {
+        return wrapDocument(Jsoup.parse(html));
+    }
+
+    /**
+     * Wraps the jsoup document and all its descendants.
+     *
+     * @param document the jsoup document
+     * @return the wrapper of the document
+     */
+    private static IDocumentNode wrapDocument(Document document) {
+        JsoupDocumentNode documentNode = new JsoupDocumentNode(document);
+        for (Node jsoupChild : document.childNodes()) {
+            INode child = StreamingHtmlParser.wrapHierarchy(jsoupChild, null);
+            if (child != null) {
+                documentNode.addChild(child);
+            }
+        }
+        return documentNode;
+    }
+}
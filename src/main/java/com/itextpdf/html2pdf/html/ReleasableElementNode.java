@@ -0,0 +1,169 @@
+/*
+    This file is part of the iText (R) project.
+    Copyright (c) 1998-2024 Apryse Group NV
+    Authors: Apryse Software.
+
+    This program is offered under a commercial and under the AGPL license.
+    For commercial licensing, contact us at https://itextpdf.com/sales.  For AGPL licensing, see below.
+
+    AGPL licensing:
+    This program is free software: you can redistribute it and/or modify
+    it under the terms of the GNU Affero General Public License as published by
+    the Free Software Foundation, either version 3 of the License, or
+    (at your option) any later version.
+
+    This program is distributed in the hope that it will be useful,
+    but WITHOUT ANY WARRANTY; without even the implied warranty of
+    MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE.  See the
+    GNU Affero General Public License for more details.
+
+    You should have received a copy of the GNU Affero General Public License
+    along with this program.  If not, see <https://www.gnu.org/licenses/>.
+ */
+package com.itextpdf.html2pdf.html;
+
+import com.itextpdf.styledxmlparser.jsoup.nodes.Element;
+import com.itextpdf.styledxmlparser.jsoup.nodes.Node;
+import com.itextpdf.styledxmlparser.node.INode;
+import com.itextpdf.styledxmlparser.node.impl.jsoup.node.JsoupElementNode;
+
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.List;
+
+/**
+ * A top-level child element of the {@code body} created by the {@link StreamingHtmlParser}.
+ * <p>
+ * The subtree of the element is not kept in memory as {@link INode} instances all the time. It is materialized
+ * when the element is going to be converted, and released as soon as the conversion of the element is finished,
+ * so that only one top-level subtree of the document is wrapped at a time. If the subtree is requested while it
+ * isn't materialized, it's wrapped once and kept until the element is released or dematerialized.
+ */
+public final class ReleasableElementNode extends JsoupElementNode {
+
+    /**
+     * The wrapped jsoup element.
+     */
+    private final Element element;
+
+    /**
+     * The parent node.
+     */
+    private final INode parent;
+
+    /**
+     * The unmodifiable list of the materialized child nodes, or null if the subtree isn't materialized.
+     */
+    private List<INode> children;
+
+    /**
+     * Indicates whether the subtree of the element has been released.
+     */
+    private boolean released;
+
+    /**
+     * Creates a new {@link ReleasableElementNode} instance.
+     *
+     * @param element the jsoup element
+     * @param parent  the parent node
+     */
+    ReleasableElementNode(Element element, INode parent) {
+        super(element);
+        this.element = element;
+        this.parent = parent;
+    }
+
+    /* (non-Javadoc)
+     * @see com.itextpdf.styledxmlparser.node.INode#childNodes()
+     */
+    @Override
+    public List<INode> childNodes() {
+        if (released) {
+            return Collections.<INode>emptyList();
+        }
+        materialize();
+        return children;
+    }
+
+    /* (non-Javadoc)
+     * @see com.itextpdf.styledxmlparser.node.INode#parentNode()
+     */
+    @Override
+    public INode parentNode() {
+        return parent;
+    }
+
+    /**
+     * Wraps the subtree of the element and keeps it until the element is released or dematerialized.
+     */
+    public void materialize() {
+        if (children == null && !released) {
+            children = wrapChildren();
+        }
+    }
+
+    /**
+     * Gets the child nodes without keeping their wrappers, unless the subtree is already materialized.
+     * This allows walking the whole document before its conversion without wrapping all of it at once.
+     *
+     * @return the unmodifiable list of the child nodes
+     */
+    public List<INode> scanChildNodes() {
+        if (released) {
+            return Collections.<INode>emptyList();
+        }
+        return children == null ? wrapChildren() : children;
+    }
+
+    /**
+     * Checks whether the subtree of the element is materialized, i.e. whether its wrappers are kept.
+     *
+     * @return true if the subtree is materialized
+     */
+    public boolean isMaterialized() {
+        return children != null;
+    }
+
+    /**
+     * Drops the wrappers of the subtree, but keeps the content of the element, so that it can be materialized again.
+     */
+    public void dematerialize() {
+        children = null;
+    }
+
+    /**
+     * Drops the subtree of the element for good, both the wrappers and the parsed content.
+     * The name and the attributes of the element stay available, so that selectors of the following siblings
+     * can still be matched.
+     */
+    public void release() {
+        released = true;
+        children = null;
+        element.empty();
+    }
+
+    /**
+     * Checks whether the subtree of the element has been released.
+     *
+     * @return true if the subtree has been released
+     */
+    public boolean isReleased() {
+        return released;
+    }
+
+    /**
+     * Wraps the child nodes of the element.
+     *
+     * @return the unmodifiable list of the wrapped child nodes
+     */
+    private List<INode> wrapChildren() {
+        List<INode> wrappedChildren = new ArrayList<>(element.childNodeSize());
+        for (Node child : element.childNodes()) {
+            INode wrappedChild = StreamingHtmlParser.wrapHierarchy(child, this);
+            if (wrappedChild != null) {
+                wrappedChildren.add(wrappedChild);
+            }
+        }
+        return Collections.unmodifiableList(wrappedChildren);
+    }
+}
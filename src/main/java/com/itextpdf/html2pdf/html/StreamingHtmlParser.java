@@ -0,0 +1,301 @@
+/*
+    This file is part of the iText (R) project.
+    Copyright (c) 1998-2024 Apryse Group NV
+    Authors: Apryse Software.
+
+    This program is offered under a commercial and under the AGPL license.
+    For commercial licensing, contact us at https://itextpdf.com/sales.  For AGPL licensing, see below.
+
+    AGPL licensing:
+    This program is free software: you can redistribute it and/or modify
+    it under the terms of the GNU Affero General Public License as published by
+    the Free Software Foundation, either version 3 of the License, or
+    (at your option) any later version.
+
+    This program is distributed in the hope that it will be useful,
+    but WITHOUT ANY WARRANTY; without even the implied warranty of
+    MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE.  See the
+    GNU Affero General Public License for more details.
+
+    You should have received a copy of the GNU Affero General Public License
+    along with this program.  If not, see <https://www.gnu.org/licenses/>.
+ */
+package com.itextpdf.html2pdf.html;
+
+import com.itextpdf.styledxmlparser.IXmlParser;
+import com.itextpdf.styledxmlparser.jsoup.Jsoup;
+import com.itextpdf.styledxmlparser.jsoup.nodes.DataNode;
+import com.itextpdf.styledxmlparser.jsoup.nodes.Document;
+import com.itextpdf.styledxmlparser.jsoup.nodes.DocumentType;
+import com.itextpdf.styledxmlparser.jsoup.nodes.Element;
+import com.itextpdf.styledxmlparser.jsoup.nodes.Node;
+import com.itextpdf.styledxmlparser.jsoup.nodes.TextNode;
+import com.itextpdf.styledxmlparser.node.IDocumentNode;
+import com.itextpdf.styledxmlparser.node.INode;
+import com.itextpdf.styledxmlparser.node.impl.jsoup.node.JsoupDataNode;
+import com.itextpdf.styledxmlparser.node.impl.jsoup.node.JsoupDocumentNode;
+import com.itextpdf.styledxmlparser.node.impl.jsoup.node.JsoupDocumentTypeNode;
+import com.itextpdf.styledxmlparser.node.impl.jsoup.node.JsoupElementNode;
+import com.itextpdf.styledxmlparser.node.impl.jsoup.node.JsoupTextNode;
+
+import java.io.IOException;
+import java.io.InputStream;
+import java.util.ArrayDeque;
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.Deque;
+import java.util.List;
+
+/**
+ * HTML parser which wraps the top-level child elements of the {@code body} as {@link ReleasableElementNode}
+ * instances, so that the DOM tree can be converted in a streaming fashion: the {@code head} and the
+ * {@code body} are available right away, while each top-level subtree of the {@code body} is wrapped
+ * only when it is converted, and released afterwards.
+ * <p>
+ * The parsed document itself is still built by the jsoup parser in one go, but the {@link INode} wrappers
+ * are never created for the whole document at once, and the content of the converted subtrees can be
+ * garbage collected while the rest of the document is being converted.
+ */
+public class StreamingHtmlParser implements IXmlParser {
+
+    /* (non-Javadoc)
+     * @see com.itextpdf.styledxmlparser.IXmlParser#parse(java.io.InputStream, java.lang.String)
+     */
+    @Override
+    public IDocumentNode parse(InputStream htmlStream, String charset) throws IOException {
+        return wrapDocument(Jsoup.parse(htmlStream, charset, ""));
+    }
+
+    /* (non-Javadoc)
+     * @see com.itextpdf.styledxmlparser.IXmlParser#parse(java.lang.String)
+     */
+    @Override
+    public IDocumentNode parse(String html) {
+        return wrapDocument(Jsoup.parse(html));
+    }
+
+    /**
+     * Wraps a jsoup node and all its descendants.
+     *
+     * @param jsoupNode the jsoup node
+     * @param parent    the parent of the wrapper, or null if it's defined when the wrapper is added to its parent
+     * @return the wrapper of the node, or null if the node isn't supported
+     */
+    static INode wrapHierarchy(Node jsoupNode, INode parent) {
+        INode root = createNode(jsoupNode, parent);
+        if (root == null) {
+            return null;
+        }
+        // the hierarchy is wrapped with explicit stacks, as the tree may be very deep
+        Deque<Node> jsoupNodes = new ArrayDeque<>();
+        Deque<INode> nodes = new ArrayDeque<>();
+        jsoupNodes.push(jsoupNode);
+        nodes.push(root);
+        while (!jsoupNodes.isEmpty()) {
+            Node currentJsoupNode = jsoupNodes.pop();
+            INode currentNode = nodes.pop();
+            for (Node jsoupChild : currentJsoupNode.childNodes()) {
+                INode child = createNode(jsoupChild, null);
+                if (child != null) {
+                    currentNode.addChild(child);
+                    jsoupNodes.push(jsoupChild);
+                    nodes.push(child);
+                }
+            }
+        }
+        return root;
+    }
+
+    /**
+     * Wraps the jsoup document. The top-level child elements of the {@code body} are wrapped as
+     * {@link ReleasableElementNode} instances, everything else is wrapped right away.
+     *
+     * @param document the jsoup document
+     * @return the wrapper of the document
+     */
+    private static IDocumentNode wrapDocument(Document document) {
+        JsoupDocumentNode documentNode = new JsoupDocumentNode(document);
+        Element body = document.body();
+        Deque<Node> jsoupNodes = new ArrayDeque<>();
+        Deque<INode> nodes = new ArrayDeque<>();
+        jsoupNodes.push(document);
+        nodes.push(documentNode);
+        while (!jsoupNodes.isEmpty()) {
+            Node currentJsoupNode = jsoupNodes.pop();
+            INode currentNode = nodes.pop();
+            for (Node jsoupChild : currentJsoupNode.childNodes()) {
+                if (jsoupChild == body) {
+                    currentNode.addChild(wrapBody(body));
+                    continue;
+                }
+                INode child = createNode(jsoupChild, null);
+                if (child != null) {
+                    currentNode.addChild(child);
+                    jsoupNodes.push(jsoupChild);
+                    nodes.push(child);
+                }
+            }
+        }
+        return documentNode;
+    }
+
+    /**
+     * Wraps the {@code body} element, its child elements are wrapped as {@link ReleasableElementNode} instances.
+     *
+     * @param body the jsoup body element
+     * @return the wrapper of the body
+     */
+    private static INode wrapBody(Element body) {
+        StreamedBodyNode bodyNode = new StreamedBodyNode(body);
+        for (Node jsoupChild : body.childNodes()) {
+            INode child = jsoupChild instanceof Element
+                    ? new ReleasableElementNode((Element) jsoupChild, bodyNode)
+                    : wrapHierarchy(jsoupChild, bodyNode);
+            if (child != null) {
+                bodyNode.children.add(child);
+            }
+        }
+        return bodyNode;
+    }
+
+    /**
+     * Creates the wrapper of a single jsoup node.
+     *
+     * @param jsoupNode the jsoup node
+     * @param parent    the parent of the wrapper, or null if it's defined when the wrapper is added to its parent
+     * @return the wrapper of the node, or null if the node isn't supported (e.g. it's a comment)
+     */
+    private static INode createNode(Node jsoupNode, INode parent) {
+        if (jsoupNode instanceof Element) {
+            return parent == null ? new JsoupElementNode((Element) jsoupNode)
+                    : new ChildElementNode((Element) jsoupNode, parent);
+        } else if (jsoupNode instanceof TextNode) {
+            return parent == null ? new JsoupTextNode((TextNode) jsoupNode)
+                    : new ChildTextNode((TextNode) jsoupNode, parent);
+        } else if (jsoupNode instanceof DataNode) {
+            return parent == null ? new JsoupDataNode((DataNode) jsoupNode)
+                    : new ChildDataNode((DataNode) jsoupNode, parent);
+        } else if (jsoupNode instanceof DocumentType) {
+            return new JsoupDocumentTypeNode((DocumentType) jsoupNode);
+        }
+        return null;
+    }
+
+    /**
+     * The wrapper of the {@code body} element, which keeps the {@link ReleasableElementNode} children.
+     */
+    private static final class StreamedBodyNode extends JsoupElementNode {
+
+        /**
+         * The child nodes.
+         */
+        private final List<INode> children = new ArrayList<>();
+
+        /**
+         * Creates a new {@link StreamedBodyNode} instance.
+         *
+         * @param body the jsoup body element
+         */
+        StreamedBodyNode(Element body) {
+            super(body);
+        }
+
+        /* (non-Javadoc)
+         * @see com.itextpdf.styledxmlparser.node.INode#childNodes()
+         */
+        @Override
+        public List<INode> childNodes() {
+            return Collections.unmodifiableList(children);
+        }
+    }
+
+    /**
+     * The wrapper of an element whose parent is defined on creation, e.g. the root of a materialized subtree.
+     */
+    private static final class ChildElementNode extends JsoupElementNode {
+
+        /**
+         * The parent node.
+         */
+        private final INode parent;
+
+        /**
+         * Creates a new {@link ChildElementNode} instance.
+         *
+         * @param element the jsoup element
+         * @param parent  the parent node
+         */
+        ChildElementNode(Element element, INode parent) {
+            super(element);
+            this.parent = parent;
+        }
+
+        /* (non-Javadoc)
+         * @see com.itextpdf.styledxmlparser.node.INode#parentNode()
+         */
+        @Override
+        public INode parentNode() {
+            return parent;
+        }
+    }
+
+    /**
+     * The wrapper of a text node whose parent is defined on creation.
+     */
+    private static final class ChildTextNode extends JsoupTextNode {
+
+        /**
+         * The parent node.
+         */
+        private final INode parent;
+
+        /**
+         * Creates a new {@link ChildTextNode} instance.
+         *
+         * @param textNode the jsoup text node
+         * @param parent   the parent node
+         */
+        ChildTextNode(TextNode textNode, INode parent) {
+            super(textNode);
+            this.parent = parent;
+        }
+
+        /* (non-Javadoc)
+         * @see com.itextpdf.styledxmlparser.node.INode#parentNode()
+         */
+        @Override
+        public INode parentNode() {
+            return parent;
+        }
+    }
+
+    /**
+     * The wrapper of a data node whose parent is defined on creation.
+     */
+    private static final class ChildDataNode extends JsoupDataNode {
+
+        /**
+         * The parent node.
+         */
+        private final INode parent;
+
+        /**
+         * Creates a new {@link ChildDataNode} instance.
+         *
+         * @param dataNode the jsoup data node
+         * @param parent   the parent node
+         */
+        ChildDataNode(DataNode dataNode, INode parent) {
+            super(dataNode);
+            this.parent = parent;
+        }
+
+        /* (non-Javadoc)
+         * @see com.itextpdf.styledxmlparser.node.INode#parentNode()
+         */
+        @Override
+        public INode parentNode() {
+            return parent;
+        }
+    }
+}
@@ -40,6 +40,9 @@ public final class Html2PdfLogMessageConstant {
             "The anchor link was not handled. Could not create a destination for element \"{0}\" with ID \"{1}\", "
                     + "which is processed by \"{2}\" tag worker class.";
 
+    /** The Constant BATCH_JOB_LISTENER_FAILED. */
+    public static final String BATCH_JOB_LISTENER_FAILED = "The batch job listener failed on the result of job \"{0}\"";
+
     /** The Constant CONTENT_PROPERTY_INVALID. */
     public static final String CONTENT_PROPERTY_INVALID =
             "Content property \"{0}\" is either invalid or uses unsupported function.";
@@ -82,6 +85,11 @@ public final class Html2PdfLogMessageConstant {
     /** The Constant INVALID_CSS_PROPERTY_DECLARATION. */
     public static final String INVALID_GRADIENT_DECLARATION = "Invalid gradient declaration: {0}";
 
+    /** The Constant LARGE_TABLE_COLUMNS_OVERFLOW. */
+    public static final String LARGE_TABLE_COLUMNS_OVERFLOW =
+            "Large table was created with {0} columns, but some of its rows need {1} columns. "
+                    + "The extra cells are moved to the next rows.";
+
     /** The Constant MARGIN_VALUE_IN_PERCENT_NOT_SUPPORTED. */
     public static final String MARGIN_VALUE_IN_PERCENT_NOT_SUPPORTED = "Margin value in percents not supported";
 
@@ -132,12 +140,18 @@ public final class Html2PdfLogMessageConstant {
     /** The Constant HSL_COLOR_NOT_SUPPORTED. */
     public static final String HSL_COLOR_NOT_SUPPORTED = "Hsl colors are not supported";
 
+    /** The Constant UNABLE_TO_INDEX_FONT. */
+    public static final String UNABLE_TO_INDEX_FONT = "Unable to read the font names of {0}, the file is skipped";
+
     /** The Constant UNABLE_TO_PROCESS_EXTERNAL_CSS_FILE. */
     public static final String UNABLE_TO_PROCESS_EXTERNAL_CSS_FILE = "Unable to process external css file";
 
     /** The Constant UNABLE_TO_PROCESS_SVG. */
     public static final String UNABLE_TO_PROCESS_SVG_ELEMENT = "Unable to process an SVG element";
 
+    /** The Constant UNABLE_TO_READ_FONT_INDEX. */
+    public static final String UNABLE_TO_READ_FONT_INDEX = "Unable to read the font index {0}, it will be rebuilt";
+
     /** The Constant UNABLE_TO_RESOLVE_COUNTER. */
     public static final String UNABLE_TO_RESOLVE_COUNTER = "Unable to resolve counter \"{0}\"";
 
@@ -152,6 +166,9 @@ public final class Html2PdfLogMessageConstant {
     public static final String UNABLE_TO_RETRIEVE_STREAM_WITH_GIVEN_BASE_URI =
             "Unable to retrieve stream with given base URI ({0}) and source path ({1})";
 
+    /** The Constant UNABLE_TO_WRITE_FONT_INDEX. */
+    public static final String UNABLE_TO_WRITE_FONT_INDEX = "Unable to write the font index {0}";
+
     /** The Constant UNEXPECTED_VALUE_OF_OBJECT_FIT_PROPERTY. */
     public static final String UNEXPECTED_VALUE_OF_OBJECT_FIT =
             "Unexpected value of object-fit property: {0}. Will be processed as default";
@@ -23,23 +23,36 @@
 package com.itextpdf.html2pdf.resolver.font;
 
 import com.itextpdf.html2pdf.logs.Html2PdfLogMessageConstant;
-import com.itextpdf.io.util.ResourceUtil;
-import com.itextpdf.io.util.StreamUtil;
+import com.itextpdf.layout.font.FontCharacteristics;
+import com.itextpdf.layout.font.FontInfo;
+import com.itextpdf.layout.font.FontSelector;
+import com.itextpdf.layout.font.FontSet;
 import com.itextpdf.layout.font.Range;
 import com.itextpdf.layout.font.RangeBuilder;
 import com.itextpdf.layout.renderer.TypographyUtils;
 import com.itextpdf.styledxmlparser.resolver.font.BasicFontProvider;
 import org.slf4j.LoggerFactory;
 
-import java.io.InputStream;
 import java.util.ArrayList;
+import java.util.Collection;
+import java.util.HashSet;
+import java.util.LinkedHashSet;
 import java.util.List;
-import java.util.Map;
+import java.util.Set;
 
 /**
  * The default {@link BasicFontProvider} for pdfHTML, that, as opposed to
  * the font provider in iText's styled-xml-parser, also includes a
  * series of fonts that are shipped with the add-on.
+ * <p>
+ * The shipped fonts and the pdfCalligraph fonts are parsed only once per process and
+ * the parsed font programs are shared by all {@link DefaultFontProvider} instances.
+ * In the lazy font loading mode only the font metadata (names, style, weight) is read when
+ * a font is registered, and the font program is parsed the first time the layout needs a glyph
+ * from that font. Note that system fonts are always registered that way.
+ * <p>
+ * Instead of registering all the system fonts up front, a {@link SystemFontIndex} may be set,
+ * so that a system font is registered only when one of its names is requested as a font family.
  */
 public class DefaultFontProvider extends BasicFontProvider {
 
@@ -77,7 +90,28 @@ public class DefaultFontProvider extends BasicFontProvider {
     //we want to add free fonts to font provider before calligraph fonts. However, the existing public API states
     // that addCalligraphFonts() should be used first to load calligraph fonts and to define the range for loading free fonts.
     // In order to maintain backward compatibility, this temporary field is used to stash calligraph fonts before free fonts are loaded.
-    private List<byte[]> calligraphyFontsTempList = new ArrayList<>();
+    private List<String> calligraphyFontsTempList = new ArrayList<>();
+
+    /**
+     * Indicates whether shipped and pdfCalligraph fonts are registered by their metadata only.
+     */
+    private final boolean lazyFontLoading;
+
+    /**
+     * The index of the system fonts which are registered on demand, or null.
+     */
+    private SystemFontIndex systemFontIndex;
+
+    /**
+     * The paths of the fonts from {@link #systemFontIndex} which have already been registered.
+     */
+    private final Set<String> registeredIndexedFonts = new HashSet<>();
+
+    /**
+     * The fonts from {@link #systemFontIndex} which have been registered. They are kept apart from
+     * the font set of the provider, which is shared by the {@link #copy() copies} of the provider.
+     */
+    private final FontSet indexedFonts = new FontSet();
 
     /**
      * Creates a new {@link DefaultFontProvider} instance.
@@ -108,16 +142,121 @@ public class DefaultFontProvider extends BasicFontProvider {
      */
     public DefaultFontProvider(boolean registerStandardPdfFonts, boolean registerShippedFonts,
             boolean registerSystemFonts, String defaultFontFamily) {
+        this(registerStandardPdfFonts, registerShippedFonts, registerSystemFonts, defaultFontFamily, false);
+    }
+
+    /**
+     * Creates a new {@link DefaultFontProvider} instance.
+     *
+     * @param registerStandardPdfFonts use true if you want to register the standard Type 1 fonts (can't be embedded)
+     * @param registerShippedFonts use true if you want to register the shipped fonts (can be embedded)
+     * @param registerSystemFonts use true if you want to register the system fonts (can require quite some resources)
+     * @param defaultFontFamily default font family
+     * @param lazyFontLoading use true if you want the shipped fonts to be registered by their metadata only
+     *                        and parsed the first time a glyph from them is needed
+     */
+    public DefaultFontProvider(boolean registerStandardPdfFonts, boolean registerShippedFonts,
+            boolean registerSystemFonts, String defaultFontFamily, boolean lazyFontLoading) {
         super(registerStandardPdfFonts, registerSystemFonts, defaultFontFamily);
+        this.lazyFontLoading = lazyFontLoading;
         if (registerShippedFonts) {
             addAllAvailableFonts(addCalligraphFonts());
         }
     }
 
+    /**
+     * Creates a new {@link DefaultFontProvider} instance with the same fonts and settings as the given one.
+     * The font set is shared with the given font provider, while the fonts of the converted document,
+     * including the fonts registered from the {@link SystemFontIndex}, are kept by each instance.
+     *
+     * @param fontProvider the font provider to copy
+     */
+    protected DefaultFontProvider(DefaultFontProvider fontProvider) {
+        super(fontProvider.getFontSet(), fontProvider.getDefaultFontFamily());
+        this.lazyFontLoading = fontProvider.lazyFontLoading;
+        this.systemFontIndex = fontProvider.systemFontIndex;
+        this.calligraphyFontsTempList = null;
+    }
+
+    /**
+     * Creates a copy of this font provider sharing its font set, which is used to convert a single document,
+     * e.g. by {@link com.itextpdf.html2pdf.HtmlConversionEngine}.
+     * <p>
+     * Subclasses must override this method, usually with the help of
+     * {@link #DefaultFontProvider(DefaultFontProvider)}, so that the copy has the same type and settings.
+     *
+     * @return a new {@link DefaultFontProvider} instance
+     */
+    public DefaultFontProvider copy() {
+        return new DefaultFontProvider(this);
+    }
+
+    /**
+     * Checks whether shipped and pdfCalligraph fonts are registered by their metadata only
+     * and parsed the first time a glyph from them is needed.
+     *
+     * @return true if lazy font loading is enabled, false otherwise
+     */
+    public boolean isLazyFontLoading() {
+        return lazyFontLoading;
+    }
+
+    /**
+     * Sets the index of the system fonts. A font from the index is registered in this font provider
+     * the first time one of its names is requested as a font family, so that the system fonts
+     * aren't read when the font provider is created.
+     *
+     * @param systemFontIndex the {@link SystemFontIndex}, which is expected to be {@link SystemFontIndex#refresh()
+     *                        refreshed} beforehand, or null to stop registering the fonts from the index
+     */
+    public void setSystemFontIndex(SystemFontIndex systemFontIndex) {
+        this.systemFontIndex = systemFontIndex;
+    }
+
+    /**
+     * Gets the index of the system fonts.
+     *
+     * @return the {@link SystemFontIndex}, or null if it isn't set
+     */
+    public SystemFontIndex getSystemFontIndex() {
+        return systemFontIndex;
+    }
+
+    /**
+     * {@inheritDoc}
+     */
+    @Override
+    protected FontSelector createFontSelector(Collection<FontInfo> fonts, List<String> fontFamilies,
+            FontCharacteristics fc) {
+        if (systemFontIndex != null && fontFamilies != null) {
+            for (String fontFamily : fontFamilies) {
+                for (String fontPath : systemFontIndex.getFontPaths(fontFamily)) {
+                    if (registeredIndexedFonts.add(fontPath) && !indexedFonts.addFont(fontPath)) {
+                        LOGGER.error(Html2PdfLogMessageConstant.ERROR_LOADING_FONT);
+                    }
+                }
+            }
+            if (!indexedFonts.isEmpty()) {
+                Set<FontInfo> allFonts = new LinkedHashSet<>(fonts);
+                allFonts.addAll(indexedFonts.getFonts());
+                fonts = allFonts;
+            }
+        }
+        return super.createFontSelector(fonts, fontFamilies, fc);
+    }
+
     private void addAllAvailableFonts(Range rangeToLoad) {
         addShippedFonts(rangeToLoad);
-        for(byte[] fontData : calligraphyFontsTempList) {
-            addFont(fontData, null);
+        for (String fontName : calligraphyFontsTempList) {
+            try {
+                if (lazyFontLoading) {
+                    addFont(ShippedFontsCache.getCalligraphFontData().get(fontName), null);
+                } else {
+                    addFont(ShippedFontsCache.getCalligraphFont(fontName), null);
+                }
+            } catch (Exception e) {
+                LOGGER.error(Html2PdfLogMessageConstant.ERROR_LOADING_FONT);
+            }
         }
         calligraphyFontsTempList = null;
     }
@@ -129,9 +268,16 @@ public class DefaultFontProvider extends BasicFontProvider {
      */
     private void addShippedFonts(Range rangeToLoad) {
         for (String fontName : SHIPPED_FONT_NAMES) {
-            try (InputStream stream = ResourceUtil.getResourceStream(SHIPPED_FONT_RESOURCE_PATH + fontName)) {
-                byte[] fontProgramBytes = StreamUtil.inputStreamToArray(stream);
-                addFont(fontProgramBytes, null, rangeToLoad);
+            try {
+                if (lazyFontLoading) {
+                    // Only the font names are read here, the font program is created by FontProvider#getPdfFont
+                    // and cached by FontProgramFactory the first time the font is actually used
+                    if (!addFont(SHIPPED_FONT_RESOURCE_PATH + fontName, null, rangeToLoad)) {
+                        LOGGER.error(Html2PdfLogMessageConstant.ERROR_LOADING_FONT);
+                    }
+                } else {
+                    addFont(ShippedFontsCache.getShippedFont(fontName), null, rangeToLoad);
+                }
             } catch (Exception e) {
                 LOGGER.error(Html2PdfLogMessageConstant.ERROR_LOADING_FONT);
             }
@@ -152,8 +298,7 @@ public class DefaultFontProvider extends BasicFontProvider {
     protected Range addCalligraphFonts() {
         if (TypographyUtils.isPdfCalligraphAvailable()) {
             try {
-                Map<String, byte[]> fontStreams = TypographyUtils.loadShippedFonts();
-                this.calligraphyFontsTempList.addAll(fontStreams.values());
+                this.calligraphyFontsTempList.addAll(ShippedFontsCache.getCalligraphFontData().keySet());
                 // here we return a unicode range that excludes the loaded from the calligraph module fonts
                 // i.e. the unicode range that is to be rendered with standard or shipped free fonts
                 return FREE_FONT_RANGE;
@@ -0,0 +1,139 @@
+/*
+    This file is part of the iText (R) project.
+    Copyright (c) 1998-2024 Apryse Group NV
+    Authors: Apryse Software.
+
+    This program is offered under a commercial and under the AGPL license.
+    For commercial licensing, contact us at https://itextpdf.com/sales.  For AGPL licensing, see below.
+
+    AGPL licensing:
+    This program is free software: you can redistribute it and/or modify
+    it under the terms of the GNU Affero General Public License as published by
+    the Free Software Foundation, either version 3 of the License, or
+    (at your option) any later version.
+
+    This program is distributed in the hope that it will be useful,
+    but WITHOUT ANY WARRANTY; without even the implied warranty of
+    MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE.  See the
+    GNU Affero General Public License for more details.
+
+    You should have received a copy of the GNU Affero General Public License
+    along with this program.  If not, see <https://www.gnu.org/licenses/>.
+ */
+package com.itextpdf.html2pdf.resolver.font;
+
+import com.itextpdf.html2pdf.util.ContentKey;
+import com.itextpdf.html2pdf.util.ContentLruCache;
+import com.itextpdf.io.font.FontProgram;
+
+/**
+ * The default {@link IFontProgramCache} implementation, which keeps the least recently used fonts within
+ * the limits on the number of fonts and on the total size of their data.
+ * <p>
+ * A {@link FontProgram} is not bound to a document, so the same instance can be used by any number of
+ * conversions. This class is thread-safe.
+ */
+public class FontProgramCache implements IFontProgramCache {
+
+    /**
+     * The default maximum number of cached fonts.
+     */
+    public static final int DEFAULT_MAX_FONT_COUNT = 64;
+
+    /**
+     * The default maximum total size of the cached font data, in bytes.
+     */
+    public static final long DEFAULT_MAX_TOTAL_SIZE = 64L * 1024 * 1024;
+
+    /**
+     * The cached fonts.
+     */
+    private final ContentLruCache<FontProgram> cache;
+
+    /**
+     * Creates a new {@link FontProgramCache} instance with the default limits.
+     */
+    public FontProgramCache() {
+        this(DEFAULT_MAX_FONT_COUNT, DEFAULT_MAX_TOTAL_SIZE);
+    }
+
+    /**
+     * Creates a new {@link FontProgramCache} instance.
+     *
+     * @param maxFontCount the maximum number of cached fonts
+     * @param maxTotalSize the maximum total size of the cached font data, in bytes
+     */
+    public FontProgramCache(int maxFontCount, long maxTotalSize) {
+        this.cache = new ContentLruCache<>(maxFontCount, maxTotalSize);
+    }
+
+    /**
+     * {@inheritDoc}
+     */
+    @Override
+    public FontProgram get(ContentKey key) {
+        return cache.get(key);
+    }
+
+    /**
+     * {@inheritDoc}
+     * <p>
+     * A font whose data alone exceeds the maximum total size is not cached.
+     */
+    @Override
+    public void put(ContentKey key, FontProgram fontProgram) {
+        cache.put(key, fontProgram, key.getContentLength());
+    }
+
+    /**
+     * Removes all the fonts from the cache. The statistics are kept.
+     */
+    public void clear() {
+        cache.clear();
+    }
+
+    /**
+     * Gets the number of the cached fonts.
+     *
+     * @return the number of the cached fonts
+     */
+    public int getFontCount() {
+        return cache.getEntryCount();
+    }
+
+    /**
+     * Gets the total size of the cached font data.
+     *
+     * @return the total size of the cached font data, in bytes
+     */
+    public long getTotalSize() {
+        return cache.getTotalSize();
+    }
+
+    /**
+     * Gets the number of the requests that were served from the cache.
+     *
+     * @return the hit count
+     */
+    public long getHitCount() {
+        return cache.getHitCount();
+    }
+
+    /**
+     * Gets the number of the requests that weren't served from the cache.
+     *
+     * @return the miss count
+     */
+    public long getMissCount() {
+        return cache.getMissCount();
+    }
+
+    /**
+     * Gets the number of the fonts that were removed from the cache to stay within the limits.
+     *
+     * @return the eviction count
+     */
+    public long getEvictionCount() {
+        return cache.getEvictionCount();
+    }
+}
@@ -0,0 +1,54 @@
+/*
+    This file is part of the iText (R) project.
+    Copyright (c) 1998-2024 Apryse Group NV
+    Authors: Apryse Software.
+
+    This program is offered under a commercial and under the AGPL license.
+    For commercial licensing, contact us at https://itextpdf.com/sales.  For AGPL licensing, see below.
+
+    AGPL licensing:
+    This program is free software: you can redistribute it and/or modify
+    it under the terms of the GNU Affero General Public License as published by
+    the Free Software Foundation, either version 3 of the License, or
+    (at your option) any later version.
+
+    This program is distributed in the hope that it will be useful,
+    but WITHOUT ANY WARRANTY; without even the implied warranty of
+    MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE.  See the
+    GNU Affero General Public License for more details.
+
+    You should have received a copy of the GNU Affero General Public License
+    along with this program.  If not, see <https://www.gnu.org/licenses/>.
+ */
+package com.itextpdf.html2pdf.resolver.font;
+
+import com.itextpdf.html2pdf.util.ContentKey;
+import com.itextpdf.io.font.FontProgram;
+
+/**
+ * A cache of the {@link FontProgram} instances parsed from the <code>@font-face</code> sources, which can be
+ * shared across conversions.
+ * <p>
+ * The fonts are identified by the resolved URL of the source together with the font data, so that a font
+ * which was changed on the server is parsed again. Implementations must be thread-safe if the same instance
+ * is used by concurrent conversions.
+ */
+public interface IFontProgramCache {
+
+    /**
+     * Gets the cached font program.
+     *
+     * @param key the key built from the resolved URL of the font source, or an empty string for the data URIs,
+     *            and the font data retrieved from the URL
+     * @return the cached {@link FontProgram}, or null if there is no such font in the cache
+     */
+    FontProgram get(ContentKey key);
+
+    /**
+     * Puts the font program to the cache.
+     *
+     * @param key the key the font program was looked up with
+     * @param fontProgram the {@link FontProgram} parsed from the font data
+     */
+    void put(ContentKey key, FontProgram fontProgram);
+}
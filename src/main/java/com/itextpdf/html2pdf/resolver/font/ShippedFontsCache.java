@@ -0,0 +1,116 @@
+/*
+    This file is part of the iText (R) project.
+    Copyright (c) 1998-2024 Apryse Group NV
+    Authors: Apryse Software.
+
+    This program is offered under a commercial and under the AGPL license.
+    For commercial licensing, contact us at https://itextpdf.com/sales.  For AGPL licensing, see below.
+
+    AGPL licensing:
+    This program is free software: you can redistribute it and/or modify
+    it under the terms of the GNU Affero General Public License as published by
+    the Free Software Foundation, either version 3 of the License, or
+    (at your option) any later version.
+
+    This program is distributed in the hope that it will be useful,
+    but WITHOUT ANY WARRANTY; without even the implied warranty of
+    MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE.  See the
+    GNU Affero General Public License for more details.
+
+    You should have received a copy of the GNU Affero General Public License
+    along with this program.  If not, see <https://www.gnu.org/licenses/>.
+ */
+package com.itextpdf.html2pdf.resolver.font;
+
+import com.itextpdf.io.font.FontProgram;
+import com.itextpdf.io.font.FontProgramFactory;
+import com.itextpdf.io.util.ResourceUtil;
+import com.itextpdf.io.util.StreamUtil;
+import com.itextpdf.layout.renderer.TypographyUtils;
+
+import java.io.IOException;
+import java.io.InputStream;
+import java.util.Collections;
+import java.util.HashMap;
+import java.util.LinkedHashMap;
+import java.util.Map;
+
+/**
+ * Process-wide cache of the fonts shipped with pdfHTML and pdfCalligraph.
+ * <p>
+ * A {@link FontProgram} is not bound to a document and is never changed after parsing, so the same
+ * instance may be registered in the font sets of any number of {@link DefaultFontProvider} instances,
+ * the same way {@link FontProgramFactory} shares cached font programs. The cache is filled on the first
+ * request of each font and is never cleared, since the set of shipped fonts is fixed.
+ */
+final class ShippedFontsCache {
+
+    /**
+     * The parsed shipped fonts mapped by their resource names.
+     */
+    private static final Map<String, FontProgram> shippedFonts = new HashMap<>();
+
+    /**
+     * The parsed pdfCalligraph fonts mapped by their names.
+     */
+    private static final Map<String, FontProgram> calligraphFonts = new HashMap<>();
+
+    /**
+     * The raw pdfCalligraph fonts mapped by their names, or null if they haven't been loaded yet.
+     */
+    private static Map<String, byte[]> calligraphFontData;
+
+    private ShippedFontsCache() {
+        // Empty constructor
+    }
+
+    /**
+     * Gets the parsed shipped font, reading and parsing it on the first request.
+     *
+     * @param fontName the name of the font file in {@link DefaultFontProvider#SHIPPED_FONT_RESOURCE_PATH}
+     * @return the parsed {@link FontProgram}
+     * @throws IOException if the font can't be read or parsed
+     */
+    static synchronized FontProgram getShippedFont(String fontName) throws IOException {
+        FontProgram fontProgram = shippedFonts.get(fontName);
+        if (fontProgram == null) {
+            try (InputStream stream = ResourceUtil.getResourceStream(
+                    DefaultFontProvider.SHIPPED_FONT_RESOURCE_PATH + fontName)) {
+                fontProgram = FontProgramFactory.createFont(StreamUtil.inputStreamToArray(stream), false);
+            }
+            shippedFonts.put(fontName, fontProgram);
+        }
+        return fontProgram;
+    }
+
+    /**
+     * Gets the raw pdfCalligraph fonts, loading them on the first request.
+     * pdfCalligraph availability is expected to be checked by the caller.
+     *
+     * @return the unmodifiable map of the font data by the font names, in the pdfCalligraph order
+     * @throws IOException if the fonts can't be loaded
+     */
+    static synchronized Map<String, byte[]> getCalligraphFontData() throws IOException {
+        if (calligraphFontData == null) {
+            calligraphFontData = Collections.unmodifiableMap(
+                    new LinkedHashMap<>(TypographyUtils.loadShippedFonts()));
+        }
+        return calligraphFontData;
+    }
+
+    /**
+     * Gets the parsed pdfCalligraph font, parsing it on the first request.
+     *
+     * @param fontName the name of the font, as returned by {@link #getCalligraphFontData()}
+     * @return the parsed {@link FontProgram}
+     * @throws IOException if the font can't be loaded or parsed
+     */
+    static synchronized FontProgram getCalligraphFont(String fontName) throws IOException {
+        FontProgram fontProgram = calligraphFonts.get(fontName);
+        if (fontProgram == null) {
+            fontProgram = FontProgramFactory.createFont(getCalligraphFontData().get(fontName), false);
+            calligraphFonts.put(fontName, fontProgram);
+        }
+        return fontProgram;
+    }
+}
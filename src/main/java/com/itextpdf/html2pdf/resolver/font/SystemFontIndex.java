@@ -0,0 +1,424 @@
+/*
+    This file is part of the iText (R) project.
+    Copyright (c) 1998-2024 Apryse Group NV
+    Authors: Apryse Software.
+
+    This program is offered under a commercial and under the AGPL license.
+    For commercial licensing, contact us at https://itextpdf.com/sales.  For AGPL licensing, see below.
+
+    AGPL licensing:
+    This program is free software: you can redistribute it and/or modify
+    it under the terms of the GNU Affero General Public License as published by
+    the Free Software Foundation, either version 3 of the License, or
+    (at your option) any later version.
+
+    This program is distributed in the hope that it will be useful,
+    but WITHOUT ANY WARRANTY; without even the implied warranty of
+    MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE.  See the
+    GNU Affero General Public License for more details.
+
+    You should have received a copy of the GNU Affero General Public License
+    along with this program.  If not, see <https://www.gnu.org/licenses/>.
+ */
+package com.itextpdf.html2pdf.resolver.font;
+
+import com.itextpdf.commons.utils.FileUtil;
+import com.itextpdf.commons.utils.MessageFormatUtil;
+import com.itextpdf.html2pdf.logs.Html2PdfLogMessageConstant;
+import com.itextpdf.io.font.FontProgramDescriptor;
+import com.itextpdf.io.font.FontProgramDescriptorFactory;
+import com.itextpdf.io.font.TrueTypeCollection;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+
+import java.io.BufferedInputStream;
+import java.io.BufferedOutputStream;
+import java.io.DataInputStream;
+import java.io.DataOutputStream;
+import java.io.File;
+import java.io.FileInputStream;
+import java.io.FileOutputStream;
+import java.io.IOException;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.Collections;
+import java.util.HashMap;
+import java.util.LinkedHashMap;
+import java.util.LinkedHashSet;
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+
+/**
+ * A persistent index of the font names of the system fonts.
+ * <p>
+ * Registering the system fonts requires opening every font file in the system font directories,
+ * which may take seconds on a cold start. The index keeps the names of each font file on disk,
+ * together with the file size and the last modification time, so that only new and changed files
+ * are read on the next {@link #refresh()}. A {@link DefaultFontProvider} with
+ * {@link DefaultFontProvider#setSystemFontIndex(SystemFontIndex) the index set} registers a system
+ * font only when one of its names is requested as a font family.
+ * <p>
+ * The fonts of a TrueType collection are indexed separately, by their paths in the "path,index" form.
+ * The index file is versioned and is silently rebuilt if it's missing, corrupted or
+ * was written by another version. Instances are thread-safe and may be shared by any number of
+ * {@link DefaultFontProvider} instances.
+ */
+public final class SystemFontIndex {
+
+    /**
+     * The version of the index file format. Files of any other version are ignored and rewritten.
+     */
+    static final int INDEX_VERSION = 2;
+
+    /**
+     * The maximum number of font files in a valid index file.
+     */
+    private static final int MAX_FONT_COUNT = 1 << 20;
+
+    /**
+     * The maximum number of fonts in a font file of a valid index file.
+     */
+    private static final int MAX_FACE_COUNT = 1 << 10;
+
+    /**
+     * The maximum number of names of a font in a valid index file.
+     */
+    private static final int MAX_NAME_COUNT = 4;
+
+    /**
+     * The extension of the font collection files.
+     */
+    private static final String FONT_COLLECTION_EXTENSION = ".ttc";
+
+    /**
+     * The header of the index file.
+     */
+    private static final String INDEX_HEADER = "pdfHTML system font index";
+
+    /**
+     * The directories which are scanned by default, the same as by {@link com.itextpdf.layout.font.FontProvider#addSystemFonts()}.
+     */
+    private static final String[] DEFAULT_FONT_DIRECTORIES = new String[] {
+            FileUtil.getFontsDir(),
+            "/usr/share/X11/fonts",
+            "/usr/X/lib/X11/fonts",
+            "/usr/openwin/lib/X11/fonts",
+            "/usr/share/fonts",
+            "/usr/X11R6/lib/X11/fonts",
+            "/Library/Fonts",
+            "/System/Library/Fonts"
+    };
+
+    /**
+     * The extensions of the indexed font files.
+     */
+    private static final String[] FONT_EXTENSIONS = new String[] {".ttf", ".otf", FONT_COLLECTION_EXTENSION};
+
+    /**
+     * The logger.
+     */
+    private static final Logger LOGGER = LoggerFactory.getLogger(SystemFontIndex.class);
+
+    /**
+     * The path to the index file.
+     */
+    private final String indexFile;
+
+    /**
+     * The scanned font directories.
+     */
+    private final List<String> fontDirectories;
+
+    /**
+     * The indexed fonts mapped by their file paths.
+     */
+    private volatile Map<String, IndexedFont> fonts = Collections.<String, IndexedFont>emptyMap();
+
+    /**
+     * The paths of the indexed fonts mapped by the lowercase font names.
+     */
+    private volatile Map<String, List<String>> fontPathsByName = Collections.<String, List<String>>emptyMap();
+
+    /**
+     * Creates a new {@link SystemFontIndex} instance for the default system font directories.
+     *
+     * @param indexFile the path to the index file, it is created on the first {@link #refresh()}
+     */
+    public SystemFontIndex(String indexFile) {
+        this(indexFile, DEFAULT_FONT_DIRECTORIES);
+    }
+
+    /**
+     * Creates a new {@link SystemFontIndex} instance.
+     *
+     * @param indexFile the path to the index file, it is created on the first {@link #refresh()}
+     * @param fontDirectories the directories to scan recursively for the font files
+     */
+    public SystemFontIndex(String indexFile, String... fontDirectories) {
+        this.indexFile = indexFile;
+        this.fontDirectories = Collections.unmodifiableList(Arrays.asList(fontDirectories));
+    }
+
+    /**
+     * Gets the path to the index file.
+     *
+     * @return the path to the index file
+     */
+    public String getIndexFile() {
+        return indexFile;
+    }
+
+    /**
+     * Gets the scanned font directories.
+     *
+     * @return the unmodifiable list of the font directories
+     */
+    public List<String> getFontDirectories() {
+        return fontDirectories;
+    }
+
+    /**
+     * Brings the index up to date with the font directories.
+     * <p>
+     * The index file is read, then only the font files which are not in the index, or whose size or
+     * modification time differ from the indexed ones, are read. The index file is rewritten if anything
+     * has changed.
+     *
+     * @return the number of font files that were read
+     */
+    public synchronized int refresh() {
+        Map<String, IndexedFont> storedFonts = readIndexFile();
+        Map<String, IndexedFont> updatedFonts = new LinkedHashMap<>();
+        int readFonts = 0;
+        for (String fontPath : listFontFiles()) {
+            File file = new File(fontPath);
+            long size = file.length();
+            long lastModified = file.lastModified();
+            IndexedFont font = storedFonts.get(fontPath);
+            if (font == null || font.size != size || font.lastModified != lastModified) {
+                font = readFont(fontPath, size, lastModified);
+                readFonts++;
+            }
+            updatedFonts.put(fontPath, font);
+        }
+        if (readFonts > 0 || updatedFonts.size() != storedFonts.size()) {
+            writeIndexFile(updatedFonts);
+        }
+        Map<String, List<String>> updatedFontPathsByName = new HashMap<>();
+        for (IndexedFont font : updatedFonts.values()) {
+            for (IndexedFace face : font.faces) {
+                for (String name : face.names) {
+                    List<String> paths = updatedFontPathsByName.get(name);
+                    if (paths == null) {
+                        paths = new ArrayList<>(1);
+                        updatedFontPathsByName.put(name, paths);
+                    }
+                    paths.add(face.path);
+                }
+            }
+        }
+        fonts = updatedFonts;
+        fontPathsByName = updatedFontPathsByName;
+        return readFonts;
+    }
+
+    /**
+     * Gets the number of the indexed font files, including the files which turned out not to be valid fonts.
+     *
+     * @return the number of the indexed font files
+     */
+    public int size() {
+        return fonts.size();
+    }
+
+    /**
+     * Gets the paths of the valid fonts having the given family name, full name or font name.
+     *
+     * @param fontFamily the font family, case insensitive
+     * @return the paths of the matching fonts, in the "path,index" form for the fonts of a collection, never null
+     */
+    List<String> getFontPaths(String fontFamily) {
+        if (fontFamily == null) {
+            return Collections.<String>emptyList();
+        }
+        List<String> paths = fontPathsByName.get(fontFamily.trim().toLowerCase());
+        return paths == null ? Collections.<String>emptyList() : paths;
+    }
+
+    private List<String> listFontFiles() {
+        Set<String> fontFiles = new LinkedHashSet<>();
+        for (String directory : fontDirectories) {
+            if (directory == null || !FileUtil.directoryExists(directory)) {
+                continue;
+            }
+            String[] files = FileUtil.listFilesInDirectory(directory, true);
+            if (files == null) {
+                continue;
+            }
+            for (String file : files) {
+                String lowerCaseFile = file.toLowerCase();
+                for (String extension : FONT_EXTENSIONS) {
+                    if (lowerCaseFile.endsWith(extension)) {
+                        fontFiles.add(file);
+                        break;
+                    }
+                }
+            }
+        }
+        return new ArrayList<>(fontFiles);
+    }
+
+    private static IndexedFont readFont(String fontPath, long size, long lastModified) {
+        List<IndexedFace> faces = new ArrayList<>(1);
+        if (fontPath.toLowerCase().endsWith(FONT_COLLECTION_EXTENSION)) {
+            // The fonts of a collection can only be read by their "path,index" paths, the same as in FontSet#addDirectory
+            int faceCount = 0;
+            try {
+                faceCount = new TrueTypeCollection(fontPath).getTTCSize();
+            } catch (Exception e) {
+                LOGGER.debug(MessageFormatUtil.format(Html2PdfLogMessageConstant.UNABLE_TO_INDEX_FONT, fontPath), e);
+            }
+            for (int i = 0; i < faceCount; i++) {
+                faces.add(readFace(fontPath + "," + i));
+            }
+        } else {
+            faces.add(readFace(fontPath));
+        }
+        return new IndexedFont(fontPath, size, lastModified, faces);
+    }
+
+    private static IndexedFace readFace(String fontPath) {
+        Set<String> names = new LinkedHashSet<>();
+        try {
+            FontProgramDescriptor descriptor = FontProgramDescriptorFactory.fetchDescriptor(fontPath);
+            if (descriptor != null) {
+                addName(names, descriptor.getFamilyNameLowerCase());
+                addName(names, descriptor.getFamilyName2LowerCase());
+                addName(names, descriptor.getFullNameLowerCase());
+                addName(names, descriptor.getFontNameLowerCase());
+            }
+        } catch (Exception e) {
+            // Such fonts are kept in the index with no names, so that they aren't read again until they change
+            LOGGER.debug(MessageFormatUtil.format(Html2PdfLogMessageConstant.UNABLE_TO_INDEX_FONT, fontPath), e);
+        }
+        return new IndexedFace(fontPath, new ArrayList<>(names));
+    }
+
+    private static void addName(Set<String> names, String name) {
+        if (name != null && !name.isEmpty()) {
+            names.add(name);
+        }
+    }
+
+    private Map<String, IndexedFont> readIndexFile() {
+        Map<String, IndexedFont> storedFonts = new HashMap<>();
+        File file = new File(indexFile);
+        if (!file.isFile()) {
+            return storedFonts;
+        }
+        try (DataInputStream input = new DataInputStream(new BufferedInputStream(new FileInputStream(file)))) {
+            if (!INDEX_HEADER.equals(input.readUTF()) || input.readInt() != INDEX_VERSION) {
+                return storedFonts;
+            }
+            int fontCount = readCount(input, MAX_FONT_COUNT);
+            for (int i = 0; i < fontCount; i++) {
+                String path = input.readUTF();
+                long size = input.readLong();
+                long lastModified = input.readLong();
+                int faceCount = readCount(input, MAX_FACE_COUNT);
+                List<IndexedFace> faces = new ArrayList<>(faceCount);
+                for (int j = 0; j < faceCount; j++) {
+                    String facePath = input.readUTF();
+                    int nameCount = readCount(input, MAX_NAME_COUNT);
+                    List<String> names = new ArrayList<>(nameCount);
+                    for (int k = 0; k < nameCount; k++) {
+                        names.add(input.readUTF());
+                    }
+                    faces.add(new IndexedFace(facePath, names));
+                }
+                storedFonts.put(path, new IndexedFont(path, size, lastModified, faces));
+            }
+        } catch (IOException | RuntimeException e) {
+            // A corrupted index is rebuilt from the font files rather than failing the conversion
+            LOGGER.warn(MessageFormatUtil.format(Html2PdfLogMessageConstant.UNABLE_TO_READ_FONT_INDEX, indexFile), e);
+            storedFonts.clear();
+        }
+        return storedFonts;
+    }
+
+    private static int readCount(DataInputStream input, int maxCount) throws IOException {
+        int count = input.readInt();
+        if (count < 0 || count > maxCount) {
+            throw new IOException(MessageFormatUtil.format("Invalid count {0} in the font index", count));
+        }
+        return count;
+    }
+
+    private void writeIndexFile(Map<String, IndexedFont> fontsToWrite) {
+        File file = new File(indexFile);
+        File tempFile = new File(indexFile + ".tmp");
+        try {
+            File parent = file.getAbsoluteFile().getParentFile();
+            if (parent != null) {
+                parent.mkdirs();
+            }
+            try (DataOutputStream output = new DataOutputStream(
+                    new BufferedOutputStream(new FileOutputStream(tempFile)))) {
+                output.writeUTF(INDEX_HEADER);
+                output.writeInt(INDEX_VERSION);
+                output.writeInt(fontsToWrite.size());
+                for (IndexedFont font : fontsToWrite.values()) {
+                    output.writeUTF(font.path);
+                    output.writeLong(font.size);
+                    output.writeLong(font.lastModified);
+                    output.writeInt(font.faces.size());
+                    for (IndexedFace face : font.faces) {
+                        output.writeUTF(face.path);
+                        output.writeInt(face.names.size());
+                        for (String name : face.names) {
+                            output.writeUTF(name);
+                        }
+                    }
+                }
+            }
+            // Writing to a temporary file first ensures that other processes never read a partially written index
+            if (file.exists() && !file.delete() || !tempFile.renameTo(file)) {
+                throw new IOException(indexFile);
+            }
+        } catch (IOException e) {
+            tempFile.delete();
+            LOGGER.warn(MessageFormatUtil.format(Html2PdfLogMessageConstant.UNABLE_TO_WRITE_FONT_INDEX, indexFile), e);
+        }
+    }
+
+    /**
+     * The indexed data of a single font file.
+     */
+    private static final class IndexedFont {
+        private final String path;
+        private final long size;
+        private final long lastModified;
+        private final List<IndexedFace> faces;
+
+        IndexedFont(String path, long size, long lastModified, List<IndexedFace> faces) {
+            this.path = path;
+            this.size = size;
+            this.lastModified = lastModified;
+            this.faces = faces;
+        }
+    }
+
+    /**
+     * The names of a single font of a font file, with the path the font is registered by.
+     */
+    private static final class IndexedFace {
+        private final String path;
+        private final List<String> names;
+
+        IndexedFace(String path, List<String> names) {
+            this.path = path;
+            this.names = names;
+        }
+    }
+}
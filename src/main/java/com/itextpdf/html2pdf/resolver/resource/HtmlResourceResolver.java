@@ -26,20 +26,27 @@ import com.itextpdf.commons.utils.Base64;
 import com.itextpdf.commons.utils.FileUtil;
 import com.itextpdf.html2pdf.attach.ProcessorContext;
 import com.itextpdf.html2pdf.attach.util.ContextMappingHelper;
+import com.itextpdf.html2pdf.util.ContentKey;
 import com.itextpdf.html2pdf.util.SvgProcessingUtil;
+import com.itextpdf.io.image.ImageData;
+import com.itextpdf.io.image.ImageDataFactory;
 import com.itextpdf.kernel.pdf.xobject.PdfFormXObject;
+import com.itextpdf.kernel.pdf.xobject.PdfImageXObject;
 import com.itextpdf.kernel.pdf.xobject.PdfXObject;
 import com.itextpdf.styledxmlparser.resolver.resource.IResourceRetriever;
 import com.itextpdf.styledxmlparser.resolver.resource.ResourceResolver;
-import com.itextpdf.svg.converter.SvgConverter;
 import com.itextpdf.svg.element.SvgImage;
-import com.itextpdf.svg.processors.ISvgProcessorResult;
 import com.itextpdf.svg.processors.impl.SvgConverterProperties;
 
-import java.io.ByteArrayInputStream;
-import java.io.InputStream;
+import java.io.IOException;
+import java.net.MalformedURLException;
 import java.net.URL;
 import java.nio.charset.StandardCharsets;
+import java.util.ArrayList;
+import java.util.Collection;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
 import java.util.regex.Pattern;
 
 /**
@@ -49,9 +56,29 @@ public class HtmlResourceResolver extends ResourceResolver {
 
     private static final String SVG_PREFIX = "data:image/svg+xml";
     private static final Pattern SVG_IDENTIFIER_PATTERN = Pattern.compile(",[\\s]*(<svg )");
+    private static final String FILE_PROTOCOL = "file";
+
+    /**
+     * The maximum number of the image XObjects of the data URIs kept for reuse in a document.
+     */
+    private static final int MAX_DATA_SOURCE_IMAGE_COUNT = 100;
 
     private final ProcessorContext context;
 
+    /**
+     * The image XObjects created for the raster data URIs of the current document, by the data URI without
+     * whitespaces, so that a repeated data URI is neither decoded nor hashed once more.
+     * The least recently used ones are dropped if there are more than {@link #MAX_DATA_SOURCE_IMAGE_COUNT}.
+     */
+    private final Map<String, PdfImageXObject> dataSourceImageXObjectsBySource = createDataSourceImageXObjectMap();
+
+    /**
+     * The image XObjects created for the raster data URIs of the current document, by the decoded data,
+     * so that the different data URIs of the same image share the XObject.
+     * The least recently used ones are dropped if there are more than {@link #MAX_DATA_SOURCE_IMAGE_COUNT}.
+     */
+    private final Map<ContentKey, PdfImageXObject> dataSourceImageXObjects = createDataSourceImageXObjectMap();
+
     /**
      * Creates a new {@link HtmlResourceResolver} instance.
      * If {@code baseUri} is a string that represents an absolute URI with any schema
@@ -86,6 +113,62 @@ public class HtmlResourceResolver extends ResourceResolver {
         this.context = context;
     }
 
+    /**
+     * Checks whether the resources can be prefetched, i.e. whether the resolver retrieves them with
+     * a {@link PrefetchingResourceRetriever}.
+     *
+     * @return true if the resources can be prefetched, false otherwise
+     */
+    public boolean isPrefetchEnabled() {
+        return getRetriever() instanceof PrefetchingResourceRetriever;
+    }
+
+    /**
+     * Starts fetching the given resources in the background, so that the later requests for them are served
+     * without waiting for a round-trip each. Data URIs, resources on the local file system and sources
+     * which can't be resolved are skipped. Does nothing if the prefetch is not enabled.
+     *
+     * @param sources the resource sources, relative to the base URI or absolute
+     */
+    public void prefetchResources(Collection<String> sources) {
+        if (!isPrefetchEnabled()) {
+            return;
+        }
+        List<URL> urls = new ArrayList<>(sources.size());
+        for (String src : sources) {
+            if (src == null || isDataSrc(src.trim())) {
+                continue;
+            }
+            try {
+                URL url = resolveAgainstBaseUri(src.trim());
+                if (!FILE_PROTOCOL.equals(url.getProtocol())) {
+                    urls.add(url);
+                }
+            } catch (MalformedURLException ignored) {
+                // Reported when the resource is requested
+            }
+        }
+        ((PrefetchingResourceRetriever) getRetriever()).prefetch(urls);
+    }
+
+    @Override
+    public void resetCache() {
+        super.resetCache();
+        dataSourceImageXObjectsBySource.clear();
+        dataSourceImageXObjects.clear();
+        cancelPrefetch();
+    }
+
+    /**
+     * Cancels the prefetch of the resources which are not requested yet and drops their data.
+     * Does nothing if the prefetch is not enabled.
+     */
+    public void cancelPrefetch() {
+        if (isPrefetchEnabled()) {
+            ((PrefetchingResourceRetriever) getRetriever()).clear();
+        }
+    }
+
     @Override
     public PdfXObject retrieveImage(String src) {
         if (src != null && src.trim().startsWith(SVG_PREFIX) && SVG_IDENTIFIER_PATTERN.matcher(src).find()) {
@@ -98,41 +181,146 @@ public class HtmlResourceResolver extends ResourceResolver {
     }
 
     /**
-     * Retrieve image as either {@link com.itextpdf.kernel.pdf.xobject.PdfImageXObject}, or {@link PdfFormXObject}.
+     * Retrieve image as either {@link PdfImageXObject}, or {@link PdfFormXObject}.
+     * <p>
+     * Data URIs with the same decoded data result in the same XObject, so that each distinct image
+     * is decoded and written to the document once.
      *
      * @param src either link to file or base64 encoded stream
      * @return PdfXObject on success, otherwise null
      */
     @Override
     protected PdfXObject tryResolveBase64ImageSource(String src) {
-        String fixedSrc = src.replaceAll("\\s", "");
+        String fixedSrc = removeWhitespaces(src);
+        PdfImageXObject imageXObject = dataSourceImageXObjectsBySource.get(fixedSrc);
+        if (imageXObject != null) {
+            return imageXObject;
+        }
+        int base64Index = fixedSrc.indexOf(BASE64_IDENTIFIER);
+        if (base64Index < 0) {
+            return null;
+        }
+        byte[] data;
+        try {
+            data = Base64.decode(fixedSrc.substring(base64Index + BASE64_IDENTIFIER.length() + 1));
+        } catch (Exception ignored) {
+            return null;
+        }
+        if (data == null) {
+            return null;
+        }
         if (fixedSrc.startsWith(SVG_PREFIX)) {
-            fixedSrc = fixedSrc.substring(fixedSrc.indexOf(BASE64_IDENTIFIER) + BASE64_IDENTIFIER.length() + 1);
-            try (ByteArrayInputStream stream = new ByteArrayInputStream(Base64.decode(fixedSrc))) {
-                PdfFormXObject xObject = HtmlResourceResolver.processAsSvg(stream, context, null);
+            try {
+                PdfFormXObject xObject = processAsSvg(data, null);
                 if (xObject != null) {
                     return xObject;
                 }
             } catch (Exception ignored) {
             }
         }
-        return super.tryResolveBase64ImageSource(src);
+        ContentKey key = new ContentKey(null, data);
+        imageXObject = dataSourceImageXObjects.get(key);
+        if (imageXObject == null) {
+            try {
+                imageXObject = createImage(key, data);
+            } catch (Exception ignored) {
+                return null;
+            }
+            dataSourceImageXObjects.put(key, imageXObject);
+        }
+        dataSourceImageXObjectsBySource.put(fixedSrc, imageXObject);
+        return imageXObject;
     }
 
     @Override
     protected PdfXObject createImageByUrl(URL url) throws Exception {
+        byte[] bytes = getRetriever().getByteArrayByUrl(url);
+        if (bytes == null) {
+            return null;
+        }
         try {
-            return super.createImageByUrl(url);
+            IImageDataCache imageDataCache = context.getImageDataCache();
+            return createImage(imageDataCache == null ? null : new ContentKey(url.toExternalForm(), bytes), bytes);
         } catch (Exception ignored) {
-            try (InputStream is = getRetriever().getInputStreamByUrl(url)) {
-                return is == null ? null : HtmlResourceResolver.processAsSvg(is, context, FileUtil.parentDirectory(url));
+            return processAsSvg(bytes, FileUtil.parentDirectory(url));
+        }
+    }
+
+    /**
+     * Removes the whitespace characters from a data URI in a single pass. The string is returned as is
+     * if it has no whitespaces, which is the usual case.
+     *
+     * @param src the data URI
+     * @return the data URI without whitespace characters
+     */
+    static String removeWhitespaces(String src) {
+        int length = src.length();
+        int i = 0;
+        while (i < length && !isWhitespace(src.charAt(i))) {
+            i++;
+        }
+        if (i == length) {
+            return src;
+        }
+        StringBuilder builder = new StringBuilder(length);
+        builder.append(src, 0, i);
+        for (; i < length; i++) {
+            char ch = src.charAt(i);
+            if (!isWhitespace(ch)) {
+                builder.append(ch);
             }
         }
+        return builder.toString();
+    }
+
+    /**
+     * Checks if the character is a whitespace, in the sense of the {@code \s} regular expression class.
+     */
+    private static boolean isWhitespace(char ch) {
+        return ch == ' ' || ch == '\t' || ch == '\n' || ch == '\u000B' || ch == '\f' || ch == '\r';
+    }
+
+    /**
+     * Creates a map of the image XObjects of the data URIs which drops the least recently used ones if there are
+     * more than {@link #MAX_DATA_SOURCE_IMAGE_COUNT}.
+     */
+    private static <K> Map<K, PdfImageXObject> createDataSourceImageXObjectMap() {
+        return new LinkedHashMap<K, PdfImageXObject>(16, 0.75f, true) {
+            @Override
+            protected boolean removeEldestEntry(Map.Entry<K, PdfImageXObject> eldest) {
+                return size() > MAX_DATA_SOURCE_IMAGE_COUNT;
+            }
+        };
+    }
+
+    /**
+     * Creates the image XObject for the image data, decoding the data or taking it from the image data cache
+     * if it's configured.
+     *
+     * @param key the key of the image in the image data cache, or null if there is no cache
+     * @param data the image data
+     * @return the image XObject
+     */
+    private PdfImageXObject createImage(ContentKey key, byte[] data) {
+        IImageDataCache imageDataCache = context.getImageDataCache();
+        if (key == null || imageDataCache == null) {
+            return new PdfImageXObject(ImageDataFactory.create(data));
+        }
+        ImageData imageData = imageDataCache.get(key);
+        if (imageData == null) {
+            imageData = ImageDataFactory.create(data);
+            imageDataCache.put(key, imageData);
+        }
+        // Creating an XObject may update the attributes of the raw image data, which is shared by concurrent
+        // conversions, so only the conversions using the same cached image wait for each other
+        synchronized (imageData) {
+            return new PdfImageXObject(imageData);
+        }
     }
 
     private PdfXObject tryResolveSvgImageSource(String src) {
-        try (ByteArrayInputStream stream = new ByteArrayInputStream(src.getBytes(StandardCharsets.UTF_8))) {
-            PdfFormXObject xObject = HtmlResourceResolver.processAsSvg(stream, context, null);
+        try {
+            PdfFormXObject xObject = processAsSvg(src.getBytes(StandardCharsets.UTF_8), null);
             if (xObject != null) {
                 return xObject;
             }
@@ -142,13 +330,17 @@ public class HtmlResourceResolver extends ResourceResolver {
         return null;
     }
 
-    private static PdfFormXObject processAsSvg(InputStream stream, ProcessorContext context, String parentDir) {
+    /**
+     * Creates the form XObject for the SVG data, or returns the one already created for the same SVG
+     * in the current document.
+     */
+    private PdfFormXObject processAsSvg(byte[] svgData, String parentDir) throws IOException {
         SvgConverterProperties svgConverterProperties = ContextMappingHelper.mapToSvgConverterProperties(context);
         if (parentDir != null) {
             svgConverterProperties.setBaseUri(parentDir);
         }
-        ISvgProcessorResult res = SvgConverter.parseAndProcess(stream, svgConverterProperties);
         SvgProcessingUtil processingUtil = new SvgProcessingUtil(context.getResourceResolver());
-        return processingUtil.createXObjectFromProcessingResult(res, context.getPdfDocument());
+        return context.getSvgRenderCache().createXObject(svgData, svgConverterProperties, processingUtil,
+                context.getPdfDocument());
     }
 }
@@ -0,0 +1,55 @@
+/*
+    This file is part of the iText (R) project.
+    Copyright (c) 1998-2024 Apryse Group NV
+    Authors: Apryse Software.
+
+    This program is offered under a commercial and under the AGPL license.
+    For commercial licensing, contact us at https://itextpdf.com/sales.  For AGPL licensing, see below.
+
+    AGPL licensing:
+    This program is free software: you can redistribute it and/or modify
+    it under the terms of the GNU Affero General Public License as published by
+    the Free Software Foundation, either version 3 of the License, or
+    (at your option) any later version.
+
+    This program is distributed in the hope that it will be useful,
+    but WITHOUT ANY WARRANTY; without even the implied warranty of
+    MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE.  See the
+    GNU Affero General Public License for more details.
+
+    You should have received a copy of the GNU Affero General Public License
+    along with this program.  If not, see <https://www.gnu.org/licenses/>.
+ */
+package com.itextpdf.html2pdf.resolver.resource;
+
+import com.itextpdf.html2pdf.util.ContentKey;
+import com.itextpdf.io.image.ImageData;
+
+/**
+ * A cache of the {@link ImageData} instances decoded from the image sources, which can be shared across
+ * conversions.
+ * <p>
+ * The images are identified by the resolved URL of the source together with the image data, so that an image
+ * which was changed on the server is decoded again. Only the decoded data is cached: each document creates
+ * its own {@link com.itextpdf.kernel.pdf.xobject.PdfImageXObject} from it. Implementations must be thread-safe
+ * if the same instance is used by concurrent conversions.
+ */
+public interface IImageDataCache {
+
+    /**
+     * Gets the cached image data.
+     *
+     * @param key the key built from the resolved URL of the image source, or an empty string for the data URIs,
+     *            and the data retrieved from the URL, or the data decoded from the data URI
+     * @return the cached {@link ImageData}, or null if there is no such image in the cache
+     */
+    ImageData get(ContentKey key);
+
+    /**
+     * Puts the image data to the cache.
+     *
+     * @param key the key the image data was looked up with
+     * @param imageData the {@link ImageData} decoded from the source
+     */
+    void put(ContentKey key, ImageData imageData);
+}
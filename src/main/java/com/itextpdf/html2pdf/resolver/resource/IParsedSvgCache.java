@@ -0,0 +1,54 @@
+/*
+    This file is part of the iText (R) project.
+    Copyright (c) 1998-2024 Apryse Group NV
+    Authors: Apryse Software.
+
+    This program is offered under a commercial and under the AGPL license.
+    For commercial licensing, contact us at https://itextpdf.com/sales.  For AGPL licensing, see below.
+
+    AGPL licensing:
+    This program is free software: you can redistribute it and/or modify
+    it under the terms of the GNU Affero General Public License as published by
+    the Free Software Foundation, either version 3 of the License, or
+    (at your option) any later version.
+
+    This program is distributed in the hope that it will be useful,
+    but WITHOUT ANY WARRANTY; without even the implied warranty of
+    MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE.  See the
+    GNU Affero General Public License for more details.
+
+    You should have received a copy of the GNU Affero General Public License
+    along with this program.  If not, see <https://www.gnu.org/licenses/>.
+ */
+package com.itextpdf.html2pdf.resolver.resource;
+
+import com.itextpdf.html2pdf.util.ContentKey;
+import com.itextpdf.styledxmlparser.node.INode;
+
+/**
+ * A cache of the SVG documents parsed from the image sources, which can be shared across conversions.
+ * <p>
+ * The SVG documents are identified by their data and the charset it's decoded with, so the same icon is parsed
+ * once whatever URL or data URI it comes from. Only the parsed tree is cached: each use processes it into its own
+ * renderer tree with the converter properties of the document. The cached trees are processed by one conversion
+ * at a time, as the processing stores the resolved styles in the nodes. Implementations must be thread-safe if the same instance is used by concurrent conversions.
+ */
+public interface IParsedSvgCache {
+
+    /**
+     * Gets the cached SVG tree.
+     *
+     * @param key the key built from the charset the SVG data is decoded with, in place of the URL,
+     *            and the data of the SVG document
+     * @return the root node of the cached SVG tree, or null if there is no such document in the cache
+     */
+    INode get(ContentKey key);
+
+    /**
+     * Puts the SVG tree to the cache.
+     *
+     * @param key the key the SVG tree was looked up with
+     * @param root the root node of the tree parsed from the data
+     */
+    void put(ContentKey key, INode root);
+}
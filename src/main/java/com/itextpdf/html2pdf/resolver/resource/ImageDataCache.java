@@ -0,0 +1,143 @@
+/*
+    This file is part of the iText (R) project.
+    Copyright (c) 1998-2024 Apryse Group NV
+    Authors: Apryse Software.
+
+    This program is offered under a commercial and under the AGPL license.
+    For commercial licensing, contact us at https://itextpdf.com/sales.  For AGPL licensing, see below.
+
+    AGPL licensing:
+    This program is free software: you can redistribute it and/or modify
+    it under the terms of the GNU Affero General Public License as published by
+    the Free Software Foundation, either version 3 of the License, or
+    (at your option) any later version.
+
+    This program is distributed in the hope that it will be useful,
+    but WITHOUT ANY WARRANTY; without even the implied warranty of
+    MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE.  See the
+    GNU Affero General Public License for more details.
+
+    You should have received a copy of the GNU Affero General Public License
+    along with this program.  If not, see <https://www.gnu.org/licenses/>.
+ */
+package com.itextpdf.html2pdf.resolver.resource;
+
+import com.itextpdf.html2pdf.util.ContentKey;
+import com.itextpdf.html2pdf.util.ContentLruCache;
+import com.itextpdf.io.image.ImageData;
+
+/**
+ * The default {@link IImageDataCache} implementation, which keeps the least recently used images within
+ * the limits on the number of images and on their total size.
+ * <p>
+ * The size of an image is the larger of the size of its source and the size of its decoded data.
+ * This class is thread-safe.
+ */
+public class ImageDataCache implements IImageDataCache {
+
+    /**
+     * The default maximum number of cached images.
+     */
+    public static final int DEFAULT_MAX_IMAGE_COUNT = 256;
+
+    /**
+     * The default maximum total size of the cached images, in bytes.
+     */
+    public static final long DEFAULT_MAX_TOTAL_SIZE = 64L * 1024 * 1024;
+
+    /**
+     * The cached images.
+     */
+    private final ContentLruCache<ImageData> cache;
+
+    /**
+     * Creates a new {@link ImageDataCache} instance with the default limits.
+     */
+    public ImageDataCache() {
+        this(DEFAULT_MAX_IMAGE_COUNT, DEFAULT_MAX_TOTAL_SIZE);
+    }
+
+    /**
+     * Creates a new {@link ImageDataCache} instance.
+     *
+     * @param maxImageCount the maximum number of cached images
+     * @param maxTotalSize the maximum total size of the cached images, in bytes
+     */
+    public ImageDataCache(int maxImageCount, long maxTotalSize) {
+        this.cache = new ContentLruCache<>(maxImageCount, maxTotalSize);
+    }
+
+    /**
+     * {@inheritDoc}
+     */
+    @Override
+    public ImageData get(ContentKey key) {
+        return cache.get(key);
+    }
+
+    /**
+     * {@inheritDoc}
+     * <p>
+     * An image whose size alone exceeds the maximum total size is not cached.
+     */
+    @Override
+    public void put(ContentKey key, ImageData imageData) {
+        long size = key.getContentLength();
+        if (imageData.getData() != null) {
+            size = Math.max(size, imageData.getData().length);
+        }
+        cache.put(key, imageData, size);
+    }
+
+    /**
+     * Removes all the images from the cache. The statistics are kept.
+     */
+    public void clear() {
+        cache.clear();
+    }
+
+    /**
+     * Gets the number of the cached images.
+     *
+     * @return the number of the cached images
+     */
+    public int getImageCount() {
+        return cache.getEntryCount();
+    }
+
+    /**
+     * Gets the total size of the cached images.
+     *
+     * @return the total size of the cached images, in bytes
+     */
+    public long getTotalSize() {
+        return cache.getTotalSize();
+    }
+
+    /**
+     * Gets the number of the requests that were served from the cache.
+     *
+     * @return the hit count
+     */
+    public long getHitCount() {
+        return cache.getHitCount();
+    }
+
+    /**
+     * Gets the number of the requests that weren't served from the cache.
+     *
+     * @return the miss count
+     */
+    public long getMissCount() {
+        return cache.getMissCount();
+    }
+
+    /**
+     * Gets the number of the images that were removed from the cache to stay within the limits.
+     *
+     * @return the eviction count
+     */
+    public long getEvictionCount() {
+        return cache.getEvictionCount();
+    }
+}
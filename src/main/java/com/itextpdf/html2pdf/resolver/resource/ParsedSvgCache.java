@@ -0,0 +1,138 @@
+/*
+    This file is part of the iText (R) project.
+    Copyright (c) 1998-2024 Apryse Group NV
+    Authors: Apryse Software.
+
+    This program is offered under a commercial and under the AGPL license.
+    For commercial licensing, contact us at https://itextpdf.com/sales.  For AGPL licensing, see below.
+
+    AGPL licensing:
+    This program is free software: you can redistribute it and/or modify
+    it under the terms of the GNU Affero General Public License as published by
+    the Free Software Foundation, either version 3 of the License, or
+    (at your option) any later version.
+
+    This program is distributed in the hope that it will be useful,
+    but WITHOUT ANY WARRANTY; without even the implied warranty of
+    MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE.  See the
+    GNU Affero General Public License for more details.
+
+    You should have received a copy of the GNU Affero General Public License
+    along with this program.  If not, see <https://www.gnu.org/licenses/>.
+ */
+package com.itextpdf.html2pdf.resolver.resource;
+
+import com.itextpdf.html2pdf.util.ContentKey;
+import com.itextpdf.html2pdf.util.ContentLruCache;
+import com.itextpdf.styledxmlparser.node.INode;
+
+/**
+ * The default {@link IParsedSvgCache} implementation, which keeps the least recently used SVG documents
+ * within the limits on the number of documents and on the total size of their data.
+ * <p>
+ * This class is thread-safe.
+ */
+public class ParsedSvgCache implements IParsedSvgCache {
+
+    /**
+     * The default maximum number of cached SVG documents.
+     */
+    public static final int DEFAULT_MAX_SVG_COUNT = 256;
+
+    /**
+     * The default maximum total size of the data of the cached SVG documents, in bytes.
+     */
+    public static final long DEFAULT_MAX_TOTAL_SIZE = 16L * 1024 * 1024;
+
+    /**
+     * The cached SVG documents.
+     */
+    private final ContentLruCache<INode> cache;
+
+    /**
+     * Creates a new {@link ParsedSvgCache} instance with the default limits.
+     */
+    public ParsedSvgCache() {
+        this(DEFAULT_MAX_SVG_COUNT, DEFAULT_MAX_TOTAL_SIZE);
+    }
+
+    /**
+     * Creates a new {@link ParsedSvgCache} instance.
+     *
+     * @param maxSvgCount the maximum number of cached SVG documents
+     * @param maxTotalSize the maximum total size of the data of the cached SVG documents, in bytes
+     */
+    public ParsedSvgCache(int maxSvgCount, long maxTotalSize) {
+        this.cache = new ContentLruCache<>(maxSvgCount, maxTotalSize);
+    }
+
+    /**
+     * {@inheritDoc}
+     */
+    @Override
+    public INode get(ContentKey key) {
+        return cache.get(key);
+    }
+
+    /**
+     * {@inheritDoc}
+     * <p>
+     * A document whose data alone exceeds the maximum total size is not cached.
+     */
+    @Override
+    public void put(ContentKey key, INode root) {
+        cache.put(key, root, key.getContentLength());
+    }
+
+    /**
+     * Removes all the SVG documents from the cache. The statistics are kept.
+     */
+    public void clear() {
+        cache.clear();
+    }
+
+    /**
+     * Gets the number of the cached SVG documents.
+     *
+     * @return the number of the cached SVG documents
+     */
+    public int getSvgCount() {
+        return cache.getEntryCount();
+    }
+
+    /**
+     * Gets the total size of the data of the cached SVG documents.
+     *
+     * @return the total size of the data of the cached SVG documents, in bytes
+     */
+    public long getTotalSize() {
+        return cache.getTotalSize();
+    }
+
+    /**
+     * Gets the number of the requests that were served from the cache.
+     *
+     * @return the hit count
+     */
+    public long getHitCount() {
+        return cache.getHitCount();
+    }
+
+    /**
+     * Gets the number of the requests that weren't served from the cache.
+     *
+     * @return the miss count
+     */
+    public long getMissCount() {
+        return cache.getMissCount();
+    }
+
+    /**
+     * Gets the number of the SVG documents that were removed from the cache to stay within the limits.
+     *
+     * @return the eviction count
+     */
+    public long getEvictionCount() {
+        return cache.getEvictionCount();
+    }
+}
@@ -0,0 +1,237 @@
+/*
+    This file is part of the iText (R) project.
+    Copyright (c) 1998-2024 Apryse Group NV
+    Authors: Apryse Software.
+
+    This program is offered under a commercial and under the AGPL license.
+    For commercial licensing, contact us at https://itextpdf.com/sales.  For AGPL licensing, see below.
+
+    AGPL licensing:
+    This program is free software: you can redistribute it and/or modify
+    it under the terms of the GNU Affero General Public License as published by
+    the Free Software Foundation, either version 3 of the License, or
+    (at your option) any later version.
+
+    This program is distributed in the hope that it will be useful,
+    but WITHOUT ANY WARRANTY; without even the implied warranty of
+    MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE.  See the
+    GNU Affero General Public License for more details.
+
+    You should have received a copy of the GNU Affero General Public License
+    along with this program.  If not, see <https://www.gnu.org/licenses/>.
+ */
+package com.itextpdf.html2pdf.resolver.resource;
+
+import com.itextpdf.styledxmlparser.resolver.resource.IResourceRetriever;
+
+import java.io.ByteArrayInputStream;
+import java.io.IOException;
+import java.io.InputStream;
+import java.net.URL;
+import java.util.Collection;
+import java.util.Map;
+import java.util.Queue;
+import java.util.concurrent.Callable;
+import java.util.concurrent.CancellationException;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ConcurrentLinkedQueue;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.Executor;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.FutureTask;
+import java.util.concurrent.RejectedExecutionException;
+import java.util.concurrent.ThreadFactory;
+import java.util.concurrent.atomic.AtomicInteger;
+
+/**
+ * An {@link IResourceRetriever} which fetches the resources of a document concurrently, ahead of their use.
+ * <p>
+ * The URLs passed to {@link #prefetch(Collection)} are queued and fetched with the wrapped retriever by at most
+ * {@code parallelism} workers running on an {@link Executor}. A later request for a prefetched URL waits for its
+ * fetch, or performs it on the calling thread if no worker has picked it up yet, and is served from the fetched
+ * bytes. The fetched bytes are handed out only once: a later request for the same URL, like the requests for
+ * the other URLs, is passed to the wrapped retriever as is. The workers don't hold any monitor while fetching,
+ * so they can run on virtual threads.
+ */
+public class PrefetchingResourceRetriever implements IResourceRetriever {
+
+    /**
+     * The pool running the workers if no executor is given.
+     */
+    private static final ExecutorService DEFAULT_EXECUTOR = Executors.newCachedThreadPool(new ThreadFactory() {
+        private final AtomicInteger threadCount = new AtomicInteger();
+
+        @Override
+        public Thread newThread(Runnable runnable) {
+            Thread thread = new Thread(runnable, "pdfHTML resource prefetch " + threadCount.incrementAndGet());
+            thread.setDaemon(true);
+            return thread;
+        }
+    });
+
+    private final IResourceRetriever retriever;
+
+    private final int parallelism;
+
+    private final Executor executor;
+
+    /**
+     * The fetches of the prefetched resources which are not consumed yet, by URL.
+     */
+    private final Map<String, FutureTask<byte[]>> fetches = new ConcurrentHashMap<>();
+
+    /**
+     * The fetches no worker has picked up yet.
+     */
+    private final Queue<FutureTask<byte[]>> queue = new ConcurrentLinkedQueue<>();
+
+    private final AtomicInteger activeWorkers = new AtomicInteger();
+
+    /**
+     * Creates a new {@link PrefetchingResourceRetriever} instance running the workers on a shared pool
+     * of daemon threads.
+     *
+     * @param retriever the {@link IResourceRetriever} fetching the resources
+     * @param parallelism the maximum number of resources fetched in parallel
+     */
+    public PrefetchingResourceRetriever(IResourceRetriever retriever, int parallelism) {
+        this(retriever, parallelism, null);
+    }
+
+    /**
+     * Creates a new {@link PrefetchingResourceRetriever} instance.
+     *
+     * @param retriever the {@link IResourceRetriever} fetching the resources
+     * @param parallelism the maximum number of resources fetched in parallel
+     * @param executor the {@link Executor} running the workers, or null to use a shared pool of daemon threads
+     */
+    public PrefetchingResourceRetriever(IResourceRetriever retriever, int parallelism, Executor executor) {
+        this.retriever = retriever;
+        this.parallelism = Math.max(1, parallelism);
+        this.executor = executor == null ? DEFAULT_EXECUTOR : executor;
+    }
+
+    /**
+     * Gets the wrapped retriever.
+     *
+     * @return the {@link IResourceRetriever} fetching the resources
+     */
+    public IResourceRetriever getRetriever() {
+        return retriever;
+    }
+
+    /**
+     * Schedules the fetch of the given resources. The method doesn't wait for the fetches.
+     * URLs which are already prefetched are skipped.
+     *
+     * @param urls the URLs of the resources
+     */
+    public void prefetch(Collection<URL> urls) {
+        for (final URL url : urls) {
+            String key = url.toExternalForm();
+            if (fetches.containsKey(key)) {
+                continue;
+            }
+            FutureTask<byte[]> fetch = new FutureTask<>(new Callable<byte[]>() {
+                @Override
+                public byte[] call() throws Exception {
+                    return retriever.getByteArrayByUrl(url);
+                }
+            });
+            if (fetches.putIfAbsent(key, fetch) == null) {
+                queue.add(fetch);
+            }
+        }
+        startWorkers();
+    }
+
+    /**
+     * Forgets all the prefetched resources which are not consumed yet and cancels their fetches. The fetches
+     * which are not started yet are skipped, the running ones are not interrupted, but their results are dropped.
+     */
+    public void clear() {
+        queue.clear();
+        for (FutureTask<byte[]> fetch : fetches.values()) {
+            fetch.cancel(false);
+        }
+        fetches.clear();
+    }
+
+    @Override
+    public InputStream getInputStreamByUrl(URL url) throws IOException {
+        FutureTask<byte[]> fetch = fetches.remove(url.toExternalForm());
+        if (fetch == null) {
+            return retriever.getInputStreamByUrl(url);
+        }
+        byte[] bytes = getFetchResult(fetch, url);
+        return bytes == null ? null : new ByteArrayInputStream(bytes);
+    }
+
+    @Override
+    public byte[] getByteArrayByUrl(URL url) throws IOException {
+        FutureTask<byte[]> fetch = fetches.remove(url.toExternalForm());
+        if (fetch == null) {
+            return retriever.getByteArrayByUrl(url);
+        }
+        return getFetchResult(fetch, url);
+    }
+
+    private byte[] getFetchResult(FutureTask<byte[]> fetch, URL url) throws IOException {
+        // Does nothing if a worker has already started the fetch
+        fetch.run();
+        try {
+            return fetch.get();
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+            return retriever.getByteArrayByUrl(url);
+        } catch (ExecutionException e) {
+            Throwable cause = e.getCause();
+            if (cause instanceof IOException) {
+                throw (IOException) cause;
+            } else if (cause instanceof RuntimeException) {
+                throw (RuntimeException) cause;
+            }
+            throw new IOException(cause);
+        } catch (CancellationException e) {
+            // The fetch was cancelled by a concurrent clear
+            return retriever.getByteArrayByUrl(url);
+        }
+    }
+
+    private void startWorkers() {
+        while (!queue.isEmpty()) {
+            int active = activeWorkers.get();
+            if (active >= parallelism) {
+                return;
+            }
+            if (activeWorkers.compareAndSet(active, active + 1)) {
+                try {
+                    executor.execute(new Runnable() {
+                        @Override
+                        public void run() {
+                            runWorker();
+                        }
+                    });
+                } catch (RejectedExecutionException e) {
+                    // The queued fetches are performed on demand by the threads requesting them
+                    activeWorkers.decrementAndGet();
+                    return;
+                }
+            }
+        }
+    }
+
+    private void runWorker() {
+        try {
+            FutureTask<byte[]> fetch;
+            while ((fetch = queue.poll()) != null) {
+                fetch.run();
+            }
+        } finally {
+            activeWorkers.decrementAndGet();
+        }
+        // Fetches queued while this worker was finishing would otherwise wait for the next prefetch call
+        startWorkers();
+    }
+}
@@ -0,0 +1,99 @@
+/*
+    This file is part of the iText (R) project.
+    Copyright (c) 1998-2024 Apryse Group NV
+    Authors: Apryse Software.
+
+    This program is offered under a commercial and under the AGPL license.
+    For commercial licensing, contact us at https://itextpdf.com/sales.  For AGPL licensing, see below.
+
+    AGPL licensing:
+    This program is free software: you can redistribute it and/or modify
+    it under the terms of the GNU Affero General Public License as published by
+    the Free Software Foundation, either version 3 of the License, or
+    (at your option) any later version.
+
+    This program is distributed in the hope that it will be useful,
+    but WITHOUT ANY WARRANTY; without even the implied warranty of
+    MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE.  See the
+    GNU Affero General Public License for more details.
+
+    You should have received a copy of the GNU Affero General Public License
+    along with this program.  If not, see <https://www.gnu.org/licenses/>.
+ */
+package com.itextpdf.html2pdf.util;
+
+import java.security.MessageDigest;
+import java.security.NoSuchAlgorithmException;
+import java.util.Arrays;
+
+/**
+ * The key of a resource in a {@link ContentLruCache}: the URL of the resource together with the digest
+ * of its content, so that a resource which was changed at the same URL is not served from the cache.
+ * <p>
+ * The digest is computed once, when the key is created, so a key should be created once per lookup
+ * and then passed both to the getter and to the setter of the cache.
+ */
+public final class ContentKey {
+
+    private final String url;
+
+    private final byte[] digest;
+
+    private final int contentLength;
+
+    private final int hash;
+
+    /**
+     * Creates a new {@link ContentKey} instance.
+     *
+     * @param url the resolved URL of the resource, or null if the resource has no URL
+     * @param content the content of the resource
+     */
+    public ContentKey(String url, byte[] content) {
+        this.url = url == null ? "" : url;
+        this.digest = computeDigest(content);
+        this.contentLength = content.length;
+        this.hash = 31 * this.url.hashCode() + Arrays.hashCode(digest);
+    }
+
+    /**
+     * Gets the length of the content the key was created for.
+     *
+     * @return the length of the content, in bytes
+     */
+    public int getContentLength() {
+        return contentLength;
+    }
+
+    /**
+     * {@inheritDoc}
+     */
+    @Override
+    public boolean equals(Object o) {
+        if (this == o) {
+            return true;
+        }
+        if (o == null || getClass() != o.getClass()) {
+            return false;
+        }
+        ContentKey other = (ContentKey) o;
+        return contentLength == other.contentLength && url.equals(other.url) && Arrays.equals(digest, other.digest);
+    }
+
+    /**
+     * {@inheritDoc}
+     */
+    @Override
+    public int hashCode() {
+        return hash;
+    }
+
+    private static byte[] computeDigest(byte[] content) {
+        try {
+            return MessageDigest.getInstance("SHA-256").digest(content);
+        } catch (NoSuchAlgorithmException e) {
+            // SHA-256 is required to be supported by every Java platform
+            throw new IllegalStateException(e);
+        }
+    }
+}
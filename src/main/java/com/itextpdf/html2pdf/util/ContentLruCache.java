@@ -0,0 +1,193 @@
+/*
+    This file is part of the iText (R) project.
+    Copyright (c) 1998-2024 Apryse Group NV
+    Authors: Apryse Software.
+
+    This program is offered under a commercial and under the AGPL license.
+    For commercial licensing, contact us at https://itextpdf.com/sales.  For AGPL licensing, see below.
+
+    AGPL licensing:
+    This program is free software: you can redistribute it and/or modify
+    it under the terms of the GNU Affero General Public License as published by
+    the Free Software Foundation, either version 3 of the License, or
+    (at your option) any later version.
+
+    This program is distributed in the hope that it will be useful,
+    but WITHOUT ANY WARRANTY; without even the implied warranty of
+    MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE.  See the
+    GNU Affero General Public License for more details.
+
+    You should have received a copy of the GNU Affero General Public License
+    along with this program.  If not, see <https://www.gnu.org/licenses/>.
+ */
+package com.itextpdf.html2pdf.util;
+
+import java.util.Iterator;
+import java.util.LinkedHashMap;
+
+/**
+ * A cache of the values computed from the resource content, which keeps the least recently used values
+ * within the limits on the number of values and on their total size.
+ * <p>
+ * The values are identified by a {@link ContentKey}. This class is thread-safe.
+ *
+ * @param <V> the type of the cached values
+ */
+public class ContentLruCache<V> {
+
+    /**
+     * The maximum number of cached values.
+     */
+    private final int maxEntryCount;
+
+    /**
+     * The maximum total size of the cached values, in bytes.
+     */
+    private final long maxTotalSize;
+
+    /**
+     * The cached values, in the access order.
+     */
+    private final LinkedHashMap<ContentKey, CachedValue<V>> entries = new LinkedHashMap<>(16, 0.75f, true);
+
+    /**
+     * The total size of the cached values, in bytes.
+     */
+    private long totalSize;
+
+    /**
+     * The number of the requests that were served from the cache.
+     */
+    private long hitCount;
+
+    /**
+     * The number of the requests that weren't served from the cache.
+     */
+    private long missCount;
+
+    /**
+     * The number of the values that were removed from the cache to stay within the limits.
+     */
+    private long evictionCount;
+
+    /**
+     * Creates a new {@link ContentLruCache} instance.
+     *
+     * @param maxEntryCount the maximum number of cached values
+     * @param maxTotalSize the maximum total size of the cached values, in bytes
+     */
+    public ContentLruCache(int maxEntryCount, long maxTotalSize) {
+        if (maxEntryCount <= 0 || maxTotalSize <= 0) {
+            throw new IllegalArgumentException("The cache limits must be positive");
+        }
+        this.maxEntryCount = maxEntryCount;
+        this.maxTotalSize = maxTotalSize;
+    }
+
+    /**
+     * Gets the cached value.
+     *
+     * @param key the key of the value
+     * @return the cached value, or null if there is no such value in the cache
+     */
+    public synchronized V get(ContentKey key) {
+        CachedValue<V> cachedValue = entries.get(key);
+        if (cachedValue == null) {
+            missCount++;
+            return null;
+        }
+        hitCount++;
+        return cachedValue.value;
+    }
+
+    /**
+     * Puts the value to the cache and removes the least recently used values which don't fit the limits.
+     * A value whose size alone exceeds the maximum total size is not cached.
+     *
+     * @param key the key of the value
+     * @param value the value to cache
+     * @param size the size of the value, in bytes
+     */
+    public synchronized void put(ContentKey key, V value, long size) {
+        if (size > maxTotalSize) {
+            return;
+        }
+        CachedValue<V> previous = entries.put(key, new CachedValue<>(value, size));
+        if (previous != null) {
+            totalSize -= previous.size;
+        }
+        totalSize += size;
+        Iterator<CachedValue<V>> leastRecentlyUsed = entries.values().iterator();
+        while (entries.size() > maxEntryCount || totalSize > maxTotalSize) {
+            totalSize -= leastRecentlyUsed.next().size;
+            leastRecentlyUsed.remove();
+            evictionCount++;
+        }
+    }
+
+    /**
+     * Removes all the values from the cache. The statistics are kept.
+     */
+    public synchronized void clear() {
+        entries.clear();
+        totalSize = 0;
+    }
+
+    /**
+     * Gets the number of the cached values.
+     *
+     * @return the number of the cached values
+     */
+    public synchronized int getEntryCount() {
+        return entries.size();
+    }
+
+    /**
+     * Gets the total size of the cached values.
+     *
+     * @return the total size of the cached values, in bytes
+     */
+    public synchronized long getTotalSize() {
+        return totalSize;
+    }
+
+    /**
+     * Gets the number of the requests that were served from the cache.
+     *
+     * @return the hit count
+     */
+    public synchronized long getHitCount() {
+        return hitCount;
+    }
+
+    /**
+     * Gets the number of the requests that weren't served from the cache.
+     *
+     * @return the miss count
+     */
+    public synchronized long getMissCount() {
+        return missCount;
+    }
+
+    /**
+     * Gets the number of the values that were removed from the cache to stay within the limits.
+     *
+     * @return the eviction count
+     */
+    public synchronized long getEvictionCount() {
+        return evictionCount;
+    }
+
+    /**
+     * A cached value together with its size.
+     */
+    private static final class CachedValue<V> {
+        private final V value;
+        private final long size;
+
+        CachedValue(V value, long size) {
+            this.value = value;
+            this.size = size;
+        }
+    }
+}
@@ -24,6 +24,9 @@ package com.itextpdf.html2pdf;
 
 import com.itextpdf.commons.actions.NamespaceConstant;
 import com.itextpdf.commons.actions.contexts.IMetaInfo;
+import com.itextpdf.html2pdf.css.resolve.CompiledStyleSheetCache;
+import com.itextpdf.html2pdf.resolver.font.FontProgramCache;
+import com.itextpdf.kernel.pdf.PdfAConformanceLevel;
 import com.itextpdf.test.ExtendedITextTest;
 
 import org.junit.jupiter.api.Assertions;
@@ -71,6 +74,58 @@ public class ConverterPropertiesTest extends ExtendedITextTest {
         Assertions.assertEquals(20, propertiesCopied.getLimitOfLayouts());
     }
 
+    @Test
+    public void copyConformanceLevelTest() {
+        ConverterProperties properties = new ConverterProperties();
+        properties.setPdfAConformanceLevel(PdfAConformanceLevel.PDF_A_4);
+        properties.setCssGridEnabled(true);
+
+        ConverterProperties propertiesCopied = new ConverterProperties(properties);
+
+        Assertions.assertEquals(PdfAConformanceLevel.PDF_A_4, propertiesCopied.getConformanceLevel());
+        Assertions.assertTrue(propertiesCopied.isCssGridEnabled());
+    }
+
+    @Test
+    public void copyFontProgramCacheTest() {
+        FontProgramCache fontProgramCache = new FontProgramCache();
+        ConverterProperties properties = new ConverterProperties().setFontProgramCache(fontProgramCache);
+
+        ConverterProperties propertiesCopied = new ConverterProperties(properties);
+
+        Assertions.assertSame(fontProgramCache, propertiesCopied.getFontProgramCache());
+    }
+
+    @Test
+    public void copyCompiledStyleSheetCacheTest() {
+        CompiledStyleSheetCache styleSheetCache = new CompiledStyleSheetCache();
+        ConverterProperties properties = new ConverterProperties().setCompiledStyleSheetCache(styleSheetCache);
+
+        ConverterProperties propertiesCopied = new ConverterProperties(properties);
+
+        Assertions.assertSame(styleSheetCache, propertiesCopied.getCompiledStyleSheetCache());
+    }
+
+    @Test
+    public void copyStreamingModeTest() {
+        ConverterProperties properties = new ConverterProperties().setStreamingMode(true);
+
+        ConverterProperties propertiesCopied = new ConverterProperties(properties);
+
+        Assertions.assertTrue(propertiesCopied.isStreamingMode());
+        Assertions.assertFalse(new ConverterProperties().isStreamingMode());
+    }
+
+    @Test
+    public void copyLargeTableFlushIntervalTest() {
+        ConverterProperties properties = new ConverterProperties().setLargeTableFlushInterval(100);
+
+        ConverterProperties propertiesCopied = new ConverterProperties(properties);
+
+        Assertions.assertEquals(100, propertiesCopied.getLargeTableFlushInterval());
+        Assertions.assertEquals(0, new ConverterProperties().getLargeTableFlushInterval());
+    }
+
     private static class TestMetaInfo implements IMetaInfo {
     }
 }
@@ -0,0 +1,183 @@
+/*
+    This file is part of the iText (R) project.
+    Copyright (c) 1998-2024 Apryse Group NV
+    Authors: Apryse Software.
+
+    This program is offered under a commercial and under the AGPL license.
+    For commercial licensing, contact us at https://itextpdf.com/sales.  For AGPL licensing, see below.
+
+    AGPL licensing:
+    This program is free software: you can redistribute it and/or modify
+    it under the terms of the GNU Affero General Public License as published by
+    the Free Software Foundation, either version 3 of the License, or
+    (at your option) any later version.
+
+    This program is distributed in the hope that it will be useful,
+    but WITHOUT ANY WARRANTY; without even the implied warranty of
+    MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE.  See the
+    GNU Affero General Public License for more details.
+
+    You should have received a copy of the GNU Affero General Public License
+    along with this program.  If not, see <https://www.gnu.org/licenses/>.
+ */
+package com.itextpdf.html2pdf;
+
+import com.itextpdf.kernel.pdf.PdfDocument;
+import com.itextpdf.kernel.pdf.PdfReader;
+import com.itextpdf.test.ExtendedITextTest;
+
+import java.io.ByteArrayInputStream;
+import java.io.ByteArrayOutputStream;
+import java.io.IOException;
+import java.io.InputStream;
+import java.nio.charset.StandardCharsets;
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.Iterator;
+import java.util.List;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicInteger;
+import org.junit.jupiter.api.Assertions;
+import org.junit.jupiter.api.Tag;
+import org.junit.jupiter.api.Test;
+
+@Tag("IntegrationTest")
+public class HtmlBatchConverterTest extends ExtendedITextTest {
+
+    private static final String HTML = "<html><head><style>p { font-family: sans-serif; }</style></head>"
+            + "<body><p>Statement</p></body></html>";
+
+    @Test
+    public void convertJobsTest() throws Exception {
+        int jobCount = 20;
+        List<ByteArrayOutputStream> outputs = new ArrayList<>(jobCount);
+        List<BatchConversionJob> jobs = new ArrayList<>(jobCount);
+        for (int i = 0; i < jobCount; i++) {
+            ByteArrayOutputStream out = new ByteArrayOutputStream();
+            outputs.add(out);
+            jobs.add(i % 2 == 0
+                    ? BatchConversionJob.fromString("job" + i, HTML, out)
+                    : BatchConversionJob.fromStream("job" + i,
+                            new ByteArrayInputStream(HTML.getBytes(StandardCharsets.UTF_8)), out));
+        }
+
+        BatchConversionResult result;
+        try (HtmlBatchConverter converter = new HtmlBatchConverter(new ConverterProperties(), 4)) {
+            result = converter.convert(jobs);
+        }
+
+        Assertions.assertEquals(jobCount, result.getJobCount());
+        Assertions.assertEquals(0, result.getFailedJobCount());
+        Assertions.assertTrue(result.getTotalConversionNanos() > 0);
+        for (ByteArrayOutputStream out : outputs) {
+            assertSinglePagePdf(out.toByteArray());
+        }
+    }
+
+    @Test
+    public void failedJobIsReportedTest() throws Exception {
+        InputStream failingStream = new InputStream() {
+            @Override
+            public int read() throws IOException {
+                throw new IOException("Broken source");
+            }
+        };
+        final boolean[] brokenSinkClosed = new boolean[1];
+        ByteArrayOutputStream brokenSink = new ByteArrayOutputStream() {
+            @Override
+            public void close() throws IOException {
+                brokenSinkClosed[0] = true;
+                super.close();
+            }
+        };
+        List<BatchConversionJob> jobs = new ArrayList<>();
+        jobs.add(BatchConversionJob.fromStream("broken", failingStream, brokenSink));
+        jobs.add(BatchConversionJob.fromString("valid", HTML, new ByteArrayOutputStream()));
+        List<BatchJobResult> results = Collections.synchronizedList(new ArrayList<BatchJobResult>());
+
+        BatchConversionResult result;
+        try (HtmlBatchConverter converter = new HtmlBatchConverter(null, 2)) {
+            result = converter.convert(jobs.iterator(), results::add);
+        }
+
+        Assertions.assertEquals(2, result.getJobCount());
+        Assertions.assertEquals(1, result.getFailedJobCount());
+        Assertions.assertEquals(2, results.size());
+        for (BatchJobResult jobResult : results) {
+            boolean broken = "broken".equals(jobResult.getJob().getId());
+            Assertions.assertEquals(!broken, jobResult.isSucceeded());
+            Assertions.assertEquals(broken, jobResult.getFailure() != null);
+        }
+        Assertions.assertTrue(brokenSinkClosed[0]);
+    }
+
+    @Test
+    public void errorIsReportedAsFailedJobTest() throws Exception {
+        InputStream failingStream = new InputStream() {
+            @Override
+            public int read() {
+                throw new NoClassDefFoundError("Missing class");
+            }
+        };
+        List<BatchConversionJob> jobs = new ArrayList<>();
+        jobs.add(BatchConversionJob.fromStream("broken", failingStream, new ByteArrayOutputStream()));
+        jobs.add(BatchConversionJob.fromString("valid", HTML, new ByteArrayOutputStream()));
+        List<BatchJobResult> results = Collections.synchronizedList(new ArrayList<BatchJobResult>());
+
+        BatchConversionResult result;
+        try (HtmlBatchConverter converter = new HtmlBatchConverter(null, 1)) {
+            result = converter.convert(jobs.iterator(), results::add);
+        }
+
+        Assertions.assertEquals(2, result.getJobCount());
+        Assertions.assertEquals(1, result.getFailedJobCount());
+        for (BatchJobResult jobResult : results) {
+            if ("broken".equals(jobResult.getJob().getId())) {
+                Assertions.assertTrue(jobResult.getFailure() instanceof NoClassDefFoundError);
+            }
+        }
+    }
+
+    @Test
+    public void jobsArePulledWithBackPressureTest() throws Exception {
+        int jobCount = 30;
+        int maxPendingJobs = 3;
+        AtomicInteger pulledJobs = new AtomicInteger();
+        AtomicInteger finishedJobs = new AtomicInteger();
+        AtomicInteger maxAhead = new AtomicInteger();
+        Iterator<BatchConversionJob> jobs = new Iterator<BatchConversionJob>() {
+            @Override
+            public boolean hasNext() {
+                return pulledJobs.get() < jobCount;
+            }
+
+            @Override
+            public BatchConversionJob next() {
+                int ahead = pulledJobs.incrementAndGet() - finishedJobs.get();
+                maxAhead.accumulateAndGet(ahead, Math::max);
+                return BatchConversionJob.fromString("job" + pulledJobs.get(), HTML, new ByteArrayOutputStream());
+            }
+        };
+
+        ExecutorService executorService = Executors.newFixedThreadPool(2);
+        BatchConversionResult result;
+        try (HtmlBatchConverter converter = new HtmlBatchConverter(null, executorService, maxPendingJobs)) {
+            result = converter.convert(jobs, jobResult -> finishedJobs.incrementAndGet());
+        }
+        Assertions.assertFalse(executorService.isShutdown());
+        executorService.shutdown();
+        Assertions.assertTrue(executorService.awaitTermination(1, TimeUnit.MINUTES));
+
+        Assertions.assertEquals(jobCount, result.getJobCount());
+        // A job is pulled before waiting for a free slot, so there may be one more job than the pending ones
+        Assertions.assertTrue(maxAhead.get() <= maxPendingJobs + 1);
+    }
+
+    private static void assertSinglePagePdf(byte[] pdf) throws IOException {
+        try (PdfDocument pdfDocument = new PdfDocument(new PdfReader(new ByteArrayInputStream(pdf)))) {
+            Assertions.assertEquals(1, pdfDocument.getNumberOfPages());
+        }
+    }
+}
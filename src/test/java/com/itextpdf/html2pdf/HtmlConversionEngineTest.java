@@ -0,0 +1,200 @@
+/*
+    This file is part of the iText (R) project.
+    Copyright (c) 1998-2024 Apryse Group NV
+    Authors: Apryse Software.
+
+    This program is offered under a commercial and under the AGPL license.
+    For commercial licensing, contact us at https://itextpdf.com/sales.  For AGPL licensing, see below.
+
+    AGPL licensing:
+    This program is free software: you can redistribute it and/or modify
+    it under the terms of the GNU Affero General Public License as published by
+    the Free Software Foundation, either version 3 of the License, or
+    (at your option) any later version.
+
+    This program is distributed in the hope that it will be useful,
+    but WITHOUT ANY WARRANTY; without even the implied warranty of
+    MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE.  See the
+    GNU Affero General Public License for more details.
+
+    You should have received a copy of the GNU Affero General Public License
+    along with this program.  If not, see <https://www.gnu.org/licenses/>.
+ */
+package com.itextpdf.html2pdf;
+
+import com.itextpdf.html2pdf.exceptions.Html2PdfException;
+import com.itextpdf.html2pdf.resolver.font.DefaultFontProvider;
+import com.itextpdf.io.font.constants.StandardFonts;
+import com.itextpdf.kernel.pdf.PdfAConformanceLevel;
+import com.itextpdf.kernel.pdf.PdfDocument;
+import com.itextpdf.kernel.pdf.PdfOutputIntent;
+import com.itextpdf.kernel.pdf.PdfReader;
+import com.itextpdf.kernel.pdf.PdfWriter;
+import com.itextpdf.layout.element.IElement;
+import com.itextpdf.layout.font.FontProvider;
+import com.itextpdf.pdfa.PdfADocument;
+import com.itextpdf.test.ExtendedITextTest;
+
+import java.io.ByteArrayInputStream;
+import java.io.ByteArrayOutputStream;
+import java.io.FileInputStream;
+import java.io.IOException;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
+import java.util.concurrent.TimeUnit;
+import org.junit.jupiter.api.Assertions;
+import org.junit.jupiter.api.Tag;
+import org.junit.jupiter.api.Test;
+
+@Tag("IntegrationTest")
+public class HtmlConversionEngineTest extends ExtendedITextTest {
+
+    private static final String SRGB_PROFILE =
+            "./src/test/resources/com/itextpdf/html2pdf/HtmlConverterPdfA3Test/sRGB Color Space Profile.icm";
+
+    private static final String HTML = "<html><head><style>p { font-family: sans-serif; }</style></head>"
+            + "<body><p>Invoice No. 42</p><p><b>Total:</b> 100.00</p></body></html>";
+
+    @Test
+    public void conversionsShareFontSetTest() {
+        HtmlConversionEngine engine = new HtmlConversionEngine();
+
+        FontProvider first = engine.createConversionProperties().getFontProvider();
+        FontProvider second = engine.createConversionProperties().getFontProvider();
+
+        Assertions.assertNotSame(first, second);
+        Assertions.assertSame(first.getFontSet(), second.getFontSet());
+        Assertions.assertFalse(first.getFontSet().isEmpty());
+    }
+
+    @Test
+    public void customFontProviderFontSetIsSharedTest() {
+        FontProvider fontProvider = new FontProvider("Courier");
+        fontProvider.addStandardPdfFonts();
+        HtmlConversionEngine engine = new HtmlConversionEngine(new ConverterProperties().setFontProvider(fontProvider));
+
+        FontProvider conversionFontProvider = engine.createConversionProperties().getFontProvider();
+
+        Assertions.assertNotSame(fontProvider, conversionFontProvider);
+        Assertions.assertSame(fontProvider.getFontSet(), conversionFontProvider.getFontSet());
+        Assertions.assertEquals("Courier", conversionFontProvider.getDefaultFontFamily());
+    }
+
+    @Test
+    public void defaultFontProviderSubclassKeepsItsTypeTest() {
+        CopyableFontProvider fontProvider = new CopyableFontProvider();
+        HtmlConversionEngine engine = new HtmlConversionEngine(new ConverterProperties().setFontProvider(fontProvider));
+
+        FontProvider conversionFontProvider = engine.createConversionProperties().getFontProvider();
+
+        Assertions.assertNotSame(fontProvider, conversionFontProvider);
+        Assertions.assertEquals(CopyableFontProvider.class, conversionFontProvider.getClass());
+        Assertions.assertSame(fontProvider.getFontSet(), conversionFontProvider.getFontSet());
+    }
+
+    @Test
+    public void fontProviderWhichCantBeCopiedTest() {
+        ConverterProperties properties = new ConverterProperties().setFontProvider(new DefaultFontProvider() {
+        });
+
+        Assertions.assertThrows(Html2PdfException.class, () -> new HtmlConversionEngine(properties));
+    }
+
+    @Test
+    public void pdfADocumentsUseFontsWhichCanBeEmbeddedTest() throws IOException {
+        HtmlConversionEngine engine = new HtmlConversionEngine();
+        PdfADocument pdfADocument = new PdfADocument(new PdfWriter(new ByteArrayOutputStream()),
+                PdfAConformanceLevel.PDF_A_2B, new PdfOutputIntent("Custom", "", "http://www.color.org",
+                "sRGB IEC61966-2.1", new FileInputStream(SRGB_PROFILE)));
+
+        Assertions.assertTrue(engine.createConversionProperties().getFontProvider().getFontSet()
+                .contains(StandardFonts.HELVETICA));
+        Assertions.assertFalse(engine.createConversionProperties(pdfADocument).getFontProvider().getFontSet()
+                .contains(StandardFonts.HELVETICA));
+    }
+
+    @Test
+    public void conformanceLevelUsesFontsWhichCanBeEmbeddedTest() {
+        HtmlConversionEngine engine = new HtmlConversionEngine(new ConverterProperties()
+                .setPdfAConformanceLevel(PdfAConformanceLevel.PDF_A_2B));
+
+        Assertions.assertFalse(engine.createConversionProperties().getFontProvider().getFontSet()
+                .contains(StandardFonts.HELVETICA));
+        Assertions.assertTrue(engine.createConversionProperties(new PdfDocument(new PdfWriter(
+                new ByteArrayOutputStream()))).getFontProvider().getFontSet().contains(StandardFonts.HELVETICA));
+    }
+
+    @Test
+    public void converterPropertiesAreCopiedTest() {
+        ConverterProperties properties = new ConverterProperties().setBaseUri("base/");
+        HtmlConversionEngine engine = new HtmlConversionEngine(properties);
+
+        properties.setBaseUri("other/");
+
+        Assertions.assertEquals("base/", engine.createConversionProperties().getBaseUri());
+        Assertions.assertNull(properties.getFontProvider());
+    }
+
+    @Test
+    public void convertToElementsTest() {
+        List<IElement> elements = new HtmlConversionEngine().convertToElements(HTML);
+
+        Assertions.assertEquals(2, elements.size());
+    }
+
+    @Test
+    public void sequentialConversionsTest() throws IOException {
+        HtmlConversionEngine engine = new HtmlConversionEngine();
+        for (int i = 0; i < 3; i++) {
+            ByteArrayOutputStream out = new ByteArrayOutputStream();
+            engine.convertToPdf(HTML, out);
+            assertSinglePagePdf(out.toByteArray());
+        }
+    }
+
+    @Test
+    public void multiThreadedConversionsTest() throws Exception {
+        HtmlConversionEngine engine = new HtmlConversionEngine();
+        int runCount = 50;
+        List<Future<byte[]>> futures = new ArrayList<>(runCount);
+        ExecutorService executorService = Executors.newFixedThreadPool(8);
+        for (int i = 0; i < runCount; i++) {
+            futures.add(executorService.submit(() -> {
+                ByteArrayOutputStream out = new ByteArrayOutputStream();
+                engine.convertToPdf(HTML, out);
+                return out.toByteArray();
+            }));
+        }
+        executorService.shutdown();
+        Assertions.assertTrue(executorService.awaitTermination(2, TimeUnit.MINUTES));
+
+        for (Future<byte[]> future : futures) {
+            assertSinglePagePdf(future.get());
+        }
+    }
+
+    private static class CopyableFontProvider extends DefaultFontProvider {
+
+        CopyableFontProvider() {
+            super(false, true, false);
+        }
+
+        CopyableFontProvider(CopyableFontProvider fontProvider) {
+            super(fontProvider);
+        }
+
+        @Override
+        public DefaultFontProvider copy() {
+            return new CopyableFontProvider(this);
+        }
+    }
+
+    private static void assertSinglePagePdf(byte[] pdf) throws IOException {
+        try (PdfDocument pdfDocument = new PdfDocument(new PdfReader(new ByteArrayInputStream(pdf)))) {
+            Assertions.assertEquals(1, pdfDocument.getNumberOfPages());
+        }
+    }
+}
@@ -146,6 +146,23 @@ public class HtmlConverterTest extends ExtendedITextTest {
                 e.getMessage());
     }
 
+    @Test
+    public void streamingModeTest() throws IOException, InterruptedException {
+        String sourceHtml = SOURCE_FOLDER + "streaming.html";
+        String cmpPdf = DESTINATION_FOLDER + "streaming_default.pdf";
+        String destinationPdf = DESTINATION_FOLDER + "streaming.pdf";
+        try (FileInputStream fileInputStream = new FileInputStream(sourceHtml)) {
+            HtmlConverter.convertToPdf(fileInputStream, new PdfWriter(cmpPdf));
+        }
+        try (FileInputStream fileInputStream = new FileInputStream(sourceHtml)) {
+            HtmlConverter.convertToPdf(fileInputStream, new PdfWriter(destinationPdf),
+                    new ConverterProperties().setStreamingMode(true));
+        }
+
+        Assertions.assertNull(new CompareTool().compareByContent(destinationPdf, cmpPdf, DESTINATION_FOLDER,
+                "diff_streaming_"));
+    }
+
     private static PdfDocument createTempDoc() throws IOException {
         ByteArrayOutputStream outputStream = new ByteArrayOutputStream();
         PdfDocument pdfDocument = new PdfDocument(new PdfWriter(outputStream));
@@ -0,0 +1,118 @@
+/*
+    This file is part of the iText (R) project.
+    Copyright (c) 1998-2024 Apryse Group NV
+    Authors: Apryse Software.
+
+    This program is offered under a commercial and under the AGPL license.
+    For commercial licensing, contact us at https://itextpdf.com/sales.  For AGPL licensing, see below.
+
+    AGPL licensing:
+    This program is free software: you can redistribute it and/or modify
+    it under the terms of the GNU Affero General Public License as published by
+    the Free Software Foundation, either version 3 of the License, or
+    (at your option) any later version.
+
+    This program is distributed in the hope that it will be useful,
+    but WITHOUT ANY WARRANTY; without even the implied warranty of
+    MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE.  See the
+    GNU Affero General Public License for more details.
+
+    You should have received a copy of the GNU Affero General Public License
+    along with this program.  If not, see <https://www.gnu.org/licenses/>.
+ */
+package com.itextpdf.html2pdf.attach.impl;
+
+import com.itextpdf.html2pdf.ConverterProperties;
+import com.itextpdf.html2pdf.HtmlConverter;
+import com.itextpdf.html2pdf.html.IterativeHtmlParser;
+import com.itextpdf.layout.element.IElement;
+import com.itextpdf.styledxmlparser.node.IDocumentNode;
+import com.itextpdf.test.ExtendedITextTest;
+
+import java.io.ByteArrayOutputStream;
+import java.util.ArrayList;
+import java.util.List;
+import org.junit.jupiter.api.Assertions;
+import org.junit.jupiter.api.Tag;
+import org.junit.jupiter.api.Test;
+
+@Tag("UnitTest")
+public class DefaultHtmlProcessorTest extends ExtendedITextTest {
+
+    private static final int NESTING_DEPTH = 5000;
+
+    private static final long SMALL_STACK_SIZE = 256 * 1024;
+
+    @Test
+    public void deeplyNestedSpansOnSmallStackTest() throws InterruptedException {
+        assertProcessedOnSmallStack("span");
+    }
+
+    @Test
+    public void deeplyNestedDivsOnSmallStackTest() throws InterruptedException {
+        assertProcessedOnSmallStack("div");
+    }
+
+    @Test
+    public void deeplyNestedSpansDocumentOnSmallStackTest() throws InterruptedException {
+        final String content = createDeeplyNestedHtml("span");
+        final ByteArrayOutputStream out = new ByteArrayOutputStream();
+        final Throwable[] error = new Throwable[1];
+
+        // the default parser and processDocument, the nested spans are laid out as a single paragraph
+        runWithStackSize(new Runnable() {
+            @Override
+            public void run() {
+                HtmlConverter.convertToPdf(content, out);
+            }
+        }, SMALL_STACK_SIZE, error);
+        Assertions.assertNull(error[0]);
+        Assertions.assertTrue(out.size() > 0);
+    }
+
+    private static void assertProcessedOnSmallStack(String tagName) throws InterruptedException {
+        final String content = createDeeplyNestedHtml(tagName);
+        final List<IElement> elements = new ArrayList<>();
+        final Throwable[] error = new Throwable[1];
+
+        runWithStackSize(new Runnable() {
+            @Override
+            public void run() {
+                IDocumentNode document = new IterativeHtmlParser().parse(content);
+                elements.addAll(new DefaultHtmlProcessor(new ConverterProperties()).processElements(document));
+            }
+        }, SMALL_STACK_SIZE, error);
+        Assertions.assertNull(error[0]);
+        Assertions.assertEquals(1, elements.size());
+    }
+
+    private static String createDeeplyNestedHtml(String tagName) {
+        StringBuilder html = new StringBuilder("<html><head><style>")
+                .append(tagName).append(":before{content:'x'}</style></head><body>");
+        for (int i = 0; i < NESTING_DEPTH; i++) {
+            html.append('<').append(tagName).append('>');
+        }
+        html.append("text");
+        for (int i = 0; i < NESTING_DEPTH; i++) {
+            html.append("</").append(tagName).append('>');
+        }
+        html.append("</body></html>");
+        return html.toString();
+    }
+
+    private static void runWithStackSize(final Runnable runnable, long stackSize, final Throwable[] error)
+            throws InterruptedException {
+        Thread thread = new Thread(null, new Runnable() {
+            @Override
+            public void run() {
+                try {
+                    runnable.run();
+                } catch (Throwable t) {
+                    error[0] = t;
+                }
+            }
+        }, "conversion", stackSize);
+        thread.start();
+        thread.join();
+    }
+}
@@ -0,0 +1,123 @@
+/*
+    This file is part of the iText (R) project.
+    Copyright (c) 1998-2024 Apryse Group NV
+    Authors: Apryse Software.
+
+    This program is offered under a commercial and under the AGPL license.
+    For commercial licensing, contact us at https://itextpdf.com/sales.  For AGPL licensing, see below.
+
+    AGPL licensing:
+    This program is free software: you can redistribute it and/or modify
+    it under the terms of the GNU Affero General Public License as published by
+    the Free Software Foundation, either version 3 of the License, or
+    (at your option) any later version.
+
+    This program is distributed in the hope that it will be useful,
+    but WITHOUT ANY WARRANTY; without even the implied warranty of
+    MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE.  See the
+    GNU Affero General Public License for more details.
+
+    You should have received a copy of the GNU Affero General Public License
+    along with this program.  If not, see <https://www.gnu.org/licenses/>.
+ */
+package com.itextpdf.html2pdf.attach.impl;
+
+import com.itextpdf.html2pdf.html.ReleasableElementNode;
+import com.itextpdf.html2pdf.html.StreamingHtmlParser;
+import com.itextpdf.styledxmlparser.node.IDataNode;
+import com.itextpdf.styledxmlparser.node.IDocumentNode;
+import com.itextpdf.styledxmlparser.node.IElementNode;
+import com.itextpdf.styledxmlparser.node.INode;
+import com.itextpdf.styledxmlparser.node.impl.jsoup.JsoupHtmlParser;
+import com.itextpdf.test.ExtendedITextTest;
+
+import java.util.Arrays;
+import java.util.List;
+import org.junit.jupiter.api.Assertions;
+import org.junit.jupiter.api.Tag;
+import org.junit.jupiter.api.Test;
+
+@Tag("UnitTest")
+public class DomPreScanTest extends ExtendedITextTest {
+
+    private static final String HTML = "<html><head><style>p{color:red}</style>"
+            + "<link rel='stylesheet' href='a.css'/><link rel='icon' href='b.ico'/></head>"
+            + "<body><div><style>p{color:blue}</style><a href='#target'>link</a><a href='out.html'>out</a></div>"
+            + "<p id='target'>target</p></body></html>";
+
+    @Test
+    public void collectsDocumentInformationTest() {
+        IDocumentNode document = new JsoupHtmlParser().parse(HTML);
+        LinkContext linkContext = new LinkContext();
+        DomPreScan preScan = DomPreScan.scan(document, linkContext, false);
+
+        Assertions.assertEquals("html", preScan.getHtml().name());
+        Assertions.assertEquals("body", preScan.getBody().name());
+        Assertions.assertTrue(linkContext.isUsedLinkDestination("target"));
+        Assertions.assertFalse(linkContext.isUsedLinkDestination("out.html"));
+
+        List<IElementNode> styleSheetElements = preScan.getStyleSheetElements();
+        Assertions.assertEquals(3, styleSheetElements.size());
+        Assertions.assertEquals("style", styleSheetElements.get(0).name());
+        Assertions.assertEquals("link", styleSheetElements.get(1).name());
+        Assertions.assertEquals("style", styleSheetElements.get(2).name());
+        Assertions.assertEquals("p{color:blue}",
+                ((IDataNode) styleSheetElements.get(2).childNodes().get(0)).getWholeData());
+        Assertions.assertTrue(preScan.getResourceSources().isEmpty());
+    }
+
+    @Test
+    public void collectsResourceSourcesTest() {
+        IDocumentNode document = new JsoupHtmlParser().parse("<html><head><link rel='stylesheet' href='a.css'/>"
+                + "<link rel='icon' href='b.ico'/></head><body><img src='logo.png'/>"
+                + "<object type='image/svg+xml' data='chart.svg'></object>"
+                + "<div style=\"color: red; background: url('bg.png') no-repeat\">text</div></body></html>");
+        DomPreScan preScan = DomPreScan.scan(document, new LinkContext(), true);
+
+        Assertions.assertEquals(Arrays.asList("a.css", "logo.png", "chart.svg", "bg.png"),
+                preScan.getResourceSources());
+    }
+
+    @Test
+    public void previousLinkDestinationsAreClearedTest() {
+        LinkContext linkContext = new LinkContext();
+        DomPreScan.scan(new JsoupHtmlParser().parse(HTML), linkContext, false);
+        DomPreScan.scan(new JsoupHtmlParser().parse("<html><body><a href='#other'>a</a></body></html>"),
+                linkContext, false);
+
+        Assertions.assertFalse(linkContext.isUsedLinkDestination("target"));
+        Assertions.assertTrue(linkContext.isUsedLinkDestination("other"));
+    }
+
+    @Test
+    public void subtreeScanCollectsIdsOfWholeDocumentTest() {
+        IDocumentNode document = new JsoupHtmlParser().parse(HTML);
+        LinkContext linkContext = new LinkContext();
+        IElementNode html = (IElementNode) document.childNodes().get(0);
+        IElementNode body = (IElementNode) html.childNodes().get(1);
+        DomPreScan preScan = DomPreScan.scan(body.childNodes().get(1), linkContext, false);
+
+        Assertions.assertNull(preScan.getHtml());
+        Assertions.assertNull(preScan.getBody());
+        Assertions.assertTrue(preScan.getStyleSheetElements().isEmpty());
+        Assertions.assertTrue(linkContext.isUsedLinkDestination("target"));
+    }
+
+    @Test
+    public void streamedSubtreesAreNotMaterializedTest() {
+        IDocumentNode document = new StreamingHtmlParser().parse(HTML);
+        DomPreScan preScan = DomPreScan.scan(document, new LinkContext(), true);
+        IElementNode body = preScan.getBody();
+
+        Assertions.assertEquals(3, preScan.getStyleSheetElements().size());
+        for (INode child : body.childNodes()) {
+            Assertions.assertFalse(((ReleasableElementNode) child).isMaterialized());
+        }
+
+        // The link destinations of the whole document are scanned separately for a subtree
+        LinkContext linkContext = new LinkContext();
+        DomPreScan.scan(body.childNodes().get(1), linkContext, false);
+        Assertions.assertTrue(linkContext.isUsedLinkDestination("target"));
+        Assertions.assertFalse(((ReleasableElementNode) body.childNodes().get(0)).isMaterialized());
+    }
+}
@@ -92,4 +92,35 @@ public class HtmlDocumentRendererTest extends ExtendedITextTest {
         HtmlDocumentRenderer nextRenderer = (HtmlDocumentRenderer) documentRenderer.getNextRenderer();
         Assertions.assertEquals(1, nextRenderer.getEstimatedNumberOfPages());
     }
+
+    @Test
+    public void fallbackRelayoutDoesNotResumeFromCheckpointTest() {
+        Document document = HtmlConverter.convertToDocument(createChaptersWithPageCount(),
+                new PdfWriter(new ByteArrayOutputStream()));
+        HtmlDocumentRenderer documentRenderer = (HtmlDocumentRenderer) document.getRenderer();
+        HtmlDocumentRenderer.LayoutCheckpoint checkpoint = documentRenderer.findRelayoutCheckpoint();
+        Assertions.assertNotNull(checkpoint);
+
+        // HtmlDocument falls back to the relayout of the whole document if the checkpoint doesn't match
+        // its child elements, so the next renderer must not keep the pages preceding the checkpoint
+        HtmlDocumentRenderer nextRenderer = (HtmlDocumentRenderer) documentRenderer.getNextRenderer();
+        Assertions.assertTrue(nextRenderer.getChildRenderers().isEmpty());
+
+        HtmlDocumentRenderer resumedRenderer = documentRenderer.createNextRenderer(checkpoint);
+        Assertions.assertFalse(resumedRenderer.getChildRenderers().isEmpty());
+    }
+
+    private static String createChaptersWithPageCount() {
+        StringBuilder html = new StringBuilder("<html><head><style>"
+                + "div.chapter { page-break-before: always; } span.pages::before { content: counter(pages); }"
+                + "</style></head><body><h1>Title</h1>");
+        for (int i = 1; i <= 12; i++) {
+            html.append("<div class='chapter'><p>Chapter ").append(i);
+            if (i == 7) {
+                html.append(" of the document of <span class='pages'></span> pages");
+            }
+            html.append("</p></div>");
+        }
+        return html.append("</body></html>").toString();
+    }
 }
@@ -0,0 +1,91 @@
+/*
+    This file is part of the iText (R) project.
+    Copyright (c) 1998-2024 Apryse Group NV
+    Authors: Apryse Software.
+
+    This program is offered under a commercial and under the AGPL license.
+    For commercial licensing, contact us at https://itextpdf.com/sales.  For AGPL licensing, see below.
+
+    AGPL licensing:
+    This program is free software: you can redistribute it and/or modify
+    it under the terms of the GNU Affero General Public License as published by
+    the Free Software Foundation, either version 3 of the License, or
+    (at your option) any later version.
+
+    This program is distributed in the hope that it will be useful,
+    but WITHOUT ANY WARRANTY; without even the implied warranty of
+    MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE.  See the
+    GNU Affero General Public License for more details.
+
+    You should have received a copy of the GNU Affero General Public License
+    along with this program.  If not, see <https://www.gnu.org/licenses/>.
+ */
+package com.itextpdf.html2pdf.attach.util;
+
+import com.itextpdf.html2pdf.ConverterProperties;
+import com.itextpdf.html2pdf.attach.ProcessorContext;
+import com.itextpdf.html2pdf.resolver.resource.ParsedSvgCache;
+import com.itextpdf.html2pdf.util.SvgProcessingUtil;
+import com.itextpdf.kernel.pdf.xobject.PdfFormXObject;
+import com.itextpdf.svg.processors.ISvgProcessorResult;
+import com.itextpdf.svg.processors.impl.SvgConverterProperties;
+import com.itextpdf.test.ExtendedITextTest;
+
+import java.io.IOException;
+import java.nio.charset.StandardCharsets;
+import org.junit.jupiter.api.Assertions;
+import org.junit.jupiter.api.Tag;
+import org.junit.jupiter.api.Test;
+
+@Tag("UnitTest")
+public class SvgRenderCacheTest extends ExtendedITextTest {
+
+    private static final String SVG = "<svg xmlns='http://www.w3.org/2000/svg' width='20' height='20'>"
+            + "<circle cx='10' cy='10' r='8' fill='red'/></svg>";
+
+    @Test
+    public void svgDataIsParsedOncePerCharsetTest() throws IOException {
+        ProcessorContext context = new ProcessorContext(new ConverterProperties());
+        ParsedSvgCache parsedSvgCache = new ParsedSvgCache();
+        SvgRenderCache cache = new SvgRenderCache(parsedSvgCache);
+        byte[] svgData = SVG.getBytes(StandardCharsets.UTF_8);
+        SvgConverterProperties properties = ContextMappingHelper.mapToSvgConverterProperties(context);
+
+        ISvgProcessorResult result = cache.process(svgData, properties);
+        ISvgProcessorResult otherResult = cache.process(svgData.clone(), properties);
+
+        // Each use gets its own renderer tree, the parsed tree is reused within the document
+        Assertions.assertNotSame(result.getRootRenderer(), otherResult.getRootRenderer());
+        Assertions.assertEquals(1, parsedSvgCache.getMissCount());
+        Assertions.assertEquals(0, parsedSvgCache.getHitCount());
+
+        cache.reset();
+        cache.process(svgData, properties);
+        Assertions.assertEquals(1, parsedSvgCache.getHitCount());
+
+        cache.process(svgData, ContextMappingHelper.mapToSvgConverterProperties(context).setCharset("ISO-8859-1"));
+        Assertions.assertEquals(2, parsedSvgCache.getMissCount());
+        Assertions.assertEquals(2, parsedSvgCache.getSvgCount());
+    }
+
+    @Test
+    public void xObjectIsCreatedOncePerPropertiesTest() throws IOException {
+        ProcessorContext context = new ProcessorContext(new ConverterProperties());
+        SvgRenderCache cache = new SvgRenderCache(null);
+        SvgProcessingUtil processingUtil = new SvgProcessingUtil(context.getResourceResolver());
+        byte[] svgData = SVG.getBytes(StandardCharsets.UTF_8);
+
+        PdfFormXObject xObject = cache.createXObject(svgData, ContextMappingHelper.mapToSvgConverterProperties(context),
+                processingUtil, null);
+
+        Assertions.assertSame(xObject, cache.createXObject(svgData.clone(),
+                ContextMappingHelper.mapToSvgConverterProperties(context), processingUtil, null));
+        SvgConverterProperties otherBaseUri = ContextMappingHelper.mapToSvgConverterProperties(context)
+                .setBaseUri("https://images.example.com/icons/");
+        Assertions.assertNotSame(xObject, cache.createXObject(svgData, otherBaseUri, processingUtil, null));
+
+        cache.reset();
+        Assertions.assertNotSame(xObject, cache.createXObject(svgData,
+                ContextMappingHelper.mapToSvgConverterProperties(context), processingUtil, null));
+    }
+}
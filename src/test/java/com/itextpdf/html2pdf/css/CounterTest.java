@@ -22,13 +22,26 @@
  */
 package com.itextpdf.html2pdf.css;
 
+import com.itextpdf.html2pdf.ConverterProperties;
 import com.itextpdf.html2pdf.ExtendedHtmlConversionITextTest;
+import com.itextpdf.html2pdf.HtmlConverter;
+import com.itextpdf.html2pdf.logs.Html2PdfLogMessageConstant;
+import com.itextpdf.kernel.events.Event;
+import com.itextpdf.kernel.events.IEventHandler;
+import com.itextpdf.kernel.events.PdfDocumentEvent;
+import com.itextpdf.kernel.pdf.PdfDocument;
+import com.itextpdf.kernel.pdf.PdfReader;
+import com.itextpdf.kernel.pdf.PdfWriter;
+import com.itextpdf.kernel.pdf.canvas.parser.PdfTextExtractor;
 import com.itextpdf.layout.logs.LayoutLogMessageConstant;
 import com.itextpdf.test.LogLevelConstants;
 import com.itextpdf.test.annotations.LogMessage;
 import com.itextpdf.test.annotations.LogMessages;
 
+import java.io.File;
+import java.io.FileInputStream;
 import java.io.IOException;
+import org.junit.jupiter.api.Assertions;
 import org.junit.jupiter.api.BeforeAll;
 import org.junit.jupiter.api.Test;
 import org.junit.jupiter.api.Tag;
@@ -64,6 +77,49 @@ public class CounterTest extends ExtendedHtmlConversionITextTest{
         convertToPdfAndCompare("page_counter03", SOURCE_FOLDER, DESTINATION_FOLDER);
     }
 
+    @Test
+    @LogMessages(messages = @LogMessage(messageTemplate =
+            Html2PdfLogMessageConstant.EXCEEDED_THE_MAXIMUM_NUMBER_OF_RELAYOUTS, count = 0))
+    public void pageCounterWithoutRelayoutTest() throws IOException {
+        String outPdf = DESTINATION_FOLDER + "page_counter_without_relayout.pdf";
+        // the total page count takes the same width on all pages, so the document isn't relaid out
+        HtmlConverter.convertToPdf(new File(SOURCE_FOLDER + "page_counter_without_relayout.html"),
+                new File(outPdf), new ConverterProperties().setLimitOfLayouts(1));
+
+        try (PdfDocument pdfDocument = new PdfDocument(new PdfReader(outPdf))) {
+            Assertions.assertEquals(3, pdfDocument.getNumberOfPages());
+            for (int i = 1; i <= pdfDocument.getNumberOfPages(); i++) {
+                Assertions.assertTrue(PdfTextExtractor.getTextFromPage(pdfDocument.getPage(i))
+                        .contains("Page " + i + " of 3"));
+            }
+        }
+    }
+
+    @Test
+    public void pageCounterRelayoutFromCheckpointTest() throws IOException {
+        String outPdf = DESTINATION_FOLDER + "page_counter_relayout_from_checkpoint.pdf";
+        final int[] startedPages = {0};
+        PdfDocument pdfDocument = new PdfDocument(new PdfWriter(outPdf));
+        pdfDocument.addEventHandler(PdfDocumentEvent.START_PAGE, new IEventHandler() {
+            @Override
+            public void handleEvent(Event event) {
+                startedPages[0]++;
+            }
+        });
+        try (FileInputStream html = new FileInputStream(SOURCE_FOLDER + "page_counter_relayout_from_checkpoint.html")) {
+            HtmlConverter.convertToDocument(html, pdfDocument, new ConverterProperties()).close();
+        }
+
+        try (PdfDocument resultDocument = new PdfDocument(new PdfReader(outPdf))) {
+            Assertions.assertEquals(13, resultDocument.getNumberOfPages());
+            Assertions.assertTrue(PdfTextExtractor.getTextFromPage(resultDocument.getPage(8))
+                    .contains("Chapter 7 of the document of 13 pages"));
+        }
+        // the total page count was laid out as "8" on page 8 and doesn't fit "13", so only the pages
+        // starting from the 8th one, which begins with a page break, are relaid out
+        Assertions.assertEquals(13 + 6, startedPages[0]);
+    }
+
     @Test
     public void pageCounter04Test() throws IOException, InterruptedException {
         convertToPdfAndCompare("page_counter04", SOURCE_FOLDER, DESTINATION_FOLDER);
@@ -27,6 +27,7 @@ import com.itextpdf.html2pdf.HtmlConverter;
 import com.itextpdf.html2pdf.exceptions.Html2PdfException;
 import com.itextpdf.html2pdf.logs.Html2PdfLogMessageConstant;
 import com.itextpdf.html2pdf.resolver.font.DefaultFontProvider;
+import com.itextpdf.html2pdf.resolver.font.FontProgramCache;
 import com.itextpdf.io.logs.IoLogMessageConstant;
 import com.itextpdf.io.util.UrlUtil;
 import com.itextpdf.kernel.utils.CompareTool;
@@ -126,6 +127,52 @@ public class FontFaceTest extends ExtendedITextTest {
                 "Font Provider with zero fonts shall fail");
     }
 
+    @Test
+    public void fontProgramCacheSharedBetweenConversionsTest() throws IOException {
+        String htmlPath = sourceFolder + "droidSerifWebFontTest.html";
+        FontProgramCache fontProgramCache = new FontProgramCache();
+        ConverterProperties converterProperties = new ConverterProperties().setFontProgramCache(fontProgramCache);
+
+        HtmlConverter.convertToPdf(new File(htmlPath),
+                new File(destinationFolder + "fontProgramCacheSharedBetweenConversions1.pdf"), converterProperties);
+        Assertions.assertEquals(0, fontProgramCache.getHitCount());
+        Assertions.assertEquals(4, fontProgramCache.getMissCount());
+        Assertions.assertEquals(4, fontProgramCache.getFontCount());
+
+        HtmlConverter.convertToPdf(new File(htmlPath),
+                new File(destinationFolder + "fontProgramCacheSharedBetweenConversions2.pdf"), converterProperties);
+        Assertions.assertEquals(4, fontProgramCache.getHitCount());
+        Assertions.assertEquals(4, fontProgramCache.getMissCount());
+    }
+
+    @Test
+    public void deferredFontFaceLoadingTest() throws IOException {
+        String htmlPath = sourceFolder + "deferredFontFaceLoadingTest.html";
+        FontProgramCache fontProgramCache = new FontProgramCache();
+        ConverterProperties converterProperties = new ConverterProperties()
+                .setFontProgramCache(fontProgramCache)
+                .setDeferredFontFaceLoading(true);
+
+        HtmlConverter.convertToPdf(new File(htmlPath),
+                new File(destinationFolder + "deferredFontFaceLoadingTest.pdf"), converterProperties);
+
+        // The regular italic face is only referenced by an unused selector and is never downloaded
+        Assertions.assertEquals(3, fontProgramCache.getMissCount());
+    }
+
+    @Test
+    public void deferredFontFaceLoadingWebFontTest() throws IOException, InterruptedException {
+        String name = "droidSerifWebFontTest";
+        String htmlPath = sourceFolder + name + ".html";
+        String pdfPath = destinationFolder + name + "_deferred.pdf";
+        String cmpPdfPath = sourceFolder + "cmp_" + name + ".pdf";
+
+        HtmlConverter.convertToPdf(new File(htmlPath), new File(pdfPath),
+                new ConverterProperties().setDeferredFontFaceLoading(true));
+        Assertions.assertNull(new CompareTool().compareByContent(pdfPath, cmpPdfPath, destinationFolder,
+                "diff_" + name + "_deferred_"));
+    }
+
     @Test
     public void fontFaceWoffTest01() throws IOException, InterruptedException {
         runTest("fontFaceWoffTest01");
@@ -26,6 +26,7 @@ import com.itextpdf.html2pdf.ConverterProperties;
 import com.itextpdf.html2pdf.HtmlConverter;
 import com.itextpdf.html2pdf.logs.Html2PdfLogMessageConstant;
 import com.itextpdf.html2pdf.attach.ITagWorker;
+import com.itextpdf.html2pdf.attach.ITagWorkerFactory;
 import com.itextpdf.html2pdf.attach.ProcessorContext;
 import com.itextpdf.html2pdf.attach.impl.DefaultTagWorkerFactory;
 import com.itextpdf.html2pdf.attach.impl.OutlineHandler;
@@ -37,7 +38,9 @@ import com.itextpdf.html2pdf.css.apply.impl.PageMarginBoxCssApplier;
 import com.itextpdf.html2pdf.html.TagConstants;
 import com.itextpdf.io.logs.IoLogMessageConstant;
 import com.itextpdf.io.util.UrlUtil;
+import com.itextpdf.kernel.pdf.PdfDictionary;
 import com.itextpdf.kernel.pdf.PdfDocument;
+import com.itextpdf.kernel.pdf.PdfName;
 import com.itextpdf.kernel.pdf.PdfReader;
 import com.itextpdf.kernel.pdf.PdfWriter;
 import com.itextpdf.kernel.pdf.canvas.parser.PdfTextExtractor;
@@ -726,6 +729,66 @@ public class PageRuleTest extends ExtendedITextTest {
         });
     }
 
+    @Test
+    public void marginBoxesWithStaticContentBuiltOncePerPageClassTest() throws IOException {
+        MarginBoxCountingTagWorkerFactory tagWorkerFactory = new MarginBoxCountingTagWorkerFactory();
+        String[] pageTexts = convertToPageTexts("marginBoxesStaticContentTest", tagWorkerFactory);
+
+        Assertions.assertEquals(6, pageTexts.length);
+        for (int i = 0; i < pageTexts.length; ++i) {
+            Assertions.assertTrue(pageTexts[i].contains("Static header"));
+            Assertions.assertTrue(pageTexts[i].contains("Footer"));
+            Assertions.assertTrue(pageTexts[i].contains("Page content " + (i + 1)));
+        }
+        // two margin boxes are built for each of the first, left and right page classes
+        Assertions.assertEquals(2 * 3, tagWorkerFactory.marginBoxTagWorkers);
+    }
+
+    @Test
+    public void marginBoxesWithPageCounterBuiltForEachPageTest() throws IOException {
+        MarginBoxCountingTagWorkerFactory tagWorkerFactory = new MarginBoxCountingTagWorkerFactory();
+        String[] pageTexts = convertToPageTexts("marginBoxesDynamicContentTest", tagWorkerFactory);
+
+        Assertions.assertEquals(6, pageTexts.length);
+        for (int i = 0; i < pageTexts.length; ++i) {
+            Assertions.assertTrue(pageTexts[i].contains("Header of page " + (i + 1)));
+            Assertions.assertTrue(pageTexts[i].contains("Footer"));
+        }
+        Assertions.assertEquals(2 * 6, tagWorkerFactory.marginBoxTagWorkers);
+    }
+
+    @Test
+    public void pageBackgroundBordersAndMarksDrawnOnceTest() throws IOException {
+        String name = "pageBackgroundBordersAndMarksXObjectsTest";
+        String pdfPath = DESTINATION_FOLDER + name + ".pdf";
+        HtmlConverter.convertToPdf(new File(SOURCE_FOLDER + name + ".html"), new File(pdfPath));
+
+        try (PdfDocument pdfDocument = new PdfDocument(new PdfReader(pdfPath))) {
+            Assertions.assertEquals(4, pdfDocument.getNumberOfPages());
+            // the background, the borders and the marks of the left pages are shared form XObjects
+            PdfDictionary secondPageXObjects = pdfDocument.getPage(2).getResources().getResource(PdfName.XObject);
+            PdfDictionary fourthPageXObjects = pdfDocument.getPage(4).getResources().getResource(PdfName.XObject);
+            Assertions.assertEquals(3, secondPageXObjects.size());
+            for (PdfName xObjectName : secondPageXObjects.keySet()) {
+                Assertions.assertSame(secondPageXObjects.get(xObjectName, false),
+                        fourthPageXObjects.get(xObjectName, false));
+            }
+            Assertions.assertTrue(PdfTextExtractor.getTextFromPage(pdfDocument.getPage(4)).contains("Page content 4"));
+        }
+    }
+
+    private static class MarginBoxCountingTagWorkerFactory extends DefaultTagWorkerFactory {
+        private int marginBoxTagWorkers;
+
+        @Override
+        public ITagWorker getCustomTagWorker(IElementNode tag, ProcessorContext context) {
+            if (tag instanceof PageMarginBoxContextNode) {
+                ++marginBoxTagWorkers;
+            }
+            return super.getCustomTagWorker(tag, context);
+        }
+    }
+
     private static class CustomFlushingTagWorkerFactory extends DefaultTagWorkerFactory {
         @Override
         public ITagWorker getCustomTagWorker(IElementNode tag, ProcessorContext context) {
@@ -798,6 +861,20 @@ public class PageRuleTest extends ExtendedITextTest {
         Assertions.assertNull(compareTool.compareByContent(pdfPath, cmpPdfPath, DESTINATION_FOLDER, diffPrefix));
     }
 
+    private String[] convertToPageTexts(String name, ITagWorkerFactory tagWorkerFactory) throws IOException {
+        String htmlPath = SOURCE_FOLDER + name + ".html";
+        String pdfPath = DESTINATION_FOLDER + name + ".pdf";
+        HtmlConverter.convertToPdf(new File(htmlPath), new File(pdfPath),
+                new ConverterProperties().setTagWorkerFactory(tagWorkerFactory));
+        try (PdfDocument pdfDocument = new PdfDocument(new PdfReader(pdfPath))) {
+            String[] pageTexts = new String[pdfDocument.getNumberOfPages()];
+            for (int i = 0; i < pageTexts.length; ++i) {
+                pageTexts[i] = PdfTextExtractor.getTextFromPage(pdfDocument.getPage(i + 1));
+            }
+            return pageTexts;
+        }
+    }
+
     private void compareResult(String name) throws InterruptedException, IOException {
         String pdfPath = DESTINATION_FOLDER + name + ".pdf";
         String cmpPdfPath = SOURCE_FOLDER + "cmp_" + name + ".pdf";
@@ -0,0 +1,124 @@
+/*
+    This file is part of the iText (R) project.
+    Copyright (c) 1998-2024 Apryse Group NV
+    Authors: Apryse Software.
+
+    This program is offered under a commercial and under the AGPL license.
+    For commercial licensing, contact us at https://itextpdf.com/sales.  For AGPL licensing, see below.
+
+    AGPL licensing:
+    This program is free software: you can redistribute it and/or modify
+    it under the terms of the GNU Affero General Public License as published by
+    the Free Software Foundation, either version 3 of the License, or
+    (at your option) any later version.
+
+    This program is distributed in the hope that it will be useful,
+    but WITHOUT ANY WARRANTY; without even the implied warranty of
+    MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE.  See the
+    GNU Affero General Public License for more details.
+
+    You should have received a copy of the GNU Affero General Public License
+    along with this program.  If not, see <https://www.gnu.org/licenses/>.
+ */
+package com.itextpdf.html2pdf.css.page;
+
+import com.itextpdf.html2pdf.attach.impl.layout.RunningElementContainer;
+import com.itextpdf.html2pdf.css.CssConstants;
+import com.itextpdf.test.ExtendedITextTest;
+import org.junit.jupiter.api.Assertions;
+import org.junit.jupiter.api.Tag;
+import org.junit.jupiter.api.Test;
+
+@Tag("UnitTest")
+public class CssRunningManagerTest extends ExtendedITextTest {
+
+    @Test
+    public void notDrawnRunningElementTest() {
+        CssRunningManager manager = new CssRunningManager();
+        RunningElementContainer container = createContainer(manager, "title");
+
+        Assertions.assertNull(manager.getRunningElement("title", CssConstants.FIRST, 1));
+        Assertions.assertNull(manager.getRunningElement("other", CssConstants.FIRST, 1));
+
+        container.setOccurrencePage(1, true);
+        Assertions.assertSame(container, manager.getRunningElement("title", CssConstants.FIRST, 1));
+    }
+
+    @Test
+    public void occurrenceOptionsTest() {
+        CssRunningManager manager = new CssRunningManager();
+        RunningElementContainer first = createContainer(manager, "title");
+        RunningElementContainer second = createContainer(manager, "title");
+        RunningElementContainer third = createContainer(manager, "title");
+        first.setOccurrencePage(1, true);
+        second.setOccurrencePage(3, false);
+        third.setOccurrencePage(3, false);
+
+        Assertions.assertSame(first, manager.getRunningElement("title", CssConstants.FIRST, 1));
+        Assertions.assertSame(first, manager.getRunningElement("title", CssConstants.FIRST, 2));
+        Assertions.assertSame(second, manager.getRunningElement("title", CssConstants.FIRST, 3));
+        Assertions.assertSame(third, manager.getRunningElement("title", CssConstants.LAST, 3));
+        Assertions.assertSame(first, manager.getRunningElement("title", CssConstants.START, 3));
+        Assertions.assertNull(manager.getRunningElement("title", CssConstants.FIRST_EXCEPT, 3));
+        Assertions.assertSame(first, manager.getRunningElement("title", CssConstants.FIRST_EXCEPT, 2));
+        Assertions.assertSame(third, manager.getRunningElement("title", CssConstants.FIRST, 10));
+    }
+
+    @Test
+    public void occurrencePageChangedTest() {
+        CssRunningManager manager = new CssRunningManager();
+        RunningElementContainer first = createContainer(manager, "title");
+        RunningElementContainer second = createContainer(manager, "title");
+        first.setOccurrencePage(1, true);
+        second.setOccurrencePage(1, false);
+        Assertions.assertSame(second, manager.getRunningElement("title", CssConstants.LAST, 1));
+
+        // Relayout moves the second element to the next page
+        second.setOccurrencePage(2, true);
+        Assertions.assertSame(first, manager.getRunningElement("title", CssConstants.LAST, 1));
+        Assertions.assertSame(second, manager.getRunningElement("title", CssConstants.START, 2));
+    }
+
+    @Test
+    public void floatingRunningElementOutOfOrderTest() {
+        CssRunningManager manager = new CssRunningManager();
+        RunningElementContainer floating = createContainer(manager, "title");
+        RunningElementContainer following = createContainer(manager, "title");
+        // The floating element comes first in the document, but is drawn on the page after the following one
+        floating.setOccurrencePage(2, false);
+        following.setOccurrencePage(1, true);
+
+        Assertions.assertSame(following, manager.getRunningElement("title", CssConstants.FIRST, 1));
+        Assertions.assertSame(floating, manager.getRunningElement("title", CssConstants.FIRST, 2));
+        Assertions.assertSame(following, manager.getRunningElement("title", CssConstants.LAST, 2));
+        Assertions.assertNull(manager.getRunningElement("title", CssConstants.START, 2));
+        Assertions.assertNull(manager.getRunningElement("title", CssConstants.FIRST_EXCEPT, 2));
+        // The element which comes last in the document stays in effect, not the one drawn on the latest page
+        Assertions.assertSame(following, manager.getRunningElement("title", CssConstants.FIRST, 3));
+    }
+
+    @Test
+    public void lastElementMovedToFollowingPageTest() {
+        CssRunningManager manager = new CssRunningManager();
+        RunningElementContainer first = createContainer(manager, "title");
+        RunningElementContainer second = createContainer(manager, "title");
+        RunningElementContainer third = createContainer(manager, "title");
+        third.setOccurrencePage(1, true);
+        first.setOccurrencePage(2, true);
+        second.setOccurrencePage(3, true);
+        Assertions.assertSame(third, manager.getRunningElement("title", CssConstants.FIRST, 4));
+
+        // The elements which were preceded in the document order by the moved one are in effect again
+        third.setOccurrencePage(5, true);
+        Assertions.assertNull(manager.getRunningElement("title", CssConstants.FIRST, 1));
+        Assertions.assertSame(first, manager.getRunningElement("title", CssConstants.LAST, 2));
+        Assertions.assertSame(second, manager.getRunningElement("title", CssConstants.FIRST, 4));
+        Assertions.assertSame(third, manager.getRunningElement("title", CssConstants.FIRST, 6));
+    }
+
+    private static RunningElementContainer createContainer(CssRunningManager manager, String name) {
+        RunningElementContainer container = new RunningElementContainer(null, null);
+        manager.addRunningElement(name, container);
+        return container;
+    }
+}
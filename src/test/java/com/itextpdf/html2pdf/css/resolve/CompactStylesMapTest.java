@@ -0,0 +1,133 @@
+/*
+    This file is part of the iText (R) project.
+    Copyright (c) 1998-2024 Apryse Group NV
+    Authors: Apryse Software.
+
+    This program is offered under a commercial and under the AGPL license.
+    For commercial licensing, contact us at https://itextpdf.com/sales.  For AGPL licensing, see below.
+
+    AGPL licensing:
+    This program is free software: you can redistribute it and/or modify
+    it under the terms of the GNU Affero General Public License as published by
+    the Free Software Foundation, either version 3 of the License, or
+    (at your option) any later version.
+
+    This program is distributed in the hope that it will be useful,
+    but WITHOUT ANY WARRANTY; without even the implied warranty of
+    MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE.  See the
+    GNU Affero General Public License for more details.
+
+    You should have received a copy of the GNU Affero General Public License
+    along with this program.  If not, see <https://www.gnu.org/licenses/>.
+ */
+package com.itextpdf.html2pdf.css.resolve;
+
+import com.itextpdf.test.ExtendedITextTest;
+
+import java.util.ArrayList;
+import java.util.HashMap;
+import java.util.Iterator;
+import java.util.LinkedHashMap;
+import java.util.Map;
+import org.junit.jupiter.api.Assertions;
+import org.junit.jupiter.api.Tag;
+import org.junit.jupiter.api.Test;
+
+@Tag("UnitTest")
+public class CompactStylesMapTest extends ExtendedITextTest {
+
+    @Test
+    public void behavesLikeLinkedHashMapTest() {
+        Map<String, String> expected = new LinkedHashMap<>();
+        CompactStylesMap map = new CompactStylesMap(new HashMap<String, String>(), null);
+        for (int i = 0; i < 100; i++) {
+            Assertions.assertEquals(expected.put("property-" + i, "value-" + i), map.put("property-" + i, "value-" + i));
+        }
+        Assertions.assertEquals(expected.put("property-5", "changed"), map.put("property-5", "changed"));
+        Assertions.assertEquals(expected.remove("property-10"), map.remove("property-10"));
+        Assertions.assertEquals(expected.remove("missing"), map.remove("missing"));
+        Assertions.assertEquals(expected.put("null-value", null), map.put("null-value", null));
+
+        Assertions.assertEquals(expected, map);
+        Assertions.assertEquals(map, expected);
+        Assertions.assertEquals(expected.hashCode(), map.hashCode());
+        Assertions.assertEquals(new ArrayList<>(expected.keySet()), new ArrayList<>(map.keySet()));
+        Assertions.assertTrue(map.containsKey("null-value"));
+        Assertions.assertNull(map.get("property-10"));
+        Assertions.assertNull(map.get(null));
+    }
+
+    @Test
+    public void iteratorModificationsTest() {
+        Map<String, String> styles = new LinkedHashMap<>();
+        styles.put("color", "red");
+        styles.put("display", "block");
+        styles.put("font-size", "12pt");
+        CompactStylesMap map = new CompactStylesMap(styles, null);
+        Iterator<Map.Entry<String, String>> iterator = map.entrySet().iterator();
+        while (iterator.hasNext()) {
+            Map.Entry<String, String> entry = iterator.next();
+            if ("display".equals(entry.getKey())) {
+                iterator.remove();
+            } else {
+                entry.setValue(entry.getValue() + "!");
+            }
+        }
+        Assertions.assertEquals("{color=red!, font-size=12pt!}", map.toString());
+    }
+
+    @Test
+    public void copiesShareArraysUntilModifiedTest() {
+        Map<String, String> styles = new LinkedHashMap<>();
+        styles.put("color", "red");
+        styles.put("display", "block");
+        CompactStylesMap original = new CompactStylesMap(styles, null);
+        CompactStylesMap copy = new CompactStylesMap(original);
+        copy.put("color", "blue");
+        copy.remove("display");
+        original.put("margin", "0");
+        Assertions.assertEquals("{color=red, display=block, margin=0}", original.toString());
+        Assertions.assertEquals("{color=blue}", copy.toString());
+    }
+
+    @Test
+    public void namesAndValuesAreInternedTest() {
+        Map<String, String> pool = new HashMap<>();
+        Map<String, String> first = new HashMap<>();
+        first.put(new String("color"), new String("red"));
+        Map<String, String> second = new HashMap<>();
+        second.put(new String("color"), new String("red"));
+        CompactStylesMap firstMap = new CompactStylesMap(first, pool);
+        CompactStylesMap secondMap = new CompactStylesMap(second, pool);
+        Assertions.assertSame(firstMap.get("color"), secondMap.get("color"));
+        Assertions.assertSame(firstMap.keySet().iterator().next(), secondMap.keySet().iterator().next());
+    }
+
+    @Test
+    public void longValuesAreNotInternedTest() {
+        Map<String, String> pool = new HashMap<>();
+        String url = "url(https://images.example.com/backgrounds/very-long-background-image-name.png)";
+        Map<String, String> styles = new HashMap<>();
+        styles.put("background-image", url);
+        new CompactStylesMap(styles, pool);
+        Assertions.assertEquals(1, pool.size());
+        Assertions.assertTrue(pool.containsKey("background-image"));
+    }
+
+    @Test
+    public void poolSizeIsLimitedTest() {
+        Map<String, String> pool = new HashMap<>();
+        for (int i = 0; i < CompactStylesMap.MAX_POOL_SIZE; i++) {
+            Map<String, String> styles = new HashMap<>();
+            styles.put("width", i + "px");
+            new CompactStylesMap(styles, pool);
+        }
+        Assertions.assertEquals(CompactStylesMap.MAX_POOL_SIZE, pool.size());
+
+        Map<String, String> styles = new HashMap<>();
+        styles.put("height", new String("10px"));
+        CompactStylesMap map = new CompactStylesMap(styles, pool);
+        Assertions.assertEquals(CompactStylesMap.MAX_POOL_SIZE, pool.size());
+        Assertions.assertEquals("10px", map.get("height"));
+    }
+}
@@ -0,0 +1,125 @@
+/*
+    This file is part of the iText (R) project.
+    Copyright (c) 1998-2024 Apryse Group NV
+    Authors: Apryse Software.
+
+    This program is offered under a commercial and under the AGPL license.
+    For commercial licensing, contact us at https://itextpdf.com/sales.  For AGPL licensing, see below.
+
+    AGPL licensing:
+    This program is free software: you can redistribute it and/or modify
+    it under the terms of the GNU Affero General Public License as published by
+    the Free Software Foundation, either version 3 of the License, or
+    (at your option) any later version.
+
+    This program is distributed in the hope that it will be useful,
+    but WITHOUT ANY WARRANTY; without even the implied warranty of
+    MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE.  See the
+    GNU Affero General Public License for more details.
+
+    You should have received a copy of the GNU Affero General Public License
+    along with this program.  If not, see <https://www.gnu.org/licenses/>.
+ */
+package com.itextpdf.html2pdf.css.resolve;
+
+import com.itextpdf.styledxmlparser.css.CssRuleSet;
+import com.itextpdf.styledxmlparser.css.CssStyleSheet;
+import com.itextpdf.styledxmlparser.css.media.MediaDeviceDescription;
+import com.itextpdf.styledxmlparser.css.media.MediaType;
+import com.itextpdf.styledxmlparser.css.page.PageContextNode;
+import com.itextpdf.styledxmlparser.css.page.PageMarginBoxContextNode;
+import com.itextpdf.styledxmlparser.css.parse.CssStyleSheetParser;
+import com.itextpdf.styledxmlparser.css.pseudo.CssPseudoElementNode;
+import com.itextpdf.styledxmlparser.node.IDocumentNode;
+import com.itextpdf.styledxmlparser.node.IElementNode;
+import com.itextpdf.styledxmlparser.node.INode;
+import com.itextpdf.styledxmlparser.node.impl.jsoup.JsoupHtmlParser;
+import com.itextpdf.test.ExtendedITextTest;
+
+import java.util.ArrayList;
+import java.util.List;
+import org.junit.jupiter.api.Assertions;
+import org.junit.jupiter.api.Tag;
+import org.junit.jupiter.api.Test;
+
+@Tag("UnitTest")
+public class CssRuleSetIndexTest extends ExtendedITextTest {
+
+    private static final String CSS = "* { margin: 0 } p { color: red } #main { color: blue } .note, .warn { color: green }"
+            + "div > p.note { font-size: 10px } ul li:first-child { color: gray } [lang] { font-style: italic }"
+            + "a[href^='http'] { color: navy } p::before { content: 'x' } .note::after { content: 'y' }"
+            + ":not(p) { padding: 1px } span + span { margin-left: 2px } div#main .warn span { color: olive }"
+            + "@media print { p { color: black } .print-only { display: block } }"
+            + "@media screen { p { color: white } }"
+            + "@page { margin: 1in; @top-center { content: 'header' } } @page :first { margin: 2in }"
+            + "@font-face { font-family: test; src: url(test.ttf) }";
+
+    private static final String HTML = "<html><body><div id='main' lang='en'><p class='note'>a</p>"
+            + "<p class='note note warn'>b<span>c</span><span>d</span></p></div>"
+            + "<ul><li>one</li><li class='print-only'>two</li></ul><a href='http://x'>link</a>"
+            + "<a href='#y'>anchor</a><div class=' warn '><span>e</span></div></body></html>";
+
+    @Test
+    public void indexMatchesWholeStyleSheetTest() {
+        CssStyleSheet styleSheet = CssStyleSheetParser.parse(CSS);
+        MediaDeviceDescription device = new MediaDeviceDescription(MediaType.PRINT);
+        CssRuleSetIndex index = new CssRuleSetIndex(styleSheet, device);
+        IDocumentNode document = new JsoupHtmlParser().parse(HTML);
+        List<INode> nodes = new ArrayList<>();
+        collectNodes(document, nodes);
+        PageContextNode pageNode = new PageContextNode().addPageClass("first");
+        nodes.add(pageNode);
+        nodes.add(new PageMarginBoxContextNode(pageNode, "top-center"));
+        for (INode node : nodes) {
+            List<CssRuleSet> expected = styleSheet.getCssRuleSets(node, device);
+            Assertions.assertEquals(expected, index.getCssRuleSets(node), node.toString());
+        }
+    }
+
+    @Test
+    public void matchedByTagOnlyTest() {
+        CssRuleSetIndex index = new CssRuleSetIndex(CssStyleSheetParser.parse(
+                "p { color: red } div p { color: blue } .note { color: green }"),
+                MediaDeviceDescription.createDefault());
+        IDocumentNode document = new JsoupHtmlParser().parse("<span>a</span><span class='note'>b</span><p>c</p>");
+        List<INode> nodes = new ArrayList<>();
+        collectNodes(document, nodes);
+        List<String> matchedByTagOnly = new ArrayList<>();
+        for (INode node : nodes) {
+            if (index.isMatchedByTagOnly(node)) {
+                matchedByTagOnly.add(node instanceof CssPseudoElementNode ? "pseudo"
+                        : ((IElementNode) node).name() + "." + ((IElementNode) node).getAttribute("class"));
+            }
+        }
+        Assertions.assertEquals("[html.null, head.null, body.null, span.null]", matchedByTagOnly.toString());
+    }
+
+    @Test
+    public void universalStatementDisablesTagOnlyMatchingTest() {
+        CssRuleSetIndex index = new CssRuleSetIndex(CssStyleSheetParser.parse("* { color: red }"),
+                MediaDeviceDescription.createDefault());
+        IDocumentNode document = new JsoupHtmlParser().parse("<span>a</span>");
+        Assertions.assertFalse(index.isMatchedByTagOnly(document.childNodes().get(0)));
+    }
+
+    @Test
+    public void semicolonAtRuleKeepsStylesSharedTest() {
+        CssRuleSetIndex index = new CssRuleSetIndex(CssStyleSheetParser.parse(
+                "@charset \"UTF-8\"; @import url(missing.css); span { color: red }"),
+                MediaDeviceDescription.createDefault());
+        INode element = new JsoupHtmlParser().parse("<span>a</span>").childNodes().get(0);
+        Assertions.assertTrue(index.isMatchedByTagOnly(element));
+        Assertions.assertEquals(CssRuleSetIndex.StyleSharingScope.ANY, index.getStyleSharingScope(element));
+    }
+
+    private static void collectNodes(INode node, List<INode> nodes) {
+        nodes.add(node);
+        if (node instanceof IElementNode) {
+            nodes.add(new CssPseudoElementNode(node, "before"));
+            nodes.add(new CssPseudoElementNode(node, "after"));
+        }
+        for (INode child : node.childNodes()) {
+            collectNodes(child, nodes);
+        }
+    }
+}
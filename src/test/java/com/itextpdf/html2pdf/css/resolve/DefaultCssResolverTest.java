@@ -0,0 +1,175 @@
+/*
+    This file is part of the iText (R) project.
+    Copyright (c) 1998-2024 Apryse Group NV
+    Authors: Apryse Software.
+
+    This program is offered under a commercial and under the AGPL license.
+    For commercial licensing, contact us at https://itextpdf.com/sales.  For AGPL licensing, see below.
+
+    AGPL licensing:
+    This program is free software: you can redistribute it and/or modify
+    it under the terms of the GNU Affero General Public License as published by
+    the Free Software Foundation, either version 3 of the License, or
+    (at your option) any later version.
+
+    This program is distributed in the hope that it will be useful,
+    but WITHOUT ANY WARRANTY; without even the implied warranty of
+    MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE.  See the
+    GNU Affero General Public License for more details.
+
+    You should have received a copy of the GNU Affero General Public License
+    along with this program.  If not, see <https://www.gnu.org/licenses/>.
+ */
+package com.itextpdf.html2pdf.css.resolve;
+
+import com.itextpdf.html2pdf.ConverterProperties;
+import com.itextpdf.html2pdf.attach.ProcessorContext;
+import com.itextpdf.html2pdf.css.CssConstants;
+import com.itextpdf.html2pdf.css.resolve.func.counter.CounterDigitsGlyphStyle;
+import com.itextpdf.html2pdf.html.TagConstants;
+import com.itextpdf.styledxmlparser.css.media.MediaDeviceDescription;
+import com.itextpdf.styledxmlparser.node.IDocumentNode;
+import com.itextpdf.styledxmlparser.node.IElementNode;
+import com.itextpdf.styledxmlparser.node.INode;
+import com.itextpdf.styledxmlparser.node.impl.jsoup.JsoupHtmlParser;
+import com.itextpdf.styledxmlparser.resolver.resource.ResourceResolver;
+import com.itextpdf.test.ExtendedITextTest;
+
+import java.io.FileInputStream;
+import java.io.IOException;
+import java.io.InputStream;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Map;
+import org.junit.jupiter.api.Assertions;
+import org.junit.jupiter.api.Tag;
+import org.junit.jupiter.api.Test;
+
+@Tag("UnitTest")
+public class DefaultCssResolverTest extends ExtendedITextTest {
+
+    private static final String SOURCE_FOLDER = "./src/test/resources/com/itextpdf/html2pdf/css/resolve/DefaultCssResolverTest/";
+
+    private static final String HTML = "<html><head><style>"
+            + "html { font-size: 20px } li { color: red; counter-increment: item } li:first-child { color: blue }"
+            + "ul.x li { font-weight: bold } p + p { margin-top: 5px } .c { color: green } span { font-size: 2rem }"
+            + "div > em { font-style: normal }"
+            + "</style></head><body>"
+            + "<ul class='x'><li>a</li><li>b</li><li>c</li></ul><ul><li>d</li><li>e</li></ul>"
+            + "<p>1</p><p>2</p><p style='color: navy'>3</p><p>4</p>"
+            + "<table border='1' cellpadding='3'><tr><td>x</td><td class='c'>y</td></tr>"
+            + "<tr><td>z</td><td class='c'>w</td></tr></table>"
+            + "<div><em>e</em><span>s</span></div><section><em>f</em><span>t</span></section>"
+            + "</body></html>";
+
+    @Test
+    public void sharedStylesAreEqualToResolvedStylesTest() {
+        IDocumentNode document = new JsoupHtmlParser().parse(HTML);
+        DefaultCssResolver resolver = createResolver(document);
+        CssContext context = new CssContext();
+        List<IElementNode> elements = new ArrayList<>();
+        resolveStylesForTree(document, resolver, context, elements);
+
+        for (IElementNode element : elements) {
+            // A new resolver has an empty style sharing cache
+            CssContext referenceContext = new CssContext();
+            referenceContext.setRootFontSize(context.getRootFontSize());
+            Map<String, String> expected = createResolver(document).resolveStyles(element, referenceContext);
+            Assertions.assertEquals(expected, element.getStyles(), element.name());
+        }
+    }
+
+    @Test
+    public void structuralPseudoClassesAreResolvedPerElementTest() {
+        IDocumentNode document = new JsoupHtmlParser().parse(HTML);
+        List<IElementNode> elements = new ArrayList<>();
+        resolveStylesForTree(document, createResolver(document), new CssContext(), elements);
+        List<String> colors = new ArrayList<>();
+        List<String> margins = new ArrayList<>();
+        for (IElementNode element : elements) {
+            if (TagConstants.LI.equals(element.name())) {
+                colors.add(element.getStyles().get(CssConstants.COLOR));
+            } else if (TagConstants.P.equals(element.name())) {
+                margins.add(element.getStyles().get(CssConstants.MARGIN_TOP));
+            }
+        }
+        Assertions.assertEquals("[blue, red, red, blue, red]", colors.toString());
+        Assertions.assertEquals("[1em, 5px, 5px, 5px]", margins.toString());
+    }
+
+    @Test
+    public void sharedStylesAreCopiedTest() {
+        IDocumentNode document = new JsoupHtmlParser().parse("<p>1</p><p>2</p><p>3</p>");
+        DefaultCssResolver resolver = createResolver(document);
+        List<IElementNode> elements = new ArrayList<>();
+        resolveStylesForTree(document, resolver, new CssContext(), elements);
+        IElementNode second = elements.get(elements.size() - 2);
+        IElementNode third = elements.get(elements.size() - 1);
+        Assertions.assertNotSame(second.getStyles(), third.getStyles());
+        second.getStyles().put(CssConstants.COLOR, "red");
+        Assertions.assertNotEquals("red", resolver.resolveStyles(third, new CssContext()).get(CssConstants.COLOR));
+    }
+
+    @Test
+    public void countersAreProcessedForSharedStylesTest() {
+        IDocumentNode document = new JsoupHtmlParser().parse(HTML);
+        CssContext context = new CssContext();
+        resolveStylesForTree(document, createResolver(document), context, new ArrayList<IElementNode>());
+        Assertions.assertEquals("5",
+                context.getCounterManager().resolveCounter("item", CounterDigitsGlyphStyle.DEFAULT));
+    }
+
+    @Test
+    public void compiledStyleSheetCacheSharedBetweenResolversTest() throws IOException {
+        CompiledStyleSheetCache styleSheetCache = new CompiledStyleSheetCache();
+        ConverterProperties converterProperties = new ConverterProperties()
+                .setBaseUri(SOURCE_FOLDER)
+                .setCompiledStyleSheetCache(styleSheetCache);
+
+        Map<String, String> firstStyles = resolveParagraphStyles(converterProperties);
+        Assertions.assertEquals(0, styleSheetCache.getHitCount());
+        Assertions.assertEquals(2, styleSheetCache.getMissCount());
+        Assertions.assertEquals(2, styleSheetCache.getStyleSheetCount());
+
+        Map<String, String> secondStyles = resolveParagraphStyles(converterProperties);
+        Assertions.assertEquals(2, styleSheetCache.getHitCount());
+        Assertions.assertEquals(2, styleSheetCache.getMissCount());
+        Assertions.assertEquals(firstStyles, secondStyles);
+        Assertions.assertEquals("red", secondStyles.get(CssConstants.COLOR));
+        Assertions.assertEquals("bold", secondStyles.get(CssConstants.FONT_WEIGHT));
+    }
+
+    private static Map<String, String> resolveParagraphStyles(ConverterProperties converterProperties)
+            throws IOException {
+        IDocumentNode document;
+        try (InputStream stream = new FileInputStream(SOURCE_FOLDER + "linkedStyleSheet.html")) {
+            document = new JsoupHtmlParser().parse(stream, "UTF-8");
+        }
+        ProcessorContext context = new ProcessorContext(converterProperties);
+        DefaultCssResolver resolver = new DefaultCssResolver(document, context);
+        List<IElementNode> elements = new ArrayList<>();
+        resolveStylesForTree(document, resolver, context.getCssContext(), elements);
+        for (IElementNode element : elements) {
+            if (TagConstants.P.equals(element.name())) {
+                return element.getStyles();
+            }
+        }
+        return null;
+    }
+
+    private static DefaultCssResolver createResolver(IDocumentNode document) {
+        return new DefaultCssResolver(document, MediaDeviceDescription.createDefault(), new ResourceResolver(""));
+    }
+
+    private static void resolveStylesForTree(INode node, DefaultCssResolver resolver, CssContext context,
+            List<IElementNode> elements) {
+        if (node instanceof IElementNode) {
+            IElementNode element = (IElementNode) node;
+            element.setStyles(resolver.resolveStyles(element, context));
+            elements.add(element);
+        }
+        for (INode child : node.childNodes()) {
+            resolveStylesForTree(child, resolver, context, elements);
+        }
+    }
+}
@@ -0,0 +1,115 @@
+/*
+    This file is part of the iText (R) project.
+    Copyright (c) 1998-2024 Apryse Group NV
+    Authors: Apryse Software.
+
+    This program is offered under a commercial and under the AGPL license.
+    For commercial licensing, contact us at https://itextpdf.com/sales.  For AGPL licensing, see below.
+
+    AGPL licensing:
+    This program is free software: you can redistribute it and/or modify
+    it under the terms of the GNU Affero General Public License as published by
+    the Free Software Foundation, either version 3 of the License, or
+    (at your option) any later version.
+
+    This program is distributed in the hope that it will be useful,
+    but WITHOUT ANY WARRANTY; without even the implied warranty of
+    MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE.  See the
+    GNU Affero General Public License for more details.
+
+    You should have received a copy of the GNU Affero General Public License
+    along with this program.  If not, see <https://www.gnu.org/licenses/>.
+ */
+package com.itextpdf.html2pdf.css.resolve;
+
+import com.itextpdf.html2pdf.html.TagConstants;
+import com.itextpdf.io.util.ResourceUtil;
+import com.itextpdf.styledxmlparser.css.CssDeclaration;
+import com.itextpdf.styledxmlparser.css.CssStyleSheet;
+import com.itextpdf.styledxmlparser.css.media.MediaDeviceDescription;
+import com.itextpdf.styledxmlparser.css.parse.CssStyleSheetParser;
+import com.itextpdf.styledxmlparser.css.pseudo.CssPseudoElementNode;
+import com.itextpdf.styledxmlparser.node.IDocumentNode;
+import com.itextpdf.styledxmlparser.node.IElementNode;
+import com.itextpdf.styledxmlparser.node.INode;
+import com.itextpdf.styledxmlparser.node.impl.jsoup.JsoupHtmlParser;
+import com.itextpdf.test.ExtendedITextTest;
+
+import java.io.IOException;
+import java.util.ArrayList;
+import java.util.List;
+import org.junit.jupiter.api.Assertions;
+import org.junit.jupiter.api.Tag;
+import org.junit.jupiter.api.Test;
+
+@Tag("UnitTest")
+public class UserAgentCssTest extends ExtendedITextTest {
+
+    private static final String HTML = "<html><head><title>t</title></head><body>"
+            + "<h1>Header</h1><p class='a b'>Para <b>bold</b> <q>quote</q> <abbr title='x'>abbr</abbr></p>"
+            + "<a href='#x'>link</a><a>anchor</a><blockquote type='cite'>cite</blockquote><hr/>"
+            + "<ul><li>one</li><li>two</li></ul><ol><li>three</li></ol><img align='left' src='x.png'/>"
+            + "<table><thead><tr><th>h</th></tr></thead><tbody><tr><td>d</td></tr></tbody></table>"
+            + "<form><input/><input type='radio'/><input type='checkbox'/><input type='submit'/>"
+            + "<input type='text'/><button>b</button><select><optgroup label='g'><option>o</option>"
+            + "</optgroup></select><textarea>t</textarea></form><pre>pre</pre><code>c</code>"
+            + "<custom-tag>custom</custom-tag></body></html>";
+
+    @Test
+    public void indexedStylesMatchFullStylesheetTest() throws IOException {
+        CssStyleSheet defaultCss = CssStyleSheetParser.parse(
+                ResourceUtil.getResourceStream("com/itextpdf/html2pdf/default.css"));
+        IDocumentNode document = new JsoupHtmlParser().parse(HTML);
+        List<INode> nodes = new ArrayList<>();
+        collectNodes(document, nodes);
+        for (INode node : nodes) {
+            List<CssDeclaration> expected = defaultCss.getCssDeclarations(node,
+                    MediaDeviceDescription.createDefault());
+            Assertions.assertEquals(expected.toString(), UserAgentCss.getStyles(node).toString(), node.toString());
+            // The second lookup is served from the per-tag cache where applicable
+            Assertions.assertEquals(expected.toString(), UserAgentCss.getStyles(node).toString(), node.toString());
+        }
+    }
+
+    @Test
+    public void pseudoElementStylesTest() {
+        IDocumentNode document = new JsoupHtmlParser().parse("<q>quote</q>");
+        IElementNode q = findElement(document, TagConstants.Q);
+        List<CssDeclaration> styles = UserAgentCss.getStyles(new CssPseudoElementNode(q, "before"));
+        Assertions.assertEquals("[content: open-quote]", styles.toString());
+    }
+
+    @Test
+    public void cachedStylesAreCopiedTest() {
+        IDocumentNode document = new JsoupHtmlParser().parse("<h2>header</h2>");
+        IElementNode h2 = findElement(document, TagConstants.H2);
+        List<CssDeclaration> styles = UserAgentCss.getStyles(h2);
+        Assertions.assertFalse(styles.isEmpty());
+        styles.clear();
+        Assertions.assertFalse(UserAgentCss.getStyles(h2).isEmpty());
+    }
+
+    private static void collectNodes(INode node, List<INode> nodes) {
+        nodes.add(node);
+        if (node instanceof IElementNode) {
+            nodes.add(new CssPseudoElementNode(node, "before"));
+            nodes.add(new CssPseudoElementNode(node, "after"));
+        }
+        for (INode child : node.childNodes()) {
+            collectNodes(child, nodes);
+        }
+    }
+
+    private static IElementNode findElement(INode node, String name) {
+        if (node instanceof IElementNode && name.equals(((IElementNode) node).name())) {
+            return (IElementNode) node;
+        }
+        for (INode child : node.childNodes()) {
+            IElementNode element = findElement(child, name);
+            if (element != null) {
+                return element;
+            }
+        }
+        return null;
+    }
+}
@@ -26,6 +26,10 @@ import com.itextpdf.html2pdf.ConverterProperties;
 import com.itextpdf.html2pdf.HtmlConverter;
 import com.itextpdf.html2pdf.logs.Html2PdfLogMessageConstant;
 import com.itextpdf.kernel.pdf.PdfDocument;
+import com.itextpdf.kernel.pdf.PdfName;
+import com.itextpdf.kernel.pdf.PdfObject;
+import com.itextpdf.kernel.pdf.PdfReader;
+import com.itextpdf.kernel.pdf.PdfStream;
 import com.itextpdf.kernel.pdf.PdfWriter;
 import com.itextpdf.kernel.utils.CompareTool;
 import com.itextpdf.layout.logs.LayoutLogMessageConstant;
@@ -38,6 +42,8 @@ import org.junit.jupiter.api.Assertions;
 import org.junit.jupiter.api.BeforeAll;
 import org.junit.jupiter.api.Test;
 import org.junit.jupiter.api.Tag;
+import java.io.ByteArrayInputStream;
+import java.io.ByteArrayOutputStream;
 import java.io.File;
 import java.io.IOException;
 
@@ -343,4 +349,27 @@ public class SvgTest extends ExtendedITextTest {
         Assertions.assertNull(new CompareTool().compareByContent(destinationFolder + name + ".pdf", sourceFolder + "cmp_" + name + ".pdf", destinationFolder, "diff_" + name + "_"));
     }
 
+    @Test
+    public void identicalInlineSvgsShareXObjectTest() throws IOException {
+        StringBuilder html = new StringBuilder("<html><body><table>");
+        for (int i = 0; i < 50; i++) {
+            html.append("<tr><td>row ").append(i).append("</td><td><svg xmlns='http://www.w3.org/2000/svg' ")
+                    .append("width='10' height='10'><circle cx='5' cy='5' r='4' fill='green'/></svg></td></tr>");
+        }
+        html.append("</table></body></html>");
+
+        ByteArrayOutputStream out = new ByteArrayOutputStream();
+        HtmlConverter.convertToPdf(html.toString(), out);
+
+        try (PdfDocument pdfDocument = new PdfDocument(new PdfReader(new ByteArrayInputStream(out.toByteArray())))) {
+            int formCount = 0;
+            for (int i = 1; i < pdfDocument.getNumberOfPdfObjects(); i++) {
+                PdfObject object = pdfDocument.getPdfObject(i);
+                if (object instanceof PdfStream && PdfName.Form.equals(((PdfStream) object).getAsName(PdfName.Subtype))) {
+                    formCount++;
+                }
+            }
+            Assertions.assertEquals(1, formCount);
+        }
+    }
 }
@@ -24,19 +24,35 @@ package com.itextpdf.html2pdf.element;
 
 import com.itextpdf.html2pdf.ConverterProperties;
 import com.itextpdf.html2pdf.HtmlConverter;
+import com.itextpdf.html2pdf.attach.ITagWorker;
+import com.itextpdf.html2pdf.attach.ProcessorContext;
+import com.itextpdf.html2pdf.attach.impl.DefaultTagWorkerFactory;
+import com.itextpdf.html2pdf.attach.impl.tags.TableTagWorker;
+import com.itextpdf.html2pdf.css.apply.ICssApplier;
+import com.itextpdf.html2pdf.css.apply.impl.DefaultCssApplierFactory;
+import com.itextpdf.html2pdf.css.apply.impl.TableTagCssApplier;
+import com.itextpdf.html2pdf.html.TagConstants;
 import com.itextpdf.html2pdf.logs.Html2PdfLogMessageConstant;
 import com.itextpdf.io.logs.IoLogMessageConstant;
 import com.itextpdf.io.util.UrlUtil;
 import com.itextpdf.kernel.exceptions.PdfException;
 import com.itextpdf.kernel.geom.PageSize;
+import com.itextpdf.kernel.pdf.PdfArray;
 import com.itextpdf.kernel.pdf.PdfDocument;
+import com.itextpdf.kernel.pdf.PdfName;
+import com.itextpdf.kernel.pdf.PdfObject;
+import com.itextpdf.kernel.pdf.PdfReader;
+import com.itextpdf.kernel.pdf.PdfString;
 import com.itextpdf.kernel.pdf.PdfWriter;
+import com.itextpdf.kernel.pdf.canvas.parser.PdfTextExtractor;
 import com.itextpdf.kernel.utils.CompareTool;
 import com.itextpdf.layout.Document;
 import com.itextpdf.layout.element.IBlockElement;
 import com.itextpdf.layout.element.IElement;
 import com.itextpdf.layout.element.Table;
 import com.itextpdf.layout.logs.LayoutLogMessageConstant;
+import com.itextpdf.styledxmlparser.node.IElementNode;
+import com.itextpdf.styledxmlparser.node.IStylesContainer;
 import com.itextpdf.test.ExtendedITextTest;
 import com.itextpdf.test.annotations.LogMessage;
 import com.itextpdf.test.annotations.LogMessages;
@@ -51,6 +67,7 @@ import java.io.FileInputStream;
 import java.io.FileOutputStream;
 import java.io.IOException;
 import java.util.List;
+import java.util.Map;
 
 @Tag("IntegrationTest")
 public class TableTest extends ExtendedITextTest {
@@ -636,6 +653,113 @@ public class TableTest extends ExtendedITextTest {
         runTest("emptyRowElimination2");
     }
 
+    @Test
+    public void largeTableTest() throws IOException, InterruptedException {
+        String testName = "largeTable";
+        String outPdf = destinationFolder + testName + ".pdf";
+        String notFlushedPdf = destinationFolder + testName + "NotFlushed.pdf";
+        HtmlConverter.convertToPdf(new FileInputStream(sourceFolder + testName + ".html"), new PdfWriter(outPdf),
+                new ConverterProperties().setBaseUri(sourceFolder).setLargeTableFlushInterval(50));
+        HtmlConverter.convertToPdf(new FileInputStream(sourceFolder + testName + ".html"),
+                new PdfWriter(notFlushedPdf), new ConverterProperties().setBaseUri(sourceFolder));
+
+        try (PdfDocument outDocument = new PdfDocument(new PdfReader(outPdf));
+                PdfDocument notFlushedDocument = new PdfDocument(new PdfReader(notFlushedPdf))) {
+            Assertions.assertEquals(notFlushedDocument.getNumberOfPages(), outDocument.getNumberOfPages());
+            for (int i = 1; i <= outDocument.getNumberOfPages(); i++) {
+                Assertions.assertEquals(PdfTextExtractor.getTextFromPage(notFlushedDocument.getPage(i)),
+                        PdfTextExtractor.getTextFromPage(outDocument.getPage(i)));
+            }
+        }
+        Assertions.assertNull(new CompareTool().compareByContent(outPdf, sourceFolder + "cmp_" + testName + ".pdf",
+                destinationFolder, "diff_" + testName));
+    }
+
+    @Test
+    public void largeTableCssIsAppliedOnceTest() throws IOException {
+        String testName = "largeTable";
+        final int[] tableApplierCalls = new int[1];
+        ConverterProperties properties = new ConverterProperties().setBaseUri(sourceFolder)
+                .setLargeTableFlushInterval(50)
+                .setCssApplierFactory(new DefaultCssApplierFactory() {
+                    @Override
+                    public ICssApplier getCustomCssApplier(IElementNode tag) {
+                        if (!TagConstants.TABLE.equals(tag.name())) {
+                            return null;
+                        }
+                        return new TableTagCssApplier() {
+                            @Override
+                            public void apply(ProcessorContext context, IStylesContainer stylesContainer,
+                                    ITagWorker tagWorker) {
+                                tableApplierCalls[0]++;
+                                super.apply(context, stylesContainer, tagWorker);
+                            }
+                        };
+                    }
+                });
+        HtmlConverter.convertToPdf(new FileInputStream(sourceFolder + testName + ".html"),
+                new PdfWriter(destinationFolder + testName + "CssAppliedOnce.pdf"), properties);
+
+        // the borders, the margins and the width of the large table are applied before its first rows are flushed
+        Assertions.assertEquals(1, tableApplierCalls[0]);
+    }
+
+    @Test
+    public void largeTableDestinationTest() throws IOException {
+        StringBuilder html = new StringBuilder("<a href='#largeTable'>link</a><table id='largeTable'>");
+        for (int i = 0; i < 200; i++) {
+            html.append("<tr><td>row ").append(i).append("</td></tr>");
+        }
+        html.append("</table>");
+        String outPdf = destinationFolder + "largeTableDestination.pdf";
+        HtmlConverter.convertToPdf(html.toString(), new PdfWriter(outPdf),
+                new ConverterProperties().setLargeTableFlushInterval(50));
+
+        try (PdfDocument outDocument = new PdfDocument(new PdfReader(outPdf))) {
+            Assertions.assertTrue(outDocument.getNumberOfPages() > 1);
+            Map<PdfString, PdfObject> destinations = outDocument.getCatalog().getNameTree(PdfName.Dests).getNames();
+            PdfObject destination = destinations.get(new PdfString("largeTable"));
+            Assertions.assertNotNull(destination);
+            // the destination points to the page the table starts on rather than to the one it ends on
+            Assertions.assertEquals(outDocument.getPage(1).getPdfObject(), ((PdfArray) destination).get(0));
+        }
+    }
+
+    @Test
+    public void largeTableFollowingRowsWithMoreColumnsTest() throws IOException {
+        StringBuilder html = new StringBuilder("<table>");
+        for (int i = 0; i < 100; i++) {
+            html.append("<tr><td>a").append(i).append("</td><td>b").append(i).append("</td>");
+            if (i >= 75) {
+                html.append("<td>c").append(i).append("</td>");
+            }
+            html.append("</tr>");
+        }
+        html.append("<tr><td colspan='4'>d</td></tr></table>");
+        final Table[] largeTable = new Table[1];
+        ConverterProperties properties = new ConverterProperties().setLargeTableFlushInterval(50)
+                .setTagWorkerFactory(new DefaultTagWorkerFactory() {
+                    @Override
+                    public ITagWorker getCustomTagWorker(IElementNode tag, ProcessorContext context) {
+                        if (!TagConstants.TABLE.equals(tag.name())) {
+                            return null;
+                        }
+                        return new TableTagWorker(tag, context) {
+                            @Override
+                            public void processEnd(IElementNode element, ProcessorContext context) {
+                                super.processEnd(element, context);
+                                largeTable[0] = (Table) getElementResult();
+                            }
+                        };
+                    }
+                });
+        HtmlConverter.convertToPdf(html.toString(),
+                new PdfWriter(destinationFolder + "largeTableFollowingRowsWithMoreColumns.pdf"), properties);
+
+        // the columns spanned by the rows which are converted after the first flush are reserved beforehand
+        Assertions.assertEquals(4, largeTable[0].getNumberOfColumns());
+    }
+
     private void runTest(String testName) throws IOException, InterruptedException {
         runTest(testName, false);
     }
@@ -0,0 +1,126 @@
+/*
+    This file is part of the iText (R) project.
+    Copyright (c) 1998-2024 Apryse Group NV
+    Authors: Apryse Software.
+
+    This program is offered under a commercial and under the AGPL license.
+    For commercial licensing, contact us at https://itextpdf.com/sales.  For AGPL licensing, see below.
+
+    AGPL licensing:
+    This program is free software: you can redistribute it and/or modify
+    it under the terms of the GNU Affero General Public License as published by
+    the Free Software Foundation, either version 3 of the License, or
+    (at your option) any later version.
+
+    This program is distributed in the hope that it will be useful,
+    but WITHOUT ANY WARRANTY; without even the implied warranty of
+    MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE.  See the
+    GNU Affero General Public License for more details.
+
+    You should have received a copy of the GNU Affero General Public License
+    along with this program.  If not, see <https://www.gnu.org/licenses/>.
+ */
+package com.itextpdf.html2pdf.html;
+
+import com.itextpdf.styledxmlparser.node.IDocumentNode;
+import com.itextpdf.styledxmlparser.node.IElementNode;
+import com.itextpdf.styledxmlparser.node.INode;
+import com.itextpdf.styledxmlparser.node.ITextNode;
+import com.itextpdf.test.ExtendedITextTest;
+
+import java.io.ByteArrayInputStream;
+import java.io.IOException;
+import java.nio.charset.StandardCharsets;
+import java.util.List;
+import org.junit.jupiter.api.Assertions;
+import org.junit.jupiter.api.Tag;
+import org.junit.jupiter.api.Test;
+
+@Tag("UnitTest")
+public class StreamingHtmlParserTest extends ExtendedITextTest {
+
+    private static final String HTML = "<html><head><style>p{color:red}</style></head>"
+            + "<body>text<div id='first'><p>paragraph <b>bold</b></p></div><p class='second'>second</p></body></html>";
+
+    @Test
+    public void bodyChildrenAreReleasableTest() {
+        IElementNode body = findBody(new StreamingHtmlParser().parse(HTML));
+        List<INode> children = body.childNodes();
+
+        Assertions.assertEquals(3, children.size());
+        Assertions.assertTrue(children.get(0) instanceof ITextNode);
+        Assertions.assertSame(body, children.get(0).parentNode());
+        Assertions.assertTrue(children.get(1) instanceof ReleasableElementNode);
+        Assertions.assertSame(body, children.get(1).parentNode());
+        Assertions.assertEquals("first", ((IElementNode) children.get(1)).getAttribute("id"));
+        Assertions.assertTrue(children.get(2) instanceof ReleasableElementNode);
+    }
+
+    @Test
+    public void materializedSubtreeIsKeptTest() {
+        IElementNode body = findBody(new StreamingHtmlParser().parse(HTML));
+        ReleasableElementNode div = (ReleasableElementNode) body.childNodes().get(1);
+
+        div.materialize();
+        INode p = div.childNodes().get(0);
+        Assertions.assertSame(p, div.childNodes().get(0));
+        Assertions.assertSame(div, p.parentNode());
+        INode b = p.childNodes().get(1);
+        Assertions.assertEquals("b", ((IElementNode) b).name());
+        Assertions.assertSame(p, b.parentNode());
+
+        div.dematerialize();
+        Assertions.assertNotSame(p, div.childNodes().get(0));
+        Assertions.assertEquals("p", ((IElementNode) div.childNodes().get(0)).name());
+    }
+
+    @Test
+    public void requestedSubtreeIsWrappedOnceTest() {
+        IElementNode body = findBody(new StreamingHtmlParser().parse(HTML));
+        ReleasableElementNode div = (ReleasableElementNode) body.childNodes().get(1);
+
+        INode p = div.childNodes().get(0);
+        Assertions.assertSame(p, div.childNodes().get(0));
+        Assertions.assertSame(div, p.parentNode());
+
+        div.release();
+        Assertions.assertTrue(div.childNodes().isEmpty());
+    }
+
+    @Test
+    public void releasedSubtreeIsDroppedTest() {
+        IElementNode body = findBody(new StreamingHtmlParser().parse(HTML));
+        ReleasableElementNode div = (ReleasableElementNode) body.childNodes().get(1);
+        div.materialize();
+        div.release();
+
+        Assertions.assertTrue(div.isReleased());
+        Assertions.assertTrue(div.childNodes().isEmpty());
+        Assertions.assertEquals("div", div.name());
+        Assertions.assertEquals("first", div.getAttribute("id"));
+
+        div.materialize();
+        Assertions.assertTrue(div.childNodes().isEmpty());
+    }
+
+    @Test
+    public void parseStreamTest() throws IOException {
+        IDocumentNode document = new StreamingHtmlParser().parse(
+                new ByteArrayInputStream(HTML.getBytes(StandardCharsets.UTF_8)), "UTF-8");
+        IElementNode body = findBody(document);
+
+        Assertions.assertEquals(3, body.childNodes().size());
+        IElementNode html = (IElementNode) body.parentNode();
+        Assertions.assertEquals("html", html.name());
+        Assertions.assertEquals("head", ((IElementNode) html.childNodes().get(0)).name());
+    }
+
+    private static IElementNode findBody(IDocumentNode document) {
+        for (INode htmlChild : document.childNodes().get(0).childNodes()) {
+            if (htmlChild instanceof IElementNode && "body".equals(((IElementNode) htmlChild).name())) {
+                return (IElementNode) htmlChild;
+            }
+        }
+        return null;
+    }
+}
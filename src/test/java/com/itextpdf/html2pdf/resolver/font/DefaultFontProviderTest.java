@@ -0,0 +1,99 @@
+/*
+    This file is part of the iText (R) project.
+    Copyright (c) 1998-2024 Apryse Group NV
+    Authors: Apryse Software.
+
+    This program is offered under a commercial and under the AGPL license.
+    For commercial licensing, contact us at https://itextpdf.com/sales.  For AGPL licensing, see below.
+
+    AGPL licensing:
+    This program is free software: you can redistribute it and/or modify
+    it under the terms of the GNU Affero General Public License as published by
+    the Free Software Foundation, either version 3 of the License, or
+    (at your option) any later version.
+
+    This program is distributed in the hope that it will be useful,
+    but WITHOUT ANY WARRANTY; without even the implied warranty of
+    MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE.  See the
+    GNU Affero General Public License for more details.
+
+    You should have received a copy of the GNU Affero General Public License
+    along with this program.  If not, see <https://www.gnu.org/licenses/>.
+ */
+package com.itextpdf.html2pdf.resolver.font;
+
+import com.itextpdf.io.font.FontProgram;
+import com.itextpdf.kernel.font.PdfFont;
+import com.itextpdf.kernel.pdf.PdfDocument;
+import com.itextpdf.kernel.pdf.PdfWriter;
+import com.itextpdf.layout.font.FontCharacteristics;
+import com.itextpdf.layout.font.FontInfo;
+import com.itextpdf.test.ExtendedITextTest;
+
+import java.io.ByteArrayOutputStream;
+import java.io.IOException;
+import java.util.Collection;
+import java.util.Collections;
+import org.junit.jupiter.api.Assertions;
+import org.junit.jupiter.api.Tag;
+import org.junit.jupiter.api.Test;
+
+@Tag("UnitTest")
+public class DefaultFontProviderTest extends ExtendedITextTest {
+
+    @Test
+    public void shippedFontIsParsedOnceTest() throws IOException {
+        FontProgram first = ShippedFontsCache.getShippedFont(DefaultFontProvider.SHIPPED_FONT_NAMES[0]);
+        FontProgram second = ShippedFontsCache.getShippedFont(DefaultFontProvider.SHIPPED_FONT_NAMES[0]);
+
+        Assertions.assertSame(first, second);
+    }
+
+    @Test
+    public void allShippedFontsRegisteredTest() {
+        DefaultFontProvider fontProvider = new DefaultFontProvider(false, true, false);
+
+        Assertions.assertEquals(DefaultFontProvider.SHIPPED_FONT_NAMES.length, fontProvider.getFontSet().size());
+        Collection<FontInfo> notoSans = fontProvider.getFontSet().get("notosans-regular");
+        Assertions.assertEquals(1, notoSans.size());
+    }
+
+    @Test
+    public void providersAreIndependentTest() {
+        DefaultFontProvider first = new DefaultFontProvider(false, true, false);
+        DefaultFontProvider second = new DefaultFontProvider(false, true, false);
+
+        first.addStandardPdfFonts();
+
+        Assertions.assertNotEquals(first.getFontSet().size(), second.getFontSet().size());
+        Assertions.assertEquals(DefaultFontProvider.SHIPPED_FONT_NAMES.length, second.getFontSet().size());
+    }
+
+    @Test
+    public void lazyProviderRegistersAllShippedFontsTest() {
+        DefaultFontProvider fontProvider = new DefaultFontProvider(false, true, false, "NotoSans", true);
+
+        Assertions.assertTrue(fontProvider.isLazyFontLoading());
+        Assertions.assertEquals(DefaultFontProvider.SHIPPED_FONT_NAMES.length, fontProvider.getFontSet().size());
+        Collection<FontInfo> notoSans = fontProvider.getFontSet().get("notosans-regular");
+        Assertions.assertEquals(1, notoSans.size());
+        Assertions.assertNotNull(notoSans.iterator().next().getFontName());
+    }
+
+    @Test
+    public void lazyProviderCreatesFontOnDemandTest() {
+        DefaultFontProvider fontProvider = new DefaultFontProvider(false, true, false, "NotoSans", true);
+        FontCharacteristics characteristics = new FontCharacteristics();
+        characteristics.setBoldFlag(true);
+
+        try (PdfDocument pdfDocument = new PdfDocument(new PdfWriter(new ByteArrayOutputStream()))) {
+            pdfDocument.addNewPage();
+            FontInfo fontInfo = fontProvider.getFontSelector(Collections.singletonList("NotoSans"), characteristics)
+                    .bestMatch();
+            PdfFont pdfFont = fontProvider.getPdfFont(fontInfo);
+
+            Assertions.assertEquals("NotoSans-Bold", pdfFont.getFontProgram().getFontNames().getFontName());
+            Assertions.assertTrue(pdfFont.containsGlyph('a'));
+        }
+    }
+}
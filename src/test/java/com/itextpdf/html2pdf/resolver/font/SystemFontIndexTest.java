@@ -0,0 +1,225 @@
+/*
+    This file is part of the iText (R) project.
+    Copyright (c) 1998-2024 Apryse Group NV
+    Authors: Apryse Software.
+
+    This program is offered under a commercial and under the AGPL license.
+    For commercial licensing, contact us at https://itextpdf.com/sales.  For AGPL licensing, see below.
+
+    AGPL licensing:
+    This program is free software: you can redistribute it and/or modify
+    it under the terms of the GNU Affero General Public License as published by
+    the Free Software Foundation, either version 3 of the License, or
+    (at your option) any later version.
+
+    This program is distributed in the hope that it will be useful,
+    but WITHOUT ANY WARRANTY; without even the implied warranty of
+    MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE.  See the
+    GNU Affero General Public License for more details.
+
+    You should have received a copy of the GNU Affero General Public License
+    along with this program.  If not, see <https://www.gnu.org/licenses/>.
+ */
+package com.itextpdf.html2pdf.resolver.font;
+
+import com.itextpdf.io.util.StreamUtil;
+import com.itextpdf.layout.font.FontCharacteristics;
+import com.itextpdf.test.ExtendedITextTest;
+
+import java.io.DataOutputStream;
+import java.io.File;
+import java.io.FileOutputStream;
+import java.io.IOException;
+import java.io.InputStream;
+import java.io.OutputStream;
+import java.nio.ByteBuffer;
+import java.util.Arrays;
+import java.util.Collections;
+import org.junit.jupiter.api.Assertions;
+import org.junit.jupiter.api.BeforeAll;
+import org.junit.jupiter.api.Tag;
+import org.junit.jupiter.api.Test;
+
+@Tag("IntegrationTest")
+public class SystemFontIndexTest extends ExtendedITextTest {
+
+    private static final String DESTINATION_FOLDER = "./target/test/com/itextpdf/html2pdf/resolver/font/SystemFontIndexTest/";
+
+    @BeforeAll
+    public static void beforeClass() {
+        createOrClearDestinationFolder(DESTINATION_FOLDER);
+    }
+
+    @Test
+    public void onlyChangedFontsAreReadTest() throws IOException {
+        String fontsFolder = createFontsFolder("changedFonts/");
+        String indexFile = DESTINATION_FOLDER + "changedFonts.idx";
+        new File(indexFile).delete();
+
+        SystemFontIndex index = new SystemFontIndex(indexFile, fontsFolder);
+        Assertions.assertEquals(3, index.refresh());
+        Assertions.assertEquals(3, index.size());
+        Assertions.assertTrue(new File(indexFile).isFile());
+
+        SystemFontIndex restoredIndex = new SystemFontIndex(indexFile, fontsFolder);
+        Assertions.assertEquals(0, restoredIndex.refresh());
+        Assertions.assertEquals(3, restoredIndex.size());
+        Assertions.assertEquals(1, restoredIndex.getFontPaths("Noto Sans").size());
+        Assertions.assertEquals(1, restoredIndex.getFontPaths("notoserif-bold").size());
+
+        File changedFont = new File(fontsFolder + "NotoSerif-Bold.ttf");
+        Assertions.assertTrue(changedFont.setLastModified(changedFont.lastModified() - 60000));
+        Assertions.assertEquals(1, new SystemFontIndex(indexFile, fontsFolder).refresh());
+    }
+
+    @Test
+    public void invalidFontIsNotReadAgainTest() throws IOException {
+        String fontsFolder = createFontsFolder("invalidFont/");
+        String indexFile = DESTINATION_FOLDER + "invalidFont.idx";
+        new File(indexFile).delete();
+
+        new SystemFontIndex(indexFile, fontsFolder).refresh();
+        SystemFontIndex index = new SystemFontIndex(indexFile, fontsFolder);
+
+        Assertions.assertEquals(0, index.refresh());
+        Assertions.assertTrue(index.getFontPaths("invalid").isEmpty());
+    }
+
+    @Test
+    public void corruptedIndexIsRebuiltTest() throws IOException {
+        String fontsFolder = createFontsFolder("corruptedIndex/");
+        String indexFile = DESTINATION_FOLDER + "corruptedIndex.idx";
+        try (OutputStream stream = new FileOutputStream(indexFile)) {
+            stream.write(new byte[] {0, 5, 'i', 'n', 'd', 'e', 'x'});
+        }
+
+        SystemFontIndex index = new SystemFontIndex(indexFile, fontsFolder);
+
+        Assertions.assertEquals(3, index.refresh());
+        Assertions.assertEquals(0, new SystemFontIndex(indexFile, fontsFolder).refresh());
+    }
+
+    @Test
+    public void fontsOfCollectionAreIndexedTest() throws IOException {
+        String fontsFolder = DESTINATION_FOLDER + "collection/";
+        createDestinationFolder(fontsFolder);
+        writeFontCollection(fontsFolder + "fonts.ttc", "NotoSans-Regular.ttf", "NotoSerif-Bold.ttf");
+        String indexFile = DESTINATION_FOLDER + "collection.idx";
+        new SystemFontIndex(indexFile, fontsFolder).refresh();
+
+        SystemFontIndex index = new SystemFontIndex(indexFile, fontsFolder);
+        Assertions.assertEquals(0, index.refresh());
+        Assertions.assertEquals(1, index.size());
+        Assertions.assertEquals(Collections.singletonList(fontsFolder + "fonts.ttc,0"),
+                index.getFontPaths("Noto Sans"));
+        Assertions.assertEquals(Collections.singletonList(fontsFolder + "fonts.ttc,1"),
+                index.getFontPaths("NotoSerif-Bold"));
+
+        DefaultFontProvider fontProvider = new DefaultFontProvider(false, false, false);
+        fontProvider.setSystemFontIndex(index);
+        Assertions.assertEquals("NotoSerif-Bold", fontProvider.getFontSelector(
+                Collections.singletonList("Noto Serif"), new FontCharacteristics()).bestMatch()
+                .getDescriptor().getFontName());
+    }
+
+    @Test
+    public void indexWithInvalidCountsIsRebuiltTest() throws IOException {
+        String fontsFolder = createFontsFolder("invalidCounts/");
+        String indexFile = DESTINATION_FOLDER + "invalidCounts.idx";
+        try (DataOutputStream output = new DataOutputStream(new FileOutputStream(indexFile))) {
+            output.writeUTF("pdfHTML system font index");
+            output.writeInt(SystemFontIndex.INDEX_VERSION);
+            output.writeInt(1);
+            output.writeUTF(fontsFolder + "NotoSans-Regular.ttf");
+            output.writeLong(0);
+            output.writeLong(0);
+            output.writeInt(-1);
+        }
+
+        SystemFontIndex index = new SystemFontIndex(indexFile, fontsFolder);
+
+        Assertions.assertEquals(3, index.refresh());
+        Assertions.assertEquals(1, index.getFontPaths("Noto Sans").size());
+    }
+
+    @Test
+    public void indexedFontIsRegisteredOnDemandTest() throws IOException {
+        String fontsFolder = createFontsFolder("onDemand/");
+        String indexFile = DESTINATION_FOLDER + "onDemand.idx";
+        SystemFontIndex index = new SystemFontIndex(indexFile, fontsFolder);
+        index.refresh();
+
+        DefaultFontProvider fontProvider = new DefaultFontProvider(false, false, false);
+        fontProvider.setSystemFontIndex(index);
+        Assertions.assertEquals(0, fontProvider.getFontSet().size());
+
+        fontProvider.getFontSelector(Collections.singletonList("Noto Serif"), new FontCharacteristics());
+        fontProvider.getFontSelector(Collections.singletonList("Noto Serif"), new FontCharacteristics());
+
+        // The registered fonts are kept by the font provider, not in its font set shared by the copies
+        Assertions.assertEquals(0, fontProvider.getFontSet().size());
+        Assertions.assertEquals("NotoSerif-Bold", fontProvider.getFontSelector(
+                Collections.singletonList("Noto Serif"), new FontCharacteristics()).bestMatch()
+                .getDescriptor().getFontName());
+
+        DefaultFontProvider copy = fontProvider.copy();
+        Assertions.assertSame(index, copy.getSystemFontIndex());
+        Assertions.assertEquals("NotoSerif-Bold", copy.getFontSelector(
+                Collections.singletonList("Noto Serif"), new FontCharacteristics()).bestMatch()
+                .getDescriptor().getFontName());
+    }
+
+    private static String createFontsFolder(String name) throws IOException {
+        String fontsFolder = DESTINATION_FOLDER + name;
+        createDestinationFolder(fontsFolder);
+        copyShippedFont("NotoSans-Regular.ttf", fontsFolder);
+        copyShippedFont("NotoSerif-Bold.ttf", fontsFolder);
+        try (OutputStream stream = new FileOutputStream(fontsFolder + "invalid.ttf")) {
+            stream.write(new byte[] {1, 2, 3, 4});
+        }
+        return fontsFolder;
+    }
+
+    /**
+     * Writes a TrueType collection of the shipped fonts: the collection header is followed by the fonts,
+     * whose table offsets are shifted to be relative to the start of the collection.
+     */
+    private static void writeFontCollection(String path, String... fontNames) throws IOException {
+        byte[][] fonts = new byte[fontNames.length][];
+        for (int i = 0; i < fontNames.length; i++) {
+            try (InputStream input = DefaultFontProvider.class.getClassLoader()
+                    .getResourceAsStream(DefaultFontProvider.SHIPPED_FONT_RESOURCE_PATH + fontNames[i])) {
+                byte[] font = StreamUtil.inputStreamToArray(input);
+                fonts[i] = Arrays.copyOf(font, (font.length + 3) & ~3);
+            }
+        }
+        ByteBuffer collection = ByteBuffer.allocate(12 + 4 * fonts.length
+                + Arrays.stream(fonts).mapToInt(font -> font.length).sum());
+        collection.put(new byte[] {'t', 't', 'c', 'f'}).putInt(0x00010000).putInt(fonts.length);
+        int offset = 12 + 4 * fonts.length;
+        for (byte[] font : fonts) {
+            collection.putInt(offset);
+            offset += font.length;
+        }
+        for (byte[] font : fonts) {
+            int fontOffset = collection.position();
+            collection.put(font);
+            int tableCount = collection.getShort(fontOffset + 4) & 0xffff;
+            for (int i = 0; i < tableCount; i++) {
+                int tableOffsetPosition = fontOffset + 12 + 16 * i + 8;
+                collection.putInt(tableOffsetPosition, collection.getInt(tableOffsetPosition) + fontOffset);
+            }
+        }
+        try (OutputStream output = new FileOutputStream(path)) {
+            output.write(collection.array());
+        }
+    }
+
+    private static void copyShippedFont(String fontName, String folder) throws IOException {
+        try (InputStream input = DefaultFontProvider.class.getClassLoader()
+                .getResourceAsStream(DefaultFontProvider.SHIPPED_FONT_RESOURCE_PATH + fontName);
+                OutputStream output = new FileOutputStream(folder + fontName)) {
+            output.write(StreamUtil.inputStreamToArray(input));
+        }
+    }
+}
@@ -22,6 +22,7 @@
  */
 package com.itextpdf.html2pdf.resolver.resource;
 
+import com.itextpdf.commons.utils.Base64;
 import com.itextpdf.html2pdf.ConverterProperties;
 import com.itextpdf.html2pdf.HtmlConverter;
 import com.itextpdf.html2pdf.attach.ProcessorContext;
@@ -33,6 +34,9 @@ import com.itextpdf.io.util.UrlUtil;
 import com.itextpdf.kernel.pdf.PdfDictionary;
 import com.itextpdf.kernel.pdf.PdfDocument;
 import com.itextpdf.kernel.pdf.PdfName;
+import com.itextpdf.kernel.pdf.PdfObject;
+import com.itextpdf.kernel.pdf.PdfReader;
+import com.itextpdf.kernel.pdf.PdfStream;
 import com.itextpdf.kernel.pdf.PdfWriter;
 import com.itextpdf.kernel.pdf.xobject.PdfFormXObject;
 import com.itextpdf.kernel.utils.CompareTool;
@@ -50,10 +54,13 @@ import com.itextpdf.test.ExtendedITextTest;
 import com.itextpdf.test.annotations.LogMessage;
 import com.itextpdf.test.annotations.LogMessages;
 
+import java.io.ByteArrayInputStream;
 import java.io.File;
 import java.io.FileInputStream;
 import java.io.FileOutputStream;
 import java.io.IOException;
+import java.nio.file.Files;
+import java.nio.file.Paths;
 import org.junit.jupiter.api.Assertions;
 import org.junit.jupiter.api.BeforeAll;
 import org.junit.jupiter.api.Test;
@@ -500,6 +507,38 @@ public class HtmlResourceResolverTest extends ExtendedITextTest {
         convertHtmlFileToPdf(SOURCE_FOLDER + "baseHrefViaHtmlStylesheetReferenceTest.html", outPdf, cmpPdf, new ConverterProperties());
     }
 
+    @Test
+    public void identicalImagesAreWrittenOnceTest() throws IOException {
+        String base64 = Base64.encodeBytes(Files.readAllBytes(Paths.get(SOURCE_FOLDER + "image.jpg")));
+        String dataUri = "data:image/jpeg;base64," + base64;
+        String splitDataUri = "data:image/jpeg;base64,\n" + base64.substring(0, 64) + "\n  " + base64.substring(64);
+        // The URL image is reused by the image cache of the resolver, the data URIs by their decoded data
+        String html = "<html><body><img src='image.jpg'/><img src='image.jpg'/><img src='" + dataUri + "'/>"
+                + "<img src='" + dataUri + "'/><img src='" + splitDataUri + "'/></body></html>";
+
+        ByteArrayOutputStream out = new ByteArrayOutputStream();
+        HtmlConverter.convertToPdf(html, out, new ConverterProperties().setBaseUri(SOURCE_FOLDER));
+
+        try (PdfDocument pdfDocument = new PdfDocument(new PdfReader(new ByteArrayInputStream(out.toByteArray())))) {
+            int imageCount = 0;
+            for (int i = 1; i < pdfDocument.getNumberOfPdfObjects(); i++) {
+                PdfObject object = pdfDocument.getPdfObject(i);
+                if (object instanceof PdfStream && PdfName.Image.equals(((PdfStream) object).getAsName(PdfName.Subtype))) {
+                    imageCount++;
+                }
+            }
+            Assertions.assertEquals(2, imageCount);
+        }
+    }
+
+    @Test
+    public void removeWhitespacesTest() {
+        String src = "data:image/png;base64,iVBORw0KGgo=";
+        Assertions.assertSame(src, HtmlResourceResolver.removeWhitespaces(src));
+        Assertions.assertEquals(src, HtmlResourceResolver.removeWhitespaces(" data:image/png;\tbase64,\r\n iVBOR\u000Bw0K\fGgo= "));
+        Assertions.assertEquals("", HtmlResourceResolver.removeWhitespaces(" \n "));
+    }
+
     private void convertHtmlStreamToPdf(String htmlPath, String outPdf, String cmpPdf, String baseUri)
             throws IOException, InterruptedException {
         System.out.println("html: " + UrlUtil.getNormalizedFileUriString(htmlPath) + "\n");
@@ -0,0 +1,94 @@
+/*
+    This file is part of the iText (R) project.
+    Copyright (c) 1998-2024 Apryse Group NV
+    Authors: Apryse Software.
+
+    This program is offered under a commercial and under the AGPL license.
+    For commercial licensing, contact us at https://itextpdf.com/sales.  For AGPL licensing, see below.
+
+    AGPL licensing:
+    This program is free software: you can redistribute it and/or modify
+    it under the terms of the GNU Affero General Public License as published by
+    the Free Software Foundation, either version 3 of the License, or
+    (at your option) any later version.
+
+    This program is distributed in the hope that it will be useful,
+    but WITHOUT ANY WARRANTY; without even the implied warranty of
+    MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE.  See the
+    GNU Affero General Public License for more details.
+
+    You should have received a copy of the GNU Affero General Public License
+    along with this program.  If not, see <https://www.gnu.org/licenses/>.
+ */
+package com.itextpdf.html2pdf.resolver.resource;
+
+import com.itextpdf.commons.utils.Base64;
+import com.itextpdf.html2pdf.ConverterProperties;
+import com.itextpdf.html2pdf.HtmlConverter;
+import com.itextpdf.html2pdf.util.ContentKey;
+import com.itextpdf.io.image.ImageData;
+import com.itextpdf.io.image.ImageDataFactory;
+import com.itextpdf.kernel.pdf.PdfDocument;
+import com.itextpdf.kernel.pdf.PdfReader;
+import com.itextpdf.test.ExtendedITextTest;
+
+import java.io.ByteArrayInputStream;
+import java.io.ByteArrayOutputStream;
+import java.io.IOException;
+import java.nio.file.Files;
+import java.nio.file.Paths;
+import org.junit.jupiter.api.Assertions;
+import org.junit.jupiter.api.Tag;
+import org.junit.jupiter.api.Test;
+
+@Tag("IntegrationTest")
+public class ImageDataCacheTest extends ExtendedITextTest {
+
+    private static final String SOURCE_FOLDER = "./src/test/resources/com/itextpdf/html2pdf/element/ImageTest/";
+
+    private static final String URL = "https://images.example.com/logo.png";
+
+    @Test
+    public void imageSizeIsTheLargerOfSourceAndDecodedDataTest() throws IOException {
+        ImageData imageData = createImageData();
+        int decodedSize = imageData.getData().length;
+        ImageDataCache cache = new ImageDataCache(10, 2L * decodedSize);
+        cache.put(new ContentKey(URL, new byte[] {1}), imageData);
+
+        // the source is smaller than the decoded data, so the decoded data is counted
+        Assertions.assertEquals(decodedSize, cache.getTotalSize());
+
+        cache.put(new ContentKey(URL, new byte[decodedSize + 1]), imageData);
+        // the source is larger than the decoded data, so the source is counted and the first image is evicted
+        Assertions.assertEquals(decodedSize + 1, cache.getTotalSize());
+        Assertions.assertEquals(1, cache.getImageCount());
+        Assertions.assertNotNull(cache.get(new ContentKey(URL, new byte[decodedSize + 1])));
+    }
+
+    @Test
+    public void imagesAreDecodedOnceForAllDocumentsTest() throws IOException {
+        byte[] image = Files.readAllBytes(Paths.get(SOURCE_FOLDER + "pepper.jpg"));
+        String html = "<html><body><img src='placeholder_100x100.png'/>"
+                + "<img src='data:image/jpeg;base64," + Base64.encodeBytes(image) + "'/></body></html>";
+        ImageDataCache cache = new ImageDataCache();
+        ConverterProperties properties = new ConverterProperties()
+                .setBaseUri(SOURCE_FOLDER)
+                .setImageDataCache(cache);
+
+        for (int i = 0; i < 3; i++) {
+            ByteArrayOutputStream out = new ByteArrayOutputStream();
+            HtmlConverter.convertToPdf(html, out, properties);
+            try (PdfDocument pdfDocument = new PdfDocument(new PdfReader(new ByteArrayInputStream(out.toByteArray())))) {
+                Assertions.assertEquals(1, pdfDocument.getNumberOfPages());
+            }
+        }
+
+        Assertions.assertEquals(2, cache.getImageCount());
+        Assertions.assertEquals(2, cache.getMissCount());
+        Assertions.assertEquals(4, cache.getHitCount());
+    }
+
+    private static ImageData createImageData() throws IOException {
+        return ImageDataFactory.create(Files.readAllBytes(Paths.get(SOURCE_FOLDER + "placeholder_100x100.png")));
+    }
+}
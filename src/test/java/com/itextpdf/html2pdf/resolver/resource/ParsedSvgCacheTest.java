@@ -0,0 +1,67 @@
+/*
+    This file is part of the iText (R) project.
+    Copyright (c) 1998-2024 Apryse Group NV
+    Authors: Apryse Software.
+
+    This program is offered under a commercial and under the AGPL license.
+    For commercial licensing, contact us at https://itextpdf.com/sales.  For AGPL licensing, see below.
+
+    AGPL licensing:
+    This program is free software: you can redistribute it and/or modify
+    it under the terms of the GNU Affero General Public License as published by
+    the Free Software Foundation, either version 3 of the License, or
+    (at your option) any later version.
+
+    This program is distributed in the hope that it will be useful,
+    but WITHOUT ANY WARRANTY; without even the implied warranty of
+    MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE.  See the
+    GNU Affero General Public License for more details.
+
+    You should have received a copy of the GNU Affero General Public License
+    along with this program.  If not, see <https://www.gnu.org/licenses/>.
+ */
+package com.itextpdf.html2pdf.resolver.resource;
+
+import com.itextpdf.commons.utils.Base64;
+import com.itextpdf.html2pdf.ConverterProperties;
+import com.itextpdf.html2pdf.HtmlConverter;
+import com.itextpdf.kernel.pdf.PdfDocument;
+import com.itextpdf.kernel.pdf.PdfReader;
+import com.itextpdf.test.ExtendedITextTest;
+
+import java.io.ByteArrayInputStream;
+import java.io.ByteArrayOutputStream;
+import java.io.IOException;
+import java.nio.charset.StandardCharsets;
+import org.junit.jupiter.api.Assertions;
+import org.junit.jupiter.api.Tag;
+import org.junit.jupiter.api.Test;
+
+@Tag("IntegrationTest")
+public class ParsedSvgCacheTest extends ExtendedITextTest {
+
+    private static final String SVG = "<svg xmlns='http://www.w3.org/2000/svg' width='20' height='20'>"
+            + "<circle cx='10' cy='10' r='8' fill='red'/></svg>";
+
+    @Test
+    public void svgIsParsedOnceForAllDocumentsTest() throws IOException {
+        String base64 = Base64.encodeBytes(SVG.getBytes(StandardCharsets.UTF_8));
+        // Different data URIs with the same SVG data are processed once within a document
+        String html = "<html><body><img src='data:image/svg+xml;base64," + base64 + "'/>"
+                + "<img src='data:image/svg+xml;base64, " + base64 + "'/></body></html>";
+        ParsedSvgCache cache = new ParsedSvgCache();
+        ConverterProperties properties = new ConverterProperties().setParsedSvgCache(cache);
+
+        for (int i = 0; i < 3; i++) {
+            ByteArrayOutputStream out = new ByteArrayOutputStream();
+            HtmlConverter.convertToPdf(html, out, properties);
+            try (PdfDocument pdfDocument = new PdfDocument(new PdfReader(new ByteArrayInputStream(out.toByteArray())))) {
+                Assertions.assertEquals(1, pdfDocument.getNumberOfPages());
+            }
+        }
+
+        Assertions.assertEquals(1, cache.getSvgCount());
+        Assertions.assertEquals(1, cache.getMissCount());
+        Assertions.assertEquals(2, cache.getHitCount());
+    }
+}
@@ -0,0 +1,177 @@
+/*
+    This file is part of the iText (R) project.
+    Copyright (c) 1998-2024 Apryse Group NV
+    Authors: Apryse Software.
+
+    This program is offered under a commercial and under the AGPL license.
+    For commercial licensing, contact us at https://itextpdf.com/sales.  For AGPL licensing, see below.
+
+    AGPL licensing:
+    This program is free software: you can redistribute it and/or modify
+    it under the terms of the GNU Affero General Public License as published by
+    the Free Software Foundation, either version 3 of the License, or
+    (at your option) any later version.
+
+    This program is distributed in the hope that it will be useful,
+    but WITHOUT ANY WARRANTY; without even the implied warranty of
+    MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE.  See the
+    GNU Affero General Public License for more details.
+
+    You should have received a copy of the GNU Affero General Public License
+    along with this program.  If not, see <https://www.gnu.org/licenses/>.
+ */
+package com.itextpdf.html2pdf.resolver.resource;
+
+import com.itextpdf.html2pdf.ConverterProperties;
+import com.itextpdf.html2pdf.HtmlConverter;
+import com.itextpdf.styledxmlparser.resolver.resource.DefaultResourceRetriever;
+import com.itextpdf.test.ExtendedITextTest;
+import com.sun.net.httpserver.HttpServer;
+
+import java.io.ByteArrayOutputStream;
+import java.io.IOException;
+import java.io.OutputStream;
+import java.net.InetSocketAddress;
+import java.net.URL;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.nio.file.Paths;
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicInteger;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.Assertions;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Tag;
+import org.junit.jupiter.api.Test;
+
+@Tag("IntegrationTest")
+public class PrefetchingResourceRetrieverTest extends ExtendedITextTest {
+
+    private static final String IMAGE = "./src/test/resources/com/itextpdf/html2pdf/element/ImageTest/"
+            + "placeholder_100x100.png";
+
+    private HttpServer server;
+
+    private ExecutorService serverExecutor;
+
+    private final Map<String, AtomicInteger> requestCounts = new ConcurrentHashMap<>();
+
+    private volatile CountDownLatch concurrentRequests = new CountDownLatch(0);
+
+    @BeforeEach
+    public void startServer() throws IOException {
+        final byte[] image = Files.readAllBytes(Paths.get(IMAGE));
+        server = HttpServer.create(new InetSocketAddress("127.0.0.1", 0), 0);
+        serverExecutor = Executors.newCachedThreadPool();
+        server.setExecutor(serverExecutor);
+        server.createContext("/", exchange -> {
+            String path = exchange.getRequestURI().getPath();
+            requestCounts.computeIfAbsent(path, key -> new AtomicInteger()).incrementAndGet();
+            CountDownLatch latch = concurrentRequests;
+            latch.countDown();
+            try {
+                // Each request waits for the others, so the test only passes if they are sent concurrently
+                latch.await(10, TimeUnit.SECONDS);
+            } catch (InterruptedException e) {
+                Thread.currentThread().interrupt();
+            }
+            byte[] body = path.endsWith(".png") ? image : path.getBytes(StandardCharsets.UTF_8);
+            exchange.sendResponseHeaders(200, body.length);
+            try (OutputStream os = exchange.getResponseBody()) {
+                os.write(body);
+            }
+        });
+        server.start();
+    }
+
+    @AfterEach
+    public void stopServer() {
+        server.stop(0);
+        serverExecutor.shutdownNow();
+    }
+
+    @Test
+    public void resourcesAreFetchedConcurrentlyTest() throws Exception {
+        int resourceCount = 4;
+        concurrentRequests = new CountDownLatch(resourceCount);
+        PrefetchingResourceRetriever retriever =
+                new PrefetchingResourceRetriever(new DefaultResourceRetriever(), resourceCount);
+        List<URL> urls = new ArrayList<>();
+        for (int i = 0; i < resourceCount; i++) {
+            urls.add(createUrl("/resource" + i));
+        }
+
+        retriever.prefetch(urls);
+        Assertions.assertTrue(concurrentRequests.await(10, TimeUnit.SECONDS));
+
+        for (int i = 0; i < resourceCount; i++) {
+            Assertions.assertEquals("/resource" + i,
+                    new String(retriever.getByteArrayByUrl(urls.get(i)), StandardCharsets.UTF_8));
+            Assertions.assertEquals(1, requestCounts.get("/resource" + i).get());
+            // The prefetched data is handed out once, the second request is sent to the server
+            Assertions.assertNotNull(retriever.getInputStreamByUrl(urls.get(i)));
+            Assertions.assertEquals(2, requestCounts.get("/resource" + i).get());
+        }
+    }
+
+    @Test
+    public void clearCancelsOutstandingFetchesTest() throws Exception {
+        // The workers are held back until the prefetch is cleared
+        final List<Runnable> workers = new ArrayList<>();
+        PrefetchingResourceRetriever retriever =
+                new PrefetchingResourceRetriever(new DefaultResourceRetriever(), 1, workers::add);
+        retriever.prefetch(Collections.singletonList(createUrl("/outstanding")));
+        retriever.clear();
+        for (Runnable worker : workers) {
+            worker.run();
+        }
+
+        Assertions.assertEquals(1, workers.size());
+        Assertions.assertNull(requestCounts.get("/outstanding"));
+    }
+
+    @Test
+    public void notPrefetchedResourceIsRetrievedTest() throws Exception {
+        PrefetchingResourceRetriever retriever = new PrefetchingResourceRetriever(new DefaultResourceRetriever(), 2);
+        retriever.prefetch(Collections.singletonList(createUrl("/prefetched")));
+        retriever.clear();
+
+        Assertions.assertEquals("/other",
+                new String(retriever.getByteArrayByUrl(createUrl("/other")), StandardCharsets.UTF_8));
+        Assertions.assertEquals(1, requestCounts.get("/other").get());
+    }
+
+    @Test
+    public void convertWithPrefetchTest() throws Exception {
+        int imageCount = 3;
+        concurrentRequests = new CountDownLatch(imageCount);
+        StringBuilder html = new StringBuilder("<html><body>");
+        for (int i = 0; i < imageCount; i++) {
+            html.append("<img src='img").append(i).append(".png'/>");
+        }
+        html.append("</body></html>");
+        ConverterProperties properties = new ConverterProperties()
+                .setBaseUri(createUrl("/").toExternalForm())
+                .setResourcePrefetchParallelism(imageCount);
+
+        ByteArrayOutputStream out = new ByteArrayOutputStream();
+        HtmlConverter.convertToPdf(html.toString(), out, properties);
+
+        Assertions.assertEquals(0, concurrentRequests.getCount());
+        for (int i = 0; i < imageCount; i++) {
+            Assertions.assertEquals(1, requestCounts.get("/img" + i + ".png").get());
+        }
+    }
+
+    private URL createUrl(String path) throws IOException {
+        return new URL("http", "127.0.0.1", server.getAddress().getPort(), path);
+    }
+}
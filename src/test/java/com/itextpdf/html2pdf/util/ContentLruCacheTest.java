@@ -0,0 +1,124 @@
+/*
+    This file is part of the iText (R) project.
+    Copyright (c) 1998-2024 Apryse Group NV
+    Authors: Apryse Software.
+
+    This program is offered under a commercial and under the AGPL license.
+    For commercial licensing, contact us at https://itextpdf.com/sales.  For AGPL licensing, see below.
+
+    AGPL licensing:
+    This program is free software: you can redistribute it and/or modify
+    it under the terms of the GNU Affero General Public License as published by
+    the Free Software Foundation, either version 3 of the License, or
+    (at your option) any later version.
+
+    This program is distributed in the hope that it will be useful,
+    but WITHOUT ANY WARRANTY; without even the implied warranty of
+    MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE.  See the
+    GNU Affero General Public License for more details.
+
+    You should have received a copy of the GNU Affero General Public License
+    along with this program.  If not, see <https://www.gnu.org/licenses/>.
+ */
+package com.itextpdf.html2pdf.util;
+
+import com.itextpdf.test.ExtendedITextTest;
+
+import org.junit.jupiter.api.Assertions;
+import org.junit.jupiter.api.Tag;
+import org.junit.jupiter.api.Test;
+
+@Tag("UnitTest")
+public class ContentLruCacheTest extends ExtendedITextTest {
+
+    private static final String URL = "https://example.com/resource";
+
+    @Test
+    public void hitAndMissCountTest() {
+        ContentLruCache<String> cache = new ContentLruCache<>(10, 100);
+        ContentKey key = new ContentKey(URL, new byte[] {1, 2, 3});
+
+        Assertions.assertNull(cache.get(key));
+        cache.put(key, "value", 3);
+
+        Assertions.assertEquals("value", cache.get(new ContentKey(URL, new byte[] {1, 2, 3})));
+        Assertions.assertEquals(1, cache.getHitCount());
+        Assertions.assertEquals(1, cache.getMissCount());
+        Assertions.assertEquals(1, cache.getEntryCount());
+        Assertions.assertEquals(3, cache.getTotalSize());
+    }
+
+    @Test
+    public void keyTest() {
+        ContentKey key = new ContentKey(URL, new byte[] {1, 2, 3});
+
+        Assertions.assertEquals(key, new ContentKey(URL, new byte[] {1, 2, 3}));
+        Assertions.assertEquals(key.hashCode(), new ContentKey(URL, new byte[] {1, 2, 3}).hashCode());
+        Assertions.assertNotEquals(key, new ContentKey(URL, new byte[] {1, 2, 4}));
+        Assertions.assertNotEquals(key, new ContentKey("https://example.com/other", new byte[] {1, 2, 3}));
+        Assertions.assertEquals(new ContentKey(null, new byte[] {1}), new ContentKey("", new byte[] {1}));
+        Assertions.assertEquals(3, key.getContentLength());
+    }
+
+    @Test
+    public void leastRecentlyUsedValueIsEvictedTest() {
+        ContentLruCache<String> cache = new ContentLruCache<>(2, 100);
+        cache.put(new ContentKey(URL, new byte[] {1}), "1", 1);
+        cache.put(new ContentKey(URL, new byte[] {2}), "2", 1);
+        cache.get(new ContentKey(URL, new byte[] {1}));
+        cache.put(new ContentKey(URL, new byte[] {3}), "3", 1);
+
+        Assertions.assertEquals(2, cache.getEntryCount());
+        Assertions.assertEquals(1, cache.getEvictionCount());
+        Assertions.assertNotNull(cache.get(new ContentKey(URL, new byte[] {1})));
+        Assertions.assertNull(cache.get(new ContentKey(URL, new byte[] {2})));
+    }
+
+    @Test
+    public void totalSizeLimitTest() {
+        ContentLruCache<String> cache = new ContentLruCache<>(10, 5);
+        cache.put(new ContentKey(URL, new byte[] {1}), "1", 3);
+        cache.put(new ContentKey(URL, new byte[] {2}), "2", 3);
+
+        Assertions.assertEquals(1, cache.getEntryCount());
+        Assertions.assertEquals(3, cache.getTotalSize());
+        Assertions.assertNotNull(cache.get(new ContentKey(URL, new byte[] {2})));
+
+        cache.put(new ContentKey(URL, new byte[] {3}), "3", 6);
+        Assertions.assertEquals(1, cache.getEntryCount());
+        Assertions.assertNull(cache.get(new ContentKey(URL, new byte[] {3})));
+    }
+
+    @Test
+    public void replacedValueSizeIsNotCountedTwiceTest() {
+        ContentLruCache<String> cache = new ContentLruCache<>(10, 100);
+        ContentKey key = new ContentKey(URL, new byte[] {1});
+        cache.put(key, "first", 5);
+        cache.put(key, "second", 7);
+
+        Assertions.assertEquals(1, cache.getEntryCount());
+        Assertions.assertEquals(7, cache.getTotalSize());
+        Assertions.assertEquals("second", cache.get(key));
+    }
+
+    @Test
+    public void clearKeepsStatisticsTest() {
+        ContentLruCache<String> cache = new ContentLruCache<>(10, 100);
+        ContentKey key = new ContentKey(URL, new byte[] {1});
+        cache.put(key, "value", 1);
+        cache.get(key);
+        cache.clear();
+
+        Assertions.assertEquals(0, cache.getEntryCount());
+        Assertions.assertEquals(0, cache.getTotalSize());
+        Assertions.assertNull(cache.get(key));
+        Assertions.assertEquals(1, cache.getHitCount());
+        Assertions.assertEquals(1, cache.getMissCount());
+    }
+
+    @Test
+    public void invalidLimitsTest() {
+        Assertions.assertThrows(IllegalArgumentException.class, () -> new ContentLruCache<String>(0, 10));
+        Assertions.assertThrows(IllegalArgumentException.class, () -> new ContentLruCache<String>(10, 0));
+    }
+}